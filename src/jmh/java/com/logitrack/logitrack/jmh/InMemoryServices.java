@@ -0,0 +1,130 @@
+package com.logitrack.logitrack.jmh;
+
+import com.logitrack.logitrack.dtos.Inventory.ProductAvailability;
+import com.logitrack.logitrack.mapper.PurchaseOrderMapperImpl;
+import com.logitrack.logitrack.mapper.SalesOrderMapperImpl;
+import com.logitrack.logitrack.mapper.ShipmentMapperImpl;
+import com.logitrack.logitrack.models.Inventory;
+import com.logitrack.logitrack.models.Product;
+import com.logitrack.logitrack.models.SalesOrder;
+import com.logitrack.logitrack.repositories.*;
+import com.logitrack.logitrack.services.InventoryService;
+import com.logitrack.logitrack.services.MovementLedger;
+import com.logitrack.logitrack.services.ReferenceDataService;
+import com.logitrack.logitrack.services.SalesOrderService;
+import com.logitrack.logitrack.services.StockSourcingService;
+import com.logitrack.logitrack.services.sourcing.FewestSourcesStrategy;
+import com.logitrack.logitrack.services.sourcing.MostStockFirstStrategy;
+import com.logitrack.logitrack.services.sourcing.NearestLocationStrategy;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Wires the mappers and services over {@link SyntheticData} without Spring or a database.
+ * Repository calls are answered from precomputed maps, and guarded updates always succeed,
+ * so a benchmark measures only the in-memory work around them.
+ */
+class InMemoryServices {
+
+    final SyntheticData data;
+    final ReferenceDataService referenceDataService;
+    final InventoryService inventoryService;
+    final SalesOrderMapperImpl salesOrderMapper;
+    final PurchaseOrderMapperImpl purchaseOrderMapper;
+    final StockSourcingService stockSourcingService;
+    final SalesOrderService salesOrderService;
+    // the order findForTransitionById answers with, set by the benchmark
+    SalesOrder salesOrder;
+
+    private final Map<UUID, ProductAvailability> availability;
+    private final Map<UUID, List<Inventory>> sourcingCandidates = new HashMap<>();
+
+    InMemoryServices(SyntheticData data, String sourcingStrategy) {
+        this.data = data;
+        availability = data.availability(new ArrayList<>(data.productsById.keySet()));
+        UUID destinationId = data.warehouse().getId();
+        data.inventoriesByProduct.forEach((productId, inventories) -> sourcingCandidates.put(productId, inventories.stream()
+                .filter(inv -> !inv.getWarehouse().getId().equals(destinationId))
+                .filter(inv -> inv.getQtyOnHand() - inv.getQtyReserved() > 0)
+                .toList()));
+
+        referenceDataService = new ReferenceDataService(
+                stub(ProductRepository.class, Map.of("findById", args -> Optional.ofNullable(data.productsById.get(args[0])))),
+                stub(WarehouseRepository.class, Map.of("findById", args -> Optional.ofNullable(data.warehousesById.get(args[0])))),
+                stub(CarrierRepository.class, Map.of("findById", args -> Optional.of(data.carrier))));
+
+        Map<UUID, Inventory> stockInWarehouse = new HashMap<>();
+        data.inventoriesByProduct.forEach((productId, inventories) -> stockInWarehouse.put(productId, inventories.get(0)));
+        InventoryRepository inventoryRepository = stub(InventoryRepository.class, Map.of(
+                "findAvailability", args -> ((Collection<?>) args[1]).stream().map(availability::get).toList(),
+                "findByWarehouseIdAndProductIdIn", args -> ((Collection<?>) args[1]).stream().map(stockInWarehouse::get).toList(),
+                "findByWarehouseIdAndProductId", args -> Optional.ofNullable(stockInWarehouse.get(args[1])),
+                "findSourcingCandidates", args -> sourcingCandidates.getOrDefault(args[0], List.of()),
+                "reserveIfAvailable", args -> 1,
+                "withdrawIfAvailable", args -> 1,
+                "receiveReserved", args -> 1));
+        // stub-only: the ledger's buffering and flushing are not part of what these benchmarks measure
+        MovementLedger movementLedger = Mockito.mock(MovementLedger.class, Mockito.withSettings().stubOnly());
+        inventoryService = new InventoryService(inventoryRepository, movementLedger);
+
+        salesOrderMapper = new SalesOrderMapperImpl();
+        ReflectionTestUtils.setField(salesOrderMapper, "clientRepository", stub(ClientRepository.class,
+                Map.of("findById", args -> Optional.of(data.client))));
+        ReflectionTestUtils.setField(salesOrderMapper, "productRepository", stub(ProductRepository.class,
+                Map.of("findAllById", args -> {
+                    List<Product> products = new ArrayList<>();
+                    ((Iterable<?>) args[0]).forEach(id -> products.add(data.productsById.get(id)));
+                    return products;
+                })));
+        ReflectionTestUtils.setField(salesOrderMapper, "referenceDataService", referenceDataService);
+        ReflectionTestUtils.setField(salesOrderMapper, "inventoryService", inventoryService);
+        ReflectionTestUtils.setField(salesOrderMapper, "shipmentMapper", new ShipmentMapperImpl());
+
+        purchaseOrderMapper = new PurchaseOrderMapperImpl();
+        purchaseOrderMapper.setSupplierRepository(stub(SupplierRepository.class,
+                Map.of("findById", args -> Optional.of(data.supplier))));
+        purchaseOrderMapper.setReferenceDataService(referenceDataService);
+
+        stockSourcingService = new StockSourcingService(inventoryRepository, movementLedger,
+                List.of(new MostStockFirstStrategy(), new FewestSourcesStrategy(), new NearestLocationStrategy()));
+        ReflectionTestUtils.setField(stockSourcingService, "strategyName", sourcingStrategy);
+        stockSourcingService.resolveStrategy();
+
+        salesOrderService = new SalesOrderService(
+                stub(SalesOrderRepository.class, Map.of(
+                        "findForTransitionById", args -> Optional.of(salesOrder),
+                        "save", args -> args[0],
+                        "markReserved", args -> 1)),
+                stub(SalesOrderLineRepository.class, Map.of(
+                        "clearBackorder", args -> ((Collection<?>) args[0]).size())),
+                salesOrderMapper, purchaseOrderMapper, null, referenceDataService, movementLedger,
+                inventoryService, stockSourcingService);
+    }
+
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+        }));
+    }
+}
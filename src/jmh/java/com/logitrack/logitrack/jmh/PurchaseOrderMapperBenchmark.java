@@ -0,0 +1,37 @@
+package com.logitrack.logitrack.jmh;
+
+import com.logitrack.logitrack.dtos.PurchaseOrder.PurchaseOrderDTO;
+import com.logitrack.logitrack.models.PurchaseOrder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PurchaseOrderMapperBenchmark {
+
+    @Param({"100", "10000"})
+    int skus;
+
+    @Param({"10", "100"})
+    int lines;
+
+    private InMemoryServices services;
+    private PurchaseOrderDTO purchaseOrderDTO;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(10, skus);
+        services = new InMemoryServices(data, "most-stock");
+        purchaseOrderDTO = data.purchaseOrderDTO(lines);
+    }
+
+    @Benchmark
+    public PurchaseOrder toEntity() {
+        return services.purchaseOrderMapper.toEntity(purchaseOrderDTO);
+    }
+}
@@ -0,0 +1,79 @@
+package com.logitrack.logitrack.jmh;
+
+import com.logitrack.logitrack.models.ENUM.OrderStatus;
+import com.logitrack.logitrack.models.Product;
+import com.logitrack.logitrack.models.SalesOrder;
+import com.logitrack.logitrack.models.SalesOrderLine;
+import com.logitrack.logitrack.models.Warehouse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory side of {@code reserveSalesOrder} and of sourcing backordered lines from
+ * other warehouses: line iteration, candidate ranking by the sourcing strategy, allocation
+ * and response mapping. Every guarded update succeeds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationBenchmark {
+
+    @Param({"most-stock", "fewest-sources", "nearest-location"})
+    String strategy;
+
+    @Param({"10", "100"})
+    int warehouses;
+
+    @Param({"1000"})
+    int skus;
+
+    @Param({"20"})
+    int lines;
+
+    private InMemoryServices services;
+    private SalesOrder salesOrder;
+    private Warehouse destination;
+    private Product product;
+    private int transferQuantity;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(warehouses, skus);
+        services = new InMemoryServices(data, strategy);
+        salesOrder = data.shippedOrder(lines);
+        salesOrder.setShipment(null);
+        services.salesOrder = salesOrder;
+        destination = data.warehouse();
+        product = data.products.get(0);
+        // more than a single source holds, so the allocation walks several candidates
+        transferQuantity = 600;
+    }
+
+    @Benchmark
+    public Object reserveFromWarehouse() {
+        return reserve(false);
+    }
+
+    @Benchmark
+    public Object reserveWithTransfers() {
+        return reserve(true);
+    }
+
+    @Benchmark
+    public Integer transferToWarehouse() {
+        return services.stockSourcingService.transferToWarehouse(destination, product.getId(), transferQuantity);
+    }
+
+    // reserving moves the order out of CREATED and clears satisfied backorders, so both are reset first
+    private Object reserve(boolean backorder) {
+        salesOrder.setStatus(OrderStatus.CREATED);
+        for (SalesOrderLine line : salesOrder.getLines()) {
+            line.setBackorder(backorder);
+        }
+        return services.salesOrderService.reserveSalesOrder(salesOrder.getId());
+    }
+}
@@ -0,0 +1,40 @@
+package com.logitrack.logitrack.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderRespDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SalesOrderJsonBenchmark {
+
+    @Param({"10", "100"})
+    int lines;
+
+    private ObjectMapper objectMapper;
+    private SalesOrderRespDTO salesOrder;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(10, 1000);
+        salesOrder = new InMemoryServices(data, "most-stock").salesOrderMapper.toRespDTO(data.shippedOrder(lines));
+        // configured as Spring Boot configures the mapper behind the REST endpoints
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(salesOrder);
+    }
+}
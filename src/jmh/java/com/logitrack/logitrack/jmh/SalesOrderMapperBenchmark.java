@@ -0,0 +1,45 @@
+package com.logitrack.logitrack.jmh;
+
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderDTO;
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderRespDTO;
+import com.logitrack.logitrack.models.SalesOrder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SalesOrderMapperBenchmark {
+
+    @Param({"100", "10000"})
+    int skus;
+
+    @Param({"10", "100"})
+    int lines;
+
+    private InMemoryServices services;
+    private SalesOrderDTO salesOrderDTO;
+    private SalesOrder salesOrder;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(10, skus);
+        services = new InMemoryServices(data, "most-stock");
+        salesOrderDTO = data.salesOrderDTO(lines);
+        salesOrder = data.shippedOrder(lines);
+    }
+
+    @Benchmark
+    public SalesOrder toEntity() {
+        return services.salesOrderMapper.toEntity(salesOrderDTO);
+    }
+
+    @Benchmark
+    public SalesOrderRespDTO toRespDTO() {
+        return services.salesOrderMapper.toRespDTO(salesOrder);
+    }
+}
@@ -0,0 +1,158 @@
+package com.logitrack.logitrack.jmh;
+
+import com.logitrack.logitrack.dtos.Inventory.ProductAvailability;
+import com.logitrack.logitrack.dtos.PurchaseOrder.PurchaseOrderDTO;
+import com.logitrack.logitrack.dtos.PurchaseOrder.PurchaseOrderLine.PurchaseOrderLineDTO;
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderDTO;
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderLine.SalesOrderLineDTO;
+import com.logitrack.logitrack.models.*;
+import com.logitrack.logitrack.models.ENUM.CarrierStatus;
+import com.logitrack.logitrack.models.ENUM.OrderStatus;
+import com.logitrack.logitrack.models.ENUM.Role;
+import com.logitrack.logitrack.models.ENUM.ShipmentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * A seeded network of warehouses, each stocking every SKU of a catalogue of the given size,
+ * with a client, a supplier, a carrier and a manager, so benchmark runs see the same data.
+ */
+public class SyntheticData {
+
+    private static final String[] LOCATIONS = {"Casablanca", "Rabat", "Tangier", "Marrakesh", "Agadir"};
+
+    final Random random = new Random(42);
+    final WAREHOUSE_MANAGER manager;
+    final List<Warehouse> warehouses = new ArrayList<>();
+    final List<Product> products = new ArrayList<>();
+    final Map<UUID, Product> productsById = new HashMap<>();
+    final Map<UUID, Warehouse> warehousesById = new HashMap<>();
+    // inventories by product, one per warehouse
+    final Map<UUID, List<Inventory>> inventoriesByProduct = new HashMap<>();
+    final Client client;
+    final Supplier supplier;
+    final Carrier carrier;
+
+    public SyntheticData(int warehouseCount, int skus) {
+        LocalDateTime now = LocalDateTime.now();
+        manager = WAREHOUSE_MANAGER.builder().id(UUID.randomUUID()).name("manager").email("manager@logitrack.test")
+                .passwordHash("x").role(Role.WAREHOUSE_MANAGER).active(true).build();
+        for (int w = 0; w < warehouseCount; w++) {
+            Warehouse warehouse = Warehouse.builder().id(UUID.randomUUID()).code("WH-" + w).name("Warehouse " + w)
+                    .location(LOCATIONS[w % LOCATIONS.length]).active(true).warehouse_manager(manager)
+                    .createdAt(now).updatedAt(now).build();
+            warehouses.add(warehouse);
+            warehousesById.put(warehouse.getId(), warehouse);
+        }
+        for (int s = 0; s < skus; s++) {
+            Product product = Product.builder().id(UUID.randomUUID()).sku("SKU-" + s).name("Product " + s)
+                    .category("category " + (s % 20)).active(true).boughtPrice(BigDecimal.valueOf(10 + s % 90))
+                    .createdAt(now).updatedAt(now).build();
+            products.add(product);
+            productsById.put(product.getId(), product);
+            List<Inventory> stock = new ArrayList<>();
+            for (Warehouse warehouse : warehouses) {
+                stock.add(Inventory.builder().id(UUID.randomUUID()).product(product).warehouse(warehouse)
+                        .qtyOnHand(random.nextInt(500)).qtyReserved(random.nextInt(50)).version(0L).build());
+            }
+            inventoriesByProduct.put(product.getId(), stock);
+        }
+        client = Client.builder().id(UUID.randomUUID()).name("client").email("client@logitrack.test")
+                .passwordHash("x").role(Role.CLIENT).active(true).build();
+        supplier = Supplier.builder().id(UUID.randomUUID()).name("supplier").build();
+        carrier = Carrier.builder().id(UUID.randomUUID()).code("CR-1").name("carrier").status(CarrierStatus.ACTIVE)
+                .cutOffTime(LocalTime.of(15, 0)).build();
+    }
+
+    Warehouse warehouse() {
+        return warehouses.get(0);
+    }
+
+    List<Product> pick(int lines) {
+        List<Product> picked = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            picked.add(products.get(random.nextInt(products.size())));
+        }
+        return picked;
+    }
+
+    SalesOrderDTO salesOrderDTO(int lines) {
+        SalesOrderDTO order = new SalesOrderDTO();
+        order.setClientId(client.getId());
+        order.setWarehouseId(warehouse().getId());
+        List<SalesOrderLineDTO> orderLines = new ArrayList<>(lines);
+        for (Product product : pick(lines)) {
+            SalesOrderLineDTO line = new SalesOrderLineDTO();
+            line.setProductId(product.getId());
+            line.setQuantity(1 + random.nextInt(20));
+            line.setUnitPrice(BigDecimal.valueOf(25));
+            orderLines.add(line);
+        }
+        order.setLines(orderLines);
+        return order;
+    }
+
+    PurchaseOrderDTO purchaseOrderDTO(int lines) {
+        List<PurchaseOrderLineDTO> orderLines = new ArrayList<>(lines);
+        for (Product product : pick(lines)) {
+            orderLines.add(PurchaseOrderLineDTO.builder().productId(product.getId())
+                    .quantity(1 + random.nextInt(100)).unitPrice(BigDecimal.TEN).build());
+        }
+        return PurchaseOrderDTO.builder().warehouseId(warehouse().getId()).supplierId(supplier.getId())
+                .expectedDelivery(LocalDateTime.now().plusDays(7)).lines(orderLines).build();
+    }
+
+    /**
+     * A shipped order with every association populated, as the detail read path returns it.
+     */
+    SalesOrder shippedOrder(int lines) {
+        LocalDateTime now = LocalDateTime.now();
+        SalesOrder order = SalesOrder.builder().id(UUID.randomUUID()).client(client).warehouse(warehouse())
+                .status(OrderStatus.SHIPPED).version(0L).createdAt(now).reservedAt(now).shippedAt(now).updatedAt(now).build();
+        for (Product product : pick(lines)) {
+            order.getLines().add(SalesOrderLine.builder().id(UUID.randomUUID()).salesOrder(order).product(product)
+                    .quantity(1 + random.nextInt(20)).unitPrice(BigDecimal.valueOf(25)).backorder(false)
+                    .createdAt(now).updatedAt(now).build());
+        }
+        order.setShipment(Shipment.builder().id(1L).salesOrder(order).carrier(carrier).status(ShipmentStatus.PLANNED)
+                .trackingNumber("TRK-1").shippedDate(now).isCutOffPassed(false).createdAt(now).updatedAt(now).build());
+        return order;
+    }
+
+    /**
+     * Availability of the given products in the first warehouse and across the network.
+     */
+    Map<UUID, ProductAvailability> availability(List<UUID> productIds) {
+        Map<UUID, ProductAvailability> availability = new HashMap<>();
+        UUID warehouseId = warehouse().getId();
+        for (UUID productId : productIds) {
+            long warehouseAvailable = 0;
+            long totalAvailable = 0;
+            for (Inventory inventory : inventoriesByProduct.get(productId)) {
+                long available = inventory.getQtyOnHand() - inventory.getQtyReserved();
+                totalAvailable += available;
+                if (inventory.getWarehouse().getId().equals(warehouseId)) {
+                    warehouseAvailable = available;
+                }
+            }
+            availability.put(productId, new Availability(productId, warehouseAvailable, totalAvailable, 1L));
+        }
+        return availability;
+    }
+
+    record Availability(UUID productId, Long warehouseAvailable, Long totalAvailable, Long warehouseRows)
+            implements ProductAvailability {
+        public UUID getProductId() { return productId; }
+        public Long getWarehouseAvailable() { return warehouseAvailable; }
+        public Long getTotalAvailable() { return totalAvailable; }
+        public Long getWarehouseRows() { return warehouseRows; }
+    }
+}
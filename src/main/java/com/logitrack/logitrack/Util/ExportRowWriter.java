@@ -0,0 +1,107 @@
+package com.logitrack.logitrack.Util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.logitrack.logitrack.dtos.Export.ExportFormat;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes flat records one at a time as NDJSON or CSV, optionally gzip-compressed.
+ * Closing flushes and finishes the stream but leaves the underlying output stream open.
+ */
+public final class ExportRowWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ExportFormat format;
+    private final RecordComponent[] columns;
+    private final GZIPOutputStream gzip;
+    private final Writer writer;
+    private final JsonGenerator json;
+    private final ObjectWriter jsonWriter;
+
+    public ExportRowWriter(ExportFormat format, Class<? extends Record> rowType, boolean compress,
+                           OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.columns = rowType.getRecordComponents();
+        this.gzip = compress ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        this.writer = new BufferedWriter(new OutputStreamWriter(compress ? gzip : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == ExportFormat.NDJSON) {
+            this.json = objectMapper.getFactory().createGenerator(writer);
+            this.json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.json.setRootValueSeparator(null);
+            this.jsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        } else {
+            this.json = null;
+            this.jsonWriter = null;
+            writeCsvHeader();
+        }
+    }
+
+    public void write(Record row) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            jsonWriter.writeValue(json, row);
+            json.writeRaw('\n');
+        } else {
+            writeCsvRow(row);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (json != null) {
+            json.close();
+        }
+        writer.flush();
+        if (gzip != null) {
+            gzip.finish();
+            gzip.flush();
+        }
+    }
+
+    private void writeCsvHeader() throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(columns[i].getName());
+        }
+        writer.write('\n');
+    }
+
+    private void writeCsvRow(Record row) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value;
+            try {
+                value = columns[i].getAccessor().invoke(row);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot read export column " + columns[i].getName(), e);
+            }
+            if (value != null) {
+                writer.write(escapeCsv(value.toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
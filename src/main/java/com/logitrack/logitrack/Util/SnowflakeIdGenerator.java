@@ -0,0 +1,73 @@
+package com.logitrack.logitrack.Util;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style 63-bit ids: 41 bits of milliseconds since 2024-01-01, a 10-bit node
+ * id and a 12-bit per-millisecond sequence. Unique across nodes as long as every
+ * running instance has its own node id, and roughly ordered by creation time.
+ * No database round trip is needed.
+ */
+public final class SnowflakeIdGenerator {
+
+    public static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int CODE_LENGTH = 13; // Long.MAX_VALUE in base 36
+
+    private static volatile SnowflakeIdGenerator shared = new SnowflakeIdGenerator(0);
+
+    private final long nodeId;
+    // last issued (timestamp << SEQUENCE_BITS | sequence)
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ", got " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    /** Generator used by entity hooks, which are not Spring beans. */
+    public static void useShared(SnowflakeIdGenerator generator) {
+        shared = generator;
+    }
+
+    /** A prefixed, fixed-width base-36 code such as {@code TRK-00K3F9Q2M7X1A}. */
+    public static String nextCode(String prefix) {
+        return prefix + "-" + toCode(shared.nextId());
+    }
+
+    public long nextId() {
+        while (true) {
+            long now = System.currentTimeMillis() - EPOCH;
+            long last = state.get();
+            long lastTimestamp = last >>> SEQUENCE_BITS;
+            long next;
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else if ((last & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                // same millisecond, or the clock stepped back: keep counting from the last timestamp
+                next = last + 1;
+            } else {
+                // 4096 ids already issued for this millisecond
+                Thread.onSpinWait();
+                continue;
+            }
+            if (state.compareAndSet(last, next)) {
+                return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)
+                        | nodeId << SEQUENCE_BITS
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    static String toCode(long id) {
+        String digits = Long.toString(id, 36).toUpperCase();
+        return "0".repeat(CODE_LENGTH - digits.length()) + digits;
+    }
+}
@@ -0,0 +1,18 @@
+package com.logitrack.logitrack.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reference-data caches. The cache manager is Caffeine, configured through
+ * {@code spring.cache.*}; hit and miss counts are published as {@code cache.gets} metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCTS_BY_SKU = "productsBySku";
+    public static final String WAREHOUSES = "warehouses";
+    public static final String WAREHOUSES_BY_CODE = "warehousesByCode";
+    public static final String CARRIERS = "carriers";
+}
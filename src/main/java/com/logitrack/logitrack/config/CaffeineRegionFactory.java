@@ -0,0 +1,38 @@
+package com.logitrack.logitrack.config;
+
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.support.RegionNameQualifier;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import javax.cache.Cache;
+import javax.cache.configuration.MutableConfiguration;
+
+/**
+ * JCache region factory for the Caffeine provider. Regions are created store-by-reference:
+ * Hibernate already caches disassembled entries, and the JCache default of store-by-value
+ * would copy every entry through Java serialization on each put and get. Size and expiry
+ * still come from {@code caffeine.jcache.default} in {@code application.conf}. Missing regions
+ * are always created.
+ */
+public class CaffeineRegionFactory extends JCacheRegionFactory {
+
+    @Override
+    protected Cache<Object, Object> getOrCreateCache(String unqualifiedRegionName, SessionFactoryImplementor sessionFactory) {
+        String regionName = RegionNameQualifier.INSTANCE.qualify(unqualifiedRegionName, sessionFactory.getSessionFactoryOptions());
+        // natural-id regions are named "Entity##NaturalId", which Caffeine cannot look up in its config
+        if (regionName.contains("#")) {
+            for (String existing : getCacheManager().getCacheNames()) {
+                if (existing.equals(regionName)) {
+                    return getCacheManager().getCache(regionName);
+                }
+            }
+            return createCache(regionName);
+        }
+        return super.getOrCreateCache(unqualifiedRegionName, sessionFactory);
+    }
+
+    @Override
+    protected Cache<Object, Object> createCache(String regionName) {
+        return getCacheManager().createCache(regionName, new MutableConfiguration<>().setStoreByValue(false));
+    }
+}
@@ -0,0 +1,17 @@
+package com.logitrack.logitrack.config;
+
+import com.logitrack.logitrack.Util.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(@Value("${logitrack.id.node-id:0}") int nodeId) {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(nodeId);
+        SnowflakeIdGenerator.useShared(generator);
+        return generator;
+    }
+}
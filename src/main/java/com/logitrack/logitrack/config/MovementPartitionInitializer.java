@@ -0,0 +1,25 @@
+package com.logitrack.logitrack.config;
+
+import com.logitrack.logitrack.services.MovementPartitionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate creates inventory_movements as a plain table. On PostgreSQL, turn it into a
+ * partitioned one on the first start and make sure the upcoming monthly partitions exist
+ * before the movement ledger starts writing.
+ */
+@Component
+@RequiredArgsConstructor
+public class MovementPartitionInitializer implements ApplicationRunner {
+
+    private final MovementPartitionService movementPartitionService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        movementPartitionService.partitionTable();
+        movementPartitionService.maintain();
+    }
+}
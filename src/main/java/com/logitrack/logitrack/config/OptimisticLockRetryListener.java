@@ -0,0 +1,51 @@
+package com.logitrack.logitrack.config;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.interceptor.MethodInvocationRetryCallback;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes optimistic-lock conflicts, retries and exhausted attempts as Micrometer counters,
+ * tagged with the name of the retried service method.
+ */
+@Component("optimisticLockRetryListener")
+@RequiredArgsConstructor
+@Slf4j
+public class OptimisticLockRetryListener implements RetryListener {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        if (throwable instanceof OptimisticLockingFailureException) {
+            log.debug("Optimistic lock conflict in {} (attempt {})", operation(callback), context.getRetryCount());
+            meterRegistry.counter("logitrack.optimistic.lock.conflicts", "operation", operation(callback)).increment();
+        }
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        int retries = context.getRetryCount() - (throwable != null ? 1 : 0);
+        if (retries > 0) {
+            meterRegistry.counter("logitrack.optimistic.lock.retries", "operation", operation(callback)).increment(retries);
+        }
+        if (throwable instanceof OptimisticLockingFailureException) {
+            log.warn("Giving up on {} after {} optimistic lock conflicts", operation(callback), context.getRetryCount());
+            meterRegistry.counter("logitrack.optimistic.lock.exhausted", "operation", operation(callback)).increment();
+        }
+    }
+
+    private String operation(RetryCallback<?, ?> callback) {
+        if (callback instanceof MethodInvocationRetryCallback<?, ?> methodCallback) {
+            return methodCallback.getInvocation().getMethod().getName();
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,14 @@
+package com.logitrack.logitrack.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.annotation.EnableRetry;
+
+/**
+ * Enables {@code @Retryable} proxies. The retry advisor is ordered ahead of the
+ * transaction advisor, so every retry attempt runs in a fresh transaction and
+ * re-reads the entities it mutates.
+ */
+@Configuration
+@EnableRetry
+public class RetryConfig {
+}
@@ -0,0 +1,30 @@
+package com.logitrack.logitrack.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+
+/**
+ * Retries a transactional method when a versioned entity was modified concurrently.
+ * Attempts and back-off are bounded by the {@code logitrack.optimistic-lock.*} properties.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Retryable(
+        retryFor = OptimisticLockingFailureException.class,
+        maxAttemptsExpression = "${logitrack.optimistic-lock.max-attempts:4}",
+        backoff = @Backoff(
+                delayExpression = "${logitrack.optimistic-lock.backoff-delay-ms:50}",
+                maxDelayExpression = "${logitrack.optimistic-lock.backoff-max-delay-ms:1000}",
+                multiplier = 2,
+                random = true),
+        listeners = "optimisticLockRetryListener")
+public @interface RetryOnOptimisticLock {
+}
@@ -0,0 +1,35 @@
+package com.logitrack.logitrack.config;
+
+import com.logitrack.logitrack.models.Shipment;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shipment ids used to come from an IDENTITY column. On existing PostgreSQL databases
+ * the new shipments_seq starts at 1, so move it past the highest id already assigned.
+ * Running it again never moves the sequence backwards.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShipmentSequenceInitializer implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        Long value = jdbcTemplate.queryForObject(
+                "SELECT setval('shipments_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM shipments) + ?, (SELECT last_value FROM shipments_seq)))",
+                Long.class, Shipment.ID_ALLOCATION_SIZE);
+        log.debug("shipments_seq aligned to {}", value);
+    }
+}
@@ -1,20 +1,30 @@
 package com.logitrack.logitrack.controllers;
 
+import java.time.YearMonth;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.logitrack.logitrack.dtos.Inventory.ReconciliationReportDTO;
 import com.logitrack.logitrack.dtos.PurchaseOrder.PurchaseOrderRespDTO;
 import com.logitrack.logitrack.models.Product;
 import com.logitrack.logitrack.models.ENUM.PurchaseOrderStatus;
+import com.logitrack.logitrack.services.InventoryReconciliationService;
+import com.logitrack.logitrack.services.MovementPartitionService;
 import com.logitrack.logitrack.services.ProductServices;
 import com.logitrack.logitrack.services.PurchaseOrderService;
+import com.logitrack.logitrack.services.StockAsOfService;
 
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +37,12 @@ public class AdminController {
 
     private final ProductServices productServices;
 
+    private final MovementPartitionService movementPartitionService;
+
+    private final StockAsOfService stockAsOfService;
+
+    private final InventoryReconciliationService inventoryReconciliationService;
+
 
     @PatchMapping("/purchaseOrder-status/update/{id}")
     public ResponseEntity<PurchaseOrderRespDTO> purchaseOrderStatus(@PathVariable UUID id, @RequestBody Map<String, String> requestBody) {
@@ -35,10 +51,38 @@ public class AdminController {
         return ResponseEntity.ok().body(purchaseOrderRespDTO);
     }
 
+    // all or none: one missing or already received order rejects the whole receipt
+    @PostMapping("/purchase-orders/receive")
+    public ResponseEntity<List<PurchaseOrderRespDTO>> receivePurchaseOrders(@RequestBody List<UUID> ids) {
+        return ResponseEntity.ok(purchaseOrderService.receivePurchaseOrders(ids));
+    }
+
     @PatchMapping("/product-status/update/{sku}")
     public ResponseEntity<Product> productStatus(@PathVariable @NotBlank String sku, @RequestBody Map<String, String> requestBody) {
         boolean status = Boolean.parseBoolean(requestBody.get("status"));
         Product responseMessage =  productServices.productStatusUpdate(sku, status);
         return ResponseEntity.ok().body(responseMessage);
     }
+
+    @GetMapping("/movement-partitions")
+    public ResponseEntity<List<YearMonth>> movementPartitions() {
+        return ResponseEntity.ok(movementPartitionService.partitions());
+    }
+
+    // detached partitions are left as plain tables for archiving
+    @PostMapping("/movement-partitions/detach")
+    public ResponseEntity<List<String>> detachMovementPartitions(@RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth before) {
+        return ResponseEntity.ok(movementPartitionService.detachBefore(before));
+    }
+
+    @PostMapping("/stock-checkpoints")
+    public ResponseEntity<Map<String, Integer>> takeStockCheckpoint() {
+        return ResponseEntity.ok(Map.of("inventories", stockAsOfService.takeCheckpoint()));
+    }
+
+    // repair=true records an ADJUSTMENT movement for every discrepancy found
+    @PostMapping("/inventory-reconciliation")
+    public ResponseEntity<ReconciliationReportDTO> reconcileInventories(@RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(inventoryReconciliationService.reconcile(repair));
+    }
 }
@@ -1,5 +1,6 @@
 package com.logitrack.logitrack.controllers;
 
+import com.logitrack.logitrack.dtos.CarrierCapacityDTO;
 import com.logitrack.logitrack.dtos.CarrierDTO;
 import com.logitrack.logitrack.dtos.CarrierRespDTO;
 import com.logitrack.logitrack.services.CarrierService;
@@ -36,6 +37,12 @@ public class CarrierController {
                 .body(carrierService.getCarrierById(id));
     }
 
+    @GetMapping("/{id}/capacity")
+    public ResponseEntity<CarrierCapacityDTO> getCarrierCapacity(@PathVariable UUID id) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(carrierService.getCarrierCapacity(id));
+    }
+
     @PutMapping("/update/{id}")
     public ResponseEntity<CarrierRespDTO> updateCarrier(@PathVariable UUID id, @Valid @RequestBody CarrierDTO carrierDTO) {
         return ResponseEntity.status(HttpStatus.OK)
@@ -0,0 +1,46 @@
+package com.logitrack.logitrack.controllers;
+
+import com.logitrack.logitrack.dtos.CursorPageDTO;
+import com.logitrack.logitrack.dtos.Inventory.InventoryMovementRespDTO;
+import com.logitrack.logitrack.dtos.Inventory.StockAsOfRespDTO;
+import com.logitrack.logitrack.services.MovementHistoryService;
+import com.logitrack.logitrack.services.StockAsOfService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/inventory")
+@RequiredArgsConstructor
+public class InventoryController {
+
+    private final MovementHistoryService movementHistoryService;
+    private final StockAsOfService stockAsOfService;
+
+    @GetMapping("/{id}/movements")
+    public ResponseEntity<CursorPageDTO<InventoryMovementRespDTO>> getMovements(
+            @PathVariable UUID id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(movementHistoryService.getMovements(id, from, to, cursor, size));
+    }
+
+    // the whole warehouse, or one product when sku is given
+    @GetMapping("/stock-as-of")
+    public ResponseEntity<StockAsOfRespDTO> getStockAsOf(
+            @RequestParam UUID warehouseId,
+            @RequestParam(required = false) String sku,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(stockAsOfService.getStockAsOf(warehouseId, sku, at));
+    }
+}
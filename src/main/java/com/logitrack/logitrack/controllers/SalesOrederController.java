@@ -1,13 +1,23 @@
 package com.logitrack.logitrack.controllers;
 
+import com.logitrack.logitrack.dtos.CursorPageDTO;
+import com.logitrack.logitrack.dtos.SalesOrder.BulkShipRequestDTO;
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderBulkResultDTO;
 import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderDTO;
 import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderRespDTO;
+import com.logitrack.logitrack.models.ENUM.OrderStatus;
+import com.logitrack.logitrack.services.SalesOrderIngestionService;
 import com.logitrack.logitrack.services.SalesOrderService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -18,6 +28,7 @@ import java.util.UUID;
 public class SalesOrederController {
 
     private final SalesOrderService salesOrderService;
+    private final SalesOrderIngestionService salesOrderIngestionService;
 
     @PostMapping("/create")
     public ResponseEntity<SalesOrderRespDTO> createSalesOrder(@Valid @RequestBody SalesOrderDTO salesOrderDTO) {
@@ -25,11 +36,28 @@ public class SalesOrederController {
         return  ResponseEntity.ok(salesOrderRespDTO);
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<SalesOrderBulkResultDTO> bulkCreateSalesOrders(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(salesOrderIngestionService.ingest(request.getInputStream()));
+    }
+
     @GetMapping("/all")
     public ResponseEntity<List<SalesOrderRespDTO>> getAllSalesOrders() {
         return ResponseEntity.ok(salesOrderService.getAllSalesOrders());
     }
 
+    @GetMapping
+    public ResponseEntity<CursorPageDTO<SalesOrderRespDTO>> getSalesOrdersPage(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) UUID warehouseId,
+            @RequestParam(required = false) UUID clientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(salesOrderService.getSalesOrdersPage(status, warehouseId, clientId, from, to, cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<SalesOrderRespDTO> getSalesOrderById(@PathVariable UUID id) {
         return ResponseEntity.ok(salesOrderService.getSalesOrderById(id));
@@ -40,6 +68,11 @@ public class SalesOrederController {
         return ResponseEntity.ok(salesOrderService.reserveSalesOrder(id));
     }
 
+    @PutMapping("/ship")
+    public ResponseEntity<List<SalesOrderRespDTO>> shipSalesOrders(@Valid @RequestBody BulkShipRequestDTO request) {
+        return ResponseEntity.ok(salesOrderService.shipSalesOrders(request.getOrderIds(), request.getCarrierId()));
+    }
+
     @PutMapping("/{id}/ship")
     public ResponseEntity<SalesOrderRespDTO> shipSalesOrder(@PathVariable UUID id,@RequestBody Map<String, String> shipmentDetails) {
         UUID carierId = UUID.fromString(shipmentDetails.get("carrierId"));
@@ -0,0 +1,21 @@
+package com.logitrack.logitrack.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarrierCapacityDTO {
+    private UUID carrierId;
+    private LocalDate shippingDay;
+    private Integer maxDailyCapacity;
+    private Long booked;
+    private Long remaining;
+}
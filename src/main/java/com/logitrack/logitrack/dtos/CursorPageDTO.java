@@ -0,0 +1,19 @@
+package com.logitrack.logitrack.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> items;
+    // opaque cursor for the next page, null on the last page
+    private String nextCursor;
+    private boolean hasNext;
+}
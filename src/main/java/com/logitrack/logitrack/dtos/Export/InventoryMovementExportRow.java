@@ -0,0 +1,18 @@
+package com.logitrack.logitrack.dtos.Export;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record InventoryMovementExportRow(
+        UUID movementId,
+        String type,
+        Integer quantity,
+        LocalDateTime occurredAt,
+        String referenceDocument,
+        String description,
+        UUID inventoryId,
+        UUID warehouseId,
+        UUID productId,
+        String sku
+) {
+}
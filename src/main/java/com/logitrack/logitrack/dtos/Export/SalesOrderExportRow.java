@@ -0,0 +1,28 @@
+package com.logitrack.logitrack.dtos.Export;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One sales order line, denormalized with its order header. Orders without
+ * lines are exported once with empty line columns.
+ */
+public record SalesOrderExportRow(
+        UUID orderId,
+        UUID clientId,
+        UUID warehouseId,
+        String warehouseCode,
+        String status,
+        LocalDateTime createdAt,
+        LocalDateTime reservedAt,
+        LocalDateTime shippedAt,
+        LocalDateTime deliveredAt,
+        UUID lineId,
+        UUID productId,
+        String sku,
+        Integer quantity,
+        BigDecimal unitPrice,
+        Boolean backorder
+) {
+}
@@ -0,0 +1,18 @@
+package com.logitrack.logitrack.dtos.Inventory;
+
+import java.util.UUID;
+
+/**
+ * An inventory whose qtyOnHand differs from what its movements add up to, from the latest stock
+ * checkpoint on; {@code difference} is qtyOnHand minus that, the quantity of the ADJUSTMENT
+ * that repairs it.
+ */
+public record InventoryDiscrepancyDTO(
+        UUID inventoryId,
+        UUID warehouseId,
+        UUID productId,
+        Integer qtyOnHand,
+        Long ledgerQuantity,
+        Long difference
+) {
+}
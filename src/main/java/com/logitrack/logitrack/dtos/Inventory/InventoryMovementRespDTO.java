@@ -0,0 +1,15 @@
+package com.logitrack.logitrack.dtos.Inventory;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record InventoryMovementRespDTO(
+        UUID id,
+        String type,
+        Integer quantity,
+        LocalDateTime occurredAt,
+        String referenceDocument,
+        String description,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,11 @@
+package com.logitrack.logitrack.dtos.Inventory;
+
+import java.util.UUID;
+
+public record InventoryStockDTO(
+        UUID inventoryId,
+        UUID productId,
+        String sku,
+        Integer qtyOnHand
+) {
+}
@@ -0,0 +1,21 @@
+package com.logitrack.logitrack.dtos.Inventory;
+
+import java.util.UUID;
+
+/**
+ * Availability (on hand minus reserved) of one product, in a given warehouse and across all warehouses.
+ */
+public interface ProductAvailability {
+
+    UUID getProductId();
+
+    Long getWarehouseAvailable();
+
+    Long getTotalAvailable();
+
+    Long getWarehouseRows();
+
+    default boolean isStockedInWarehouse() {
+        return getWarehouseRows() != null && getWarehouseRows() > 0;
+    }
+}
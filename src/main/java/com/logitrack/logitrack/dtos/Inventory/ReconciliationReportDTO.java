@@ -0,0 +1,20 @@
+package com.logitrack.logitrack.dtos.Inventory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outcome of one reconciliation run. {@code checkpointAt} is the stock checkpoint the movements
+ * were added to, null when they were summed from the start. {@code discrepancies} counts every
+ * inventory found out of balance; {@code items} lists at most the configured report limit of them.
+ */
+public record ReconciliationReportDTO(
+        LocalDateTime startedAt,
+        LocalDateTime checkpointAt,
+        long durationMs,
+        long inventoriesChecked,
+        int discrepancies,
+        boolean repaired,
+        List<InventoryDiscrepancyDTO> items
+) {
+}
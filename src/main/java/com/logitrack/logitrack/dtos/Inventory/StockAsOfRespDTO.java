@@ -0,0 +1,17 @@
+package com.logitrack.logitrack.dtos.Inventory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stock of a warehouse at {@code at}, reconstructed from the checkpoint taken at
+ * {@code checkpointAt} (null when no checkpoint was usable and the current stock was the base).
+ */
+public record StockAsOfRespDTO(
+        UUID warehouseId,
+        LocalDateTime at,
+        LocalDateTime checkpointAt,
+        List<InventoryStockDTO> items
+) {
+}
@@ -0,0 +1,18 @@
+package com.logitrack.logitrack.dtos.SalesOrder;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class BulkShipRequestDTO {
+
+    @NotNull(message = "Carrier ID is required")
+    private UUID carrierId;
+
+    @NotEmpty(message = "At least one sales order ID is required")
+    private List<UUID> orderIds;
+}
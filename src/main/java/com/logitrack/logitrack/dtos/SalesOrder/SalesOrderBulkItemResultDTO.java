@@ -0,0 +1,20 @@
+package com.logitrack.logitrack.dtos.SalesOrder;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesOrderBulkItemResultDTO {
+    // position of the order in the submitted array or stream, starting at 0
+    private int index;
+    private boolean success;
+    private UUID orderId;
+    private String error;
+}
@@ -0,0 +1,21 @@
+package com.logitrack.logitrack.dtos.SalesOrder;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesOrderBulkResultDTO {
+    private int received;
+    private int created;
+    private int failed;
+    @Builder.Default
+    private List<SalesOrderBulkItemResultDTO> results = new ArrayList<>();
+}
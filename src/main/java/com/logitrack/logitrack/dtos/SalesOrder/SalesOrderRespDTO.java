@@ -4,9 +4,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import com.logitrack.logitrack.dtos.ClientDTO;
+import com.logitrack.logitrack.dtos.ShipmentDTO;
 import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderLine.SalesOrderLineRespDTO;
 import com.logitrack.logitrack.dtos.Warehouse.OrderWarehouseRespDTO;
-import com.logitrack.logitrack.models.Shipment;
 import com.logitrack.logitrack.models.ENUM.OrderStatus;
 
 import lombok.Data;
@@ -22,7 +22,7 @@ public class SalesOrderRespDTO {
     private LocalDateTime shippedAt;
     private LocalDateTime deliveredAt;
     private List<SalesOrderLineRespDTO> lines;
-    private Shipment shipment;
+    private ShipmentDTO shipment;
     private LocalDateTime updatedAt;
 
 }
@@ -11,8 +11,13 @@ import org.mapstruct.MappingTarget;
 public interface CarrierMapper {
     CarrierDTO toDTO(Carrier carrier);
     CarrierRespDTO toRespDTO(Carrier carrier);
+    // the daily counter is maintained by CarrierCapacityService only
+    @Mapping(target = "currentDailyShipments", ignore = true)
+    @Mapping(target = "capacityDate", ignore = true)
     Carrier toEntity(CarrierDTO carrierDTO);
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "currentDailyShipments", ignore = true)
+    @Mapping(target = "capacityDate", ignore = true)
     void updateCarrierFromDto(CarrierDTO dto, @MappingTarget Carrier entity);
 }
@@ -3,10 +3,9 @@ package com.logitrack.logitrack.mapper;
 import com.logitrack.logitrack.dtos.PurchaseOrder.PurchaseOrderDTO;
 import com.logitrack.logitrack.dtos.PurchaseOrder.PurchaseOrderRespDTO;
 import com.logitrack.logitrack.models.*;
-import com.logitrack.logitrack.repositories.ProductRepository;
 import com.logitrack.logitrack.repositories.SupplierRepository;
 import com.logitrack.logitrack.repositories.WarehouseManagerRepository;
-import com.logitrack.logitrack.repositories.WarehouseRepository;
+import com.logitrack.logitrack.services.ReferenceDataService;
 import lombok.Setter;
 import org.mapstruct.Mapper;
 import org.mapstruct.MappingTarget;
@@ -20,9 +19,7 @@ public abstract class PurchaseOrderMapper {
     protected  SupplierRepository supplierRepository;
     @Setter
     @Autowired
-    protected  ProductRepository productRepository;
-    @Autowired
-    protected WarehouseRepository warehouseRepository;
+    protected ReferenceDataService referenceDataService;
 
 
     public abstract PurchaseOrderDTO toDTO(PurchaseOrder purchaseOrder);
@@ -33,7 +30,7 @@ public abstract class PurchaseOrderMapper {
         Supplier supplier = supplierRepository.findById(purchaseOrderDTO.getSupplierId())
                 .orElseThrow(() -> new IllegalArgumentException("Supplier with id " + purchaseOrderDTO.getSupplierId() + " not found."));
 
-        Warehouse warehouse = warehouseRepository.findById(purchaseOrderDTO.getWarehouseId()).orElseThrow(()-> new IllegalArgumentException("Warehouse with id " + purchaseOrderDTO.getWarehouseId() + " not found."));
+        Warehouse warehouse = referenceDataService.findWarehouse(purchaseOrderDTO.getWarehouseId()).orElseThrow(()-> new IllegalArgumentException("Warehouse with id " + purchaseOrderDTO.getWarehouseId() + " not found."));
 
        PurchaseOrder purchaseOrder = PurchaseOrder.builder()
                .supplier(supplier)
@@ -42,7 +39,7 @@ public abstract class PurchaseOrderMapper {
                .status(purchaseOrderDTO.getStatus())
                .build();
        purchaseOrderDTO.getLines().forEach(l-> {
-           Product product = productRepository.findByIdAndActive(l.getProductId(),true).orElseThrow(()-> new IllegalArgumentException("Product with id " + l.getProductId() + " not found."));
+           Product product = referenceDataService.findProduct(l.getProductId()).filter(p -> Boolean.TRUE.equals(p.getActive())).orElseThrow(()-> new IllegalArgumentException("Product with id " + l.getProductId() + " not found."));
            PurchaseOrderLine line = PurchaseOrderLine.builder()
                    .product(product)
                    .quantity(l.getQuantity())
@@ -69,14 +66,14 @@ public abstract class PurchaseOrderMapper {
             entity.setSupplier(supplier);
         }
         if(dto.getWarehouseId()!=null){
-            Warehouse warehouse = warehouseRepository.findById(dto.getWarehouseId()).orElseThrow(()-> new IllegalArgumentException("Warehouse with id " + dto.getWarehouseId() + " not found."));
+            Warehouse warehouse = referenceDataService.findWarehouse(dto.getWarehouseId()).orElseThrow(()-> new IllegalArgumentException("Warehouse with id " + dto.getWarehouseId() + " not found."));
 
             entity.setWarehouse(warehouse);
         }
         if(dto.getLines()!=null) {
             entity.getLines().clear();
             dto.getLines().forEach(l -> {
-                Product product = productRepository.findByIdAndActive(l.getProductId(), true).orElseThrow(() -> new IllegalArgumentException("Product with id " + l.getProductId() + " not found."));
+                Product product = referenceDataService.findProduct(l.getProductId()).filter(p -> Boolean.TRUE.equals(p.getActive())).orElseThrow(() -> new IllegalArgumentException("Product with id " + l.getProductId() + " not found."));
                 PurchaseOrderLine line = PurchaseOrderLine.builder()
                         .product(product)
                         .quantity(l.getQuantity())
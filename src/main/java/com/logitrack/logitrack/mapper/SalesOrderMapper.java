@@ -1,27 +1,32 @@
 package com.logitrack.logitrack.mapper;
 
+import com.logitrack.logitrack.dtos.Inventory.ProductAvailability;
 import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderDTO;
 import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderRespDTO;
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderLine.SalesOrderLineDTO;
 import com.logitrack.logitrack.models.*;
 import com.logitrack.logitrack.repositories.ClientRepository;
 import com.logitrack.logitrack.repositories.ProductRepository;
-import com.logitrack.logitrack.repositories.WarehouseRepository;
 import com.logitrack.logitrack.services.InventoryService;
+import com.logitrack.logitrack.services.ReferenceDataService;
 import org.mapstruct.Mapper;
 import org.mapstruct.MappingTarget;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = ShipmentMapper.class)
 public abstract class SalesOrderMapper {
 
     @Autowired
     protected ClientRepository clientRepository;
 
     @Autowired
-    protected WarehouseRepository warehouseRepository;
+    protected ReferenceDataService referenceDataService;
 
     @Autowired
     protected ProductRepository productRepository;
@@ -39,49 +44,53 @@ public abstract class SalesOrderMapper {
         Client client = clientRepository.findById(salesOrderDTO.getClientId())
                 .orElseThrow(() -> new IllegalArgumentException("Client with id " + salesOrderDTO.getClientId() + " not found."));
 
-        Warehouse warehouse = warehouseRepository.findById(salesOrderDTO.getWarehouseId())
+        Warehouse warehouse = referenceDataService.findWarehouse(salesOrderDTO.getWarehouseId())
                 .orElseThrow(() -> new IllegalArgumentException("Warehouse with id " + salesOrderDTO.getWarehouseId() + " not found."));
 
-        List<Inventory> warehouseInventories = warehouse.getInventories();
-        if(warehouseInventories.isEmpty()){
-            throw new IllegalArgumentException("No inventories found for warehouse with id " + warehouse.getId());
-        }
-            warehouseInventories.forEach(i->{
-                salesOrderDTO.getLines().forEach(l->{
-                    if(i.getProduct().getId().equals(l.getProductId())){
-                        if(i.getQtyOnHand() - i.getQtyReserved() < l.getQuantity()){
-                            List<Warehouse> warehouses = warehouseRepository.findAll();
-                            Integer totalAvailable = warehouses.stream().mapToInt(w -> {
-                                AtomicReference<Integer> availableQty = new AtomicReference<>(0);
-                                w.getInventories().forEach(inv -> {
-                                    if (inv.getProduct().getId().equals(l.getProductId())) {
-                                        availableQty.updateAndGet(v -> v + (inv.getQtyOnHand() - inv.getQtyReserved()));
-                                    }
-                                });
-                                return availableQty.get();
-                            }).sum();
-                            if(totalAvailable < l.getQuantity()){
-                                
-                                l.setBackorder(true);
-                            }
-                            else {
-                                l.setBackorder(false);
-                            }
-                        } else {
-                            l.setBackorder(false);
-                        }
-
-                    }else throw new IllegalArgumentException("Product with id " + l.getProductId() + " not found in warehouse inventories.");
-                });
+        List<UUID> productIds = salesOrderDTO.getLines().stream()
+                .map(SalesOrderLineDTO::getProductId)
+                .distinct()
+                .toList();
+        Map<UUID, ProductAvailability> availability = inventoryService.availabilityByProduct(warehouse.getId(), productIds);
+        Map<UUID, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
 
-            });
+        return toEntity(salesOrderDTO, client, warehouse, products, availability);
+    }
+
+    /**
+     * Builds an order from already loaded references, so callers creating many
+     * orders can resolve clients, warehouses, products and availability in bulk.
+     */
+    public SalesOrder toEntity(SalesOrderDTO salesOrderDTO, Client client, Warehouse warehouse,
+                               Map<UUID, Product> products, Map<UUID, ProductAvailability> availability) {
+        salesOrderDTO.getLines().forEach(l->{
+            if(l.getProductId() == null){
+                throw new IllegalArgumentException("Product ID is required");
+            }
+            if(l.getQuantity() == null || l.getQuantity() < 1){
+                throw new IllegalArgumentException("Quantity must be at least 1");
+            }
+            ProductAvailability productAvailability = availability.get(l.getProductId());
+            if(productAvailability == null || !productAvailability.isStockedInWarehouse()){
+                throw new IllegalArgumentException("Product with id " + l.getProductId() + " not found in warehouse inventories.");
+            }
+            if(productAvailability.getWarehouseAvailable() < l.getQuantity()){
+                l.setBackorder(productAvailability.getTotalAvailable() < l.getQuantity());
+            } else {
+                l.setBackorder(false);
+            }
+        });
 
         SalesOrder salesOrder = SalesOrder.builder()
                 .client(client)
                 .warehouse(warehouse)
                 .build();
         salesOrderDTO.getLines().forEach(l-> {
-            Product product = productRepository.findById(l.getProductId()).orElseThrow(()-> new IllegalArgumentException("Product with id " + l.getProductId() + " not found."));
+            Product product = products.get(l.getProductId());
+            if(product == null){
+                throw new IllegalArgumentException("Product with id " + l.getProductId() + " not found.");
+            }
             SalesOrderLine line = SalesOrderLine.builder()
                     .product(product)
                     .quantity(l.getQuantity())
@@ -107,7 +116,7 @@ public abstract class SalesOrderMapper {
         }
 
         if (dto.getWarehouseId() != null) {
-            Warehouse warehouse = warehouseRepository.findById(dto.getWarehouseId())
+            Warehouse warehouse = referenceDataService.findWarehouse(dto.getWarehouseId())
                     .orElseThrow(() -> new IllegalArgumentException("Warehouse with id " + dto.getWarehouseId() + " not found."));
             entity.setWarehouse(warehouse);
         }
@@ -115,7 +124,7 @@ public abstract class SalesOrderMapper {
         if (dto.getLines() != null) {
             entity.getLines().clear();
             dto.getLines().forEach(l -> {
-                Product product = productRepository.findById(l.getProductId())
+                Product product = referenceDataService.findProduct(l.getProductId())
                         .orElseThrow(() -> new IllegalArgumentException("Product with id " + l.getProductId() + " not found."));
                 SalesOrderLine line = SalesOrderLine.builder()
                         .product(product)
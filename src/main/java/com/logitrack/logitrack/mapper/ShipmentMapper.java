@@ -3,10 +3,13 @@ package com.logitrack.logitrack.mapper;
 import com.logitrack.logitrack.dtos.ShipmentDTO;
 import com.logitrack.logitrack.models.Shipment;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
 @Mapper(componentModel = "spring")
 public interface ShipmentMapper {
+    @Mapping(source = "salesOrder.id", target = "salesOrderId")
+    @Mapping(source = "carrier.id", target = "carrierId")
     ShipmentDTO toDTO(Shipment shipment);
     Shipment toEntity(ShipmentDTO shipmentDTO);
     void updateShipmentFromDto(ShipmentDTO dto, @MappingTarget Shipment entity);
@@ -1,16 +1,21 @@
 package com.logitrack.logitrack.mapper;
 
+import com.logitrack.logitrack.dtos.Inventory.WareHouseInventoryRespDTO;
 import com.logitrack.logitrack.dtos.Warehouse.WarehouseDTO;
 import com.logitrack.logitrack.dtos.Warehouse.WarehouseRespDTO;
+import com.logitrack.logitrack.models.Inventory;
 import com.logitrack.logitrack.models.Warehouse;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
+import java.util.List;
+
 @Mapper(componentModel = "spring" , uses = {WarehouseManagerMapper.class})
 public interface WarehouseMapper {
     WarehouseDTO toDTO(Warehouse warehouse);
     Warehouse toEntity(WarehouseDTO warehouseDTO);
     void updateWarehouseFromDto(WarehouseDTO dto, @MappingTarget Warehouse entity);
     WarehouseRespDTO toResponseDTO(Warehouse warehouse);
+    List<WareHouseInventoryRespDTO> toInventoryResponseDTOs(List<Inventory> inventories);
 }
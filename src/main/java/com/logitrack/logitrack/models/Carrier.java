@@ -1,6 +1,7 @@
 package com.logitrack.logitrack.models;
 
-
+import com.logitrack.logitrack.Util.SnowflakeIdGenerator;
+import com.logitrack.logitrack.models.id.UuidV7;
 import com.logitrack.logitrack.models.ENUM.CarrierStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -12,6 +13,7 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.UUID;
@@ -25,7 +27,7 @@ import java.util.UUID;
 @AllArgsConstructor
 public class Carrier {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(unique = true, nullable = false)
@@ -42,6 +44,8 @@ public class Carrier {
     private Integer maxDailyCapacity = 100;
     @Builder.Default
     private Integer currentDailyShipments = 0;
+    // shipping day currentDailyShipments counts; a day ends at the cut-off time
+    private LocalDate capacityDate;
     @Builder.Default
     private LocalTime cutOffTime = LocalTime.of(15, 0);
 
@@ -49,6 +53,10 @@ public class Carrier {
     @Builder.Default
     private CarrierStatus status = CarrierStatus.ACTIVE;
 
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -59,7 +67,7 @@ public class Carrier {
     @PrePersist
     protected void generateCode() {
         if (this.code == null || this.code.isEmpty()) {
-            this.code = "CARR-" + System.currentTimeMillis();
+            this.code = SnowflakeIdGenerator.nextCode("CARR");
         }
     }
 }
@@ -0,0 +1,26 @@
+package com.logitrack.logitrack.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Next unreserved value of a named code sequence (product SKUs, warehouse codes).
+ * Application nodes reserve whole blocks by advancing {@code nextValue}.
+ */
+@Entity
+@Table(name = "code_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CodeSequence {
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private Long nextValue;
+}
@@ -1,5 +1,6 @@
 package com.logitrack.logitrack.models.ENUM;
 
+// INBOUND adds quantity to qtyOnHand and OUTBOUND removes it; ADJUSTMENT quantities are signed
 public enum MovementType {
     INBOUND, OUTBOUND, ADJUSTMENT
 }
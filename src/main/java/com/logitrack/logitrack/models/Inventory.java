@@ -1,6 +1,7 @@
 package com.logitrack.logitrack.models;
 
 
+import com.logitrack.logitrack.models.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,17 +18,20 @@ import java.util.UUID;
 
 @Entity
 @EntityListeners(AuditingEntityListener.class)
-@Table(name = "inventories")
+@Table(name = "inventories",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_inventories_warehouse_product", columnNames = {"warehouse_id", "product_id"}),
+        indexes = @Index(name = "idx_inventories_product", columnList = "product_id"))
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Inventory {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
@@ -35,6 +39,7 @@ public class Inventory {
     @JoinColumn(name = "warehouse_id", nullable = false)
     private Warehouse warehouse;
 
+    // history only: movements are written through MovementLedger, never through this list
     @OneToMany(mappedBy = "inventory", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<InventoryMovement> inventoryMovements = new ArrayList<>();
@@ -45,6 +50,10 @@ public class Inventory {
     @Column(nullable = false)
     private Integer qtyReserved = 0;
 
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
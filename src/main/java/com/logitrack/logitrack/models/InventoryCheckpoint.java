@@ -0,0 +1,48 @@
+package com.logitrack.logitrack.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * qtyOnHand of one inventory when a checkpoint was taken. Every inventory is snapshotted with
+ * the same {@code takenAt}, so the rows sharing a takenAt are the stock of the whole company at
+ * that moment. The inventory is referenced by id only: checkpoints outlive deleted inventories.
+ */
+@Entity
+@Table(name = "inventory_checkpoints",
+        indexes = @Index(name = "idx_inventory_checkpoints_taken_at", columnList = "taken_at"))
+@IdClass(InventoryCheckpoint.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryCheckpoint {
+    @Id
+    private LocalDateTime takenAt;
+
+    @Id
+    private UUID inventoryId;
+
+    @Column(nullable = false)
+    private Integer qtyOnHand;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDateTime takenAt;
+        private UUID inventoryId;
+    }
+}
@@ -2,6 +2,7 @@ package com.logitrack.logitrack.models;
 
 
 
+import com.logitrack.logitrack.models.id.UuidV7;
 import com.logitrack.logitrack.models.ENUM.MovementType;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -17,14 +18,17 @@ import java.util.UUID;
 
 @Entity
 @EntityListeners(AuditingEntityListener.class)
-@Table(name = "inventory_movements")
+// on PostgreSQL the table is range-partitioned by month on occurred_at, see MovementPartitionService
+@Table(name = "inventory_movements", indexes = {
+        @Index(name = "idx_inventory_movements_inventory_occurred", columnList = "inventory_id, occurred_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class InventoryMovement {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
 
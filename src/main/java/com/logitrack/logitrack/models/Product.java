@@ -1,11 +1,15 @@
 package com.logitrack.logitrack.models;
 
-
+import com.logitrack.logitrack.models.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -22,11 +26,14 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false)
     private String sku;
 
@@ -57,11 +64,4 @@ public class Product {
 
     @LastModifiedDate
     private LocalDateTime updatedAt;
-
-    @PrePersist
-    public void generateSkuIfAbsent() {
-        if (this.sku == null || this.sku.isEmpty()) {
-            this.sku = "SKU-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        }
-    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.logitrack.logitrack.models;
 
 
+import com.logitrack.logitrack.models.id.UuidV7;
 import com.logitrack.logitrack.models.ENUM.PurchaseOrderStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -25,7 +26,7 @@ import java.util.UUID;
 @AllArgsConstructor
 public class PurchaseOrder {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne
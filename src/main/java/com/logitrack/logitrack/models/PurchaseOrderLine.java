@@ -1,6 +1,7 @@
 package com.logitrack.logitrack.models;
 
 
+import com.logitrack.logitrack.models.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -24,7 +25,7 @@ import java.util.UUID;
 @AllArgsConstructor
 public class PurchaseOrderLine {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne
@@ -1,5 +1,6 @@
 package com.logitrack.logitrack.models;
 
+import com.logitrack.logitrack.models.id.UuidV7;
 import com.logitrack.logitrack.models.ENUM.OrderStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -17,21 +18,52 @@ import java.util.UUID;
 
 @Entity
 @EntityListeners(AuditingEntityListener.class)
-@Table(name = "sales_orders")
+// to-one associations are lazy; read paths fetch what the response needs through the detail graph.
+// Status transitions use the transition graph: lines, products and warehouse to work on, the shipment
+// (the inverse side of a one-to-one is loaded anyway) and the client for the response, but no manager or carrier
+@NamedEntityGraph(name = SalesOrder.DETAIL_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("client"),
+                @NamedAttributeNode(value = "warehouse", subgraph = "warehouse"),
+                @NamedAttributeNode(value = "shipment", subgraph = "shipment"),
+                @NamedAttributeNode(value = "lines", subgraph = "lines")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "warehouse", attributeNodes = @NamedAttributeNode("warehouse_manager")),
+                @NamedSubgraph(name = "shipment", attributeNodes = @NamedAttributeNode("carrier")),
+                @NamedSubgraph(name = "lines", attributeNodes = @NamedAttributeNode("product"))
+        })
+@NamedEntityGraph(name = SalesOrder.TRANSITION_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("client"),
+                @NamedAttributeNode("warehouse"),
+                @NamedAttributeNode("shipment"),
+                @NamedAttributeNode(value = "lines", subgraph = "lines")
+        },
+        subgraphs = @NamedSubgraph(name = "lines", attributeNodes = @NamedAttributeNode("product")))
+@Table(name = "sales_orders", indexes = {
+        @Index(name = "idx_sales_orders_created", columnList = "created_at, id"),
+        @Index(name = "idx_sales_orders_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_sales_orders_warehouse_created", columnList = "warehouse_id, created_at, id"),
+        @Index(name = "idx_sales_orders_client_created", columnList = "client_id, created_at, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class SalesOrder {
+    public static final String DETAIL_GRAPH = "SalesOrder.detail";
+    public static final String TRANSITION_GRAPH = "SalesOrder.transition";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id", nullable = false)
     private Client client;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "warehouse_id", nullable = false)
     private Warehouse warehouse;
 
@@ -39,6 +71,10 @@ public class SalesOrder {
     @Column(nullable = false)
     private OrderStatus status = OrderStatus.CREATED;
 
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
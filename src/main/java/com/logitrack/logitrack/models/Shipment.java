@@ -1,5 +1,6 @@
 package com.logitrack.logitrack.models;
 
+import com.logitrack.logitrack.Util.SnowflakeIdGenerator;
 import com.logitrack.logitrack.models.ENUM.ShipmentStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -21,8 +22,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Shipment {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled sequence: one round trip hands out a block of ids, so inserts can be batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shipments_seq")
+    @SequenceGenerator(name = "shipments_seq", sequenceName = "shipments_seq", allocationSize = Shipment.ID_ALLOCATION_SIZE)
     private Long id;
 
     @OneToOne
@@ -57,7 +62,7 @@ public class Shipment {
     @PrePersist
     protected void generateTrackingNumber() {
         if (this.trackingNumber == null || this.trackingNumber.isEmpty()) {
-            this.trackingNumber = "TRK-" + System.currentTimeMillis();
+            this.trackingNumber = SnowflakeIdGenerator.nextCode("TRK");
         }
     }
 }
\ No newline at end of file
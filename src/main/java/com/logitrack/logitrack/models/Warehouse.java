@@ -1,10 +1,15 @@
 package com.logitrack.logitrack.models;
 
+import com.logitrack.logitrack.models.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -20,11 +25,14 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 public class Warehouse {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false)
     private String code;
 
@@ -54,11 +62,4 @@ public class Warehouse {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
-    @PrePersist
-    public void generateCodeIfAbsent() {
-        if (this.code == null || this.code.isEmpty()) {
-            this.code = "WH-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        }
-    }
-
 }
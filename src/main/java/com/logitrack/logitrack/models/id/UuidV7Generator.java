@@ -0,0 +1,49 @@
+package com.logitrack.logitrack.models.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RFC 9562 UUIDv7: 48-bit Unix millisecond timestamp, then a 12-bit counter in
+ * rand_a (method 1 of section 6.2) so ids created in the same millisecond stay
+ * ordered, then 62 random bits. When the counter overflows it carries into the
+ * timestamp, which keeps values strictly increasing within this JVM.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final AtomicLong LAST = new AtomicLong();
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long epochMillis) {
+        // timestamp and counter packed as (millis << 12 | counter)
+        long candidate = epochMillis << 12;
+        long stamp = LAST.updateAndGet(last -> Math.max(candidate, last + 1));
+
+        long msb = (stamp >>> 12) << 16   // unix_ts_ms
+                | 0x7000L                 // version 7
+                | (stamp & 0xFFFL);       // rand_a used as counter
+        long lsb = (RANDOM.get().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // variant 10
+        return new UUID(msb, lsb);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -2,8 +2,32 @@ package com.logitrack.logitrack.repositories;
 
 import com.logitrack.logitrack.models.Carrier;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.UUID;
 
 public interface CarrierRepository extends JpaRepository<Carrier, UUID> {
+
+    // counts restart when the stored day is older than the booking day
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Carrier c SET c.currentDailyShipments = CASE WHEN c.capacityDate = :day THEN c.currentDailyShipments + :shipments ELSE :shipments END, " +
+            "c.capacityDate = :day, c.version = c.version + 1 " +
+            "WHERE c.id = :carrierId AND (c.capacityDate IS NULL OR c.capacityDate <= :day) " +
+            "AND CASE WHEN c.capacityDate = :day THEN c.currentDailyShipments ELSE 0 END + :shipments <= c.maxDailyCapacity")
+    int reserveCapacity(@Param("carrierId") UUID carrierId,
+                        @Param("day") LocalDate day,
+                        @Param("shipments") int shipments);
+
+    // PostgreSQL types a CASE over untyped date parameters as text, hence the casts
+    @Modifying
+    @Query("UPDATE Carrier c SET c.currentDailyShipments = 0, " +
+            "c.capacityDate = CASE WHEN c.cutOffTime < :time THEN CAST(:tomorrow AS LocalDate) ELSE CAST(:today AS LocalDate) END, c.version = c.version + 1 " +
+            "WHERE c.capacityDate IS NULL OR c.capacityDate < CASE WHEN c.cutOffTime < :time THEN CAST(:tomorrow AS LocalDate) ELSE CAST(:today AS LocalDate) END")
+    int resetElapsedDays(@Param("today") LocalDate today,
+                         @Param("tomorrow") LocalDate tomorrow,
+                         @Param("time") LocalTime time);
 }
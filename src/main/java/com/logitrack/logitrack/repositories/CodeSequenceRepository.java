@@ -0,0 +1,21 @@
+package com.logitrack.logitrack.repositories;
+
+import com.logitrack.logitrack.models.CodeSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface CodeSequenceRepository extends JpaRepository<CodeSequence, String> {
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update CodeSequence s set s.nextValue = s.nextValue + :blockSize where s.name = :name")
+    int advance(@Param("name") String name, @Param("blockSize") long blockSize);
+
+    @Modifying
+    @Query(value = "insert into code_sequences (name, next_value) values (:name, :nextValue)", nativeQuery = true)
+    int create(@Param("name") String name, @Param("nextValue") long nextValue);
+
+    @Query("select s.nextValue from CodeSequence s where s.name = :name")
+    Long findNextValue(@Param("name") String name);
+}
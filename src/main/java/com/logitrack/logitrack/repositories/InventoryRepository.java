@@ -1,13 +1,57 @@
 package com.logitrack.logitrack.repositories;
 
+import com.logitrack.logitrack.dtos.Inventory.ProductAvailability;
 import com.logitrack.logitrack.models.Inventory;
 import com.logitrack.logitrack.models.Product;
 import com.logitrack.logitrack.models.Warehouse;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
     Optional<Inventory> findByProductAndWarehouse(Product product, Warehouse warehouse);
+    Optional<Inventory> findByWarehouseIdAndProductId(UUID warehouseId, UUID productId);
+    List<Inventory> findByWarehouseIdAndProductIdIn(UUID warehouseId, Collection<UUID> productIds);
+
+    @EntityGraph(attributePaths = "product")
+    List<Inventory> findWithProductByWarehouseId(UUID warehouseId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.qtyReserved = i.qtyReserved + :quantity, i.version = i.version + 1 " +
+            "WHERE i.warehouse.id = :warehouseId AND i.product.id = :productId " +
+            "AND i.qtyOnHand - i.qtyReserved >= :quantity")
+    int reserveIfAvailable(@Param("warehouseId") UUID warehouseId,
+                           @Param("productId") UUID productId,
+                           @Param("quantity") Integer quantity);
+
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.warehouse w " +
+            "WHERE i.product.id = :productId AND w.id <> :destinationId " +
+            "AND i.qtyOnHand - i.qtyReserved > 0")
+    List<Inventory> findSourcingCandidates(@Param("productId") UUID productId,
+                                           @Param("destinationId") UUID destinationId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.qtyOnHand = i.qtyOnHand - :quantity, i.version = i.version + 1 " +
+            "WHERE i.id = :id AND i.qtyOnHand - i.qtyReserved >= :quantity")
+    int withdrawIfAvailable(@Param("id") UUID id, @Param("quantity") Integer quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.qtyOnHand = i.qtyOnHand + :quantity, " +
+            "i.qtyReserved = i.qtyReserved + :quantity, i.version = i.version + 1 WHERE i.id = :id")
+    int receiveReserved(@Param("id") UUID id, @Param("quantity") Integer quantity);
+
+    @Query("SELECT i.product.id AS productId, " +
+            "SUM(CASE WHEN i.warehouse.id = :warehouseId THEN i.qtyOnHand - i.qtyReserved ELSE 0 END) AS warehouseAvailable, " +
+            "SUM(i.qtyOnHand - i.qtyReserved) AS totalAvailable, " +
+            "SUM(CASE WHEN i.warehouse.id = :warehouseId THEN 1 ELSE 0 END) AS warehouseRows " +
+            "FROM Inventory i WHERE i.product.id IN :productIds GROUP BY i.product.id")
+    List<ProductAvailability> findAvailability(@Param("warehouseId") UUID warehouseId,
+                                               @Param("productIds") Collection<UUID> productIds);
 }
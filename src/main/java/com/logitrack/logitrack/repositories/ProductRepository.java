@@ -1,15 +1,22 @@
 package com.logitrack.logitrack.repositories;
 
 import com.logitrack.logitrack.models.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, ProductRepositoryCustom {
     boolean existsBySku(String sku);
-    Optional<Product> findBySku(String sku);
     Optional<Product> findByIdAndActive(UUID id, boolean active);
 
-
+    // streamed with a fetch size so the startup load does not buffer every row
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select p.sku from Product p")
+    Stream<String> streamAllSkus();
 }
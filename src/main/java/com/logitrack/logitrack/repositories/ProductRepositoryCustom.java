@@ -0,0 +1,10 @@
+package com.logitrack.logitrack.repositories;
+
+import com.logitrack.logitrack.models.Product;
+
+import java.util.Optional;
+
+public interface ProductRepositoryCustom {
+
+    Optional<Product> findBySku(String sku);
+}
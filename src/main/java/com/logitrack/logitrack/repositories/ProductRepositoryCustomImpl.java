@@ -0,0 +1,22 @@
+package com.logitrack.logitrack.repositories;
+
+import com.logitrack.logitrack.models.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+// by natural id, so repeated lookups are answered from the second-level cache
+@Transactional(readOnly = true)
+class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Product> findBySku(String sku) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Product.class).loadOptional(sku);
+    }
+}
@@ -1,10 +1,16 @@
 package com.logitrack.logitrack.repositories;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.logitrack.logitrack.models.PurchaseOrder;
 
 public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, UUID> {
+
+    @EntityGraph(attributePaths = {"warehouse", "supplier", "lines", "lines.product"})
+    List<PurchaseOrder> findWithLinesByIdIn(Collection<UUID> ids);
 }
@@ -2,8 +2,16 @@ package com.logitrack.logitrack.repositories;
 
 import com.logitrack.logitrack.models.SalesOrderLine;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.UUID;
 
 public interface SalesOrderLineRepository extends JpaRepository<SalesOrderLine, UUID> {
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SalesOrderLine l SET l.backorder = false WHERE l.id IN :ids")
+    int clearBackorder(@Param("ids") Collection<UUID> ids);
 }
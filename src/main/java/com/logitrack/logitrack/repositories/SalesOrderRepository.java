@@ -1,9 +1,36 @@
 package com.logitrack.logitrack.repositories;
 
 import com.logitrack.logitrack.models.SalesOrder;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface SalesOrderRepository extends JpaRepository<SalesOrder, UUID> {
+public interface SalesOrderRepository extends JpaRepository<SalesOrder, UUID>, JpaSpecificationExecutor<SalesOrder> {
+
+    @EntityGraph(SalesOrder.DETAIL_GRAPH)
+    Optional<SalesOrder> findDetailById(UUID id);
+
+    @EntityGraph(SalesOrder.TRANSITION_GRAPH)
+    Optional<SalesOrder> findForTransitionById(UUID id);
+
+    @EntityGraph(SalesOrder.TRANSITION_GRAPH)
+    List<SalesOrder> findForTransitionByIdIn(Collection<UUID> ids);
+
+    @EntityGraph(attributePaths = {"lines", "lines.product"})
+    List<SalesOrder> findWithLinesByIdIn(Collection<UUID> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SalesOrder s SET s.status = com.logitrack.logitrack.models.ENUM.OrderStatus.RESERVED, " +
+            "s.reservedAt = :reservedAt, s.updatedAt = :reservedAt, s.version = s.version + 1 " +
+            "WHERE s.id = :id AND s.version = :version")
+    int markReserved(@Param("id") UUID id, @Param("version") Long version, @Param("reservedAt") LocalDateTime reservedAt);
 }
@@ -0,0 +1,46 @@
+package com.logitrack.logitrack.repositories;
+
+import com.logitrack.logitrack.Util.KeysetCursor;
+import com.logitrack.logitrack.models.ENUM.OrderStatus;
+import com.logitrack.logitrack.models.SalesOrder;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public final class SalesOrderSpecifications {
+
+    private SalesOrderSpecifications() {
+    }
+
+    public static Specification<SalesOrder> hasStatus(OrderStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<SalesOrder> inWarehouse(UUID warehouseId) {
+        return (root, query, cb) -> warehouseId == null ? null : cb.equal(root.get("warehouse").get("id"), warehouseId);
+    }
+
+    public static Specification<SalesOrder> forClient(UUID clientId) {
+        return (root, query, cb) -> clientId == null ? null : cb.equal(root.get("client").get("id"), clientId);
+    }
+
+    public static Specification<SalesOrder> createdFrom(LocalDateTime from) {
+        return (root, query, cb) -> from == null ? null : cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<SalesOrder> createdBefore(LocalDateTime to) {
+        return (root, query, cb) -> to == null ? null : cb.lessThan(root.get("createdAt"), to);
+    }
+
+    // rows strictly after the cursor in (createdAt DESC, id DESC) order
+    public static Specification<SalesOrder> after(KeysetCursor cursor) {
+        return (root, query, cb) -> cursor == null ? null : cb.or(
+                cb.lessThan(root.get("createdAt"), cursor.timestamp()),
+                cb.and(
+                        cb.equal(root.get("createdAt"), cursor.timestamp()),
+                        cb.lessThan(root.get("id"), cursor.id())
+                )
+        );
+    }
+}
@@ -1,9 +1,17 @@
 package com.logitrack.logitrack.repositories;
 
 import com.logitrack.logitrack.models.Supplier;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface SupplierRepository extends JpaRepository<Supplier, UUID> {
+
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Supplier> findAll();
 }
@@ -1,12 +1,31 @@
 package com.logitrack.logitrack.repositories;
 
 import com.logitrack.logitrack.models.Warehouse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-import java.util.Optional;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface WarehouseRepository extends JpaRepository<Warehouse, UUID> {
+public interface WarehouseRepository extends JpaRepository<Warehouse, UUID>, WarehouseRepositoryCustom {
     boolean existsByCode(String code);
-    Optional<Warehouse> findByCode(String code);
+
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Warehouse> findAll();
+
+    // the list response carries every warehouse's inventories, so they come with the warehouses
+    @EntityGraph(attributePaths = {"warehouse_manager", "inventories", "inventories.product"})
+    @Query("select w from Warehouse w")
+    List<Warehouse> findAllWithInventories();
+
+    // streamed with a fetch size so the startup load does not buffer every row
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select w.code from Warehouse w")
+    Stream<String> streamAllCodes();
 }
@@ -0,0 +1,10 @@
+package com.logitrack.logitrack.repositories;
+
+import com.logitrack.logitrack.models.Warehouse;
+
+import java.util.Optional;
+
+public interface WarehouseRepositoryCustom {
+
+    Optional<Warehouse> findByCode(String code);
+}
@@ -0,0 +1,22 @@
+package com.logitrack.logitrack.repositories;
+
+import com.logitrack.logitrack.models.Warehouse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+// by natural id, so repeated lookups are answered from the second-level cache
+@Transactional(readOnly = true)
+class WarehouseRepositoryCustomImpl implements WarehouseRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Warehouse> findByCode(String code) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Warehouse.class).loadOptional(code);
+    }
+}
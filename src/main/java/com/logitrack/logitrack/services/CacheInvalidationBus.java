@@ -0,0 +1,189 @@
+package com.logitrack.logitrack.services;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logitrack.logitrack.models.Product;
+import com.logitrack.logitrack.models.Supplier;
+import com.logitrack.logitrack.models.Warehouse;
+import com.logitrack.logitrack.services.invalidation.CacheInvalidation;
+import com.logitrack.logitrack.services.invalidation.InvalidationChannel;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the per-instance caches (reference data, carrier capacity counters, the code
+ * registry and the Hibernate second-level cache) in step across instances. Changes are applied locally and broadcast,
+ * once the surrounding transaction (if any) commits, over the {@link InvalidationChannel} named by {@code logitrack.cache-invalidation.channel};
+ * the other instances evict the entity and register its codes when the message arrives.
+ * Hibernate already keeps the local second-level cache current, so only remote changes
+ * are evicted from it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CacheInvalidationBus implements InvalidationChannel.Listener {
+
+    private final List<InvalidationChannel> channels;
+    private final ReferenceDataService referenceDataService;
+    private final CarrierCapacityService carrierCapacityService;
+    private final CodeRegistry codeRegistry;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final String origin = UUID.randomUUID().toString();
+
+    @Value("${logitrack.cache-invalidation.channel:local}")
+    private String channelName = "local";
+
+    // before the code registry loads, so no code created meanwhile is missed
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void subscribe() {
+        channel().subscribe(this);
+        log.info("Listening for cache invalidations on the {} channel", channelName);
+    }
+
+    /** A product was created, changed or deleted; {@code skus} are its old and new SKUs. */
+    public void productChanged(UUID id, String... skus) {
+        publish(CacheInvalidation.Type.PRODUCT, id, skus);
+    }
+
+    /** A warehouse was created, changed or deleted; {@code codes} are its old and new codes. */
+    public void warehouseChanged(UUID id, String... codes) {
+        publish(CacheInvalidation.Type.WAREHOUSE, id, codes);
+    }
+
+    public void carrierChanged(UUID id) {
+        publish(CacheInvalidation.Type.CARRIER, id);
+    }
+
+    public void supplierChanged(UUID id) {
+        publish(CacheInvalidation.Type.SUPPLIER, id);
+    }
+
+    @Override
+    public void onMessage(String payload) {
+        try {
+            CacheInvalidation invalidation = objectMapper.readValue(payload, CacheInvalidation.class);
+            if (!origin.equals(invalidation.origin())) {
+                apply(invalidation);
+                evictSecondLevel(invalidation);
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Ignoring cache invalidation {}", payload, e);
+        }
+    }
+
+    @Override
+    public void onGap() {
+        log.warn("Cache invalidations may have been missed, clearing caches");
+        referenceDataService.evictAll();
+        carrierCapacityService.evictAll();
+        secondLevelCache().evictAllRegions();
+        codeRegistry.load();
+    }
+
+    InvalidationChannel channel() {
+        return channels.stream()
+                .filter(c -> c.name().equals(channelName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown cache invalidation channel " + channelName));
+    }
+
+    private void publish(CacheInvalidation.Type type, UUID id, String... keys) {
+        InvalidationChannel channel = channel();
+        CacheInvalidation invalidation = new CacheInvalidation(origin, type, id,
+                Arrays.stream(keys).filter(Objects::nonNull).distinct().toList());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // until the commit, caches would be refilled with the old data and codes could be rolled back
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(channel, invalidation);
+                }
+            });
+        } else {
+            publish(channel, invalidation);
+        }
+    }
+
+    private void publish(InvalidationChannel channel, CacheInvalidation invalidation) {
+        apply(invalidation);
+        try {
+            channel.publish(objectMapper.writeValueAsString(invalidation));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // the other instances catch up when their entries expire
+            log.warn("Failed to broadcast cache invalidation of {} {}", invalidation.type(), invalidation.id(), e);
+        }
+    }
+
+    private void apply(CacheInvalidation invalidation) {
+        UUID id = invalidation.id();
+        switch (invalidation.type()) {
+            case PRODUCT -> {
+                referenceDataService.evictProduct(id);
+                invalidation.keys().forEach(sku -> {
+                    referenceDataService.evictProductSku(sku);
+                    codeRegistry.registerSku(sku);
+                });
+            }
+            case WAREHOUSE -> {
+                referenceDataService.evictWarehouse(id);
+                invalidation.keys().forEach(code -> {
+                    referenceDataService.evictWarehouseCode(code);
+                    codeRegistry.registerWarehouseCode(code);
+                });
+            }
+            case CARRIER -> {
+                referenceDataService.evictCarrier(id);
+                carrierCapacityService.evict(id);
+            }
+            case SUPPLIER -> {
+                // only held in the second-level cache
+            }
+        }
+    }
+
+    private void evictSecondLevel(CacheInvalidation invalidation) {
+        Class<?> entity = switch (invalidation.type()) {
+            case PRODUCT -> Product.class;
+            case WAREHOUSE -> Warehouse.class;
+            case SUPPLIER -> Supplier.class;
+            // not in the second-level cache: capacity bookings keep changing the row
+            case CARRIER -> null;
+        };
+        if (entity == null) {
+            return;
+        }
+        Cache cache = secondLevelCache();
+        cache.evictEntityData(entity, invalidation.id());
+        if (!invalidation.keys().isEmpty()) {
+            // natural-id entries cannot be evicted by key
+            cache.evictNaturalIdData(entity);
+        }
+        // cached list queries over the table are stale as well
+        cache.evictDefaultQueryRegion();
+    }
+
+    private Cache secondLevelCache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
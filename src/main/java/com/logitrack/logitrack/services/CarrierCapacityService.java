@@ -0,0 +1,174 @@
+package com.logitrack.logitrack.services;
+
+import com.logitrack.logitrack.dtos.CarrierCapacityDTO;
+import com.logitrack.logitrack.models.Carrier;
+import com.logitrack.logitrack.repositories.CarrierRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Daily shipment capacity of carriers. A carrier's shipping day ends at its cut-off
+ * time: later shipments leave, and count, the next day. Bookings are a single guarded
+ * UPDATE, so concurrent shipments on any instance cannot over-book a carrier.
+ * Capacity queries are answered from an in-memory counter per carrier and day that
+ * is reloaded from the database every {@code logitrack.carrier-capacity.cache-ttl-ms}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CarrierCapacityService {
+
+    private final CarrierRepository carrierRepository;
+    private final Map<UUID, DayCounter> counters = new ConcurrentHashMap<>();
+
+    @Value("${logitrack.carrier-capacity.cache-ttl-ms:30000}")
+    private long cacheTtlMs = 30000;
+
+    public static LocalDate shippingDay(LocalTime cutOffTime, LocalDateTime now) {
+        return cutOffTime != null && now.toLocalTime().isAfter(cutOffTime)
+                ? now.toLocalDate().plusDays(1)
+                : now.toLocalDate();
+    }
+
+    /** Books {@code shipments} on the carrier's current shipping day, within the caller's transaction. */
+    public void reserve(Carrier carrier, int shipments, LocalDateTime now) {
+        LocalDate day = shippingDay(carrier.getCutOffTime(), now);
+        // the cached count never exceeds the committed one, so a cached refusal is final
+        DayCounter cached = counters.get(carrier.getId());
+        if (cached != null && cached.day.equals(day) && cached.remaining() < shipments) {
+            throw capacityReached();
+        }
+        if (carrierRepository.reserveCapacity(carrier.getId(), day, shipments) == 0) {
+            throw capacityReached();
+        }
+        afterCommit(() -> {
+            DayCounter counter = counters.get(carrier.getId());
+            if (counter != null && counter.day.equals(day)) {
+                counter.booked.add(shipments);
+            }
+        });
+    }
+
+    public CarrierCapacityDTO getCapacity(UUID carrierId) {
+        return getCapacity(carrierId, LocalDateTime.now());
+    }
+
+    CarrierCapacityDTO getCapacity(UUID carrierId, LocalDateTime now) {
+        DayCounter counter = counters.get(carrierId);
+        if (counter == null || System.nanoTime() - counter.loadedAt > TimeUnit.MILLISECONDS.toNanos(cacheTtlMs)) {
+            counter = load(carrierId, now);
+        } else {
+            LocalDate day = shippingDay(counter.cutOffTime, now);
+            if (!counter.day.equals(day)) {
+                // day boundary passed: nothing is booked on the new day yet
+                counter = counters.merge(carrierId, counter.nextDay(day),
+                        (current, next) -> current.day.equals(day) ? current : next);
+            }
+        }
+        long booked = counter.booked.sum();
+        return CarrierCapacityDTO.builder()
+                .carrierId(carrierId)
+                .shippingDay(counter.day)
+                .maxDailyCapacity(counter.maxDailyCapacity)
+                .booked(booked)
+                .remaining(Math.max(0, counter.maxDailyCapacity - booked))
+                .build();
+    }
+
+    public void evict(UUID carrierId) {
+        counters.remove(carrierId);
+    }
+
+    public void evictAll() {
+        counters.clear();
+    }
+
+    /**
+     * Clears stored counts of elapsed shipping days. Bookings and capacity queries already roll
+     * over on their own, so this only tidies up: once per day and once at startup to catch up
+     * on days that passed while the application was down.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${logitrack.carrier-capacity.reset-cron:0 0 0 * * *}")
+    @Transactional
+    public void resetElapsedDays() {
+        resetElapsedDays(LocalDateTime.now());
+    }
+
+    void resetElapsedDays(LocalDateTime now) {
+        int reset = carrierRepository.resetElapsedDays(now.toLocalDate(), now.toLocalDate().plusDays(1), now.toLocalTime());
+        counters.values().removeIf(counter -> counter.day.isBefore(shippingDay(counter.cutOffTime, now)));
+        if (reset > 0) {
+            log.info("Reset daily shipment counters of {} carriers", reset);
+        }
+    }
+
+    private DayCounter load(UUID carrierId, LocalDateTime now) {
+        Carrier carrier = carrierRepository.findById(carrierId)
+                .orElseThrow(() -> new IllegalArgumentException("Carrier with id " + carrierId + " not found."));
+        LocalDate day = shippingDay(carrier.getCutOffTime(), now);
+        DayCounter counter = new DayCounter(day, carrier.getMaxDailyCapacity(), carrier.getCutOffTime(), System.nanoTime());
+        if (day.equals(carrier.getCapacityDate())) {
+            counter.booked.add(carrier.getCurrentDailyShipments());
+        }
+        counters.put(carrierId, counter);
+        return counter;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static IllegalStateException capacityReached() {
+        return new IllegalStateException("Carrier has reached its maximum daily capacity.");
+    }
+
+    private static final class DayCounter {
+        private final LocalDate day;
+        private final int maxDailyCapacity;
+        private final LocalTime cutOffTime;
+        private final long loadedAt;
+        private final LongAdder booked = new LongAdder();
+
+        private DayCounter(LocalDate day, int maxDailyCapacity, LocalTime cutOffTime, long loadedAt) {
+            this.day = day;
+            this.maxDailyCapacity = maxDailyCapacity;
+            this.cutOffTime = cutOffTime;
+            this.loadedAt = loadedAt;
+        }
+
+        private long remaining() {
+            return maxDailyCapacity - booked.sum();
+        }
+
+        private DayCounter nextDay(LocalDate nextDay) {
+            return new DayCounter(nextDay, maxDailyCapacity, cutOffTime, loadedAt);
+        }
+    }
+}
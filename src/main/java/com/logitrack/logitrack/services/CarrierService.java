@@ -5,6 +5,7 @@ import java.util.UUID;
 
 import org.springframework.stereotype.Service;
 
+import com.logitrack.logitrack.dtos.CarrierCapacityDTO;
 import com.logitrack.logitrack.dtos.CarrierDTO;
 import com.logitrack.logitrack.dtos.CarrierRespDTO;
 import com.logitrack.logitrack.mapper.CarrierMapper;
@@ -19,6 +20,8 @@ public class CarrierService {
 
     private final CarrierRepository carrierRepository;
     private final CarrierMapper carrierMapper;
+    private final CarrierCapacityService carrierCapacityService;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
     public CarrierRespDTO addCarrier(CarrierDTO carrierDTO) {
         Carrier carrier = carrierMapper.toEntity(carrierDTO);
@@ -44,6 +47,7 @@ public class CarrierService {
                 .orElseThrow(() -> new IllegalArgumentException("Carrier with id " + id + " not found."));
         carrierMapper.updateCarrierFromDto(carrierDTO, existingCarrier);
         carrierRepository.save(existingCarrier);
+        cacheInvalidationBus.carrierChanged(id);
         return carrierMapper.toRespDTO(existingCarrier);
     }
 
@@ -51,5 +55,10 @@ public class CarrierService {
         Carrier carrier = carrierRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Carrier with id " + id + " not found."));
         carrierRepository.delete(carrier);
+        cacheInvalidationBus.carrierChanged(id);
+    }
+
+    public CarrierCapacityDTO getCarrierCapacity(UUID id) {
+        return carrierCapacityService.getCapacity(id);
     }
 }
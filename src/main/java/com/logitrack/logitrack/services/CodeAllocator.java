@@ -0,0 +1,88 @@
+package com.logitrack.logitrack.services;
+
+import com.logitrack.logitrack.repositories.CodeSequenceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out readable sequential codes ({@code SKU-00000042}, {@code WH-000007}).
+ * Values are reserved from the {@code code_sequences} table a block at a time, so
+ * only one in {@code logitrack.codes.block-size} codes costs a database round trip.
+ * Values of an unfinished block are lost on restart, leaving gaps. A value already
+ * taken by a code chosen by hand is caught by the unique constraint when saving.
+ */
+@Service
+public class CodeAllocator {
+
+    static final String SKU_SEQUENCE = "product_sku";
+    static final String WAREHOUSE_SEQUENCE = "warehouse_code";
+
+    private final CodeSequenceRepository codeSequenceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long blockSize;
+    private final Map<String, Block> blocks = new HashMap<>();
+
+    public CodeAllocator(CodeSequenceRepository codeSequenceRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${logitrack.codes.block-size:100}") long blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Code block size must be at least 1, got " + blockSize);
+        }
+        this.codeSequenceRepository = codeSequenceRepository;
+        // a reserved block must stay reserved even if the caller's transaction rolls back
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    public String nextSku() {
+        return "SKU-%08d".formatted(next(SKU_SEQUENCE));
+    }
+
+    public String nextWarehouseCode() {
+        return "WH-%06d".formatted(next(WAREHOUSE_SEQUENCE));
+    }
+
+    synchronized long next(String sequence) {
+        Block block = blocks.get(sequence);
+        if (block == null || block.next > block.last) {
+            block = reserve(sequence);
+            blocks.put(sequence, block);
+        }
+        return block.next++;
+    }
+
+    private Block reserve(String sequence) {
+        while (true) {
+            try {
+                Long end = transactionTemplate.execute(status -> {
+                    if (codeSequenceRepository.advance(sequence, blockSize) == 0) {
+                        codeSequenceRepository.create(sequence, 1 + blockSize);
+                        return 1 + blockSize;
+                    }
+                    return codeSequenceRepository.findNextValue(sequence);
+                });
+                return new Block(end - blockSize, end - 1);
+            } catch (DataIntegrityViolationException e) {
+                // another instance created the sequence row first; advance it instead
+            }
+        }
+    }
+
+    private static final class Block {
+        private long next;
+        private final long last;
+
+        private Block(long next, long last) {
+            this.next = next;
+            this.last = last;
+        }
+    }
+}
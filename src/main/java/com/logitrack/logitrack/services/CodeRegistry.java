@@ -0,0 +1,78 @@
+package com.logitrack.logitrack.services;
+
+import com.logitrack.logitrack.Util.BloomFilter;
+import com.logitrack.logitrack.repositories.ProductRepository;
+import com.logitrack.logitrack.repositories.WarehouseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filters of the product SKUs and warehouse codes in use. The filters
+ * are per instance: they are loaded at startup and kept up to date with the codes
+ * created here and broadcast by other instances once their transactions commit. A miss
+ * is final, as Bloom filters have no false negatives; a hit still has to be confirmed
+ * against the database.
+ */
+@Slf4j
+@Service
+public class CodeRegistry {
+
+    private final ProductRepository productRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final BloomFilter skus;
+    private final BloomFilter warehouseCodes;
+    // until loaded, every code may exist
+    private volatile boolean loaded;
+
+    public CodeRegistry(ProductRepository productRepository,
+                        WarehouseRepository warehouseRepository,
+                        @Value("${logitrack.codes.expected-count:1000000}") long expectedCount,
+                        @Value("${logitrack.codes.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.productRepository = productRepository;
+        this.warehouseRepository = warehouseRepository;
+        this.skus = new BloomFilter(expectedCount, falsePositiveRate);
+        this.warehouseCodes = new BloomFilter(expectedCount, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long products = fill(skus, productRepository.streamAllSkus());
+        long warehouses = fill(warehouseCodes, warehouseRepository.streamAllCodes());
+        loaded = true;
+        log.info("Loaded {} product SKUs and {} warehouse codes into the code registry", products, warehouses);
+    }
+
+    public boolean skuMayExist(String sku) {
+        return !loaded || skus.mightContain(sku);
+    }
+
+    public boolean warehouseCodeMayExist(String code) {
+        return !loaded || warehouseCodes.mightContain(code);
+    }
+
+    public void registerSku(String sku) {
+        skus.put(sku);
+    }
+
+    public void registerWarehouseCode(String code) {
+        warehouseCodes.put(code);
+    }
+
+    private static long fill(BloomFilter filter, Stream<String> codes) {
+        long count = 0;
+        try (codes) {
+            for (Iterator<String> it = codes.iterator(); it.hasNext(); count++) {
+                filter.put(it.next());
+            }
+        }
+        return count;
+    }
+}
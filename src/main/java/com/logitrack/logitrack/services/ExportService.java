@@ -0,0 +1,151 @@
+package com.logitrack.logitrack.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logitrack.logitrack.Util.ExportRowWriter;
+import com.logitrack.logitrack.dtos.Export.ExportFormat;
+import com.logitrack.logitrack.dtos.Export.InventoryMovementExportRow;
+import com.logitrack.logitrack.dtos.Export.SalesOrderExportRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Streams history tables straight from a forward-only JDBC cursor to the caller's
+ * output stream, so memory use does not grow with the size of the export.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private static final String SALES_ORDERS_SQL = """
+            SELECT so.id AS order_id, so.client_id, so.warehouse_id, w.code AS warehouse_code, so.status,
+                   so.created_at, so.reserved_at, so.shipped_at, so.delivered_at,
+                   l.id AS line_id, l.product_id, p.sku, l.quantity, l.unit_price, l.backorder
+            FROM sales_orders so
+            JOIN warehouses w ON w.id = so.warehouse_id
+            LEFT JOIN sales_order_lines l ON l.sales_order_id = so.id
+            LEFT JOIN products p ON p.id = l.product_id
+            """;
+
+    private static final String MOVEMENTS_SQL = """
+            SELECT m.id, m.type, m.quantity, m.occurred_at, m.reference_document, m.description,
+                   m.inventory_id, i.warehouse_id, i.product_id, p.sku
+            FROM inventory_movements m
+            JOIN inventories i ON i.id = m.inventory_id
+            JOIN products p ON p.id = i.product_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${logitrack.export.fetch-size:1000}")
+    private int fetchSize;
+
+    // the cursor only streams inside a transaction (autocommit off on PostgreSQL)
+    @Transactional(readOnly = true)
+    public long exportSalesOrders(LocalDateTime from, LocalDateTime to, ExportFormat format, boolean gzip,
+                                  OutputStream out) throws IOException {
+        try (ExportRowWriter writer = new ExportRowWriter(format, SalesOrderExportRow.class, gzip, out, objectMapper)) {
+            return stream(SALES_ORDERS_SQL, "so.created_at", "so.created_at, so.id, l.id", from, to,
+                    rs -> writer.write(toSalesOrderRow(rs)));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportInventoryMovements(LocalDateTime from, LocalDateTime to, ExportFormat format, boolean gzip,
+                                         OutputStream out) throws IOException {
+        try (ExportRowWriter writer = new ExportRowWriter(format, InventoryMovementExportRow.class, gzip, out, objectMapper)) {
+            return stream(MOVEMENTS_SQL, "m.occurred_at", "m.occurred_at, m.id", from, to,
+                    rs -> writer.write(toMovementRow(rs)));
+        }
+    }
+
+    private long stream(String baseSql, String timeColumn, String orderBy, LocalDateTime from, LocalDateTime to,
+                        RowSink sink) {
+        StringBuilder sql = new StringBuilder(baseSql);
+        List<Object> params = new ArrayList<>();
+        if (from != null) {
+            sql.append(params.isEmpty() ? "WHERE " : "AND ").append(timeColumn).append(" >= ? ");
+            params.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(params.isEmpty() ? "WHERE " : "AND ").append(timeColumn).append(" < ? ");
+            params.add(Timestamp.valueOf(to));
+        }
+        sql.append("ORDER BY ").append(orderBy);
+
+        long[] rows = {0};
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            try {
+                sink.accept(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        });
+        return rows[0];
+    }
+
+    private static SalesOrderExportRow toSalesOrderRow(ResultSet rs) throws SQLException {
+        return new SalesOrderExportRow(
+                rs.getObject("order_id", UUID.class),
+                rs.getObject("client_id", UUID.class),
+                rs.getObject("warehouse_id", UUID.class),
+                rs.getString("warehouse_code"),
+                rs.getString("status"),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("reserved_at", LocalDateTime.class),
+                rs.getObject("shipped_at", LocalDateTime.class),
+                rs.getObject("delivered_at", LocalDateTime.class),
+                rs.getObject("line_id", UUID.class),
+                rs.getObject("product_id", UUID.class),
+                rs.getString("sku"),
+                rs.getObject("quantity", Integer.class),
+                rs.getObject("unit_price", BigDecimal.class),
+                rs.getObject("backorder", Boolean.class)
+        );
+    }
+
+    private static InventoryMovementExportRow toMovementRow(ResultSet rs) throws SQLException {
+        return new InventoryMovementExportRow(
+                rs.getObject("id", UUID.class),
+                rs.getString("type"),
+                rs.getObject("quantity", Integer.class),
+                rs.getObject("occurred_at", LocalDateTime.class),
+                rs.getString("reference_document"),
+                rs.getString("description"),
+                rs.getObject("inventory_id", UUID.class),
+                rs.getObject("warehouse_id", UUID.class),
+                rs.getObject("product_id", UUID.class),
+                rs.getString("sku")
+        );
+    }
+
+    @FunctionalInterface
+    private interface RowSink {
+        void accept(ResultSet rs) throws SQLException, IOException;
+    }
+}
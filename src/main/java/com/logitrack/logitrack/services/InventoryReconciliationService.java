@@ -0,0 +1,217 @@
+package com.logitrack.logitrack.services;
+
+import com.logitrack.logitrack.dtos.Inventory.InventoryDiscrepancyDTO;
+import com.logitrack.logitrack.dtos.Inventory.ReconciliationReportDTO;
+import com.logitrack.logitrack.models.Inventory;
+import com.logitrack.logitrack.models.InventoryMovement;
+import com.logitrack.logitrack.models.ENUM.MovementType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compares every inventory's qtyOnHand with its qtyOnHand in the latest stock checkpoint plus the
+ * movements since, the base {@link StockAsOfService} uses, so movements in partitions detached
+ * before that checkpoint are not needed. The inventories are cut into chunks of consecutive ids;
+ * a fork/join pool sums the movements of each chunk with one grouped query per chunk, in
+ * parallel, so no movement or entity is loaded into memory. Discrepancies are reported and, on
+ * request, repaired with ADJUSTMENT movements.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InventoryReconciliationService {
+
+    private static final String BALANCE_SQL = """
+            SELECT i.id, i.warehouse_id, i.product_id, i.qty_on_hand,
+                COALESCE(c.qty_on_hand, 0) + COALESCE(SUM(%1$s), 0) AS ledger_quantity
+            FROM inventories i
+            LEFT JOIN inventory_checkpoints c ON c.inventory_id = i.id AND c.taken_at = ?
+            LEFT JOIN inventory_movements m ON m.inventory_id = i.id AND m.occurred_at >= ?
+            WHERE %2$s
+            GROUP BY i.id, i.warehouse_id, i.product_id, i.qty_on_hand, c.qty_on_hand
+            HAVING i.qty_on_hand <> COALESCE(c.qty_on_hand, 0) + COALESCE(SUM(%1$s), 0)
+            """;
+
+    // base when there is no checkpoint: no checkpoint rows, every movement
+    private static final Timestamp NO_CHECKPOINT = Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0));
+
+    // first id of every chunk, in the database's own uuid order
+    private static final String CHUNK_BOUNDS_SQL = """
+            SELECT id FROM (SELECT id, ROW_NUMBER() OVER (ORDER BY id) AS rn FROM inventories) numbered
+            WHERE MOD(rn - 1, ?) = 0 ORDER BY id
+            """;
+
+    private static final int RECHECK_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MovementLedger movementLedger;
+    private final MovementPartitionService movementPartitionService;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${logitrack.reconciliation.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${logitrack.reconciliation.parallelism:4}")
+    private int parallelism;
+
+    @Value("${logitrack.reconciliation.report-limit:1000}")
+    private int reportLimit;
+
+    @Value("${logitrack.reconciliation.scheduled-repair:false}")
+    private boolean scheduledRepair;
+
+    @Scheduled(cron = "${logitrack.reconciliation.cron:-}")
+    public void scheduledReconcile() {
+        reconcile(scheduledRepair);
+    }
+
+    public ReconciliationReportDTO reconcile(boolean repair) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A reconciliation is already running.");
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            long start = System.nanoTime();
+            // movements still buffered by the ledger would show up as discrepancies
+            movementLedger.flush();
+            LocalDateTime checkpointAt = jdbcTemplate.queryForObject(
+                    "SELECT MAX(taken_at) FROM inventory_checkpoints", LocalDateTime.class);
+            LocalDateTime historyStart = movementPartitionService.historyStart();
+            if (historyStart != null && (checkpointAt == null || checkpointAt.isBefore(historyStart))) {
+                throw new IllegalStateException("Movements before " + historyStart
+                        + " are detached and no stock checkpoint was taken since; take one before reconciling.");
+            }
+            Timestamp base = checkpointAt != null ? Timestamp.valueOf(checkpointAt) : NO_CHECKPOINT;
+
+            long inventories = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM inventories", Long.class);
+            List<UUID> bounds = jdbcTemplate.queryForList(CHUNK_BOUNDS_SQL, UUID.class, chunkSize);
+            List<InventoryDiscrepancyDTO> candidates = List.of();
+            if (!bounds.isEmpty()) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    candidates = pool.invoke(new ChunkTask(base, bounds, 0, bounds.size()));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+
+            // stock changes committed during the scan may have reached the ledger only now
+            List<InventoryDiscrepancyDTO> discrepancies = candidates;
+            if (!candidates.isEmpty()) {
+                movementLedger.flush();
+                discrepancies = recheck(base, candidates);
+            }
+            if (repair && !discrepancies.isEmpty()) {
+                movementLedger.appendAll(discrepancies.stream().map(d -> adjustment(d, startedAt)).toList());
+                movementLedger.flush();
+            }
+
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (discrepancies.isEmpty()) {
+                log.info("Reconciled {} inventories in {} ms, no discrepancies", inventories, durationMs);
+            } else {
+                log.warn("Reconciled {} inventories in {} ms, {} discrepancies{}", inventories, durationMs,
+                        discrepancies.size(), repair ? " repaired" : "");
+            }
+            return new ReconciliationReportDTO(startedAt, checkpointAt, durationMs, inventories, discrepancies.size(), repair,
+                    discrepancies.subList(0, Math.min(discrepancies.size(), reportLimit)));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // inventories with first <= id < next, or every id from first on for the last chunk
+    List<InventoryDiscrepancyDTO> scanChunk(Timestamp base, UUID first, UUID next) {
+        if (next == null) {
+            return jdbcTemplate.query(balanceSql("i.id >= ?"), (rs, rowNum) -> toDiscrepancy(rs), base, base, first);
+        }
+        return jdbcTemplate.query(balanceSql("i.id >= ? AND i.id < ?"), (rs, rowNum) -> toDiscrepancy(rs),
+                base, base, first, next);
+    }
+
+    private List<InventoryDiscrepancyDTO> recheck(Timestamp base, List<InventoryDiscrepancyDTO> candidates) {
+        List<InventoryDiscrepancyDTO> confirmed = new ArrayList<>();
+        for (int from = 0; from < candidates.size(); from += RECHECK_BATCH_SIZE) {
+            List<Object> params = new ArrayList<>(List.of(base, base));
+            candidates.subList(from, Math.min(from + RECHECK_BATCH_SIZE, candidates.size()))
+                    .forEach(candidate -> params.add(candidate.inventoryId()));
+            String placeholders = String.join(", ", Collections.nCopies(params.size() - 2, "?"));
+            confirmed.addAll(jdbcTemplate.query(balanceSql("i.id IN (" + placeholders + ")"),
+                    (rs, rowNum) -> toDiscrepancy(rs), params.toArray()));
+        }
+        return confirmed;
+    }
+
+    private static String balanceSql(String where) {
+        return String.format(BALANCE_SQL, StockAsOfService.SIGNED_QUANTITY, where);
+    }
+
+    private static InventoryMovement adjustment(InventoryDiscrepancyDTO discrepancy, LocalDateTime startedAt) {
+        return InventoryMovement.builder()
+                .inventory(Inventory.builder().id(discrepancy.inventoryId()).build())
+                .type(MovementType.ADJUSTMENT)
+                .quantity(Math.toIntExact(discrepancy.difference()))
+                .referenceDocument("RECONCILIATION")
+                .description("Reconciliation of " + startedAt)
+                .build();
+    }
+
+    private static InventoryDiscrepancyDTO toDiscrepancy(ResultSet rs) throws SQLException {
+        int qtyOnHand = rs.getInt("qty_on_hand");
+        long ledgerQuantity = rs.getLong("ledger_quantity");
+        return new InventoryDiscrepancyDTO(
+                rs.getObject("id", UUID.class),
+                rs.getObject("warehouse_id", UUID.class),
+                rs.getObject("product_id", UUID.class),
+                qtyOnHand,
+                ledgerQuantity,
+                qtyOnHand - ledgerQuantity);
+    }
+
+    private final class ChunkTask extends RecursiveTask<List<InventoryDiscrepancyDTO>> {
+
+        private final Timestamp base;
+        private final List<UUID> bounds;
+        private final int from;
+        private final int to;
+
+        ChunkTask(Timestamp base, List<UUID> bounds, int from, int to) {
+            this.base = base;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<InventoryDiscrepancyDTO> compute() {
+            if (to - from == 1) {
+                return scanChunk(base, bounds.get(from), from + 1 < bounds.size() ? bounds.get(from + 1) : null);
+            }
+            int mid = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(base, bounds, from, mid);
+            left.fork();
+            List<InventoryDiscrepancyDTO> right = new ChunkTask(base, bounds, mid, to).compute();
+            List<InventoryDiscrepancyDTO> all = new ArrayList<>(left.join());
+            all.addAll(right);
+            return all;
+        }
+    }
+}
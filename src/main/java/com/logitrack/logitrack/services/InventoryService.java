@@ -1,14 +1,21 @@
 package com.logitrack.logitrack.services;
 
+import com.logitrack.logitrack.dtos.Inventory.ProductAvailability;
 import com.logitrack.logitrack.models.Inventory;
 import com.logitrack.logitrack.models.InventoryMovement;
 import com.logitrack.logitrack.models.Warehouse;
 import com.logitrack.logitrack.repositories.InventoryRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.logitrack.logitrack.models.ENUM.MovementType.OUTBOUND;
 
@@ -16,36 +23,71 @@ import static com.logitrack.logitrack.models.ENUM.MovementType.OUTBOUND;
 @RequiredArgsConstructor
 public class InventoryService {
 
+    private final InventoryRepository inventoryRepository;
+    private final MovementLedger movementLedger;
 
+    /**
+     * Reserve stock for one line with a single guarded UPDATE, so concurrent
+     * reservations cannot oversell and the warehouse graph is never merged.
+     */
+    @Transactional
+    public void reserveInventory(UUID warehouseId, UUID productId, Integer quantity) {
+        int updated = inventoryRepository.reserveIfAvailable(warehouseId, productId, quantity);
+        if (updated == 0) {
+            throw new IllegalArgumentException("Insufficient inventory for product " + productId);
+        }
+        if (updated > 1) {
+            throw new IllegalStateException("Duplicate inventory rows for product " + productId + " in warehouse " + warehouseId);
+        }
+    }
 
-    public Integer OutBoundInventory(UUID productId, Warehouse warehouse, Integer quantity) {
-        List<Inventory> inventory = warehouse.getInventories();
+    public Optional<Inventory> findInventory(UUID warehouseId, UUID productId) {
+        return inventoryRepository.findByWarehouseIdAndProductId(warehouseId, productId);
+    }
+
+    /**
+     * Load the inventories of the given products in one warehouse with a single query,
+     * keyed by product id, so callers resolve each order line with a map lookup.
+     */
+    public Map<UUID, Inventory> indexByProduct(UUID warehouseId, Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        return inventoryRepository.findByWarehouseIdAndProductIdIn(warehouseId, productIds).stream()
+                .collect(Collectors.toMap(inv -> inv.getProduct().getId(), Function.identity()));
+    }
+
+    /**
+     * Availability of every product of a cart, in the given warehouse and in total, from one
+     * aggregate query. Products without any inventory row are absent from the map.
+     */
+    public Map<UUID, ProductAvailability> availabilityByProduct(UUID warehouseId, Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        return inventoryRepository.findAvailability(warehouseId, productIds).stream()
+                .collect(Collectors.toMap(ProductAvailability::getProductId, Function.identity()));
+    }
 
-        List<Inventory> inventoryItems = inventory.stream()
-                .filter(inv -> inv.getProduct().getId().equals(productId))
-                .toList();
+    public Integer OutBoundInventory(UUID productId, Warehouse warehouse, Integer quantity) {
+        List<Inventory> inventoryItems = findInventory(warehouse.getId(), productId).stream().toList();
         if (inventoryItems.isEmpty()) {
             return quantity;
         }
 
         int[] remainingQuantity = {quantity};
         inventoryItems.forEach(inv -> {
-            if (inv.getQtyOnHand() >= remainingQuantity[0]) {
-                inv.setQtyOnHand(inv.getQtyOnHand() - remainingQuantity[0]);
-
-                remainingQuantity[0] = 0;
-            } else {
-                remainingQuantity[0] -= inv.getQtyOnHand();
-                inv.setQtyOnHand(0);
+            int withdrawn = Math.min(inv.getQtyOnHand(), remainingQuantity[0]);
+            inv.setQtyOnHand(inv.getQtyOnHand() - withdrawn);
+            remainingQuantity[0] -= withdrawn;
+            if (withdrawn > 0) {
+                movementLedger.append(InventoryMovement.builder()
+                        .inventory(inv)
+                        .type(OUTBOUND)
+                        .quantity(withdrawn)
+                        .build());
             }
-            InventoryMovement inventoryMovement = InventoryMovement.builder()
-                    .inventory(inv)
-                    .type(OUTBOUND)
-                    .quantity(remainingQuantity[0])
-                    .build();
         });
         return remainingQuantity[0];
     }
-
-    
 }
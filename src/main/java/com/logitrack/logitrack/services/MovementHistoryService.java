@@ -0,0 +1,103 @@
+package com.logitrack.logitrack.services;
+
+import com.logitrack.logitrack.Util.KeysetCursor;
+import com.logitrack.logitrack.dtos.CursorPageDTO;
+import com.logitrack.logitrack.dtos.Inventory.InventoryMovementRespDTO;
+import com.logitrack.logitrack.repositories.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Movement history of one inventory, newest first, in keyset pages. Every bound is a plain
+ * range predicate on occurred_at so PostgreSQL only scans the monthly partitions it can
+ * overlap, each through its (inventory_id, occurred_at) index.
+ */
+@Service
+@RequiredArgsConstructor
+public class MovementHistoryService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final String SELECT_SQL = """
+            SELECT id, type, quantity, occurred_at, reference_document, description, created_at
+            FROM inventory_movements
+            WHERE inventory_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryRepository inventoryRepository;
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<InventoryMovementRespDTO> getMovements(UUID inventoryId, LocalDateTime from, LocalDateTime to,
+                                                                String cursor, Integer size) {
+        if (!inventoryRepository.existsById(inventoryId)) {
+            throw new IllegalArgumentException("Inventory with id " + inventoryId + " not found.");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to.");
+        }
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>();
+        params.add(inventoryId);
+        if (from != null) {
+            sql.append("AND occurred_at >= ? ");
+            params.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append("AND occurred_at < ? ");
+            params.add(Timestamp.valueOf(to));
+        }
+        if (after != null) {
+            // the redundant upper bound lets the planner prune partitions newer than the cursor
+            sql.append("AND occurred_at <= ? AND (occurred_at < ? OR id < ?) ");
+            Timestamp at = Timestamp.valueOf(after.timestamp());
+            params.add(at);
+            params.add(at);
+            params.add(after.id());
+        }
+        // one extra row tells us whether another page exists without a count query
+        sql.append("ORDER BY occurred_at DESC, id DESC LIMIT ?");
+        params.add(pageSize + 1);
+
+        List<InventoryMovementRespDTO> rows = jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> toMovement(rs), params.toArray());
+        boolean hasNext = rows.size() > pageSize;
+        List<InventoryMovementRespDTO> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            InventoryMovementRespDTO last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.occurredAt(), last.id()).encode();
+        }
+        return CursorPageDTO.<InventoryMovementRespDTO>builder()
+                .items(page)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    private static InventoryMovementRespDTO toMovement(ResultSet rs) throws SQLException {
+        return new InventoryMovementRespDTO(
+                rs.getObject("id", UUID.class),
+                rs.getString("type"),
+                rs.getObject("quantity", Integer.class),
+                rs.getObject("occurred_at", LocalDateTime.class),
+                rs.getString("reference_document"),
+                rs.getString("description"),
+                rs.getObject("created_at", LocalDateTime.class));
+    }
+}
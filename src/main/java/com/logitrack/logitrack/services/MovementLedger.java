@@ -0,0 +1,616 @@
+package com.logitrack.logitrack.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logitrack.logitrack.models.InventoryMovement;
+import com.logitrack.logitrack.models.id.UuidV7Generator;
+import com.logitrack.logitrack.services.ledger.DeadLetterStore;
+import com.logitrack.logitrack.services.ledger.LedgerEntry;
+import com.logitrack.logitrack.services.ledger.WriteAheadLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only ledger of inventory movements. Movements recorded inside a transaction are
+ * buffered once it commits and inserted in JDBC batches by a background thread, when
+ * {@code logitrack.movement-ledger.batch-size} are waiting or every
+ * {@code logitrack.movement-ledger.flush-interval-ms}, so stock changes neither insert rows
+ * one by one nor load an inventory's movement history. Rows therefore appear shortly after the
+ * stock change commits.
+ * <p>
+ * Movements recorded inside a transaction without an explicit occurredAt get the time at which
+ * it is about to commit, after its pending entity changes are flushed: a stock checkpoint that
+ * waits for writers of inventories then sees either the stock change and a movement before it,
+ * or neither.
+ * <p>
+ * The buffer holds at most {@code logitrack.movement-ledger.buffer-capacity} movements. A
+ * transaction reserves room for its movements before it commits; when the buffer is full the
+ * committing thread flushes it itself, and when that does not free enough room either, because
+ * the database is down, the transaction fails instead of committing stock changes whose
+ * movements cannot be kept.
+ * <p>
+ * With {@code logitrack.movement-ledger.wal.enabled} the movements of a transaction are
+ * appended to a write-ahead log, and forced to disk with {@code wal.fsync}, before it commits,
+ * and movements logged but not inserted before a crash are inserted on the next start. A
+ * transaction that rolls back after logging appends an abort record for its movements; only
+ * one that dies between logging and committing can have its movements replayed without its
+ * stock change. Logging happens outside the buffer's lock, and transactions committing at the
+ * same time share one force of the log.
+ * <p>
+ * Movements that violate a constraint, and write-ahead log segments that cannot be read, are
+ * kept in {@code logitrack.movement-ledger.dead-letter.directory} rather than dropped. A
+ * segment that cannot be replayed for another reason stays in the log for the next start.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MovementLedger {
+
+    static final String INSERT_SQL = "INSERT INTO inventory_movements "
+            + "(id, inventory_id, type, quantity, occurred_at, reference_document, description, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // write-ahead log line cancelling a logged movement whose transaction rolled back
+    static final String ABORT_PREFIX = "ABORT ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${logitrack.movement-ledger.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${logitrack.movement-ledger.buffer-capacity:65536}")
+    private int bufferCapacity = 65536;
+
+    @Value("${logitrack.movement-ledger.flush-interval-ms:200}")
+    private long flushIntervalMs = 200;
+
+    @Value("${logitrack.movement-ledger.wal.enabled:false}")
+    private boolean walEnabled;
+
+    @Value("${logitrack.movement-ledger.wal.directory:data/movement-wal}")
+    private String walDirectory = "data/movement-wal";
+
+    @Value("${logitrack.movement-ledger.wal.fsync:true}")
+    private boolean walFsync = true;
+
+    @Value("${logitrack.movement-ledger.dead-letter.directory:data/movement-dead-letter}")
+    private String deadLetterDirectory = "data/movement-dead-letter";
+
+    private final Object appendLock = new Object();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // ring of buffered entries, oldest at head; only flush removes entries. All guarded by appendLock
+    private LedgerEntry[] ring;
+    private int head;
+    private int size;
+    // room promised to transactions that are committing
+    private int reserved;
+    // write-ahead log segment -> transactions that logged to it and are not buffered yet
+    private final TreeMap<Long, Integer> pinnedSegments = new TreeMap<>();
+    private WriteAheadLog wal;
+    private DeadLetterStore deadLetters;
+    private volatile Thread flusher;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void open() throws IOException {
+        ring = new LedgerEntry[bufferCapacity];
+        deadLetters = new DeadLetterStore(Path.of(deadLetterDirectory));
+        if (walEnabled) {
+            wal = new WriteAheadLog(Path.of(walDirectory), walFsync);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        replay();
+        running = true;
+        flusher = new Thread(this::flushPeriodically, "movement-ledger-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        running = false;
+        Thread thread = flusher;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+        if (wal != null) {
+            wal.close();
+        }
+    }
+
+    public void append(InventoryMovement movement) {
+        appendAll(List.of(movement));
+    }
+
+    /**
+     * Records movements of inventories that already have an id. Inside a transaction they are
+     * logged before it commits, buffered once it has and dropped when it rolls back; outside
+     * one they are logged and buffered right away.
+     *
+     * @throws IllegalStateException outside a transaction, when the buffer stays full or the
+     *                               write-ahead log cannot be written
+     */
+    public void appendAll(Collection<InventoryMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // stamped before commit
+            pendingInTransaction().entries.addAll(movements.stream().map(movement -> toEntry(movement, null)).toList());
+        } else {
+            LocalDateTime now = LocalDateTime.now();
+            List<LedgerEntry> entries = movements.stream().map(movement -> toEntry(movement, now)).toList();
+            for (int from = 0; from < entries.size(); from += bufferCapacity) {
+                List<LedgerEntry> chunk = entries.subList(from, Math.min(entries.size(), from + bufferCapacity));
+                reserve(chunk.size());
+                try {
+                    logAndBuffer(chunk);
+                } catch (IOException e) {
+                    release(chunk.size());
+                    throw new IllegalStateException("Failed to log " + chunk.size()
+                            + " inventory movements to the write-ahead log.", e);
+                }
+            }
+        }
+    }
+
+    /** Inserts every buffered movement; returns how many were inserted. */
+    public int flush() {
+        flushLock.lock();
+        try {
+            if (buffered() == 0) {
+                return 0;
+            }
+            // outside appendLock, as closing a segment forces it to disk; anything logged to it
+            // is buffered below or still pinned
+            long closed = wal != null ? rotateWal() : -1;
+            List<LedgerEntry> batch;
+            long deletableUpTo;
+            synchronized (appendLock) {
+                batch = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    batch.add(ring[(head + i) % ring.length]);
+                }
+                deletableUpTo = deletableSegments(closed);
+            }
+            try {
+                insert(batch);
+            } catch (DataIntegrityViolationException e) {
+                insertOneByOne(batch);
+            } catch (RuntimeException e) {
+                // the batch stays at the head of the ring
+                log.warn("Failed to insert {} inventory movements, retrying later", batch.size(), e);
+                return 0;
+            }
+            synchronized (appendLock) {
+                for (int i = 0; i < batch.size(); i++) {
+                    ring[(head + i) % ring.length] = null;
+                }
+                head = (head + batch.size()) % ring.length;
+                size -= batch.size();
+            }
+            if (deletableUpTo >= 0) {
+                deleteWal(deletableUpTo);
+            }
+            return batch.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int buffered() {
+        synchronized (appendLock) {
+            return size;
+        }
+    }
+
+    /**
+     * Inserts the movements of segments left by an earlier run that are not in the table yet
+     * and were not aborted, then deletes those segments. A segment that cannot be read is moved
+     * to the dead-letter directory; one that cannot be inserted for another reason is kept for
+     * the next start. Either way the later segments are still replayed.
+     */
+    void replay() {
+        if (wal == null) {
+            return;
+        }
+        List<Path> segments;
+        try {
+            segments = wal.recovered();
+        } catch (IOException e) {
+            log.error("Failed to list the inventory movement write-ahead log in {}", walDirectory, e);
+            return;
+        }
+        Map<Path, List<LedgerEntry>> logged = new LinkedHashMap<>();
+        Set<UUID> aborted = new HashSet<>();
+        // an abort record can be in a later segment than the movements it cancels
+        for (Path segment : segments) {
+            try {
+                logged.put(segment, read(segment, aborted));
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to read the inventory movement write-ahead log segment {}", segment, e);
+                quarantine(segment);
+            }
+        }
+        for (Map.Entry<Path, List<LedgerEntry>> segment : logged.entrySet()) {
+            try {
+                List<LedgerEntry> entries = segment.getValue().stream()
+                        .filter(entry -> !aborted.contains(entry.id())).toList();
+                Set<UUID> stored = storedIds(entries);
+                List<LedgerEntry> missing = entries.stream().filter(entry -> !stored.contains(entry.id())).toList();
+                try {
+                    insert(missing);
+                } catch (DataIntegrityViolationException e) {
+                    insertOneByOne(missing);
+                }
+                Files.delete(segment.getKey());
+                log.info("Replayed {} of {} inventory movements from {}", missing.size(), segment.getValue().size(),
+                        segment.getKey());
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to replay {}, keeping it for the next start", segment.getKey(), e);
+            }
+        }
+    }
+
+    private void flushPeriodically() {
+        while (running) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.warn("Inventory movement flush failed", e);
+            }
+        }
+    }
+
+    // makes room for count entries, flushing once if the buffer is full
+    private void reserve(int count) {
+        if (count > bufferCapacity) {
+            throw new IllegalStateException("Cannot record " + count + " inventory movements at once: the buffer holds "
+                    + bufferCapacity + ".");
+        }
+        for (int attempt = 0; ; attempt++) {
+            synchronized (appendLock) {
+                if (size + reserved + count <= bufferCapacity) {
+                    reserved += count;
+                    return;
+                }
+            }
+            if (attempt > 0) {
+                throw new IllegalStateException("The inventory movement buffer is full.");
+            }
+            flush();
+        }
+    }
+
+    private void release(int count) {
+        synchronized (appendLock) {
+            reserved -= count;
+        }
+    }
+
+    // the entries must have been reserved
+    private void logAndBuffer(List<LedgerEntry> entries) throws IOException {
+        long segment = wal != null ? pin() : -1;
+        try {
+            if (wal != null) {
+                wal.sync(wal.append(serialize(entries)));
+            }
+            buffer(entries);
+        } finally {
+            unpin(segment);
+        }
+    }
+
+    // keeps the open segment, and every later one, until unpinned; taken before appending to the log
+    private long pin() {
+        synchronized (appendLock) {
+            long segment = wal.current();
+            pinnedSegments.merge(segment, 1, Integer::sum);
+            return segment;
+        }
+    }
+
+    private void unpin(long segment) {
+        if (segment < 0) {
+            return;
+        }
+        synchronized (appendLock) {
+            pinnedSegments.computeIfPresent(segment, (pinned, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private void buffer(List<LedgerEntry> entries) {
+        synchronized (appendLock) {
+            for (LedgerEntry entry : entries) {
+                ring[(head + size) % ring.length] = entry;
+                size++;
+            }
+            reserved -= entries.size();
+            if (size >= batchSize && flusher != null) {
+                LockSupport.unpark(flusher);
+            }
+        }
+    }
+
+    private PendingMovements pendingInTransaction() {
+        PendingMovements pending = (PendingMovements) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            PendingMovements created = new PendingMovements();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    logBeforeCommit(created, readOnly);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MovementLedger.this);
+                    complete(created, status == STATUS_COMMITTED);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    // a failure here rolls the transaction back, so no stock change commits without its movements
+    private void logBeforeCommit(PendingMovements pending, boolean readOnly) {
+        if (pending.entries.isEmpty()) {
+            return;
+        }
+        if (!readOnly) {
+            flushPersistenceContext();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        pending.entries.replaceAll(entry -> entry.stampedAt(now));
+        reserve(pending.entries.size());
+        pending.reserved = true;
+        if (wal == null) {
+            return;
+        }
+        pending.segment = pin();
+        try {
+            wal.sync(wal.append(serialize(pending.entries)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to log " + pending.entries.size()
+                    + " inventory movements to the write-ahead log.", e);
+        }
+    }
+
+    private void complete(PendingMovements pending, boolean committed) {
+        if (!committed && pending.segment >= 0) {
+            abort(pending.entries);
+        }
+        synchronized (appendLock) {
+            if (committed && pending.reserved) {
+                buffer(pending.entries);
+            } else if (pending.reserved) {
+                reserved -= pending.entries.size();
+            }
+            unpin(pending.segment);
+        }
+        if (committed && !pending.reserved && !pending.entries.isEmpty()) {
+            // committed without a before-commit callback; record them like movements outside a transaction
+            LocalDateTime now = LocalDateTime.now();
+            pending.entries.replaceAll(entry -> entry.stampedAt(now));
+            try {
+                reserve(pending.entries.size());
+                logAndBuffer(pending.entries);
+            } catch (IOException | IllegalStateException e) {
+                log.error("Failed to record {} inventory movements of a committed transaction", pending.entries.size(), e);
+            }
+        }
+    }
+
+    // writes the inventory updates of the committing transaction now rather than during its commit
+    private void flushPersistenceContext() {
+        if (!(transactionManager instanceof JpaTransactionManager jpaTransactionManager)) {
+            return;
+        }
+        EntityManagerFactory entityManagerFactory = jpaTransactionManager.getEntityManagerFactory();
+        EntityManagerHolder holder = entityManagerFactory != null
+                ? (EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory) : null;
+        if (holder == null) {
+            return;
+        }
+        try {
+            holder.getEntityManager().flush();
+        } catch (PersistenceException e) {
+            // as the commit would, so optimistic lock conflicts are still retried
+            throw DataAccessUtils.translateIfNecessary(e, jpaTransactionManager.getJpaDialect());
+        }
+    }
+
+    // before the segment of the entries is unpinned, so it cannot be deleted without the records
+    private void abort(List<LedgerEntry> entries) {
+        StringBuilder records = new StringBuilder(entries.size() * 44);
+        entries.forEach(entry -> records.append(ABORT_PREFIX).append(entry.id()).append('\n'));
+        try {
+            wal.sync(wal.append(records.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            log.error("Failed to log the abort of {} inventory movements; they are inserted if the log is replayed",
+                    entries.size(), e);
+        }
+    }
+
+    // guarded by appendLock: the last segment up to closed that holds nothing unbuffered
+    private long deletableSegments(long closed) {
+        if (closed >= 0 && !pinnedSegments.isEmpty()) {
+            return Math.min(closed, pinnedSegments.firstKey() - 1);
+        }
+        return closed;
+    }
+
+    // its own transaction: after a commit the caller's connection may still be bound to the thread
+    private void insert(List<LedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.executeWithoutResult(status -> {
+            for (int from = 0; from < entries.size(); from += batchSize) {
+                List<Object[]> rows = entries.subList(from, Math.min(entries.size(), from + batchSize)).stream()
+                        .map(entry -> new Object[]{entry.id(), entry.inventoryId(), entry.type().name(), entry.quantity(),
+                                entry.occurredAt(), entry.referenceDocument(), entry.description(),
+                                entry.createdAt(), entry.createdAt()})
+                        .toList();
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            }
+        });
+    }
+
+    // a row that can never be inserted, such as one of a deleted inventory, must not hold back the others
+    private void insertOneByOne(List<LedgerEntry> entries) {
+        List<LedgerEntry> rejected = new ArrayList<>();
+        for (LedgerEntry entry : entries) {
+            try {
+                insert(List.of(entry));
+            } catch (DataIntegrityViolationException e) {
+                log.error("Rejected inventory movement {} of inventory {}", entry.id(), entry.inventoryId(), e);
+                rejected.add(entry);
+            }
+        }
+        if (rejected.isEmpty()) {
+            return;
+        }
+        try {
+            deadLetters.append(serialize(rejected));
+            log.error("Kept {} rejected inventory movements in {}", rejected.size(), deadLetters.rows());
+        } catch (IOException e) {
+            log.error("Failed to keep rejected inventory movements {} in {}", rejected, deadLetters.rows(), e);
+        }
+    }
+
+    private void quarantine(Path segment) {
+        try {
+            log.error("Moved {} to {}", segment, deadLetters.move(segment));
+        } catch (IOException e) {
+            log.error("Failed to move {} to the dead-letter directory, keeping it for the next start", segment, e);
+        }
+    }
+
+    private Set<UUID> storedIds(List<LedgerEntry> entries) {
+        Set<UUID> stored = new HashSet<>();
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<LedgerEntry> chunk = entries.subList(from, Math.min(entries.size(), from + batchSize));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            stored.addAll(jdbcTemplate.queryForList("SELECT id FROM inventory_movements WHERE id IN (" + placeholders + ")",
+                    UUID.class, chunk.stream().map(LedgerEntry::id).toArray()));
+        }
+        return stored;
+    }
+
+    private List<LedgerEntry> read(Path segment, Set<UUID> aborted) throws IOException {
+        List<String> lines = Files.readAllLines(segment);
+        List<LedgerEntry> entries = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                if (line.startsWith(ABORT_PREFIX)) {
+                    aborted.add(UUID.fromString(line.substring(ABORT_PREFIX.length())));
+                } else {
+                    entries.add(objectMapper.readValue(line, LedgerEntry.class));
+                }
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                if (i < lines.size() - 1) {
+                    throw e;
+                }
+                // the process died while appending the last record; its transaction never committed
+                log.warn("Ignoring a torn record at the end of {}", segment);
+            }
+        }
+        return entries;
+    }
+
+    private byte[] serialize(List<LedgerEntry> entries) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(entries.size() * 256);
+        for (LedgerEntry entry : entries) {
+            out.write(objectMapper.writeValueAsBytes(entry));
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+
+    private long rotateWal() {
+        try {
+            return wal.rotate();
+        } catch (IOException e) {
+            log.error("Failed to rotate the inventory movement write-ahead log", e);
+            return -1;
+        }
+    }
+
+    private void deleteWal(long upTo) {
+        try {
+            wal.deleteUpTo(upTo);
+        } catch (IOException e) {
+            // replaying a segment again inserts nothing twice
+            log.warn("Failed to delete flushed write-ahead log segments", e);
+        }
+    }
+
+    // without now, occurredAt and createdAt are left to stampedAt
+    private static LedgerEntry toEntry(InventoryMovement movement, LocalDateTime now) {
+        if (movement.getInventory() == null || movement.getInventory().getId() == null) {
+            throw new IllegalArgumentException("Inventory movements can only be recorded for saved inventories.");
+        }
+        UUID id = movement.getId() != null ? movement.getId() : UuidV7Generator.next();
+        movement.setId(id);
+        return new LedgerEntry(id, movement.getInventory().getId(), movement.getType(), movement.getQuantity(),
+                movement.getOccurredAt() != null ? movement.getOccurredAt() : now,
+                movement.getReferenceDocument(), movement.getDescription(), now);
+    }
+
+    // movements recorded by one transaction, and what it holds of the buffer and the log while it commits
+    private static final class PendingMovements {
+        private final List<LedgerEntry> entries = new ArrayList<>();
+        private boolean reserved;
+        private long segment = -1;
+    }
+}
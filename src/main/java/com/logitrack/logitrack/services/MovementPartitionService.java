@@ -0,0 +1,198 @@
+package com.logitrack.logitrack.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps inventory_movements range-partitioned by month on occurred_at on PostgreSQL. Partitions
+ * are named {@code inventory_movements_yYYYYmMM}; rows outside every monthly range land in
+ * {@code inventory_movements_default}. Detached partitions stay behind as plain tables to be
+ * archived or dropped. On other databases the table is left as it is and every method is a no-op.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MovementPartitionService {
+
+    static final String TABLE = "inventory_movements";
+    static final String DEFAULT_PARTITION = TABLE + "_default";
+    static final String INVENTORY_OCCURRED_INDEX = "idx_inventory_movements_inventory_occurred";
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile(TABLE + "_y(\\d{4})m(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${logitrack.movement-partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${logitrack.movement-partitions.retention-months:0}")
+    private int retentionMonths;
+
+    private Boolean postgres;
+
+    public boolean isPartitioned() {
+        if (!isPostgres()) {
+            return false;
+        }
+        String kind = jdbcTemplate.queryForObject(
+                "SELECT COALESCE((SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)), '')", String.class, TABLE);
+        return "p".equals(kind);
+    }
+
+    /**
+     * Converts a plain inventory_movements table, as created by Hibernate, into a partitioned one
+     * and copies its rows over. The primary key becomes (id, occurred_at) because PostgreSQL
+     * requires the partition key in every unique constraint. Foreign keys and indexes are
+     * recreated under their existing names, since Hibernate does not see them on a partitioned
+     * table and would otherwise add its own copies on the next start.
+     */
+    @Transactional
+    public void partitionTable() {
+        if (!isPostgres() || isPartitioned()) {
+            return;
+        }
+        jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN ACCESS EXCLUSIVE MODE");
+        if (isPartitioned()) {
+            return;
+        }
+        List<String> foreignKeys = jdbcTemplate.queryForList(
+                "SELECT 'ALTER TABLE " + TABLE + " ADD CONSTRAINT ' || quote_ident(conname) || ' ' || pg_get_constraintdef(oid)"
+                        + " FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'f'", String.class, TABLE);
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT pg_get_indexdef(indexrelid) FROM pg_index WHERE indrelid = to_regclass(?) AND NOT indisprimary",
+                String.class, TABLE);
+
+        String staging = TABLE + "_partitioned";
+        jdbcTemplate.execute("CREATE TABLE " + staging + " (LIKE " + TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)"
+                + " PARTITION BY RANGE (occurred_at)");
+        jdbcTemplate.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF " + staging + " DEFAULT");
+        LocalDate oldest = jdbcTemplate.queryForObject("SELECT CAST(MIN(occurred_at) AS date) FROM " + TABLE, LocalDate.class);
+        YearMonth first = oldest == null ? YearMonth.now() : YearMonth.from(oldest);
+        for (YearMonth month = first; !month.isAfter(YearMonth.now().plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+            createPartition(staging, month);
+        }
+
+        Long copied = jdbcTemplate.queryForObject(
+                "WITH moved AS (INSERT INTO " + staging + " SELECT * FROM " + TABLE + " RETURNING 1) SELECT COUNT(*) FROM moved",
+                Long.class);
+        jdbcTemplate.execute("DROP TABLE " + TABLE);
+        jdbcTemplate.execute("ALTER TABLE " + staging + " RENAME TO " + TABLE);
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT " + TABLE + "_pkey PRIMARY KEY (id, occurred_at)");
+        foreignKeys.forEach(jdbcTemplate::execute);
+        indexes.forEach(jdbcTemplate::execute);
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + INVENTORY_OCCURRED_INDEX + " ON " + TABLE + " (inventory_id, occurred_at)");
+        log.info("Partitioned {} by month on occurred_at, {} rows copied", TABLE, copied);
+    }
+
+    /** Creates the partitions of the current month and the next months-ahead months that are still missing. */
+    @Scheduled(cron = "${logitrack.movement-partitions.maintenance-cron:0 0 3 * * *}")
+    public void maintain() {
+        if (!isPartitioned()) {
+            return;
+        }
+        YearMonth now = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            try {
+                createPartition(TABLE, now.plusMonths(i));
+            } catch (DataAccessException e) {
+                // rows for that month already sit in the default partition
+                log.warn("Could not create the {} partition of {}: {}", now.plusMonths(i), TABLE, e.getMessage());
+            }
+        }
+        if (retentionMonths > 0) {
+            detachBefore(now.minusMonths(retentionMonths));
+        }
+    }
+
+    /** Monthly partitions currently attached, oldest first. */
+    public List<YearMonth> partitions() {
+        if (!isPartitioned()) {
+            return List.of();
+        }
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?)",
+                String.class, TABLE);
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : names) {
+            Matcher matcher = MONTHLY_PARTITION.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            }
+        }
+        months.sort(null);
+        return months;
+    }
+
+    /**
+     * First moment from which inventory_movements still holds every movement, or null when it
+     * holds the whole history. Once partitions were detached, or may have been because
+     * retention-months is set, that is the start of the oldest monthly partition still attached.
+     */
+    public LocalDateTime historyStart() {
+        if (!isPartitioned()) {
+            return null;
+        }
+        Long detached = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_class WHERE relkind = 'r' AND NOT relispartition AND relname ~ ?",
+                Long.class, "^" + MONTHLY_PARTITION.pattern() + "$");
+        if (retentionMonths <= 0 && (detached == null || detached == 0)) {
+            return null;
+        }
+        List<YearMonth> months = partitions();
+        return (months.isEmpty() ? YearMonth.now() : months.get(0)).atDay(1).atStartOfDay();
+    }
+
+    /**
+     * Detaches every monthly partition older than {@code before} and returns the names of the
+     * tables left behind. Their rows no longer show up in inventory_movements.
+     */
+    @Transactional
+    public List<String> detachBefore(YearMonth before) {
+        if (!isPartitioned()) {
+            throw new IllegalStateException("Table " + TABLE + " is not partitioned.");
+        }
+        List<String> detached = new ArrayList<>();
+        for (YearMonth month : partitions()) {
+            if (month.isBefore(before)) {
+                String partition = partitionName(month);
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+                detached.add(partition);
+            }
+        }
+        if (!detached.isEmpty()) {
+            log.info("Detached {} partitions of {} older than {}: {}", detached.size(), TABLE, before, detached);
+        }
+        return detached;
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("%s_y%04dm%02d", TABLE, month.getYear(), month.getMonthValue());
+    }
+
+    private void createPartition(String parent, YearMonth month) {
+        jdbcTemplate.execute(String.format("CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                partitionName(month), parent, month.atDay(1), month.plusMonths(1).atDay(1)));
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = "PostgreSQL".equals(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
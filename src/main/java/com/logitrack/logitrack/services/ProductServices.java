@@ -1,7 +1,9 @@
 package com.logitrack.logitrack.services;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import com.logitrack.logitrack.dtos.Product.ProductDTO;
@@ -20,13 +22,31 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ProductServices {
 
+    private static final int CODE_ATTEMPTS = 3;
+
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final CodeAllocator codeAllocator;
+    private final CodeRegistry codeRegistry;
+    private final ReferenceDataService referenceDataService;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
     public ProductRespDTO saveProduct(ProductDTO productDTO) {
-        Product product = productMapper.toEntity(productDTO);
-        productRepository.save(product);
-        return productMapper.toResponseDTO(product);
+        for (int attempt = 1; ; attempt++) {
+            Product product = productMapper.toEntity(productDTO);
+            product.setSku(codeAllocator.nextSku());
+            try {
+                productRepository.save(product);
+            } catch (DataIntegrityViolationException e) {
+                // the allocated SKU was already taken by a product created before the allocator
+                if (attempt == CODE_ATTEMPTS) {
+                    throw e;
+                }
+                continue;
+            }
+            cacheInvalidationBus.productChanged(product.getId(), product.getSku());
+            return productMapper.toResponseDTO(product);
+        }
     }
 
     public List<ProductRespDTO> getAllProducts() {
@@ -37,28 +57,30 @@ public class ProductServices {
     }
 
     public ProductRespDTO getProductBySku(String sku) {
-        Product product = productRepository.findBySku(sku)
+        Product product = findCachedBySku(sku)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found with SKU: " + sku));
         return productMapper.toResponseDTO(product);
     }
 
     public ProductRespDTO updateProduct(String sku, @Valid ProductDTO productDTO) {
-        Product existingProduct = productRepository.findBySku(sku)
+        Product existingProduct = findBySku(sku)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with SKU: " + sku));
         productMapper.updateProductFromDto(productDTO, existingProduct);
         productRepository.save(existingProduct);
+        cacheInvalidationBus.productChanged(existingProduct.getId(), sku, existingProduct.getSku());
         return productMapper.toResponseDTO(existingProduct);
 
     }
 
     public void deleteProductBySku(String sku) {
-        Product product = productRepository.findBySku(sku)
+        Product product = findBySku(sku)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found with SKU: " + sku));
         productRepository.delete(product);
+        cacheInvalidationBus.productChanged(product.getId(), product.getSku());
     }
 
     public Product productStatusUpdate(String sku, boolean status) {
-        Product product = productRepository.findBySku(sku)
+        Product product = findBySku(sku)
                 .orElseThrow(() -> new IllegalArgumentException("Product with SKU " + sku + " not found."));
 
         if(!status){
@@ -76,9 +98,16 @@ public class ProductServices {
         }
          product.setActive(status);
         productRepository.save(product);
+        cacheInvalidationBus.productChanged(product.getId(), product.getSku());
         return product;
     }
 
+    private Optional<Product> findBySku(String sku) {
+        return codeRegistry.skuMayExist(sku) ? productRepository.findBySku(sku) : Optional.empty();
+    }
 
-
+    // detached and shared: read-only use
+    private Optional<Product> findCachedBySku(String sku) {
+        return codeRegistry.skuMayExist(sku) ? referenceDataService.findProductBySku(sku) : Optional.empty();
+    }
 }
@@ -0,0 +1,166 @@
+package com.logitrack.logitrack.services;
+
+import com.logitrack.logitrack.models.Product;
+import com.logitrack.logitrack.models.PurchaseOrder;
+import com.logitrack.logitrack.models.PurchaseOrderLine;
+import com.logitrack.logitrack.models.ENUM.PurchaseOrderStatus;
+import com.logitrack.logitrack.models.id.UuidV7Generator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Applies received purchase orders to stock with set-based SQL: the line quantities of all
+ * orders are summed per warehouse and product and added by one batched upsert, and the INBOUND
+ * movement of every line is written by one batched insert, however many lines and orders there
+ * are. Movements are inserted in the receiving transaction rather than through
+ * {@link MovementLedger}, since the ids of inventories created by the upsert are only known to
+ * the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PurchaseOrderReceivingService {
+
+    // a concurrent receipt of the same new product updates the row the other one inserted
+    static final String UPSERT_SQL_POSTGRES = """
+            INSERT INTO inventories (id, warehouse_id, product_id, qty_on_hand, qty_reserved, version, created_at, updated_at)
+            VALUES (?, ?, ?, ?, 0, 0, ?, ?)
+            ON CONFLICT (warehouse_id, product_id) DO UPDATE SET
+                qty_on_hand = inventories.qty_on_hand + EXCLUDED.qty_on_hand,
+                version = inventories.version + 1,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    static final String UPSERT_SQL_MERGE = """
+            MERGE INTO inventories i
+            USING (VALUES (CAST(? AS UUID), CAST(? AS UUID), CAST(? AS UUID), CAST(? AS INTEGER), CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP)))
+                AS r (id, warehouse_id, product_id, quantity, created_at, updated_at)
+            ON i.warehouse_id = r.warehouse_id AND i.product_id = r.product_id
+            WHEN MATCHED THEN UPDATE SET
+                qty_on_hand = i.qty_on_hand + r.quantity,
+                version = i.version + 1,
+                updated_at = r.updated_at
+            WHEN NOT MATCHED THEN INSERT (id, warehouse_id, product_id, qty_on_hand, qty_reserved, version, created_at, updated_at)
+                VALUES (r.id, r.warehouse_id, r.product_id, r.quantity, 0, 0, r.created_at, r.updated_at)
+            """;
+
+    static final String MOVEMENT_SQL = """
+            INSERT INTO inventory_movements
+                (id, inventory_id, type, quantity, occurred_at, reference_document, description, created_at, updated_at)
+            VALUES (?, (SELECT id FROM inventories WHERE warehouse_id = ? AND product_id = ?), 'INBOUND', ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private Boolean postgres;
+
+    /**
+     * Marks the purchase orders RECEIVED, records their unit prices as the products' bought price
+     * and adds their lines to the stock of their warehouses. The orders are locked first, so an
+     * order received meanwhile by another request is rejected instead of being counted twice.
+     * Products whose bought price changed are evicted from the caches once the receipt commits.
+     */
+    @Transactional
+    public void receive(List<PurchaseOrder> purchaseOrders) {
+        for (PurchaseOrder purchaseOrder : purchaseOrders) {
+            if (purchaseOrder.getWarehouse() == null) {
+                throw new IllegalArgumentException("Purchase Order with id " + purchaseOrder.getId() + " has no warehouse.");
+            }
+        }
+        lockUnreceived(purchaseOrders);
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp at = Timestamp.valueOf(now);
+        // sorted, so concurrent receipts lock the inventory rows they share in the same order
+        Map<InventoryKey, Integer> quantities = new TreeMap<>();
+        List<Object[]> movements = new ArrayList<>();
+        Map<UUID, Product> repriced = new LinkedHashMap<>();
+        for (PurchaseOrder purchaseOrder : purchaseOrders) {
+            purchaseOrder.setStatus(PurchaseOrderStatus.RECEIVED);
+            purchaseOrder.setActualDelivery(now);
+            UUID warehouseId = purchaseOrder.getWarehouse().getId();
+            for (PurchaseOrderLine line : purchaseOrder.getLines()) {
+                Product product = line.getProduct();
+                if (!Objects.equals(product.getBoughtPrice(), line.getUnitPrice())) {
+                    product.setBoughtPrice(line.getUnitPrice());
+                    repriced.put(product.getId(), product);
+                }
+                UUID productId = product.getId();
+                quantities.merge(new InventoryKey(warehouseId, productId), line.getQuantity(), Integer::sum);
+                // timestamps are set once the stock is updated
+                movements.add(new Object[]{UuidV7Generator.next(), warehouseId, productId, line.getQuantity(), null,
+                        purchaseOrder.getId().toString(), "Purchase order received", null, null});
+            }
+        }
+        repriced.values().forEach(product -> cacheInvalidationBus.productChanged(product.getId(), product.getSku()));
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> upserts = new ArrayList<>(quantities.size());
+        quantities.forEach((key, quantity) ->
+                upserts.add(new Object[]{UuidV7Generator.next(), key.warehouseId(), key.productId(), quantity, at, at}));
+        jdbcTemplate.batchUpdate(isPostgres() ? UPSERT_SQL_POSTGRES : UPSERT_SQL_MERGE, upserts);
+        // stamped once the upsert holds the inventory rows, like the movements of MovementLedger:
+        // a stock checkpoint that includes the receipt waits for it, so they occurred before it
+        Timestamp occurredAt = Timestamp.valueOf(LocalDateTime.now());
+        for (Object[] movement : movements) {
+            movement[4] = occurredAt;
+            movement[7] = occurredAt;
+            movement[8] = occurredAt;
+        }
+        jdbcTemplate.batchUpdate(MOVEMENT_SQL, movements);
+        log.debug("Received {} purchase orders: {} lines into {} inventories", purchaseOrders.size(), movements.size(), upserts.size());
+    }
+
+    private void lockUnreceived(List<PurchaseOrder> purchaseOrders) {
+        Object[] ids = purchaseOrders.stream().map(PurchaseOrder::getId).sorted().toArray();
+        String placeholders = String.join(", ", Collections.nCopies(ids.length, "?"));
+        Set<UUID> unreceived = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM purchase_orders WHERE id IN (" + placeholders + ") AND status <> 'RECEIVED' ORDER BY id FOR UPDATE",
+                UUID.class, ids));
+        for (PurchaseOrder purchaseOrder : purchaseOrders) {
+            if (!unreceived.contains(purchaseOrder.getId())) {
+                throw new IllegalStateException("Purchase Order with id " + purchaseOrder.getId() + " has already been received.");
+            }
+        }
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = "PostgreSQL".equals(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+
+    private record InventoryKey(UUID warehouseId, UUID productId) implements Comparable<InventoryKey> {
+
+        private static final Comparator<InventoryKey> ORDER =
+                Comparator.comparing(InventoryKey::warehouseId).thenComparing(InventoryKey::productId);
+
+        @Override
+        public int compareTo(InventoryKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
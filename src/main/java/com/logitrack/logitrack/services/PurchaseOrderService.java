@@ -3,24 +3,31 @@ package com.logitrack.logitrack.services;
 import com.logitrack.logitrack.dtos.PurchaseOrder.PurchaseOrderDTO;
 import com.logitrack.logitrack.dtos.PurchaseOrder.PurchaseOrderRespDTO;
 import com.logitrack.logitrack.mapper.PurchaseOrderMapper;
-import com.logitrack.logitrack.models.*;
-import com.logitrack.logitrack.models.ENUM.MovementType;
+import com.logitrack.logitrack.models.PurchaseOrder;
 import com.logitrack.logitrack.models.ENUM.PurchaseOrderStatus;
-import com.logitrack.logitrack.repositories.*;
+import com.logitrack.logitrack.repositories.PurchaseOrderRepository;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PurchaseOrderService {
 
+    static final int MAX_ORDERS_PER_RECEIPT = 1000;
+
     private final PurchaseOrderRepository purchaseOrderRepository;
     private final PurchaseOrderMapper purchaseOrderMapper;
+    private final PurchaseOrderReceivingService purchaseOrderReceivingService;
 
 
     public PurchaseOrderRespDTO createPurchaseOrder(PurchaseOrderDTO purchaseOrderDTO) {
@@ -58,6 +65,7 @@ public class PurchaseOrderService {
         return purchaseOrderMapper.toResponseDTO(purchaseOrder);
     }
 
+    @Transactional
     public PurchaseOrderRespDTO parchaseOrderStatusUpdate(UUID id, PurchaseOrderStatus status) {
         PurchaseOrder existingPurchaseOrder = purchaseOrderRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Purchase Order with id " + id + " not found."));
@@ -66,53 +74,41 @@ public class PurchaseOrderService {
         }
         existingPurchaseOrder.setStatus(status);
         if(status == PurchaseOrderStatus.RECEIVED) {
-            existingPurchaseOrder.setActualDelivery(LocalDateTime.now());
-
-            existingPurchaseOrder.getLines().forEach(line -> {
-                line.getProduct().setBoughtPrice(line.getUnitPrice());
-                List<Inventory> inventories = existingPurchaseOrder.getWarehouse().getInventories();
-                inventories.stream()
-                        .filter(inv -> inv.getProduct().getId().equals(line.getProduct().getId()))
-                        .findFirst()
-                        .ifPresentOrElse(
-                                inv -> {
-                                    inv.setQtyOnHand(inv.getQtyOnHand() + line.getQuantity());
-                                    InventoryMovement inventoryMovement = InventoryMovement.builder()
-                                            .inventory(inv)
-                                            .type(MovementType.INBOUND)
-                                            .quantity(line.getQuantity())
-                                            .occurredAt(LocalDateTime.now())
-                                            .build();
-                                    inv.getInventoryMovements().add(inventoryMovement);
-                                },
-                                () -> {
-                                    Inventory newInventory = Inventory.builder()
-                                            .product(line.getProduct())
-                                            .qtyOnHand(line.getQuantity())
-                                            .qtyReserved(0)
-                                            .warehouse(existingPurchaseOrder.getWarehouse())
-                                            .build();
-                                    line.getProduct().getInventory().add(newInventory);
-                                    // Add to warehouse inventories list - will be cascaded when saving PurchaseOrder
-                                    existingPurchaseOrder.getWarehouse().getInventories().add(newInventory);
-
-
-                                    InventoryMovement inventoryMovement = InventoryMovement.builder()
-                                            .inventory(newInventory)
-                                            .type(MovementType.INBOUND)
-                                            .quantity(line.getQuantity())
-                                            .occurredAt(LocalDateTime.now())
-                                            .build();
-                                    newInventory.getInventoryMovements().add(inventoryMovement);
-                                }
-                        );
-            });
-
-
+            purchaseOrderReceivingService.receive(List.of(existingPurchaseOrder));
         }
         purchaseOrderRepository.save(existingPurchaseOrder);
         return purchaseOrderMapper.toResponseDTO(existingPurchaseOrder);
     }
 
+    /** Receives several purchase orders at once; either all of them are received or none. */
+    @Transactional
+    public List<PurchaseOrderRespDTO> receivePurchaseOrders(Collection<UUID> ids) {
+        List<UUID> distinctIds = ids.stream().distinct().toList();
+        if (distinctIds.isEmpty()) {
+            throw new IllegalArgumentException("No purchase orders to receive.");
+        }
+        if (distinctIds.size() > MAX_ORDERS_PER_RECEIPT) {
+            throw new IllegalArgumentException("At most " + MAX_ORDERS_PER_RECEIPT + " purchase orders can be received at once.");
+        }
+        Map<UUID, PurchaseOrder> found = purchaseOrderRepository.findWithLinesByIdIn(distinctIds).stream()
+                .collect(Collectors.toMap(PurchaseOrder::getId, Function.identity()));
+        List<PurchaseOrder> purchaseOrders = new ArrayList<>(distinctIds.size());
+        for (UUID id : distinctIds) {
+            PurchaseOrder purchaseOrder = found.get(id);
+            if (purchaseOrder == null) {
+                throw new IllegalArgumentException("Purchase Order with id " + id + " not found.");
+            }
+            if (purchaseOrder.getStatus() == PurchaseOrderStatus.RECEIVED) {
+                throw new IllegalArgumentException("Purchase Order with id " + id + " has already been received.");
+            }
+            purchaseOrders.add(purchaseOrder);
+        }
+        purchaseOrderReceivingService.receive(purchaseOrders);
+        purchaseOrderRepository.saveAll(purchaseOrders);
+        return purchaseOrders.stream()
+                .map(purchaseOrderMapper::toResponseDTO)
+                .toList();
+    }
+
 
 }
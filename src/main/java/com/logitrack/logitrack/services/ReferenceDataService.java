@@ -0,0 +1,106 @@
+package com.logitrack.logitrack.services;
+
+import com.logitrack.logitrack.config.CacheConfig;
+import com.logitrack.logitrack.models.Carrier;
+import com.logitrack.logitrack.models.Product;
+import com.logitrack.logitrack.models.WAREHOUSE_MANAGER;
+import com.logitrack.logitrack.models.Warehouse;
+import com.logitrack.logitrack.repositories.CarrierRepository;
+import com.logitrack.logitrack.repositories.ProductRepository;
+import com.logitrack.logitrack.repositories.WarehouseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cached lookups of products, warehouses and carriers for read paths such as building
+ * orders and shipments. The returned entities are detached and shared between requests:
+ * use them as association targets and read their columns, but never modify them or walk
+ * their lazy collections. Writes go through the repositories and evict through {@link CacheInvalidationBus}.
+ * Warehouses are cached as copies of their columns only, without inventories or purchase orders,
+ * so stock is never served from the cache.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataService {
+
+    private final ProductRepository productRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final CarrierRepository carrierRepository;
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, unless = "#result == null")
+    public Optional<Product> findProduct(UUID id) {
+        return productRepository.findById(id);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_BY_SKU, unless = "#result == null")
+    public Optional<Product> findProductBySku(String sku) {
+        return productRepository.findBySku(sku);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.WAREHOUSES, unless = "#result == null")
+    public Optional<Warehouse> findWarehouse(UUID id) {
+        return warehouseRepository.findById(id).map(ReferenceDataService::columnsOf);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.WAREHOUSES_BY_CODE, unless = "#result == null")
+    public Optional<Warehouse> findWarehouseByCode(String code) {
+        return warehouseRepository.findByCode(code).map(ReferenceDataService::columnsOf);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.CARRIERS, unless = "#result == null")
+    public Optional<Carrier> findCarrier(UUID id) {
+        return carrierRepository.findById(id);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS)
+    public void evictProduct(UUID id) {
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_BY_SKU)
+    public void evictProductSku(String sku) {
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.WAREHOUSES)
+    public void evictWarehouse(UUID id) {
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.WAREHOUSES_BY_CODE)
+    public void evictWarehouseCode(String code) {
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.CARRIERS)
+    public void evictCarrier(UUID id) {
+    }
+
+    private static Warehouse columnsOf(Warehouse warehouse) {
+        WAREHOUSE_MANAGER manager = warehouse.getWarehouse_manager();
+        return Warehouse.builder()
+                .id(warehouse.getId())
+                .code(warehouse.getCode())
+                .name(warehouse.getName())
+                .location(warehouse.getLocation())
+                .active(warehouse.getActive())
+                .warehouse_manager(manager == null ? null : WAREHOUSE_MANAGER.builder()
+                        .id(manager.getId())
+                        .name(manager.getName())
+                        .email(manager.getEmail())
+                        .role(manager.getRole())
+                        .active(manager.getActive())
+                        .createdAt(manager.getCreatedAt())
+                        .updatedAt(manager.getUpdatedAt())
+                        .build())
+                .createdAt(warehouse.getCreatedAt())
+                .updatedAt(warehouse.getUpdatedAt())
+                .build();
+    }
+
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS, CacheConfig.PRODUCTS_BY_SKU, CacheConfig.WAREHOUSES,
+            CacheConfig.WAREHOUSES_BY_CODE, CacheConfig.CARRIERS}, allEntries = true)
+    public void evictAll() {
+    }
+}
@@ -0,0 +1,198 @@
+package com.logitrack.logitrack.services;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logitrack.logitrack.dtos.Inventory.ProductAvailability;
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderBulkItemResultDTO;
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderBulkResultDTO;
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderDTO;
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderLine.SalesOrderLineDTO;
+import com.logitrack.logitrack.mapper.SalesOrderMapper;
+import com.logitrack.logitrack.models.Client;
+import com.logitrack.logitrack.models.ENUM.OrderStatus;
+import com.logitrack.logitrack.models.Product;
+import com.logitrack.logitrack.models.SalesOrder;
+import com.logitrack.logitrack.models.Warehouse;
+import com.logitrack.logitrack.repositories.ClientRepository;
+import com.logitrack.logitrack.repositories.ProductRepository;
+import com.logitrack.logitrack.repositories.SalesOrderRepository;
+import com.logitrack.logitrack.repositories.WarehouseRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates sales orders in bulk from a JSON array or an NDJSON stream. Orders are
+ * read and persisted in chunks: references for a chunk are loaded with one query
+ * per table and the chunk is inserted in a single transaction using JDBC batching.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesOrderIngestionService {
+
+    private final SalesOrderRepository salesOrderRepository;
+    private final ClientRepository clientRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final ProductRepository productRepository;
+    private final InventoryService inventoryService;
+    private final SalesOrderMapper salesOrderMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @Value("${logitrack.ingestion.chunk-size:500}")
+    private int chunkSize = 500;
+
+    public SalesOrderBulkResultDTO ingest(InputStream body) throws IOException {
+        SalesOrderBulkResultDTO result = new SalesOrderBulkResultDTO();
+        Map<Integer, SalesOrderDTO> chunk = new LinkedHashMap<>();
+        int index = 0;
+
+        // a top-level JSON array is unwrapped, so arrays and NDJSON share this path
+        try (MappingIterator<SalesOrderDTO> orders = objectMapper.readerFor(SalesOrderDTO.class).readValues(body)) {
+            while (true) {
+                try {
+                    if (!orders.hasNextValue()) {
+                        break;
+                    }
+                    chunk.put(index, orders.nextValue());
+                } catch (JsonParseException e) {
+                    // malformed input: nothing after this point can be read reliably
+                    fail(result, index, "Malformed JSON: " + e.getOriginalMessage());
+                    index++;
+                    break;
+                } catch (JsonProcessingException e) {
+                    fail(result, index, "Invalid sales order: " + e.getOriginalMessage());
+                }
+                index++;
+                if (chunk.size() >= chunkSize) {
+                    ingestChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            ingestChunk(chunk, result);
+        }
+        result.setReceived(index);
+        result.getResults().sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        return result;
+    }
+
+    private void ingestChunk(Map<Integer, SalesOrderDTO> chunk, SalesOrderBulkResultDTO result) {
+        Map<UUID, Client> clients = loadById(clientRepository.findAllById(ids(chunk, SalesOrderDTO::getClientId)), Client::getId);
+        Map<UUID, Warehouse> warehouses = loadById(warehouseRepository.findAllById(ids(chunk, SalesOrderDTO::getWarehouseId)), Warehouse::getId);
+        Set<UUID> productIds = chunk.values().stream()
+                .filter(dto -> dto.getLines() != null)
+                .flatMap(dto -> dto.getLines().stream())
+                .map(SalesOrderLineDTO::getProductId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, Product> products = loadById(productRepository.findAllById(productIds), Product::getId);
+        Map<UUID, Map<UUID, ProductAvailability>> availability = new HashMap<>();
+        for (Warehouse warehouse : warehouses.values()) {
+            availability.put(warehouse.getId(), inventoryService.availabilityByProduct(warehouse.getId(), List.copyOf(productIds)));
+        }
+
+        Map<Integer, SalesOrder> valid = new LinkedHashMap<>();
+        chunk.forEach((index, dto) -> {
+            try {
+                valid.put(index, toEntity(dto, clients, warehouses, products, availability));
+            } catch (IllegalArgumentException e) {
+                fail(result, index, e.getMessage());
+            }
+        });
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        try {
+            persist(valid.values());
+            valid.forEach((index, order) -> succeed(result, index, order));
+        } catch (DataAccessException e) {
+            // isolate the offending orders instead of failing the whole chunk
+            log.warn("Bulk insert of {} sales orders failed, retrying one by one: {}", valid.size(), e.getMessage());
+            valid.keySet().forEach(index -> {
+                try {
+                    SalesOrder order = toEntity(chunk.get(index), clients, warehouses, products, availability);
+                    persist(List.of(order));
+                    succeed(result, index, order);
+                } catch (DataAccessException ex) {
+                    fail(result, index, ex.getMostSpecificCause().getMessage());
+                }
+            });
+        }
+    }
+
+    private SalesOrder toEntity(SalesOrderDTO dto, Map<UUID, Client> clients, Map<UUID, Warehouse> warehouses,
+                                Map<UUID, Product> products, Map<UUID, Map<UUID, ProductAvailability>> availability) {
+        Set<ConstraintViolation<SalesOrderDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        Client client = clients.get(dto.getClientId());
+        if (client == null) {
+            throw new IllegalArgumentException("Client with id " + dto.getClientId() + " not found.");
+        }
+        Warehouse warehouse = warehouses.get(dto.getWarehouseId());
+        if (warehouse == null) {
+            throw new IllegalArgumentException("Warehouse with id " + dto.getWarehouseId() + " not found.");
+        }
+        SalesOrder salesOrder = salesOrderMapper.toEntity(dto, client, warehouse, products, availability.get(warehouse.getId()));
+        salesOrder.setStatus(OrderStatus.CREATED);
+        return salesOrder;
+    }
+
+    private void persist(Iterable<SalesOrder> orders) {
+        transactionTemplate.executeWithoutResult(status -> {
+            salesOrderRepository.saveAll(orders);
+            // push the batched inserts now and keep the persistence context from growing across chunks
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private static Set<UUID> ids(Map<Integer, SalesOrderDTO> chunk, Function<SalesOrderDTO, UUID> id) {
+        return chunk.values().stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private static <T> Map<UUID, T> loadById(List<T> entities, Function<T, UUID> id) {
+        return entities.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    private static void succeed(SalesOrderBulkResultDTO result, int index, SalesOrder order) {
+        result.setCreated(result.getCreated() + 1);
+        result.getResults().add(SalesOrderBulkItemResultDTO.builder().index(index).success(true).orderId(order.getId()).build());
+    }
+
+    private static void fail(SalesOrderBulkResultDTO result, int index, String error) {
+        result.setFailed(result.getFailed() + 1);
+        result.getResults().add(SalesOrderBulkItemResultDTO.builder().index(index).success(false).error(error).build());
+    }
+}
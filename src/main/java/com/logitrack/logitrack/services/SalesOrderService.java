@@ -1,39 +1,50 @@
 package com.logitrack.logitrack.services;
 
+import com.logitrack.logitrack.Util.KeysetCursor;
+import com.logitrack.logitrack.config.RetryOnOptimisticLock;
+import com.logitrack.logitrack.dtos.CursorPageDTO;
 import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderDTO;
 import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderRespDTO;
 import com.logitrack.logitrack.mapper.PurchaseOrderMapper;
 import com.logitrack.logitrack.mapper.SalesOrderMapper;
 import com.logitrack.logitrack.models.*;
-import com.logitrack.logitrack.models.ENUM.MovementType;
 import com.logitrack.logitrack.models.ENUM.OrderStatus;
 import com.logitrack.logitrack.models.ENUM.ShipmentStatus;
-import com.logitrack.logitrack.repositories.CarrierRepository;
+import com.logitrack.logitrack.repositories.SalesOrderLineRepository;
 import com.logitrack.logitrack.repositories.SalesOrderRepository;
-import com.logitrack.logitrack.repositories.WarehouseRepository;
+import com.logitrack.logitrack.repositories.SalesOrderSpecifications;
 
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import static com.logitrack.logitrack.models.ENUM.MovementType.OUTBOUND;
 
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class SalesOrderService {
 
     private final SalesOrderRepository salesOrderRepository;
+    private final SalesOrderLineRepository salesOrderLineRepository;
     private final SalesOrderMapper salesOrderMapper;
-    private final WarehouseRepository warehouseRepository;
     private final PurchaseOrderMapper purchaseOrderMapper;
-    private final CarrierRepository carrierRepository;
+    private final CarrierCapacityService carrierCapacityService;
+    private final ReferenceDataService referenceDataService;
+    private final MovementLedger movementLedger;
+    private final InventoryService inventoryService;
+    private final StockSourcingService stockSourcingService;
 
     public SalesOrderRespDTO createSalesOrder(SalesOrderDTO salesOrderDTO) {
         SalesOrder salesOrder=salesOrderMapper.toEntity(salesOrderDTO);
@@ -43,21 +54,66 @@ public class SalesOrderService {
         return salesOrderMapper.toRespDTO(salesOrder);
     }
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    // the to-one side of SalesOrder.DETAIL_GRAPH; shipment is the inverse side of a one-to-one and
+    // would otherwise be selected once per row
+    private static final List<String> PAGE_FETCH = List.of("client", "warehouse", "shipment.carrier");
+
+    /**
+     * The newest {@value #MAX_PAGE_SIZE} sales orders, read through the keyset page query so the
+     * whole table is never loaded; older orders are read with {@link #getSalesOrdersPage}.
+     */
+    @Transactional(readOnly = true)
     public List<SalesOrderRespDTO> getAllSalesOrders() {
-        List<SalesOrder> salesOrders = salesOrderRepository.findAll();
-        return salesOrders.stream()
-                .map(salesOrderMapper::toRespDTO)
-                .toList();
+        return getSalesOrdersPage(null, null, null, null, null, null, MAX_PAGE_SIZE).getItems();
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SalesOrderRespDTO> getSalesOrdersPage(OrderStatus status, UUID warehouseId, UUID clientId,
+                                                               LocalDateTime from, LocalDateTime to,
+                                                               String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        Specification<SalesOrder> spec = Specification.where(SalesOrderSpecifications.hasStatus(status))
+                .and(SalesOrderSpecifications.inWarehouse(warehouseId))
+                .and(SalesOrderSpecifications.forClient(clientId))
+                .and(SalesOrderSpecifications.createdFrom(from))
+                .and(SalesOrderSpecifications.createdBefore(to))
+                .and(SalesOrderSpecifications.after(cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor)));
+
+        // one extra row tells us whether another page exists without a count query
+        List<SalesOrder> rows = salesOrderRepository.findBy(spec, q -> q.sortBy(KEYSET_ORDER).limit(pageSize + 1).project(PAGE_FETCH).all());
+        boolean hasNext = rows.size() > pageSize;
+        List<SalesOrder> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        // the keyset query can't fetch the lines without paging in memory, so they come in a second query
+        if (!page.isEmpty()) {
+            salesOrderRepository.findWithLinesByIdIn(page.stream().map(SalesOrder::getId).toList());
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            SalesOrder last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return CursorPageDTO.<SalesOrderRespDTO>builder()
+                .items(page.stream().map(salesOrderMapper::toRespDTO).toList())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
     }
 
+    @Transactional(readOnly = true)
     public SalesOrderRespDTO getSalesOrderById(UUID id) {
-        SalesOrder salesOrder = salesOrderRepository.findById(id)
+        SalesOrder salesOrder = salesOrderRepository.findDetailById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Sales Order with id " + id + " not found."));
         return salesOrderMapper.toRespDTO(salesOrder);
     }
 
     public SalesOrderRespDTO updateSalesOrder(UUID id, SalesOrderDTO salesOrderDTO) {
-        SalesOrder existingOrder = salesOrderRepository.findById(id)
+        SalesOrder existingOrder = salesOrderRepository.findDetailById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Sales Order with id " + id + " not found."));
         if(existingOrder.getStatus() == OrderStatus.RESERVED || existingOrder.getStatus() == OrderStatus.SHIPPED){
             throw new IllegalStateException("Reserved or shipped orders cannot be updated.");
@@ -68,20 +124,23 @@ public class SalesOrderService {
     }
 
     public SalesOrderRespDTO deleteSalesOrderById(UUID id) {
-        SalesOrder salesOrder = salesOrderRepository.findById(id)
+        SalesOrder salesOrder = salesOrderRepository.findDetailById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Sales Order with id " + id + " not found."));
         salesOrderRepository.delete(salesOrder);
         return salesOrderMapper.toRespDTO(salesOrder);
     }
 
+    @RetryOnOptimisticLock
+    @Transactional
     public Object reserveSalesOrder(UUID id) {
-        SalesOrder salesOrder = salesOrderRepository.findById(id)
+        SalesOrder salesOrder = salesOrderRepository.findForTransitionById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Sales Order with id " + id + " not found."));
 
         if(salesOrder.getStatus() != OrderStatus.CREATED) {
             throw new IllegalStateException("Only orders in CREATED status can be reserved.");
         }
         List<PurchaseOrderLine> linesToPurchase = new ArrayList<PurchaseOrderLine>();
+        List<SalesOrderLine> sourcedLines = new ArrayList<>();
         
         // Process ALL lines (both backorder and non-backorder)
         for (var line : salesOrder.getLines()) {
@@ -89,7 +148,7 @@ public class SalesOrderService {
                 // For backorder lines: transfer from other warehouses
                 Integer remainingQty = transferProductsBetweenWarehouses(salesOrder.getWarehouse(), line.getProduct().getId(), line.getQuantity());
                 if (remainingQty == 0) {
-                    line.setBackorder(false);
+                    sourcedLines.add(line);
                 } else {
                     PurchaseOrderLine lineToPurchase = PurchaseOrderLine.builder()
                             .product(line.getProduct())
@@ -103,6 +162,13 @@ public class SalesOrderService {
                 reserveInventoryFromWarehouse(salesOrder.getWarehouse(), line.getProduct().getId(), line.getQuantity());
             }
         }
+
+        // The guarded inventory updates clear the persistence context, so the order and its lines
+        // are no longer managed and are written with guarded updates of their own
+        if (!sourcedLines.isEmpty()) {
+            salesOrderLineRepository.clearBackorder(sourcedLines.stream().map(SalesOrderLine::getId).toList());
+            sourcedLines.forEach(line -> line.setBackorder(false));
+        }
         
         // Process purchase order lines if any
         if (!linesToPurchase.isEmpty()) {
@@ -118,149 +184,137 @@ public class SalesOrderService {
                     );
         }
         // Update the sales order status to RESERVED
+        LocalDateTime reservedAt = LocalDateTime.now();
+        if (salesOrderRepository.markReserved(id, salesOrder.getVersion(), reservedAt) == 0) {
+            throw new ObjectOptimisticLockingFailureException(SalesOrder.class, id);
+        }
         salesOrder.setStatus(OrderStatus.RESERVED);
-        salesOrder.setReservedAt(LocalDateTime.now());
-        salesOrderRepository.save(salesOrder);
+        salesOrder.setReservedAt(reservedAt);
+        salesOrder.setUpdatedAt(reservedAt);
+        salesOrder.setVersion(salesOrder.getVersion() + 1);
         return salesOrderMapper.toRespDTO(salesOrder);
     }
 
 
     private Integer transferProductsBetweenWarehouses(Warehouse destination, UUID productId, Integer quantity) {
-        List<Warehouse> warehouses = warehouseRepository.findAll();
-        for (Warehouse source : warehouses) {
-            if (source.getId().equals(destination.getId())) {
-                continue;
-            }
-        
-            List<Inventory> sourceInventories = source.getInventories();
-            for (Inventory inv : sourceInventories) {
-                if (inv.getProduct().getId().equals(productId) && inv.getQtyOnHand() > 0) {
-                    int availableQty = inv.getQtyOnHand()- inv.getQtyReserved();
-                    Integer qtyToTransfer = Math.min(availableQty, quantity);
-
-                    // Deduct from source inventory
-                    inv.setQtyOnHand(availableQty - qtyToTransfer);
-                    InventoryMovement inventoryMovement = InventoryMovement.builder()
-                            .inventory(inv)
-                            .type(OUTBOUND)
-                            .quantity(qtyToTransfer)
-                            .occurredAt(LocalDateTime.now())
-                            .build();
-                    inv.getInventoryMovements().add(inventoryMovement);
-
-                    // Save source warehouse changes (cascades to inventory and movements)
-                    warehouseRepository.save(source);
-
-                    // Add to destination inventory
-                    com.logitrack.logitrack.models.Inventory destInv = destination.getInventories().stream()
-                            .filter(i -> i.getProduct().getId().equals(productId))
-                            .findFirst()
-                            .orElseGet(() -> {
-                                Inventory newInv = Inventory.builder()
-                                        .product(inv.getProduct())
-                                        .qtyOnHand(0)
-                                        .qtyReserved(0)
-                                        .warehouse(destination)
-                                        .build();
-                                destination.getInventories().add(newInv);
-                                InventoryMovement inboundMovement = InventoryMovement.builder()
-                                        .inventory(newInv)
-                                        .type(MovementType.INBOUND)
-                                        .quantity(0)
-                                        .occurredAt(LocalDateTime.now())
-                                        .build();
-                                newInv.getInventoryMovements().add(inboundMovement);
-                                return newInv;
-                            });
-                    destInv.setQtyOnHand(destInv.getQtyOnHand() + qtyToTransfer);
-                    destInv.setQtyReserved(destInv.getQtyReserved() + qtyToTransfer);
-
-                    // Save destination warehouse changes (cascades to inventory)
-                    warehouseRepository.save(destination);
-
-                    quantity -= qtyToTransfer;
-                    if (quantity == 0) {
-                        return quantity; // Transfer complete
-                    }
-                }
-            }
-        }
-        return quantity ; // Return remaining quantity that couldn't be transferred
-    
+        return stockSourcingService.transferToWarehouse(destination, productId, quantity);
     }
 
     private void reserveInventoryFromWarehouse(Warehouse warehouse, UUID productId, Integer quantity) {
-        List<Inventory> inventories = warehouse.getInventories();
-        for (Inventory inv : inventories) {
-            if (inv.getProduct().getId().equals(productId)) {
-                int availableQty = inv.getQtyOnHand() - inv.getQtyReserved();
-                if (availableQty >= quantity) {
-                    inv.setQtyReserved(inv.getQtyReserved() + quantity);
-                    warehouseRepository.save(warehouse);
-                    return;
-                }
-            }
-        }
-        throw new IllegalArgumentException("Insufficient inventory for product " + productId);
+        inventoryService.reserveInventory(warehouse.getId(), productId, quantity);
     }
 
 
+    @RetryOnOptimisticLock
+    @Transactional
     public SalesOrderRespDTO shipSalesOrder(UUID id,UUID carrierId) {
-        SalesOrder salesOrder = salesOrderRepository.findById(id)
+        SalesOrder salesOrder = salesOrderRepository.findForTransitionById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Sales Order with id " + id + " not found."));
 
         if(salesOrder.getStatus() != OrderStatus.RESERVED) {
             throw new IllegalStateException("Only orders in RESERVED status can be shipped.");
         }
 
-        // Deduct reserved quantities from inventory
-        for (SalesOrderLine line : salesOrder.getLines()) {
-            List<Inventory> inventories = salesOrder.getWarehouse().getInventories();
-            for (Inventory inv : inventories) {
-                if (inv.getProduct().getId().equals(line.getProduct().getId())) {
-                    inv.setQtyOnHand(inv.getQtyOnHand() - line.getQuantity());
-                    inv.setQtyReserved(inv.getQtyReserved() - line.getQuantity());
+        Map<UUID, Inventory> inventories = inventoriesForLines(salesOrder);
+        LocalDateTime now = LocalDateTime.now();
+        Carrier carrier = reserveCarrierCapacity(carrierId, 1, now);
+        List<InventoryMovement> movements = ship(salesOrder, inventories, carrier, now);
 
-                    InventoryMovement inventoryMovement = InventoryMovement.builder()
-                            .inventory(inv)
-                            .type(OUTBOUND)
-                            .quantity(line.getQuantity())
-                            .occurredAt(LocalDateTime.now())
-                            .build();
-                    inv.getInventoryMovements().add(inventoryMovement);
+        movementLedger.appendAll(movements);
+        salesOrderRepository.save(salesOrder);
+        return salesOrderMapper.toRespDTO(salesOrder);
+    }
 
-                    warehouseRepository.save(salesOrder.getWarehouse());
-                    break;
-                }
+    /**
+     * Ships several reserved orders with one carrier in a single transaction: inventories
+     * are loaded once per warehouse and the shipments are inserted as a JDBC batch.
+     * Either every order ships or none does.
+     */
+    @RetryOnOptimisticLock
+    @Transactional
+    public List<SalesOrderRespDTO> shipSalesOrders(List<UUID> ids, UUID carrierId) {
+        List<UUID> distinctIds = ids.stream().distinct().toList();
+        Map<UUID, SalesOrder> salesOrders = new HashMap<>();
+        salesOrderRepository.findForTransitionByIdIn(distinctIds).forEach(order -> salesOrders.put(order.getId(), order));
+        for (UUID id : distinctIds) {
+            SalesOrder salesOrder = salesOrders.get(id);
+            if (salesOrder == null) {
+                throw new IllegalArgumentException("Sales Order with id " + id + " not found.");
+            }
+            if (salesOrder.getStatus() != OrderStatus.RESERVED) {
+                throw new IllegalStateException("Only orders in RESERVED status can be shipped. Sales Order " + id + " is " + salesOrder.getStatus() + ".");
             }
         }
-        Carrier carrier = carrierRepository.findById(carrierId).orElseThrow(()-> new IllegalArgumentException("Carrier with id " + carrierId + " not found."));
-        if(carrier.getMaxDailyCapacity()-carrier.getCurrentDailyShipments()<1){
-            throw new IllegalStateException("Carrier has reached its maximum daily capacity.");
+
+        Map<UUID, List<SalesOrder>> byWarehouse = salesOrders.values().stream()
+                .collect(Collectors.groupingBy(order -> order.getWarehouse().getId()));
+        Map<UUID, Map<UUID, Inventory>> inventories = new HashMap<>();
+        byWarehouse.forEach((warehouseId, orders) -> {
+            List<UUID> productIds = orders.stream()
+                    .flatMap(order -> order.getLines().stream())
+                    .map(line -> line.getProduct().getId())
+                    .distinct()
+                    .toList();
+            inventories.put(warehouseId, inventoryService.indexByProduct(warehouseId, productIds));
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        Carrier carrier = reserveCarrierCapacity(carrierId, distinctIds.size(), now);
+        List<SalesOrder> shipped = distinctIds.stream().map(salesOrders::get).toList();
+        List<InventoryMovement> movements = new ArrayList<>();
+        shipped.forEach(order -> movements.addAll(ship(order, inventories.get(order.getWarehouse().getId()), carrier, now)));
+
+        movementLedger.appendAll(movements);
+        salesOrderRepository.saveAll(shipped);
+        return shipped.stream().map(salesOrderMapper::toRespDTO).toList();
+    }
+
+    private Carrier reserveCarrierCapacity(UUID carrierId, int shipments, LocalDateTime now) {
+        Carrier carrier = referenceDataService.findCarrier(carrierId).orElseThrow(()-> new IllegalArgumentException("Carrier with id " + carrierId + " not found."));
+        carrierCapacityService.reserve(carrier, shipments, now);
+        return carrier;
+    }
+
+    // recorded through the ledger so the inventory's movement history is never loaded
+    private List<InventoryMovement> ship(SalesOrder salesOrder, Map<UUID, Inventory> inventories, Carrier carrier, LocalDateTime now) {
+        List<InventoryMovement> movements = new ArrayList<>();
+        // Deduct reserved quantities from inventory
+        for (SalesOrderLine line : salesOrder.getLines()) {
+            Inventory inv = inventories.get(line.getProduct().getId());
+            if (inv != null) {
+                inv.setQtyOnHand(inv.getQtyOnHand() - line.getQuantity());
+                inv.setQtyReserved(inv.getQtyReserved() - line.getQuantity());
+
+                InventoryMovement inventoryMovement = InventoryMovement.builder()
+                        .inventory(inv)
+                        .type(OUTBOUND)
+                        .quantity(line.getQuantity())
+                        .build();
+                movements.add(inventoryMovement);
+            }
         }
-        carrier.setCurrentDailyShipments(carrier.getCurrentDailyShipments()+1);
-        carrierRepository.save(carrier);
 
         // Create shipment record
+        boolean cutOffPassed = now.toLocalTime().isAfter(carrier.getCutOffTime());
         Shipment shipment = Shipment.builder()
                 .carrier(carrier)
                 .salesOrder(salesOrder)
                 .status(ShipmentStatus.PLANNED)
-                .isCutOffPassed(LocalTime.now().isAfter(carrier.getCutOffTime()))
-                .shippedDate(LocalTime.now().isAfter(carrier.getCutOffTime())? LocalDateTime.now().plusDays(1) : LocalDateTime.now())
+                .isCutOffPassed(cutOffPassed)
+                .shippedDate(cutOffPassed ? now.plusDays(1) : now)
                 .build();
         salesOrder.setShipment(shipment);
 
-
         // Update sales order status to SHIPPED
         salesOrder.setStatus(OrderStatus.SHIPPED);
-        salesOrder.setShippedAt(LocalDateTime.now());
-        salesOrderRepository.save(salesOrder);
-        return salesOrderMapper.toRespDTO(salesOrder);
+        salesOrder.setShippedAt(now);
+        return movements;
     }
 
+    @RetryOnOptimisticLock
+    @Transactional
     public SalesOrderRespDTO deliverSalesOrder(UUID id) {
-        SalesOrder salesOrder = salesOrderRepository.findById(id)
+        SalesOrder salesOrder = salesOrderRepository.findForTransitionById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Sales Order with id " + id + " not found."));
 
         if(salesOrder.getStatus() != OrderStatus.SHIPPED) {
@@ -276,8 +330,10 @@ public class SalesOrderService {
         return salesOrderMapper.toRespDTO(salesOrder);
     }
 
+    @RetryOnOptimisticLock
+    @Transactional
     public SalesOrderRespDTO cancelSalesOrder(UUID id) {
-        SalesOrder salesOrder = salesOrderRepository.findById(id)
+        SalesOrder salesOrder = salesOrderRepository.findForTransitionById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Sales Order with id " + id + " not found."));
 
         if(salesOrder.getStatus() == OrderStatus.SHIPPED || salesOrder.getStatus() == OrderStatus.DELIVERED) {
@@ -286,14 +342,11 @@ public class SalesOrderService {
 
         // Release reserved quantities back to inventory
         if(salesOrder.getStatus() == OrderStatus.RESERVED) {
+            Map<UUID, Inventory> inventories = inventoriesForLines(salesOrder);
             for (SalesOrderLine line : salesOrder.getLines()) {
-                List<Inventory> inventories = salesOrder.getWarehouse().getInventories();
-                for (Inventory inv : inventories) {
-                    if (inv.getProduct().getId().equals(line.getProduct().getId())) {
-                        inv.setQtyReserved(inv.getQtyReserved() - line.getQuantity());
-                        warehouseRepository.save(salesOrder.getWarehouse());
-                        break;
-                    }
+                Inventory inv = inventories.get(line.getProduct().getId());
+                if (inv != null) {
+                    inv.setQtyReserved(inv.getQtyReserved() - line.getQuantity());
                 }
             }
         }
@@ -303,4 +356,13 @@ public class SalesOrderService {
         salesOrderRepository.save(salesOrder);
         return salesOrderMapper.toRespDTO(salesOrder);
     }
+
+    // Inventories are managed entities inside the surrounding transaction, so changes are flushed on commit
+    private Map<UUID, Inventory> inventoriesForLines(SalesOrder salesOrder) {
+        List<UUID> productIds = salesOrder.getLines().stream()
+                .map(line -> line.getProduct().getId())
+                .distinct()
+                .toList();
+        return inventoryService.indexByProduct(salesOrder.getWarehouse().getId(), productIds);
+    }
 }
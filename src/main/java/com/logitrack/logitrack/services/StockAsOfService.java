@@ -0,0 +1,218 @@
+package com.logitrack.logitrack.services;
+
+import com.logitrack.logitrack.dtos.Inventory.InventoryStockDTO;
+import com.logitrack.logitrack.dtos.Inventory.StockAsOfRespDTO;
+import com.logitrack.logitrack.repositories.WarehouseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stock of a warehouse at any past moment. A checkpoint stores the qtyOnHand of every inventory
+ * at one instant; an as-of answer starts from the checkpoint nearest to the requested moment
+ * (or from the current stock) and adds or takes back only the movements in between, in a single
+ * query for the whole warehouse. The bounds are the same for every inventory, so PostgreSQL
+ * prunes the movement partitions outside them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockAsOfService {
+
+    // effect of a movement on qtyOnHand, see MovementType
+    static final String SIGNED_QUANTITY = "CASE m.type WHEN 'OUTBOUND' THEN -m.quantity ELSE m.quantity END";
+
+    // session-level advisory lock held by the instance taking a checkpoint
+    static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext('inventory_checkpoints'))";
+    static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext('inventory_checkpoints'))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WarehouseRepository warehouseRepository;
+    private final MovementLedger movementLedger;
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+
+    private Boolean postgres;
+
+    /**
+     * Snapshots the qtyOnHand of every inventory in one statement, at takenAt.
+     * <p>
+     * On PostgreSQL the inventories are share-locked, on a connection of their own, only until a
+     * REPEATABLE READ transaction has taken its snapshot: the lock waits for the transactions
+     * changing stock and holds off new ones meanwhile. Their movements are stamped once they hold
+     * the inventory rows (see {@link MovementLedger}), so the stock changes in the snapshot have
+     * movements before takenAt and the others movements at or after it. The rows are copied from
+     * the snapshot after the lock is released. An advisory lock lets one instance at a time take
+     * a checkpoint.
+     * <p>
+     * Other databases take no lock, and a stock change committing during the snapshot may be
+     * counted on both sides. Movements are stamped by the application clock, so instances must
+     * keep theirs in sync.
+     *
+     * @throws IllegalStateException when another instance is taking a checkpoint
+     */
+    public int takeCheckpoint() {
+        Integer rows = takeCheckpoint(false);
+        if (rows == null) {
+            throw new IllegalStateException("Another stock checkpoint is being taken.");
+        }
+        return rows;
+    }
+
+    // every instance runs the schedule: the first one takes the day's checkpoint, the others skip it
+    @Scheduled(cron = "${logitrack.stock-checkpoints.cron:0 0 0 * * *}")
+    public void takeDailyCheckpoint() {
+        if (takeCheckpoint(true) == null) {
+            log.info("Skipped the daily stock checkpoint: another instance has taken it");
+        }
+    }
+
+    // null when skipped
+    private Integer takeCheckpoint(boolean oncePerDay) {
+        // reads right after the checkpoint see the movements before it
+        movementLedger.flush();
+        if (!isPostgres()) {
+            return oncePerDay && takenToday(jdbcTemplate) ? null : insertCheckpoint(now());
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            JdbcTemplate lock = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            if (!Boolean.TRUE.equals(lock.queryForObject(TRY_LOCK_SQL, Boolean.class))) {
+                return null;
+            }
+            try {
+                if (oncePerDay && takenToday(lock)) {
+                    return null;
+                }
+                TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+                snapshot.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+                return snapshot.execute(status -> {
+                    lock.execute("LOCK TABLE inventories IN SHARE MODE");
+                    LocalDateTime takenAt = now();
+                    // the first query fixes the snapshot of the transaction
+                    jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+                    commit(connection);
+                    return insertCheckpoint(takenAt);
+                });
+            } finally {
+                connection.rollback();
+                lock.queryForObject(UNLOCK_SQL, Boolean.class);
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to take a stock checkpoint.", e);
+        }
+    }
+
+    private int insertCheckpoint(LocalDateTime takenAt) {
+        int rows = jdbcTemplate.update(
+                "INSERT INTO inventory_checkpoints (taken_at, inventory_id, qty_on_hand) SELECT ?, id, qty_on_hand FROM inventories",
+                Timestamp.valueOf(takenAt));
+        log.info("Stock checkpoint taken at {} for {} inventories", takenAt, rows);
+        return rows;
+    }
+
+    private static boolean takenToday(JdbcTemplate jdbc) {
+        return Boolean.TRUE.equals(jdbc.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM inventory_checkpoints WHERE taken_at >= ?)", Boolean.class,
+                Timestamp.valueOf(LocalDate.now().atStartOfDay())));
+    }
+
+    private static void commit(Connection connection) {
+        try {
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to release the inventories lock.", e);
+        }
+    }
+
+    // databases keep microseconds; the as-of query compares takenAt for equality
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    /** Stock of every inventory of the warehouse at {@code at}, or of the one product with {@code sku}. */
+    @Transactional(readOnly = true)
+    public StockAsOfRespDTO getStockAsOf(UUID warehouseId, String sku, LocalDateTime at) {
+        if (!warehouseRepository.existsById(warehouseId)) {
+            throw new IllegalArgumentException("Warehouse with id " + warehouseId + " not found.");
+        }
+        LocalDateTime previous = jdbcTemplate.queryForObject(
+                "SELECT MAX(taken_at) FROM inventory_checkpoints WHERE taken_at <= ?", LocalDateTime.class, Timestamp.valueOf(at));
+        LocalDateTime next = jdbcTemplate.queryForObject(
+                "SELECT MIN(taken_at) FROM inventory_checkpoints WHERE taken_at > ?", LocalDateTime.class, Timestamp.valueOf(at));
+        LocalDateTime now = LocalDateTime.now();
+
+        StringBuilder sql = new StringBuilder("SELECT i.id AS inventory_id, i.product_id, p.sku, ");
+        List<Object> params = new ArrayList<>();
+        LocalDateTime checkpointAt = previous != null && nearer(at, previous, next == null ? now : next) ? previous : next;
+        if (checkpointAt != null) {
+            // forward from an earlier checkpoint, or back from a later one; inventories missing
+            // from the checkpoint did not exist yet and start from zero
+            boolean forward = !checkpointAt.isAfter(at);
+            sql.append("COALESCE(c.qty_on_hand, 0) ").append(forward ? "+" : "-")
+                    .append(" COALESCE(SUM(").append(SIGNED_QUANTITY).append("), 0) AS qty_on_hand ")
+                    .append("FROM inventories i JOIN products p ON p.id = i.product_id ")
+                    .append("LEFT JOIN inventory_checkpoints c ON c.inventory_id = i.id AND c.taken_at = ? ")
+                    .append("LEFT JOIN inventory_movements m ON m.inventory_id = i.id AND m.occurred_at >= ? AND m.occurred_at < ? ");
+            params.add(Timestamp.valueOf(checkpointAt));
+            params.add(Timestamp.valueOf(forward ? checkpointAt : at));
+            params.add(Timestamp.valueOf(forward ? at : checkpointAt));
+        } else {
+            // back from the current stock
+            sql.append("i.qty_on_hand - COALESCE(SUM(").append(SIGNED_QUANTITY).append("), 0) AS qty_on_hand ")
+                    .append("FROM inventories i JOIN products p ON p.id = i.product_id ")
+                    .append("LEFT JOIN inventory_movements m ON m.inventory_id = i.id AND m.occurred_at >= ? ");
+            params.add(Timestamp.valueOf(at));
+        }
+        sql.append("WHERE i.warehouse_id = ? ");
+        params.add(warehouseId);
+        if (sku != null && !sku.isBlank()) {
+            sql.append("AND p.sku = ? ");
+            params.add(sku);
+        }
+        sql.append(checkpointAt == null ? "GROUP BY i.id, i.product_id, p.sku, i.qty_on_hand " : "GROUP BY i.id, i.product_id, p.sku, c.qty_on_hand ")
+                .append("ORDER BY p.sku");
+
+        List<InventoryStockDTO> items = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new InventoryStockDTO(
+                rs.getObject("inventory_id", UUID.class),
+                rs.getObject("product_id", UUID.class),
+                rs.getString("sku"),
+                rs.getInt("qty_on_hand")), params.toArray());
+        return new StockAsOfRespDTO(warehouseId, at, checkpointAt, items);
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = "PostgreSQL".equals(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+
+    // whether a is at least as close to at as b, so starting from a replays fewer movements
+    private static boolean nearer(LocalDateTime at, LocalDateTime a, LocalDateTime b) {
+        return Duration.between(a, at).abs().compareTo(Duration.between(at, b).abs()) <= 0;
+    }
+}
@@ -0,0 +1,110 @@
+package com.logitrack.logitrack.services;
+
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.logitrack.logitrack.models.Inventory;
+import com.logitrack.logitrack.models.InventoryMovement;
+import com.logitrack.logitrack.models.Warehouse;
+import com.logitrack.logitrack.models.ENUM.MovementType;
+import com.logitrack.logitrack.repositories.InventoryRepository;
+import com.logitrack.logitrack.services.sourcing.SourcingStrategy;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sources backordered quantities from other warehouses. Only inventories of the requested
+ * product with positive availability are loaded, ranked by the configured
+ * {@link SourcingStrategy}, and stock is moved with guarded per-row updates. The strategy is
+ * resolved once at startup, which fails on an unknown name.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockSourcingService {
+
+    private final InventoryRepository inventoryRepository;
+    private final MovementLedger movementLedger;
+    private final List<SourcingStrategy> strategies;
+
+    @Value("${logitrack.sourcing.strategy:most-stock}")
+    private String strategyName;
+
+    private SourcingStrategy strategy;
+
+    @PostConstruct
+    public void resolveStrategy() {
+        strategy = strategies.stream()
+                .filter(s -> s.name().equals(strategyName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown sourcing strategy " + strategyName + ", expected one of "
+                        + strategies.stream().map(SourcingStrategy::name).toList()));
+        log.info("Sourcing backorders with the {} strategy", strategyName);
+    }
+
+    /**
+     * Move up to {@code quantity} units of a product into the destination warehouse, where
+     * they are immediately reserved.
+     *
+     * @return the quantity that could not be sourced
+     */
+    @Transactional
+    public Integer transferToWarehouse(Warehouse destination, UUID productId, Integer quantity) {
+        List<Inventory> candidates = inventoryRepository.findSourcingCandidates(productId, destination.getId());
+        if (candidates.isEmpty()) {
+            return quantity;
+        }
+
+        int remaining = quantity;
+        for (Inventory source : strategy.rank(destination, candidates, quantity)) {
+            int qtyToTransfer = Math.min(SourcingStrategy.available(source), remaining);
+            if (qtyToTransfer <= 0) {
+                continue;
+            }
+            // A concurrent reservation may have consumed the stock since it was read
+            if (inventoryRepository.withdrawIfAvailable(source.getId(), qtyToTransfer) == 0) {
+                continue;
+            }
+            recordMovement(source, MovementType.OUTBOUND, qtyToTransfer);
+            remaining -= qtyToTransfer;
+            if (remaining == 0) {
+                break;
+            }
+        }
+
+        int transferred = quantity - remaining;
+        if (transferred > 0) {
+            Inventory destInv = inventoryRepository.findByWarehouseIdAndProductId(destination.getId(), productId)
+                    .orElse(null);
+            if (destInv == null) {
+                destInv = inventoryRepository.save(Inventory.builder()
+                        .product(candidates.get(0).getProduct())
+                        .warehouse(destination)
+                        .qtyOnHand(transferred)
+                        .qtyReserved(transferred)
+                        .build());
+            } else {
+                inventoryRepository.receiveReserved(destInv.getId(), transferred);
+            }
+            recordMovement(destInv, MovementType.INBOUND, transferred);
+        }
+        return remaining;
+    }
+
+    private void recordMovement(Inventory inventory, MovementType type, int quantity) {
+        movementLedger.append(InventoryMovement.builder()
+                .inventory(inventory)
+                .type(type)
+                .quantity(quantity)
+                .description("Inter-warehouse transfer")
+                .build());
+    }
+
+}
@@ -17,10 +17,12 @@ public class SupplierService {
 
     private final SupplierRepository supplierRepository;
     private final SupplierMapper supplierMapper;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
     public SupplierDTO addSupplier(SupplierDTO supplierDTO) {
         Supplier supplier = supplierMapper.toEntity(supplierDTO);
          supplierRepository.save(supplier);
+        cacheInvalidationBus.supplierChanged(supplier.getId());
             return supplierMapper.toDTO(supplier);
     }
 
@@ -43,6 +45,7 @@ public class SupplierService {
                 .orElseThrow(() -> new IllegalArgumentException("Supplier with id " + id + " not found."));
         supplierMapper.updateSupplierFromDto(supplierDTO, existingSupplier);
         supplierRepository.save(existingSupplier);
+        cacheInvalidationBus.supplierChanged(id);
         return supplierMapper.toDTO(existingSupplier);
     }
 
@@ -50,5 +53,6 @@ public class SupplierService {
         Supplier supplier = supplierRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Supplier with id " + id + " not found."));
         supplierRepository.delete(supplier);
+        cacheInvalidationBus.supplierChanged(id);
     }
 }
@@ -5,10 +5,13 @@ import com.logitrack.logitrack.dtos.Warehouse.WarehouseRespDTO;
 import com.logitrack.logitrack.mapper.WarehouseMapper;
 import com.logitrack.logitrack.models.WAREHOUSE_MANAGER;
 import com.logitrack.logitrack.models.Warehouse;
+import com.logitrack.logitrack.repositories.InventoryRepository;
 import com.logitrack.logitrack.repositories.WarehouseManagerRepository;
 import com.logitrack.logitrack.repositories.WarehouseRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,44 +19,81 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 public class WarehouseService {
+
+    private static final int CODE_ATTEMPTS = 3;
+
     private final WarehouseRepository warehouseRepository;
     private final WarehouseManagerRepository warehouseManagerRepository;
     private final WarehouseMapper warehouseMapper;
+    private final CodeAllocator codeAllocator;
+    private final CodeRegistry codeRegistry;
+    private final ReferenceDataService referenceDataService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final InventoryRepository inventoryRepository;
 
     public WarehouseRespDTO addWarehouse(WarehouseDTO warehouseDTO) {
 
-        Warehouse warehouse = warehouseMapper.toEntity(warehouseDTO);
         Optional<WAREHOUSE_MANAGER> warehouseManager= warehouseManagerRepository.findById(warehouseDTO.getWarehouseManagerId());
         if (warehouseManager.isEmpty()) {
             throw new IllegalArgumentException("Warehouse Manager with id " + warehouseDTO.getWarehouseManagerId() + " not found.");
         }
-        warehouse.setWarehouse_manager(warehouseManager.get());
-        warehouseRepository.save(warehouse);
-        return warehouseMapper.toResponseDTO(warehouse);
+        for (int attempt = 1; ; attempt++) {
+            Warehouse warehouse = warehouseMapper.toEntity(warehouseDTO);
+            warehouse.setWarehouse_manager(warehouseManager.get());
+            warehouse.setCode(codeAllocator.nextWarehouseCode());
+            try {
+                warehouseRepository.save(warehouse);
+            } catch (DataIntegrityViolationException e) {
+                // the allocated code was already taken by a warehouse created before the allocator
+                if (attempt == CODE_ATTEMPTS) {
+                    throw e;
+                }
+                continue;
+            }
+            cacheInvalidationBus.warehouseChanged(warehouse.getId(), warehouse.getCode());
+            return warehouseMapper.toResponseDTO(warehouse);
+        }
     }
 
+    @Transactional(readOnly = true)
     public List<WarehouseRespDTO> getAllWarehouses() {
-        List<Warehouse> warehouses = warehouseRepository.findAll();
+        List<Warehouse> warehouses = warehouseRepository.findAllWithInventories();
         return warehouses.stream()
                 .map(warehouseMapper::toResponseDTO)
                 .toList();
     }
 
+    // the cached warehouse carries no inventories: stock is always read from the database
+    @Transactional(readOnly = true)
     public WarehouseRespDTO getWarehouseByCode(String code) {
-        Warehouse warehouse = warehouseRepository.findByCode(code)
+        Warehouse warehouse = findCachedByCode(code)
                 .orElseThrow(() -> new IllegalArgumentException("Warehouse with code " + code + " not found."));
-        return warehouseMapper.toResponseDTO(warehouse);
+        WarehouseRespDTO warehouseRespDTO = warehouseMapper.toResponseDTO(warehouse);
+        warehouseRespDTO.setInventories(warehouseMapper.toInventoryResponseDTOs(
+                inventoryRepository.findWithProductByWarehouseId(warehouse.getId())));
+        return warehouseRespDTO;
     }
     public WarehouseRespDTO updateWarehouse(String code, WarehouseDTO warehouseDTO) {
-        Warehouse existingWarehouse = warehouseRepository.findByCode(code)
+        Warehouse existingWarehouse = findByCode(code)
                 .orElseThrow(() -> new IllegalArgumentException("Warehouse with code " + code + " not found."));
         warehouseMapper.updateWarehouseFromDto(warehouseDTO, existingWarehouse);
         warehouseRepository.save(existingWarehouse);
+        cacheInvalidationBus.warehouseChanged(existingWarehouse.getId(), code, existingWarehouse.getCode());
         return warehouseMapper.toResponseDTO(existingWarehouse);
     }
     public void deleteWarehouseByCode(String code) {
-        Warehouse warehouse = warehouseRepository.findByCode(code)
+        Warehouse warehouse = findByCode(code)
                 .orElseThrow(() -> new IllegalArgumentException("Warehouse with code " + code + " not found."));
         warehouseRepository.delete(warehouse);
+        cacheInvalidationBus.warehouseChanged(warehouse.getId(), warehouse.getCode());
+    }
+
+    private Optional<Warehouse> findByCode(String code) {
+        return codeRegistry.warehouseCodeMayExist(code) ? warehouseRepository.findByCode(code) : Optional.empty();
+    }
+
+    // detached and shared: read-only use
+    private Optional<Warehouse> findCachedByCode(String code) {
+        return codeRegistry.warehouseCodeMayExist(code) ? referenceDataService.findWarehouseByCode(code) : Optional.empty();
     }
 }
@@ -0,0 +1,15 @@
+package com.logitrack.logitrack.services.invalidation;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A change to a cached entity, as sent to the other instances: the entity's id and the
+ * natural keys (SKUs, warehouse codes) it was or is now known by.
+ */
+public record CacheInvalidation(String origin, Type type, UUID id, List<String> keys) {
+
+    public enum Type {
+        PRODUCT, WAREHOUSE, CARRIER, SUPPLIER
+    }
+}
@@ -0,0 +1,22 @@
+package com.logitrack.logitrack.services.invalidation;
+
+/**
+ * Broadcasts cache invalidation messages between the instances sharing a database.
+ * Delivery is best effort: when a channel may have dropped messages, for example while
+ * reconnecting, it reports a gap and listeners must assume anything changed.
+ */
+public interface InvalidationChannel {
+
+    String name();
+
+    void publish(String payload);
+
+    void subscribe(Listener listener);
+
+    interface Listener {
+
+        void onMessage(String payload);
+
+        void onGap();
+    }
+}
@@ -0,0 +1,31 @@
+package com.logitrack.logitrack.services.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers messages to the listeners of this JVM only, synchronously. For single-instance
+ * deployments and for databases without LISTEN/NOTIFY such as H2.
+ */
+@Component
+public class LocalInvalidationChannel implements InvalidationChannel {
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    @Override
+    public void publish(String payload) {
+        listeners.forEach(listener -> listener.onMessage(payload));
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,131 @@
+package com.logitrack.logitrack.services.invalidation;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Broadcasts through PostgreSQL NOTIFY. Each instance keeps one pooled connection
+ * LISTENing on a background thread. A NOTIFY sent inside a transaction is only delivered
+ * when it commits, so other instances never evict ahead of the change.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostgresInvalidationChannel implements InvalidationChannel {
+
+    static final String CHANNEL = "logitrack_cache_invalidation";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${logitrack.cache-invalidation.poll-timeout-ms:1000}")
+    private int pollTimeoutMs = 1000;
+
+    @Value("${logitrack.cache-invalidation.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs = 5000;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    @Override
+    public String name() {
+        return "postgres";
+    }
+
+    @Override
+    public void publish(String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload);
+    }
+
+    @Override
+    public synchronized void subscribe(Listener listener) {
+        if (running) {
+            throw new IllegalStateException("Already listening on " + CHANNEL);
+        }
+        running = true;
+        // LISTEN before returning, so nothing committed after subscribing is missed
+        Connection connection = null;
+        try {
+            connection = listen();
+        } catch (SQLException e) {
+            log.warn("Could not LISTEN on {}, retrying in the background", CHANNEL, e);
+        }
+        Connection first = connection;
+        listenerThread = new Thread(() -> poll(first, listener), "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void poll(Connection connection, Listener listener) {
+        while (running) {
+            try {
+                if (connection == null) {
+                    Thread.sleep(reconnectDelayMs);
+                    connection = listen();
+                    listener.onGap();
+                }
+                PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications(pollTimeoutMs);
+                if (notifications != null) {
+                    for (PGNotification notification : notifications) {
+                        listener.onMessage(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Lost LISTEN connection on {}, reconnecting", CHANNEL, e);
+                }
+                close(connection);
+                connection = null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        close(connection);
+    }
+
+    private Connection listen() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(true);
+            statement.execute("LISTEN " + CHANNEL);
+            return connection;
+        } catch (SQLException e) {
+            close(connection);
+            throw e;
+        }
+    }
+
+    private static void close(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        // the connection goes back to the pool: stop it queueing notifications
+        try (connection; Statement statement = connection.createStatement()) {
+            statement.execute("UNLISTEN *");
+        } catch (SQLException e) {
+            log.debug("Failed to release LISTEN connection", e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.logitrack.logitrack.services.ledger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Inventory movements that cannot be inserted, kept for an operator to inspect and insert by
+ * hand: rejected movements are appended to {@value #ROWS} in the format of the write-ahead log,
+ * and write-ahead log segments that cannot be read are moved here whole. The directory is
+ * created on first use.
+ */
+public class DeadLetterStore {
+
+    public static final String ROWS = "movements.dead";
+
+    private final Path directory;
+
+    public DeadLetterStore(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path rows() {
+        return directory.resolve(ROWS);
+    }
+
+    /** Appends records to {@value #ROWS} and forces them to disk. */
+    public synchronized void append(byte[] records) throws IOException {
+        Files.createDirectories(directory);
+        try (FileChannel channel = FileChannel.open(rows(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(records);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    /** Moves a file here, prefixed with the time so it cannot replace an earlier one, and returns its new path. */
+    public synchronized Path move(Path file) throws IOException {
+        Files.createDirectories(directory);
+        return Files.move(file, directory.resolve(System.currentTimeMillis() + "-" + file.getFileName()));
+    }
+}
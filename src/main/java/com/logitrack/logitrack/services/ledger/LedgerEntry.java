@@ -0,0 +1,20 @@
+package com.logitrack.logitrack.services.ledger;
+
+import com.logitrack.logitrack.models.ENUM.MovementType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One inventory movement as buffered, logged and inserted by the movement ledger: the
+ * columns of an {@code inventory_movements} row, with the inventory by id only.
+ */
+public record LedgerEntry(UUID id, UUID inventoryId, MovementType type, int quantity, LocalDateTime occurredAt,
+                          String referenceDocument, String description, LocalDateTime createdAt) {
+
+    /** This entry created at {@code at}, and occurred then unless it already has an occurredAt. */
+    public LedgerEntry stampedAt(LocalDateTime at) {
+        return new LedgerEntry(id, inventoryId, type, quantity, occurredAt != null ? occurredAt : at,
+                referenceDocument, description, at);
+    }
+}
@@ -0,0 +1,161 @@
+package com.logitrack.logitrack.services.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only segment files in one directory, named {@code movements-<n>.wal} with increasing
+ * {@code n}. Records are appended to the open segment; {@link #rotate()} closes it so that it
+ * can be deleted once everything in it is stored elsewhere. Segments left over from an earlier
+ * run are never appended to or deleted here.
+ * <p>
+ * Thread-safe. Appends are serialized but not forced to disk; {@link #sync(long)} forces them
+ * as a group commit: one force covers every record appended before it started, so threads
+ * syncing at the same time share it instead of queueing one fsync each.
+ */
+public class WriteAheadLog implements Closeable {
+
+    private static final String PREFIX = "movements-";
+    private static final String SUFFIX = ".wal";
+
+    private final Path directory;
+    private final boolean fsync;
+    private final long opened;
+    private final ReentrantLock forceLock = new ReentrantLock();
+    // position up to which appended records are on disk
+    private final AtomicLong forced = new AtomicLong();
+    // guarded by this: bytes appended over the life of the log, the open segment and its channel
+    private long written;
+    private long segment;
+    private FileChannel channel;
+
+    public WriteAheadLog(Path directory, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+        segment = segments().stream().mapToLong(WriteAheadLog::number).max().orElse(0) + 1;
+        opened = segment;
+        open();
+    }
+
+    /** Segments in order, oldest first, including the open one. */
+    public List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(WriteAheadLog::isSegment)
+                    .sorted(Comparator.comparingLong(WriteAheadLog::number))
+                    .toList();
+        }
+    }
+
+    /** Segments written before this log was opened, oldest first. */
+    public List<Path> recovered() throws IOException {
+        return segments().stream().filter(path -> number(path) < opened).toList();
+    }
+
+    /** Number of the open segment; the next record is appended to it or a later one. */
+    public synchronized long current() {
+        return segment;
+    }
+
+    /** Appends records to the open segment and returns the position to {@link #sync(long)} them up to. */
+    public synchronized long append(byte[] records) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(records);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        written += records.length;
+        return written;
+    }
+
+    /** With fsync, returns once every record appended up to {@code position} is on disk. */
+    public void sync(long position) throws IOException {
+        if (!fsync || forced.get() >= position) {
+            return;
+        }
+        forceLock.lock();
+        try {
+            // a force that ran while this thread waited may have covered it already
+            if (forced.get() >= position) {
+                return;
+            }
+            FileChannel open;
+            long upTo;
+            synchronized (this) {
+                open = channel;
+                upTo = written;
+            }
+            try {
+                open.force(false);
+            } catch (ClosedChannelException e) {
+                // rotated meanwhile, and forced before it was closed
+            }
+            forced.accumulateAndGet(upTo, Math::max);
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    /**
+     * Starts a new segment and returns the number of the last closed one; every record
+     * appended so far is in a segment numbered at most that.
+     */
+    public synchronized long rotate() throws IOException {
+        if (channel.position() == 0) {
+            return segment - 1;
+        }
+        closeChannel();
+        long closed = segment++;
+        open();
+        return closed;
+    }
+
+    /** Deletes the closed segments of this run numbered at most {@code last}. */
+    public void deleteUpTo(long last) throws IOException {
+        long open = current();
+        for (Path path : segments()) {
+            if (number(path) >= opened && number(path) <= last && number(path) != open) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeChannel();
+    }
+
+    private void closeChannel() throws IOException {
+        if (fsync) {
+            channel.force(false);
+            forced.accumulateAndGet(written, Math::max);
+        }
+        channel.close();
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(directory.resolve(PREFIX + segment + SUFFIX),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX) && name.length() > PREFIX.length() + SUFFIX.length()
+                && name.substring(PREFIX.length(), name.length() - SUFFIX.length()).chars().allMatch(Character::isDigit);
+    }
+
+    private static long number(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,37 @@
+package com.logitrack.logitrack.services.sourcing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.logitrack.logitrack.models.Inventory;
+import com.logitrack.logitrack.models.Warehouse;
+
+/**
+ * Prefers the smallest single warehouse that covers the whole quantity, so one transfer
+ * suffices; otherwise falls back to the largest stocks first.
+ */
+@Component
+public class FewestSourcesStrategy implements SourcingStrategy {
+
+    @Override
+    public String name() {
+        return "fewest-sources";
+    }
+
+    @Override
+    public List<Inventory> rank(Warehouse destination, List<Inventory> candidates, int quantity) {
+        List<Inventory> ranked = new ArrayList<>(candidates);
+        ranked.sort(Comparator.comparingInt(SourcingStrategy::available).reversed());
+        candidates.stream()
+                .filter(inv -> SourcingStrategy.available(inv) >= quantity)
+                .min(Comparator.comparingInt(SourcingStrategy::available))
+                .ifPresent(bestFit -> {
+                    ranked.remove(bestFit);
+                    ranked.add(0, bestFit);
+                });
+        return ranked;
+    }
+}
@@ -0,0 +1,25 @@
+package com.logitrack.logitrack.services.sourcing;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.logitrack.logitrack.models.Inventory;
+import com.logitrack.logitrack.models.Warehouse;
+
+@Component
+public class MostStockFirstStrategy implements SourcingStrategy {
+
+    @Override
+    public String name() {
+        return "most-stock";
+    }
+
+    @Override
+    public List<Inventory> rank(Warehouse destination, List<Inventory> candidates, int quantity) {
+        return candidates.stream()
+                .sorted(Comparator.comparingInt(SourcingStrategy::available).reversed())
+                .toList();
+    }
+}
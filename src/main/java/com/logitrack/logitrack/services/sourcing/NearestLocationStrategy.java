@@ -0,0 +1,38 @@
+package com.logitrack.logitrack.services.sourcing;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.logitrack.logitrack.models.Inventory;
+import com.logitrack.logitrack.models.Warehouse;
+
+/**
+ * Warehouse locations are free-text addresses, so "nearest" means sharing the destination's
+ * location; ties are broken by available stock.
+ */
+@Component
+public class NearestLocationStrategy implements SourcingStrategy {
+
+    @Override
+    public String name() {
+        return "nearest-location";
+    }
+
+    @Override
+    public List<Inventory> rank(Warehouse destination, List<Inventory> candidates, int quantity) {
+        Comparator<Inventory> sameLocationFirst = Comparator.comparing(
+                inv -> !sameLocation(destination, inv.getWarehouse()));
+        return candidates.stream()
+                .sorted(sameLocationFirst.thenComparing(
+                        Comparator.comparingInt(SourcingStrategy::available).reversed()))
+                .toList();
+    }
+
+    private boolean sameLocation(Warehouse destination, Warehouse source) {
+        return destination.getLocation() != null
+                && destination.getLocation().trim().equalsIgnoreCase(
+                        source.getLocation() == null ? "" : source.getLocation().trim());
+    }
+}
@@ -0,0 +1,21 @@
+package com.logitrack.logitrack.services.sourcing;
+
+import java.util.List;
+
+import com.logitrack.logitrack.models.Inventory;
+import com.logitrack.logitrack.models.Warehouse;
+
+/**
+ * Orders the candidate source inventories for a backordered line. Candidates all hold the
+ * requested product with positive availability and never belong to the destination warehouse.
+ */
+public interface SourcingStrategy {
+
+    String name();
+
+    List<Inventory> rank(Warehouse destination, List<Inventory> candidates, int quantity);
+
+    static int available(Inventory inventory) {
+        return inventory.getQtyOnHand() - inventory.getQtyReserved();
+    }
+}
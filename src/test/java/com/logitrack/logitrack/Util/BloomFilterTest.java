@@ -0,0 +1,57 @@
+package com.logitrack.logitrack.Util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("BloomFilter Tests")
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Should contain every value that was put")
+    void shouldHaveNoFalseNegatives() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("SKU-%08d".formatted(i));
+        }
+
+        // Assert
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(filter.mightContain("SKU-%08d".formatted(i))).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep false positives near the configured rate when full")
+    void shouldKeepFalsePositiveRate() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("SKU-%08d".formatted(i));
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 100_000; i < 200_000; i++) {
+            if (filter.mightContain("SKU-%08d".formatted(i))) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        assertThat(falsePositives / 100_000.0).isLessThan(0.015);
+        assertThat(filter.hashCount()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid sizing")
+    void shouldRejectInvalidSizing() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(1000, 1.0));
+    }
+}
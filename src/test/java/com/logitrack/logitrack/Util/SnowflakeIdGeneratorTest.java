@@ -0,0 +1,94 @@
+package com.logitrack.logitrack.Util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("SnowflakeIdGenerator Tests")
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    @DisplayName("Should generate millions of ids across threads without duplicates")
+    void shouldNotProduceDuplicatesAcrossThreads() throws Exception {
+        // Arrange
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        int threads = 8;
+        int perThread = 500_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<long[]>> tasks = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            tasks.add(pool.submit(() -> {
+                long[] ids = new long[perThread];
+                for (int i = 0; i < perThread; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return ids;
+            }));
+        }
+        long[] all = new long[threads * perThread];
+        for (int t = 0; t < threads; t++) {
+            long[] ids = tasks.get(t).get();
+            // each thread sees strictly increasing ids
+            for (int i = 1; i < ids.length; i++) {
+                assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+            }
+            System.arraycopy(ids, 0, all, t * perThread, perThread);
+        }
+        pool.shutdown();
+
+        // Assert
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertThat(all[i]).isNotEqualTo(all[i - 1]);
+        }
+    }
+
+    @Test
+    @DisplayName("Should embed the node id and keep different nodes apart")
+    void shouldEmbedNodeId() {
+        // Arrange
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(1);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(2);
+
+        // Act
+        long a = first.nextId();
+        long b = second.nextId();
+
+        // Assert
+        assertThat((a >>> 12) & 0x3FF).isEqualTo(1);
+        assertThat((b >>> 12) & 0x3FF).isEqualTo(2);
+        assertThat(a).isNotEqualTo(b);
+        assertThat(a >>> 22).isLessThanOrEqualTo(System.currentTimeMillis() - SnowflakeIdGenerator.EPOCH);
+    }
+
+    @Test
+    @DisplayName("Should format fixed-width codes that sort in creation order")
+    void shouldFormatSortableCodes() {
+        // Act
+        String earlier = SnowflakeIdGenerator.nextCode("TRK");
+        String later = SnowflakeIdGenerator.nextCode("TRK");
+
+        // Assert
+        assertThat(earlier).matches("TRK-[0-9A-Z]{13}");
+        assertThat(later).isGreaterThan(earlier);
+        assertThat(SnowflakeIdGenerator.toCode(35)).isEqualTo("000000000000Z");
+    }
+
+    @Test
+    @DisplayName("Should reject node ids outside the 10-bit range")
+    void shouldRejectInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+    }
+}
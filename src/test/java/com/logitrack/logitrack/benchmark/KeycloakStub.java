@@ -0,0 +1,178 @@
+package com.logitrack.logitrack.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+/**
+ * A stand-in for the Keycloak realm the application talks to: it serves the OpenID discovery
+ * document, the JWK set and a token endpoint for the password and refresh_token grants. Tokens
+ * are RS256 JWTs carrying {@code preferred_username} and {@code realm_access.roles}, the claims
+ * {@code SecurityConfig} and {@code KeycloakJwtConverter} read. Users are registered up front with
+ * {@link #user}; nothing is persisted.
+ */
+class KeycloakStub implements AutoCloseable {
+
+    private static final String REALM_PATH = "/realms/logitrack";
+    private static final long TOKEN_TTL_SECONDS = 3_600;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+    private final RSAKey key;
+    private final RSASSASigner signer;
+    private final HttpServer server;
+
+    private record User(String password, List<String> roles) {
+    }
+
+    KeycloakStub() throws IOException, JOSEException {
+        key = new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate();
+        signer = new RSASSASigner(key);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(REALM_PATH + "/.well-known/openid-configuration", exchange -> json(exchange, 200, discovery()));
+        server.createContext(REALM_PATH + "/protocol/openid-connect/certs", exchange ->
+                json(exchange, 200, new JWKSet(key.toPublicJWK()).toJSONObject()));
+        server.createContext(REALM_PATH + "/protocol/openid-connect/token", this::token);
+        server.createContext(REALM_PATH + "/protocol/openid-connect/logout", exchange -> {
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+    }
+
+    String issuer() {
+        return "http://localhost:" + server.getAddress().getPort() + REALM_PATH;
+    }
+
+    String endpoint(String name) {
+        return issuer() + "/protocol/openid-connect/" + name;
+    }
+
+    KeycloakStub user(String username, String password, String... roles) {
+        users.put(username, new User(password, List.of(roles)));
+        return this;
+    }
+
+    /**
+     * Signs an access token for the given user and realm roles without going through the token endpoint.
+     */
+    String accessToken(String username, List<String> roles) {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer())
+                .subject(UUID.nameUUIDFromBytes(username.getBytes(StandardCharsets.UTF_8)).toString())
+                .audience("account")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(TOKEN_TTL_SECONDS)))
+                .jwtID(UUID.randomUUID().toString())
+                .claim("typ", "Bearer")
+                .claim("azp", "logitrack-app")
+                .claim("preferred_username", username)
+                .claim("email", username)
+                .claim("scope", "openid profile email")
+                .claim("realm_access", Map.of("roles", roles))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256)
+                .keyID(key.getKeyID()).type(JOSEObjectType.JWT).build(), claims);
+        try {
+            jwt.sign(signer);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Could not sign the token for " + username + ".", e);
+        }
+        return jwt.serialize();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private Map<String, Object> discovery() {
+        Map<String, Object> discovery = new HashMap<>();
+        discovery.put("issuer", issuer());
+        discovery.put("authorization_endpoint", endpoint("auth"));
+        discovery.put("token_endpoint", endpoint("token"));
+        discovery.put("userinfo_endpoint", endpoint("userinfo"));
+        discovery.put("end_session_endpoint", endpoint("logout"));
+        discovery.put("jwks_uri", endpoint("certs"));
+        discovery.put("grant_types_supported", List.of("authorization_code", "password", "refresh_token"));
+        discovery.put("response_types_supported", List.of("code"));
+        discovery.put("subject_types_supported", List.of("public"));
+        discovery.put("id_token_signing_alg_values_supported", List.of("RS256"));
+        return discovery;
+    }
+
+    private void token(HttpExchange exchange) throws IOException {
+        Map<String, String> form = form(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        String username;
+        if ("password".equals(form.get("grant_type"))) {
+            username = form.get("username");
+            User user = username == null ? null : users.get(username);
+            if (user == null || !user.password().equals(form.get("password"))) {
+                json(exchange, 401, Map.of("error", "invalid_grant", "error_description", "Invalid user credentials"));
+                return;
+            }
+        } else if ("refresh_token".equals(form.get("grant_type"))) {
+            // refresh tokens are opaque: the username itself
+            username = form.get("refresh_token");
+            if (username == null || !users.containsKey(username)) {
+                json(exchange, 400, Map.of("error", "invalid_grant", "error_description", "Invalid refresh token"));
+                return;
+            }
+        } else {
+            json(exchange, 400, Map.of("error", "unsupported_grant_type"));
+            return;
+        }
+        json(exchange, 200, Map.of(
+                "access_token", accessToken(username, users.get(username).roles()),
+                "refresh_token", username,
+                "expires_in", TOKEN_TTL_SECONDS,
+                "token_type", "Bearer"));
+    }
+
+    private static Map<String, String> form(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                form.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private void json(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.logitrack.logitrack.benchmark;
+
+import com.logitrack.logitrack.models.id.UuidV7Generator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compares random UUIDv4 and time-ordered UUIDv7 primary keys on a copy of the
+ * inventory_movements layout: insert throughput and primary key index size.
+ * Not part of the regular suite; run against a scratch PostgreSQL database with
+ * <pre>
+ * mvn test -Dtest=MovementIdInsertBenchmark -Dsurefire.failIfNoSpecifiedTests=false \
+ *     -Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5432/bench -Dbenchmark.jdbc.user=... \
+ *     -Dbenchmark.jdbc.password=... [-Dbenchmark.rows=2000000]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.jdbc.url", matches = ".+")
+class MovementIdInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    @Test
+    void compareUuidV4AndUuidV7() throws SQLException {
+        int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+        try (Connection connection = DriverManager.getConnection(System.getProperty("benchmark.jdbc.url"),
+                System.getProperty("benchmark.jdbc.user"), System.getProperty("benchmark.jdbc.password"))) {
+            connection.setAutoCommit(false);
+            Result v4 = run(connection, "bench_movements_v4", UUID::randomUUID, rows);
+            Result v7 = run(connection, "bench_movements_v7", UuidV7Generator::next, rows);
+
+            System.out.printf("%-6s %12s %16s %14s %14s%n", "keys", "rows", "rows/s (last 10%)", "pkey MB", "table MB");
+            v4.print("v4");
+            v7.print("v7");
+        }
+    }
+
+    private Result run(Connection connection, String table, Supplier<UUID> ids, int rows) throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS " + table);
+            ddl.execute("CREATE TABLE " + table + " ("
+                    + "id uuid PRIMARY KEY, type varchar(255) NOT NULL, quantity integer NOT NULL,"
+                    + " occurred_at timestamp(6) NOT NULL, reference_document varchar(255), description varchar(255),"
+                    + " inventory_id uuid NOT NULL, created_at timestamp(6) NOT NULL, updated_at timestamp(6))");
+        }
+        connection.commit();
+
+        UUID inventoryId = UUID.randomUUID();
+        long start = System.nanoTime();
+        long tailStart = start;
+        int tailFrom = rows - rows / 10;
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table
+                + " (id, type, quantity, occurred_at, reference_document, description, inventory_id, created_at, updated_at)"
+                + " VALUES (?, 'INBOUND', ?, ?, NULL, 'benchmark', ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                if (i == tailFrom) {
+                    tailStart = System.nanoTime();
+                }
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                insert.setObject(1, ids.get());
+                insert.setInt(2, 1 + i % 50);
+                insert.setTimestamp(3, now);
+                insert.setObject(4, inventoryId);
+                insert.setTimestamp(5, now);
+                insert.setTimestamp(6, now);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        long end = System.nanoTime();
+
+        Result result = new Result(rows, rows / ((end - start) / 1e9), (rows - tailFrom) / ((end - tailStart) / 1e9),
+                relationSize(connection, table + "_pkey"), relationSize(connection, table));
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE " + table);
+        }
+        connection.commit();
+        return result;
+    }
+
+    private long relationSize(Connection connection, String relation) throws SQLException {
+        try (PreparedStatement size = connection.prepareStatement("SELECT pg_relation_size(?::regclass)")) {
+            size.setString(1, relation);
+            try (ResultSet rs = size.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private record Result(int rows, double rowsPerSecond, double tailRowsPerSecond, long indexBytes, long tableBytes) {
+        void print(String keys) {
+            System.out.printf("%-6s %12d %9.0f (%6.0f) %14.1f %14.1f%n", keys, rows, rowsPerSecond, tailRowsPerSecond,
+                    indexBytes / 1048576.0, tableBytes / 1048576.0);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.logitrack.logitrack.benchmark;
+
+import com.logitrack.logitrack.models.*;
+import com.logitrack.logitrack.models.ENUM.OrderStatus;
+import com.logitrack.logitrack.models.ENUM.Role;
+import com.logitrack.logitrack.repositories.*;
+import com.logitrack.logitrack.services.SalesOrderService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Compares the latency of fetching sales orders with their lines, products and warehouse,
+ * one by id and a page at a time, with the second-level cache bypassed
+ * ({@link CacheMode#IGNORE}) and in use. Not part of
+ * the regular suite; it recreates the schema in the target database, so point it at a
+ * scratch one:
+ * <pre>
+ * mvn test -Dtest=OrderDetailCacheBenchmark -Dsurefire.failIfNoSpecifiedTests=false \
+ *     -Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5432/bench -Dbenchmark.jdbc.user=... \
+ *     -Dbenchmark.jdbc.password=... [-Dbenchmark.orders=2000] [-Dbenchmark.fetches=20000]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.jdbc.url", matches = ".+")
+@SpringBootTest(properties = {
+        "spring.datasource.url=${benchmark.jdbc.url}",
+        "spring.datasource.username=${benchmark.jdbc.user:}",
+        "spring.datasource.password=${benchmark.jdbc.password:}",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logitrack.cache-invalidation.channel=local",
+        "logitrack.movement-ledger.wal.enabled=false",
+        "logging.level.root=WARN",
+        "logging.level.com.logitrack=WARN",
+        "logging.level.org.springframework.web=WARN"
+})
+class OrderDetailCacheBenchmark {
+
+    private static final int PRODUCTS = 500;
+    private static final int WAREHOUSES = 20;
+    private static final int LINES_PER_ORDER = 5;
+
+    @Autowired private SalesOrderService salesOrderService;
+    @Autowired private SalesOrderRepository salesOrderRepository;
+    @Autowired private ClientRepository clientRepository;
+    @Autowired private WarehouseRepository warehouseRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @PersistenceContext private EntityManager entityManager;
+
+    @Test
+    void orderDetailLatency() {
+        int orders = Integer.getInteger("benchmark.orders", 2_000);
+        int fetches = Integer.getInteger("benchmark.fetches", 20_000);
+        Random random = new Random(42);
+
+        Client client = clientRepository.save(Client.builder().name("bench").email("bench@logitrack.test")
+                .passwordHash("x").role(Role.CLIENT).active(true).build());
+        List<Warehouse> warehouses = new ArrayList<>();
+        for (int i = 0; i < WAREHOUSES; i++) {
+            warehouses.add(Warehouse.builder().name("bench " + i).code("BENCH-" + i).location("bench").active(true).build());
+        }
+        warehouses = warehouseRepository.saveAll(warehouses);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(Product.builder().name("bench " + i).sku("BENCH-" + i).active(true).build());
+        }
+        products = productRepository.saveAll(products);
+
+        List<UUID> ids = new ArrayList<>();
+        List<SalesOrder> chunk = new ArrayList<>();
+        for (int i = 0; i < orders; i++) {
+            SalesOrder order = SalesOrder.builder().client(client)
+                    .warehouse(warehouses.get(random.nextInt(WAREHOUSES))).status(OrderStatus.CREATED).build();
+            for (int l = 0; l < LINES_PER_ORDER; l++) {
+                order.getLines().add(SalesOrderLine.builder().salesOrder(order).product(products.get(random.nextInt(PRODUCTS)))
+                        .quantity(1).unitPrice(BigDecimal.ONE).backorder(false).build());
+            }
+            chunk.add(order);
+            if (chunk.size() == 200 || i == orders - 1) {
+                salesOrderRepository.saveAll(chunk).forEach(saved -> ids.add(saved.getId()));
+                chunk.clear();
+            }
+        }
+
+        List<UUID> sample = new ArrayList<>();
+        for (int i = 0; i < fetches; i++) {
+            sample.add(ids.get(random.nextInt(ids.size())));
+        }
+
+        // warm up the JIT and the cache, then alternate the modes so drift affects both alike
+        time(sample.subList(0, Math.min(2_000, fetches)), id -> salesOrderService.getSalesOrderById(id));
+        report("by id", time(sample, id -> salesOrderService.getSalesOrderById(id)));
+
+        // a page is the keyset query plus one query for the lines and references of its orders
+        List<UUID> warehouseIds = warehouses.stream().map(Warehouse::getId).toList();
+        List<UUID> pages = new ArrayList<>();
+        for (int i = 0; i < fetches / 10; i++) {
+            pages.add(warehouseIds.get(random.nextInt(WAREHOUSES)));
+        }
+        report("page of 20", time(pages,
+                warehouseId -> salesOrderService.getSalesOrdersPage(null, warehouseId, null, null, null, null, 20)));
+    }
+
+    private Map<CacheMode, Run> time(List<UUID> ids, Consumer<UUID> fetch) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<CacheMode, Run> runs = new LinkedHashMap<>();
+        for (CacheMode mode : List.of(CacheMode.IGNORE, CacheMode.NORMAL)) {
+            runs.put(mode, new Run(new long[ids.size()], new long[3]));
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            UUID id = ids.get(i);
+            for (CacheMode mode : i % 2 == 0 ? List.of(CacheMode.IGNORE, CacheMode.NORMAL) : List.of(CacheMode.NORMAL, CacheMode.IGNORE)) {
+                Run run = runs.get(mode);
+                long statements = statistics.getPrepareStatementCount();
+                long hits = statistics.getSecondLevelCacheHitCount();
+                long misses = statistics.getSecondLevelCacheMissCount();
+                long start = System.nanoTime();
+                transaction.executeWithoutResult(status -> {
+                    entityManager.unwrap(Session.class).setCacheMode(mode);
+                    fetch.accept(id);
+                });
+                run.nanos()[i] = System.nanoTime() - start;
+                run.counts()[0] += statistics.getPrepareStatementCount() - statements;
+                run.counts()[1] += statistics.getSecondLevelCacheHitCount() - hits;
+                run.counts()[2] += statistics.getSecondLevelCacheMissCount() - misses;
+            }
+        }
+        return runs;
+    }
+
+    private void report(String path, Map<CacheMode, Run> runs) {
+        runs.forEach((mode, run) -> {
+            long[] nanos = run.nanos();
+            Arrays.sort(nanos);
+            System.out.printf("%-10s %-14s %6d fetches  p50 %8.1f us  p95 %8.1f us  p99 %8.1f us  %5.1f statements/fetch  %5.1f%% L2 hits%n",
+                    path, mode == CacheMode.IGNORE ? "without cache" : "with cache", nanos.length,
+                    nanos[nanos.length / 2] / 1e3, nanos[(int) (nanos.length * 0.95)] / 1e3, nanos[(int) (nanos.length * 0.99)] / 1e3,
+                    run.counts()[0] / (double) nanos.length,
+                    100.0 * run.counts()[1] / Math.max(1, run.counts()[1] + run.counts()[2]));
+        });
+    }
+
+    // counts: statements, second-level hits, second-level misses
+    private record Run(long[] nanos, long[] counts) {
+    }
+}
@@ -0,0 +1,327 @@
+package com.logitrack.logitrack.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logitrack.logitrack.models.*;
+import com.logitrack.logitrack.models.ENUM.CarrierStatus;
+import com.logitrack.logitrack.models.ENUM.Role;
+import com.logitrack.logitrack.repositories.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives create, reserve, ship and deliver flows over HTTP against the application running on
+ * H2, authenticated through {@link KeycloakStub} instead of a live Keycloak, and reports
+ * throughput and p50/p99/p999 latency per endpoint. Each flow stops after the stage drawn from
+ * the mix, so {@code deliver:70,create:30} leaves 30% of the orders in CREATED. Not part of the
+ * regular suite:
+ * <pre>
+ * mvn test -Dtest=OrderFlowLoadBenchmark -Dsurefire.failIfNoSpecifiedTests=false -Djacoco.skip=true \
+ *     -Dbenchmark.flows=5000 [-Dbenchmark.clients=16] [-Dbenchmark.warmup=500] [-Dbenchmark.lines=3] \
+ *     [-Dbenchmark.skus=500] [-Dbenchmark.mix=deliver:70,ship:10,reserve:10,create:10]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.flows", matches = "\\d+")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=${benchmark.clients:16}",
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN",
+        "logging.level.com.logitrack=WARN",
+        "logging.level.org.springframework.web=WARN",
+        // optimistic lock conflicts on shared inventory rows are retried, not failures
+        "logging.level.org.hibernate.orm.jdbc.batch=OFF"
+})
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+class OrderFlowLoadBenchmark {
+
+    private static final String[] STAGES = {"create", "reserve", "ship", "deliver"};
+    private static final String CLIENT_USER = "client@load.test";
+    private static final String MANAGER_USER = "manager@load.test";
+    private static final String PASSWORD = "load";
+    private static final String DEFAULT_MIX = "deliver:70,ship:10,reserve:10,create:10";
+
+    private static final KeycloakStub keycloak = startKeycloak();
+
+    @LocalServerPort private int port;
+    @Autowired private ClientRepository clientRepository;
+    @Autowired private WarehouseRepository warehouseRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private InventoryRepository inventoryRepository;
+    @Autowired private CarrierRepository carrierRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5)).build();
+
+    private Client client;
+    private Warehouse warehouse;
+    private Carrier carrier;
+    private List<Product> products;
+    private String clientToken;
+    private String managerToken;
+
+    @DynamicPropertySource
+    static void keycloakProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.security.oauth2.resourceserver.jwt.jwk-set-uri", () -> keycloak.endpoint("certs"));
+        registry.add("spring.security.oauth2.client.provider.keycloak.issuer-uri", keycloak::issuer);
+        registry.add("spring.security.oauth2.client.provider.keycloak.authorization-uri", () -> keycloak.endpoint("auth"));
+        registry.add("spring.security.oauth2.client.provider.keycloak.token-uri", () -> keycloak.endpoint("token"));
+        registry.add("spring.security.oauth2.client.provider.keycloak.user-info-uri", () -> keycloak.endpoint("userinfo"));
+        registry.add("spring.security.oauth2.client.provider.keycloak.jwk-set-uri", () -> keycloak.endpoint("certs"));
+    }
+
+    @AfterAll
+    static void stopKeycloak() {
+        keycloak.close();
+    }
+
+    @Test
+    void orderFlows() throws Exception {
+        int flows = Integer.getInteger("benchmark.flows");
+        int clients = Integer.getInteger("benchmark.clients", 16);
+        int warmup = Integer.getInteger("benchmark.warmup", Math.min(500, flows / 10));
+        int lines = Integer.getInteger("benchmark.lines", 3);
+        String mixSpec = System.getProperty("benchmark.mix", DEFAULT_MIX);
+        int[] mix = mix(mixSpec);
+        seed(Integer.getInteger("benchmark.skus", 500), flows + warmup, lines);
+
+        Recorder login = new Recorder();
+        clientToken = login(CLIENT_USER, login);
+        managerToken = login(MANAGER_USER, login);
+
+        run(warmup, clients, mix, lines);
+        long start = System.nanoTime();
+        Map<String, Recorder> recorders = run(flows, clients, mix, lines);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d flows from %d clients in %.1f s: %.0f flows/s, mix %s, %d lines per order%n",
+                flows, clients, seconds, flows / seconds, mixSpec, lines);
+        System.out.printf("%-32s %8s %7s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        recorders.forEach((endpoint, recorder) -> recorder.report(endpoint, seconds));
+    }
+
+    private Map<String, Recorder> run(int flows, int clients, int[] mix, int lines) throws Exception {
+        AtomicInteger remaining = new AtomicInteger(flows);
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Future<Map<String, Recorder>>> workers = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            workers.add(executor.submit(() -> {
+                Map<String, Recorder> recorders = new LinkedHashMap<>();
+                for (String stage : STAGES) {
+                    recorders.put(stage, new Recorder());
+                }
+                while (remaining.getAndDecrement() > 0) {
+                    flow(stage(mix), lines, recorders);
+                }
+                return recorders;
+            }));
+        }
+        Map<String, Recorder> merged = new LinkedHashMap<>();
+        for (String stage : STAGES) {
+            merged.put(endpoint(stage), new Recorder());
+        }
+        for (Future<Map<String, Recorder>> worker : workers) {
+            worker.get().forEach((stage, recorder) -> merged.get(endpoint(stage)).merge(recorder));
+        }
+        executor.shutdown();
+        return merged;
+    }
+
+    private void flow(int lastStage, int lines, Map<String, Recorder> recorders) throws IOException, InterruptedException {
+        HttpResponse<String> created = send(recorders.get("create"), clientToken, "POST", "/api/sales-orders/create", orderBody(lines));
+        if (created == null || lastStage == 0) {
+            return;
+        }
+        String id = objectMapper.readTree(created.body()).get("id").asText();
+        if (send(recorders.get("reserve"), managerToken, "PUT", "/api/sales-orders/" + id + "/reserve", null) == null || lastStage == 1) {
+            return;
+        }
+        String carrierBody = objectMapper.writeValueAsString(Map.of("carrierId", carrier.getId().toString()));
+        if (send(recorders.get("ship"), managerToken, "PUT", "/api/sales-orders/" + id + "/ship", carrierBody) == null || lastStage == 2) {
+            return;
+        }
+        send(recorders.get("deliver"), managerToken, "PUT", "/api/sales-orders/" + id + "/deliver", null);
+    }
+
+    /**
+     * Sends the request and records its latency; returns null when the response is not a 2xx.
+     */
+    private HttpResponse<String> send(Recorder recorder, String token, String method, String path, String body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        long start = System.nanoTime();
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        long nanos = System.nanoTime() - start;
+        boolean ok = response.statusCode() / 100 == 2;
+        recorder.record(nanos, ok, ok ? null : response.statusCode() + " " + response.body());
+        return ok ? response : null;
+    }
+
+    private String login(String username, Recorder recorder) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(recorder, null, "POST", "/api/auth/login",
+                objectMapper.writeValueAsString(Map.of("email", username, "password", PASSWORD)));
+        if (response == null) {
+            throw new IllegalStateException("Login of " + username + " failed: " + recorder.firstError);
+        }
+        return objectMapper.readTree(response.body()).get("access_token").asText();
+    }
+
+    private String orderBody(int lines) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Map<String, Object>> orderLines = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            orderLines.add(Map.of("productId", products.get(random.nextInt(products.size())).getId(),
+                    "quantity", 1 + random.nextInt(5), "unitPrice", 25));
+        }
+        return objectMapper.writeValueAsString(Map.of("clientId", client.getId(), "warehouseId", warehouse.getId(), "lines", orderLines));
+    }
+
+    private void seed(int skus, int orders, int lines) {
+        client = clientRepository.save(Client.builder().name("load").email(CLIENT_USER)
+                .passwordHash("x").role(Role.CLIENT).active(true).build());
+        warehouse = warehouseRepository.save(Warehouse.builder().name("load").code("LOAD").location("load").active(true).build());
+        carrier = carrierRepository.save(Carrier.builder().code("LOAD").name("Load carrier")
+                .status(CarrierStatus.ACTIVE).maxDailyCapacity(Integer.MAX_VALUE).currentDailyShipments(0)
+                // H2 rounds LocalTime.MAX up to midnight, which would move every shipment to tomorrow
+                .cutOffTime(LocalTime.of(23, 59, 59)).baseShippingRate(BigDecimal.ZERO).build());
+        products = new ArrayList<>(skus);
+        List<Inventory> inventories = new ArrayList<>(skus);
+        for (int s = 0; s < skus; s++) {
+            Product product = productRepository.save(Product.builder().name("load " + s).sku("LOAD-" + s).active(true).build());
+            products.add(product);
+            // enough stock that no order goes to backorder
+            inventories.add(Inventory.builder().product(product).warehouse(warehouse)
+                    .qtyOnHand(orders * lines * 5).qtyReserved(0).build());
+        }
+        inventoryRepository.saveAll(inventories);
+    }
+
+    private static int stage(int[] mix) {
+        int draw = ThreadLocalRandom.current().nextInt(mix[mix.length - 1]);
+        int stage = 0;
+        while (draw >= mix[stage]) {
+            stage++;
+        }
+        return stage;
+    }
+
+    /**
+     * Parses "stage:weight,..." into cumulative weights indexed like {@link #STAGES}.
+     */
+    private static int[] mix(String spec) {
+        int[] weights = new int[STAGES.length];
+        for (String part : spec.split(",")) {
+            String[] stageAndWeight = part.trim().split(":");
+            int stage = Arrays.asList(STAGES).indexOf(stageAndWeight[0].trim());
+            if (stage < 0 || stageAndWeight.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry '" + part + "', expected one of " + Arrays.toString(STAGES) + " with a weight.");
+            }
+            weights[stage] = Integer.parseInt(stageAndWeight[1].trim());
+        }
+        for (int i = 1; i < weights.length; i++) {
+            weights[i] += weights[i - 1];
+        }
+        if (weights[weights.length - 1] <= 0) {
+            throw new IllegalArgumentException("The mix '" + spec + "' has no positive weight.");
+        }
+        return weights;
+    }
+
+    private static String endpoint(String stage) {
+        return switch (stage) {
+            case "create" -> "POST /api/sales-orders/create";
+            case "reserve" -> "PUT /api/sales-orders/{id}/reserve";
+            case "ship" -> "PUT /api/sales-orders/{id}/ship";
+            default -> "PUT /api/sales-orders/{id}/deliver";
+        };
+    }
+
+    private static KeycloakStub startKeycloak() {
+        try {
+            return new KeycloakStub()
+                    .user(CLIENT_USER, PASSWORD, "client")
+                    .user(MANAGER_USER, PASSWORD, "warehouse_manager");
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not start the Keycloak stub.", e);
+        }
+    }
+
+    private static class Recorder {
+
+        private long[] nanos = new long[1024];
+        private int size;
+        private int errors;
+        private String firstError;
+
+        void record(long latency, boolean ok, String error) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = latency;
+            if (!ok) {
+                errors++;
+                if (firstError == null) {
+                    firstError = error;
+                }
+            }
+        }
+
+        void merge(Recorder other) {
+            for (int i = 0; i < other.size; i++) {
+                record(other.nanos[i], true, null);
+            }
+            errors += other.errors;
+            if (firstError == null) {
+                firstError = other.firstError;
+            }
+        }
+
+        void report(String endpoint, double seconds) {
+            if (size == 0) {
+                System.out.printf("%-32s %8d%n", endpoint, 0);
+                return;
+            }
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            System.out.printf("%-32s %8d %7d %9.0f %9.2f %9.2f %9.2f %9.2f%n", endpoint, size, errors, size / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999), sorted[size - 1] / 1e6);
+            if (firstError != null) {
+                System.out.println("    first error: " + firstError);
+            }
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            return sorted[Math.max(0, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+        }
+    }
+}
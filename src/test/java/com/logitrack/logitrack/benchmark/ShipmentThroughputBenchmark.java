@@ -0,0 +1,105 @@
+package com.logitrack.logitrack.benchmark;
+
+import com.logitrack.logitrack.models.*;
+import com.logitrack.logitrack.models.ENUM.CarrierStatus;
+import com.logitrack.logitrack.models.ENUM.OrderStatus;
+import com.logitrack.logitrack.models.ENUM.Role;
+import com.logitrack.logitrack.repositories.*;
+import com.logitrack.logitrack.services.SalesOrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Measures how many shipments per second the ship paths create: one order per call
+ * versus {@link SalesOrderService#shipSalesOrders} in chunks. Not part of the regular
+ * suite; it recreates the schema in the target database, so point it at a scratch one:
+ * <pre>
+ * mvn test -Dtest=ShipmentThroughputBenchmark -Dsurefire.failIfNoSpecifiedTests=false \
+ *     -Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5432/bench -Dbenchmark.jdbc.user=... \
+ *     -Dbenchmark.jdbc.password=... [-Dbenchmark.orders=10000]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.jdbc.url", matches = ".+")
+@SpringBootTest(properties = {
+        "spring.datasource.url=${benchmark.jdbc.url}",
+        "spring.datasource.username=${benchmark.jdbc.user:}",
+        "spring.datasource.password=${benchmark.jdbc.password:}",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logitrack.movement-ledger.wal.enabled=false",
+        "logging.level.root=WARN",
+        "logging.level.com.logitrack=WARN",
+        "logging.level.org.springframework.web=WARN"
+})
+class ShipmentThroughputBenchmark {
+
+    private static final int CHUNK = 200;
+
+    @Autowired private SalesOrderService salesOrderService;
+    @Autowired private SalesOrderRepository salesOrderRepository;
+    @Autowired private CarrierRepository carrierRepository;
+    @Autowired private ClientRepository clientRepository;
+    @Autowired private WarehouseRepository warehouseRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private InventoryRepository inventoryRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void shipmentsPerSecond() {
+        int orders = Integer.getInteger("benchmark.orders", 10_000);
+        Carrier carrier = carrierRepository.save(Carrier.builder().code("BENCH").name("Bench carrier")
+                .status(CarrierStatus.ACTIVE).maxDailyCapacity(Integer.MAX_VALUE).currentDailyShipments(0)
+                .cutOffTime(LocalTime.MAX).baseShippingRate(BigDecimal.ZERO).build());
+        Client client = clientRepository.save(Client.builder().name("bench").email("bench@logitrack.test")
+                .passwordHash("x").role(Role.CLIENT).active(true).build());
+        Warehouse warehouse = warehouseRepository.save(Warehouse.builder().name("bench").code("BENCH").location("bench").active(true).build());
+        Product product = productRepository.save(Product.builder().name("bench").sku("BENCH-1").active(true).build());
+        inventoryRepository.save(Inventory.builder().product(product).warehouse(warehouse)
+                .qtyOnHand(Integer.MAX_VALUE / 2).qtyReserved(orders).build());
+
+        List<UUID> ids = new ArrayList<>();
+        for (int from = 0; from < orders; from += CHUNK) {
+            List<SalesOrder> chunk = new ArrayList<>();
+            for (int i = from; i < Math.min(orders, from + CHUNK); i++) {
+                SalesOrder order = SalesOrder.builder().client(client).warehouse(warehouse).status(OrderStatus.RESERVED).build();
+                order.getLines().add(SalesOrderLine.builder().salesOrder(order).product(product).quantity(1)
+                        .unitPrice(BigDecimal.ONE).backorder(false).build());
+                chunk.add(order);
+            }
+            salesOrderRepository.saveAll(chunk).forEach(order -> ids.add(order.getId()));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<UUID> single = ids.subList(0, orders / 2);
+        List<UUID> batched = ids.subList(orders / 2, orders);
+
+        statistics.clear();
+        long start = System.nanoTime();
+        single.forEach(id -> salesOrderService.shipSalesOrder(id, carrier.getId()));
+        report("one order per call", single.size(), System.nanoTime() - start, statistics);
+
+        statistics.clear();
+        start = System.nanoTime();
+        for (int from = 0; from < batched.size(); from += CHUNK) {
+            salesOrderService.shipSalesOrders(batched.subList(from, Math.min(batched.size(), from + CHUNK)), carrier.getId());
+        }
+        report("batches of " + CHUNK, batched.size(), System.nanoTime() - start, statistics);
+    }
+
+    private void report(String path, int shipments, long nanos, Statistics statistics) {
+        System.out.printf("%-20s %8d shipments %10.0f shipments/s %8.1f statements/shipment%n",
+                path, shipments, shipments / (nanos / 1e9), statistics.getPrepareStatementCount() / (double) shipments);
+    }
+}
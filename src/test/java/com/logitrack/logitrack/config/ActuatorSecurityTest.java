@@ -0,0 +1,77 @@
+package com.logitrack.logitrack.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@DisplayName("Actuator endpoint security")
+class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JwtDecoder jwtDecoder;
+
+    @BeforeEach
+    void setUp() {
+        when(jwtDecoder.decode("admin-token")).thenReturn(token("admin-token", "admin"));
+        when(jwtDecoder.decode("manager-token")).thenReturn(token("manager-token", "warehouse_manager"));
+    }
+
+    private static Jwt token(String value, String role) {
+        return Jwt.withTokenValue(value)
+                .header("alg", "none")
+                .claim("preferred_username", role)
+                .claim("realm_access", Map.of("roles", List.of(role)))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should keep health public")
+    void shouldPermitHealth() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should require authentication for metrics")
+    void shouldRejectAnonymousMetrics() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics/logitrack.optimistic.lock.conflicts")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Should forbid metrics to users other than admins")
+    void shouldForbidMetricsToManagers() throws Exception {
+        mockMvc.perform(get("/actuator/metrics").header(HttpHeaders.AUTHORIZATION, "Bearer manager-token"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Should serve metrics to admins")
+    void shouldServeMetricsToAdmins() throws Exception {
+        mockMvc.perform(get("/actuator/metrics").header(HttpHeaders.AUTHORIZATION, "Bearer admin-token"))
+                .andExpect(status().isOk());
+    }
+}
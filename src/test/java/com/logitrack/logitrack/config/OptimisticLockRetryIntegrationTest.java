@@ -0,0 +1,189 @@
+package com.logitrack.logitrack.config;
+
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderDTO;
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderLine.SalesOrderLineDTO;
+import com.logitrack.logitrack.models.Client;
+import com.logitrack.logitrack.models.ENUM.OrderStatus;
+import com.logitrack.logitrack.models.ENUM.Role;
+import com.logitrack.logitrack.models.Inventory;
+import com.logitrack.logitrack.models.Product;
+import com.logitrack.logitrack.models.Warehouse;
+import com.logitrack.logitrack.repositories.ClientRepository;
+import com.logitrack.logitrack.repositories.InventoryRepository;
+import com.logitrack.logitrack.repositories.ProductRepository;
+import com.logitrack.logitrack.repositories.SalesOrderRepository;
+import com.logitrack.logitrack.repositories.WarehouseRepository;
+import com.logitrack.logitrack.services.InventoryService;
+import com.logitrack.logitrack.services.SalesOrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Retries of {@link RetryOnOptimisticLock} methods against a real database: a conflict between
+ * two concurrent reserves of the same order is retried in a fresh transaction, persistent
+ * conflicts stop after the configured attempts, and both show up in the Micrometer counters.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "logitrack.optimistic-lock.max-attempts=3",
+        "logitrack.optimistic-lock.backoff-delay-ms=1",
+        "logitrack.optimistic-lock.backoff-max-delay-ms=5"})
+@DisplayName("Optimistic lock retry")
+class OptimisticLockRetryIntegrationTest {
+
+    private static final String OPERATION = "reserveSalesOrder";
+
+    @Autowired private SalesOrderService salesOrderService;
+    @Autowired private ClientRepository clientRepository;
+    @Autowired private WarehouseRepository warehouseRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private InventoryRepository inventoryRepository;
+    @Autowired private SalesOrderRepository salesOrderRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private InventoryService inventoryService;
+
+    private Inventory inventory;
+    private UUID salesOrderId;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        Client client = clientRepository.save(Client.builder().name("client " + run).email("client-" + run + "@logitrack.test")
+                .passwordHash("x").role(Role.CLIENT).active(true).build());
+        Warehouse warehouse = warehouseRepository.save(Warehouse.builder().name("warehouse " + run).code("WH-" + run)
+                .location("test").active(true).build());
+        Product product = productRepository.save(Product.builder().name("product " + run).sku("SKU-" + run).active(true).build());
+        inventory = inventoryRepository.save(Inventory.builder().product(product).warehouse(warehouse)
+                .qtyOnHand(100).qtyReserved(0).build());
+
+        SalesOrderLineDTO line = new SalesOrderLineDTO();
+        line.setProductId(product.getId());
+        line.setQuantity(5);
+        line.setUnitPrice(BigDecimal.ONE);
+        SalesOrderDTO order = new SalesOrderDTO();
+        order.setClientId(client.getId());
+        order.setWarehouseId(warehouse.getId());
+        order.setLines(List.of(line));
+        salesOrderId = UUID.fromString(salesOrderService.createSalesOrder(order).getId());
+    }
+
+    private double counter(String name) {
+        return meterRegistry.counter("logitrack.optimistic.lock." + name, "operation", OPERATION).count();
+    }
+
+    @Test
+    @DisplayName("Should retry the losing one of two concurrent reserves of the same order in a new transaction")
+    void shouldRetryConcurrentReserve() throws Exception {
+        // Arrange: both reserves read the order as CREATED before either of them commits
+        CyclicBarrier bothRead = new CyclicBarrier(2);
+        AtomicInteger arrivals = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (arrivals.incrementAndGet() <= 2) {
+                bothRead.await(10, TimeUnit.SECONDS);
+            }
+            return invocation.callRealMethod();
+        }).when(inventoryService).reserveInventory(any(UUID.class), any(UUID.class), anyInt());
+        double conflicts = counter("conflicts");
+        double retries = counter("retries");
+        double exhausted = counter("exhausted");
+
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<Object>> reserves = new ArrayList<>();
+        try {
+            for (int i = 0; i < 2; i++) {
+                reserves.add(executor.submit(() -> salesOrderService.reserveSalesOrder(salesOrderId)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<Object> reserve : reserves) {
+            try {
+                reserve.get(30, TimeUnit.SECONDS);
+            } catch (java.util.concurrent.ExecutionException e) {
+                failures.add(e.getCause());
+            }
+        }
+
+        // Assert: the retry re-read the order as RESERVED, so the stock was reserved once
+        assertThat(failures).singleElement()
+                .isInstanceOf(IllegalStateException.class)
+                .extracting(Throwable::getMessage).isEqualTo("Only orders in CREATED status can be reserved.");
+        assertThat(salesOrderRepository.findById(salesOrderId).orElseThrow().getStatus()).isEqualTo(OrderStatus.RESERVED);
+        assertThat(inventoryRepository.findById(inventory.getId()).orElseThrow().getQtyReserved()).isEqualTo(5);
+        assertThat(counter("conflicts") - conflicts).isEqualTo(1);
+        assertThat(counter("retries") - retries).isEqualTo(1);
+        assertThat(counter("exhausted") - exhausted).isZero();
+    }
+
+    @Test
+    @DisplayName("Should give up after the configured attempts, each in its own transaction")
+    void shouldStopAfterMaxAttempts() {
+        // Arrange
+        Set<Object> transactions = ConcurrentHashMap.newKeySet();
+        AtomicInteger rolledBack = new AtomicInteger();
+        doAnswer(invocation -> {
+            transactions.add(TransactionSynchronizationManager.getResource(entityManagerFactory));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        rolledBack.incrementAndGet();
+                    }
+                }
+            });
+            throw new ObjectOptimisticLockingFailureException(Inventory.class, inventory.getId());
+        }).when(inventoryService).reserveInventory(any(UUID.class), any(UUID.class), anyInt());
+        double conflicts = counter("conflicts");
+        double retries = counter("retries");
+        double exhausted = counter("exhausted");
+
+        // Act & Assert
+        assertThatThrownBy(() -> salesOrderService.reserveSalesOrder(salesOrderId))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        verify(inventoryService, times(3)).reserveInventory(any(UUID.class), any(UUID.class), anyInt());
+        assertThat(transactions).hasSize(3);
+        assertThat(rolledBack).hasValue(3);
+        assertThat(salesOrderRepository.findById(salesOrderId).orElseThrow().getStatus()).isEqualTo(OrderStatus.CREATED);
+        assertThat(counter("conflicts") - conflicts).isEqualTo(3);
+        assertThat(counter("retries") - retries).isEqualTo(2);
+        assertThat(counter("exhausted") - exhausted).isEqualTo(1);
+    }
+}
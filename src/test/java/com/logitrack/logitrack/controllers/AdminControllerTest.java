@@ -3,10 +3,15 @@ package com.logitrack.logitrack.controllers;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -22,11 +27,15 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logitrack.logitrack.dtos.Inventory.ReconciliationReportDTO;
 import com.logitrack.logitrack.dtos.PurchaseOrder.PurchaseOrderRespDTO;
 import com.logitrack.logitrack.models.Product;
 import com.logitrack.logitrack.models.ENUM.PurchaseOrderStatus;
+import com.logitrack.logitrack.services.InventoryReconciliationService;
+import com.logitrack.logitrack.services.MovementPartitionService;
 import com.logitrack.logitrack.services.ProductServices;
 import com.logitrack.logitrack.services.PurchaseOrderService;
+import com.logitrack.logitrack.services.StockAsOfService;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("AdminControllerTest")
@@ -41,6 +50,15 @@ class AdminControllerTest {
     @Mock
     private ProductServices productServices;
 
+    @Mock
+    private MovementPartitionService movementPartitionService;
+
+    @Mock
+    private StockAsOfService stockAsOfService;
+
+    @Mock
+    private InventoryReconciliationService inventoryReconciliationService;
+
     private UUID purchaseOrderId;
     private String productSku;
     private PurchaseOrderRespDTO purchaseOrderRespDTO;
@@ -49,7 +67,7 @@ class AdminControllerTest {
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders
-                .standaloneSetup(new AdminController(purchaseOrderService, productServices))
+                .standaloneSetup(new AdminController(purchaseOrderService, productServices, movementPartitionService, stockAsOfService, inventoryReconciliationService))
                 .build();
         objectMapper = new ObjectMapper();
 
@@ -104,6 +122,25 @@ class AdminControllerTest {
         verify(purchaseOrderService).parchaseOrderStatusUpdate(purchaseOrderId, PurchaseOrderStatus.RECEIVED);
     }
 
+    @Test
+    @DisplayName("Should receive several purchase orders in one request")
+    void testReceivePurchaseOrders() throws Exception {
+        UUID otherId = UUID.randomUUID();
+        when(purchaseOrderService.receivePurchaseOrders(List.of(purchaseOrderId, otherId)))
+                .thenReturn(List.of(purchaseOrderRespDTO, PurchaseOrderRespDTO.builder().id(otherId).status("RECEIVED").build()));
+
+        ResultActions response = mockMvc.perform(post("/api/admins/purchase-orders/receive")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(purchaseOrderId, otherId))));
+
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].id").value(otherId.toString()));
+
+        verify(purchaseOrderService).receivePurchaseOrders(List.of(purchaseOrderId, otherId));
+    }
+
     @Test
     @DisplayName("Should update product status successfully")
     void testUpdateProductStatus() throws Exception {
@@ -143,4 +180,41 @@ class AdminControllerTest {
 
         verify(productServices).productStatusUpdate(productSku, false);
     }
+
+    @Test
+    @DisplayName("Should detach the movement partitions older than the given month")
+    void testDetachMovementPartitions() throws Exception {
+        when(movementPartitionService.detachBefore(YearMonth.of(2025, 1)))
+                .thenReturn(List.of("inventory_movements_y2024m12"));
+
+        mockMvc.perform(post("/api/admins/movement-partitions/detach").param("before", "2025-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("inventory_movements_y2024m12"));
+
+        verify(movementPartitionService).detachBefore(YearMonth.of(2025, 1));
+    }
+
+    @Test
+    @DisplayName("Should take a stock checkpoint on demand")
+    void testTakeStockCheckpoint() throws Exception {
+        when(stockAsOfService.takeCheckpoint()).thenReturn(42);
+
+        mockMvc.perform(post("/api/admins/stock-checkpoints"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inventories").value(42));
+    }
+
+    @Test
+    @DisplayName("Should run a repairing inventory reconciliation")
+    void testReconcileInventories() throws Exception {
+        when(inventoryReconciliationService.reconcile(true))
+                .thenReturn(new ReconciliationReportDTO(LocalDateTime.now(), null, 12, 3, 0, true, List.of()));
+
+        mockMvc.perform(post("/api/admins/inventory-reconciliation").param("repair", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inventoriesChecked").value(3))
+                .andExpect(jsonPath("$.repaired").value(true));
+
+        verify(inventoryReconciliationService).reconcile(true);
+    }
 }
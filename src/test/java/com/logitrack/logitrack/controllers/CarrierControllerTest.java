@@ -1,6 +1,7 @@
 package com.logitrack.logitrack.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logitrack.logitrack.dtos.CarrierCapacityDTO;
 import com.logitrack.logitrack.dtos.CarrierDTO;
 import com.logitrack.logitrack.dtos.CarrierRespDTO;
 import com.logitrack.logitrack.models.ENUM.CarrierStatus;
@@ -17,6 +18,7 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
@@ -125,6 +127,27 @@ class CarrierControllerTest {
         verify(carrierService).getCarrierById(carrierId);
     }
 
+    @Test
+    @DisplayName("Should get carrier capacity for the current shipping day")
+    void testGetCarrierCapacity() throws Exception {
+        CarrierCapacityDTO capacity = CarrierCapacityDTO.builder()
+                .carrierId(carrierId)
+                .shippingDay(LocalDate.of(2026, 3, 2))
+                .maxDailyCapacity(50)
+                .booked(12L)
+                .remaining(38L)
+                .build();
+        when(carrierService.getCarrierCapacity(carrierId)).thenReturn(capacity);
+
+        ResultActions response = mockMvc.perform(get("/api/carriers/{id}/capacity", carrierId));
+
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.booked").value(12))
+                .andExpect(jsonPath("$.remaining").value(38));
+
+        verify(carrierService).getCarrierCapacity(carrierId);
+    }
+
     @Test
     @DisplayName("Should update carrier successfully")
     void testUpdateCarrier() throws Exception {
@@ -0,0 +1,80 @@
+package com.logitrack.logitrack.controllers;
+
+import com.logitrack.logitrack.dtos.Export.ExportFormat;
+import com.logitrack.logitrack.services.ExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExportControllerTest")
+class ExportControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new ExportController(exportService))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should stream sales orders as NDJSON by default")
+    void testExportSalesOrders() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(4);
+            out.write("{\"orderId\":\"1\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(exportService).exportSalesOrders(isNull(), isNull(), eq(ExportFormat.NDJSON), eq(false), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/exports/sales-orders"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"sales-orders.ndjson\""))
+                .andExpect(content().string("{\"orderId\":\"1\"}\n"));
+    }
+
+    @Test
+    @DisplayName("Should name gzip-compressed CSV movement exports accordingly")
+    void testExportInventoryMovementsGzippedCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/exports/inventory-movements")
+                        .param("format", "CSV")
+                        .param("gzip", "true")
+                        .param("from", "2024-01-01T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"inventory-movements.csv.gz\""));
+
+        verify(exportService).exportInventoryMovements(any(), isNull(), eq(ExportFormat.CSV), eq(true), any(OutputStream.class));
+    }
+}
@@ -0,0 +1,92 @@
+package com.logitrack.logitrack.controllers;
+
+import com.logitrack.logitrack.dtos.CursorPageDTO;
+import com.logitrack.logitrack.dtos.Inventory.InventoryMovementRespDTO;
+import com.logitrack.logitrack.dtos.Inventory.InventoryStockDTO;
+import com.logitrack.logitrack.dtos.Inventory.StockAsOfRespDTO;
+import com.logitrack.logitrack.services.MovementHistoryService;
+import com.logitrack.logitrack.services.StockAsOfService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InventoryControllerTest")
+class InventoryControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private MovementHistoryService movementHistoryService;
+
+    @Mock
+    private StockAsOfService stockAsOfService;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new InventoryController(movementHistoryService, stockAsOfService))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should retrieve a page of movements of one inventory within a time range")
+    void testGetMovements() throws Exception {
+        UUID inventoryId = UUID.randomUUID();
+        InventoryMovementRespDTO movement = new InventoryMovementRespDTO(UUID.randomUUID(), "OUTBOUND", 3,
+                LocalDateTime.of(2024, 3, 2, 9, 0), "SO-1", null, LocalDateTime.of(2024, 3, 2, 9, 0));
+        CursorPageDTO<InventoryMovementRespDTO> page = CursorPageDTO.<InventoryMovementRespDTO>builder()
+                .items(List.of(movement))
+                .nextCursor("next")
+                .hasNext(true)
+                .build();
+
+        when(movementHistoryService.getMovements(eq(inventoryId), eq(LocalDateTime.of(2024, 3, 1, 0, 0)),
+                eq(LocalDateTime.of(2024, 4, 1, 0, 0)), isNull(), eq(10))).thenReturn(page);
+
+        mockMvc.perform(get("/api/inventory/{id}/movements", inventoryId)
+                        .param("from", "2024-03-01T00:00:00")
+                        .param("to", "2024-04-01T00:00:00")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].type").value("OUTBOUND"))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    @DisplayName("Should retrieve the stock of one product in a warehouse at a past moment")
+    void testGetStockAsOf() throws Exception {
+        UUID warehouseId = UUID.randomUUID();
+        LocalDateTime at = LocalDateTime.of(2024, 3, 15, 18, 0);
+        StockAsOfRespDTO stock = new StockAsOfRespDTO(warehouseId, at, LocalDateTime.of(2024, 3, 15, 0, 0),
+                List.of(new InventoryStockDTO(UUID.randomUUID(), UUID.randomUUID(), "SKU-1", 12)));
+
+        when(stockAsOfService.getStockAsOf(warehouseId, "SKU-1", at)).thenReturn(stock);
+
+        mockMvc.perform(get("/api/inventory/stock-as-of")
+                        .param("warehouseId", warehouseId.toString())
+                        .param("sku", "SKU-1")
+                        .param("at", "2024-03-15T18:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].sku").value("SKU-1"))
+                .andExpect(jsonPath("$.items[0].qtyOnHand").value(12));
+    }
+}
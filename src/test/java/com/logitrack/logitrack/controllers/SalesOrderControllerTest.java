@@ -1,8 +1,12 @@
 package com.logitrack.logitrack.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logitrack.logitrack.dtos.CursorPageDTO;
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderBulkResultDTO;
 import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderDTO;
 import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderRespDTO;
+import com.logitrack.logitrack.models.ENUM.OrderStatus;
+import com.logitrack.logitrack.services.SalesOrderIngestionService;
 import com.logitrack.logitrack.services.SalesOrderService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,11 +19,15 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -35,6 +43,9 @@ class SalesOrderControllerTest {
     @Mock
     private SalesOrderService salesOrderService;
 
+    @Mock
+    private SalesOrderIngestionService salesOrderIngestionService;
+
     private SalesOrderDTO salesOrderDTO;
     private SalesOrderRespDTO salesOrderRespDTO;
     private UUID orderId;
@@ -43,7 +54,7 @@ class SalesOrderControllerTest {
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders
-                .standaloneSetup(new SalesOrederController(salesOrderService))
+                .standaloneSetup(new SalesOrederController(salesOrderService, salesOrderIngestionService))
                 .build();
         objectMapper = new ObjectMapper();
 
@@ -74,6 +85,72 @@ class SalesOrderControllerTest {
         verify(salesOrderService).createSalesOrder(any(SalesOrderDTO.class));
     }
 
+    @Test
+    @DisplayName("Should ingest an NDJSON stream of sales orders")
+    void testBulkCreateSalesOrders() throws Exception {
+        SalesOrderBulkResultDTO result = SalesOrderBulkResultDTO.builder()
+                .received(2)
+                .created(2)
+                .build();
+        when(salesOrderIngestionService.ingest(any(InputStream.class))).thenReturn(result);
+
+        String body = objectMapper.writeValueAsString(salesOrderDTO) + "\n" + objectMapper.writeValueAsString(salesOrderDTO) + "\n";
+        ResultActions response = mockMvc.perform(post("/api/sales-orders/bulk")
+                .contentType("application/x-ndjson")
+                .content(body));
+
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.created").value(2));
+
+        verify(salesOrderIngestionService).ingest(any(InputStream.class));
+    }
+
+    @Test
+    @DisplayName("Should retrieve a filtered page of sales orders")
+    void testGetSalesOrdersPage() throws Exception {
+        UUID warehouseId = UUID.randomUUID();
+        CursorPageDTO<SalesOrderRespDTO> page = CursorPageDTO.<SalesOrderRespDTO>builder()
+                .items(List.of(salesOrderRespDTO))
+                .nextCursor("next")
+                .hasNext(true)
+                .build();
+
+        when(salesOrderService.getSalesOrdersPage(eq(OrderStatus.RESERVED), eq(warehouseId), isNull(),
+                eq(LocalDateTime.of(2024, 1, 1, 0, 0)), isNull(), eq("abc"), eq(25))).thenReturn(page);
+
+        ResultActions response = mockMvc.perform(get("/api/sales-orders")
+                .param("status", "RESERVED")
+                .param("warehouseId", warehouseId.toString())
+                .param("from", "2024-01-01T00:00:00")
+                .param("cursor", "abc")
+                .param("size", "25"));
+
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    @DisplayName("Should ship several sales orders with one carrier")
+    void testShipSalesOrders() throws Exception {
+        UUID secondId = UUID.randomUUID();
+        when(salesOrderService.shipSalesOrders(List.of(orderId, secondId), carrierId)).thenReturn(List.of(salesOrderRespDTO));
+
+        ResultActions response = mockMvc.perform(put("/api/sales-orders/ship")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("carrierId", carrierId, "orderIds", List.of(orderId, secondId)))));
+
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        verify(salesOrderService).shipSalesOrders(List.of(orderId, secondId), carrierId);
+    }
+
     @Test
     @DisplayName("Should retrieve all sales orders")
     void testGetAllSalesOrders() throws Exception {
@@ -6,9 +6,8 @@ import com.logitrack.logitrack.mapper.PurchaseOrderMapper;
 import com.logitrack.logitrack.mapper.PurchaseOrderMapperImpl;
 import com.logitrack.logitrack.models.*;
 import com.logitrack.logitrack.models.ENUM.PurchaseOrderStatus;
-import com.logitrack.logitrack.repositories.ProductRepository;
 import com.logitrack.logitrack.repositories.SupplierRepository;
-import com.logitrack.logitrack.repositories.WarehouseRepository;
+import com.logitrack.logitrack.services.ReferenceDataService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -30,9 +29,7 @@ public class PurchaseOrderMapperTest {
     @Mock
     private SupplierRepository supplierRepository;
     @Mock
-    private WarehouseRepository warehouseRepository;
-    @Mock
-    private ProductRepository productRepository;
+    private ReferenceDataService referenceDataService;
 
     // The mapper under test
     @InjectMocks
@@ -104,8 +101,8 @@ public class PurchaseOrderMapperTest {
     void testToPurchaseOrder() {
         //arrange
             when(supplierRepository.findById(supplierId)).thenReturn(java.util.Optional.of(supplier));
-            when(warehouseRepository.findById(warehouseId)).thenReturn(java.util.Optional.of(warehouse));
-            when(productRepository.findByIdAndActive(productId, true)).thenReturn(java.util.Optional.of(product));
+            when(referenceDataService.findWarehouse(warehouseId)).thenReturn(java.util.Optional.of(warehouse));
+            when(referenceDataService.findProduct(productId)).thenReturn(java.util.Optional.of(product));
         //act
             PurchaseOrder mappedOrder = purchaseOrderMapper.toEntity(purchaseOrderDTO);
         //assert
@@ -124,6 +121,23 @@ public class PurchaseOrderMapperTest {
 
     }
 
+    @Test
+    @DisplayName("Test mapping from PurchaseOrderDTO to PurchaseOrder entity should reject inactive products")
+    void testToPurchaseOrder_InactiveProduct() {
+        //arrange
+        product.setActive(false);
+        when(supplierRepository.findById(supplierId)).thenReturn(java.util.Optional.of(supplier));
+        when(referenceDataService.findWarehouse(warehouseId)).thenReturn(java.util.Optional.of(warehouse));
+        when(referenceDataService.findProduct(productId)).thenReturn(java.util.Optional.of(product));
+        //act & assert
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> purchaseOrderMapper.toEntity(purchaseOrderDTO)
+        );
+
+        assertThat(exception.getMessage()).isEqualTo("Product with id " + productId + " not found.");
+    }
+
     @Test
     @DisplayName("Test mapping from PurchaseOrderDTO to PurchaseOrder entity should throw exception when Supplier not found")
     void testToPurchaseOrder_SupplierNotFound() {
@@ -139,7 +153,7 @@ public class PurchaseOrderMapperTest {
         assertThat(exception.getMessage()).isEqualTo("Supplier with id " + supplierId + " not found.");
 
         verify(supplierRepository,times(1)).findById(supplierId);
-        verify(warehouseRepository,never()).findById(any());
+        verify(referenceDataService,never()).findWarehouse(any());
 
 
     }
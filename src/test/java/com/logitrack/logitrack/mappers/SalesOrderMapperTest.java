@@ -0,0 +1,124 @@
+package com.logitrack.logitrack.mappers;
+
+import com.logitrack.logitrack.dtos.Inventory.ProductAvailability;
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderDTO;
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderLine.SalesOrderLineDTO;
+import com.logitrack.logitrack.mapper.SalesOrderMapperImpl;
+import com.logitrack.logitrack.models.*;
+import com.logitrack.logitrack.repositories.ClientRepository;
+import com.logitrack.logitrack.repositories.ProductRepository;
+import com.logitrack.logitrack.services.InventoryService;
+import com.logitrack.logitrack.services.ReferenceDataService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SalesOrderMapper Tests")
+public class SalesOrderMapperTest {
+
+    @Mock
+    private ClientRepository clientRepository;
+    @Mock
+    private ReferenceDataService referenceDataService;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private InventoryService inventoryService;
+
+    @InjectMocks
+    private SalesOrderMapperImpl salesOrderMapper;
+
+    private UUID clientId = UUID.randomUUID();
+    private UUID warehouseId = UUID.randomUUID();
+    private UUID productId = UUID.randomUUID();
+    private Product product;
+    private SalesOrderDTO salesOrderDTO;
+    private SalesOrderLineDTO lineDTO;
+
+    private record Availability(UUID productId, Long warehouseAvailable, Long totalAvailable, Long warehouseRows)
+            implements ProductAvailability {
+        public UUID getProductId() { return productId; }
+        public Long getWarehouseAvailable() { return warehouseAvailable; }
+        public Long getTotalAvailable() { return totalAvailable; }
+        public Long getWarehouseRows() { return warehouseRows; }
+    }
+
+    @BeforeEach
+    void setUp() {
+        product = Product.builder()
+                .id(productId)
+                .name("Test Product")
+                .active(true)
+                .build();
+
+        lineDTO = new SalesOrderLineDTO();
+        lineDTO.setProductId(productId);
+        lineDTO.setQuantity(10);
+        lineDTO.setUnitPrice(new BigDecimal("45.00"));
+
+        salesOrderDTO = new SalesOrderDTO();
+        salesOrderDTO.setClientId(clientId);
+        salesOrderDTO.setWarehouseId(warehouseId);
+        salesOrderDTO.setLines(List.of(lineDTO));
+
+        when(clientRepository.findById(clientId)).thenReturn(Optional.of(Client.builder().id(clientId).build()));
+        when(referenceDataService.findWarehouse(warehouseId)).thenReturn(Optional.of(Warehouse.builder().id(warehouseId).build()));
+    }
+
+    @Test
+    @DisplayName("Should map lines with one availability query and one product lookup")
+    void shouldMapLinesWithBatchedLookups() {
+        when(inventoryService.availabilityByProduct(warehouseId, List.of(productId)))
+                .thenReturn(Map.of(productId, new Availability(productId, 50L, 80L, 1L)));
+        when(productRepository.findAllById(List.of(productId))).thenReturn(List.of(product));
+
+        SalesOrder salesOrder = salesOrderMapper.toEntity(salesOrderDTO);
+
+        assertThat(salesOrder.getLines()).hasSize(1);
+        assertThat(salesOrder.getLines().get(0).getProduct()).isEqualTo(product);
+        assertThat(salesOrder.getLines().get(0).getBackorder()).isFalse();
+        verify(productRepository, never()).findById(any());
+        verify(referenceDataService, never()).findProduct(any());
+    }
+
+    @Test
+    @DisplayName("Should flag a backorder when neither the warehouse nor the network covers the line")
+    void shouldFlagBackorderWhenTotalInsufficient() {
+        when(inventoryService.availabilityByProduct(warehouseId, List.of(productId)))
+                .thenReturn(Map.of(productId, new Availability(productId, 2L, 6L, 1L)));
+        when(productRepository.findAllById(List.of(productId))).thenReturn(List.of(product));
+
+        SalesOrder salesOrder = salesOrderMapper.toEntity(salesOrderDTO);
+
+        assertThat(salesOrder.getLines().get(0).getBackorder()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject a product the warehouse does not stock")
+    void shouldRejectProductNotStockedInWarehouse() {
+        when(inventoryService.availabilityByProduct(warehouseId, List.of(productId)))
+                .thenReturn(Map.of(productId, new Availability(productId, 0L, 30L, 0L)));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> salesOrderMapper.toEntity(salesOrderDTO));
+
+        assertThat(exception.getMessage())
+                .isEqualTo("Product with id " + productId + " not found in warehouse inventories.");
+    }
+}
@@ -0,0 +1,78 @@
+package com.logitrack.logitrack.models.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("UuidV7Generator Tests")
+class UuidV7GeneratorTest {
+
+    @Test
+    @DisplayName("Should set version 7, the RFC variant and the millisecond timestamp")
+    void shouldEncodeVersionVariantAndTimestamp() {
+        // Arrange
+        long millis = 1_717_171_717_171L;
+
+        // Act
+        UUID id = UuidV7Generator.next(millis);
+
+        // Assert
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(millis);
+    }
+
+    @Test
+    @DisplayName("Should stay strictly ordered within the same millisecond")
+    void shouldBeMonotonicWithinMillisecond() {
+        // Arrange
+        long millis = System.currentTimeMillis() + 60_000;
+        List<UUID> ids = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(UuidV7Generator.next(millis));
+        }
+
+        // Assert
+        for (int i = 1; i < ids.size(); i++) {
+            // PostgreSQL orders uuid by unsigned bytes, which the string form preserves
+            assertThat(ids.get(i).toString()).isGreaterThan(ids.get(i - 1).toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Should not produce duplicates across threads")
+    void shouldBeUniqueAcrossThreads() throws Exception {
+        // Arrange
+        Set<UUID> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> tasks = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            tasks.add(pool.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    seen.add(UuidV7Generator.next());
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        pool.shutdown();
+
+        // Assert
+        assertThat(seen).hasSize(8 * 50_000);
+    }
+}
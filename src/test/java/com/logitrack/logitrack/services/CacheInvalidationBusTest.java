@@ -0,0 +1,223 @@
+package com.logitrack.logitrack.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logitrack.logitrack.models.Product;
+import com.logitrack.logitrack.models.Supplier;
+import com.logitrack.logitrack.services.invalidation.InvalidationChannel;
+import com.logitrack.logitrack.services.invalidation.LocalInvalidationChannel;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two instances sharing a {@link LocalInvalidationChannel}, standing in for two nodes
+ * listening on the same PostgreSQL channel.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CacheInvalidationBus Unit Tests")
+class CacheInvalidationBusTest {
+
+    @Mock private ReferenceDataService referenceDataA;
+    @Mock private CarrierCapacityService carrierCapacityA;
+    @Mock private CodeRegistry codeRegistryA;
+    @Mock private ReferenceDataService referenceDataB;
+    @Mock private CarrierCapacityService carrierCapacityB;
+    @Mock private CodeRegistry codeRegistryB;
+    @Mock private EntityManagerFactory entityManagerFactoryA;
+    @Mock private EntityManagerFactory entityManagerFactoryB;
+    @Mock private SessionFactory sessionFactoryA;
+    @Mock private SessionFactory sessionFactoryB;
+    @Mock private Cache secondLevelA;
+    @Mock private Cache secondLevelB;
+
+    private LocalInvalidationChannel channel;
+    private CacheInvalidationBus nodeA;
+    private CacheInvalidationBus nodeB;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(entityManagerFactoryA.unwrap(SessionFactory.class)).thenReturn(sessionFactoryA);
+        lenient().when(entityManagerFactoryB.unwrap(SessionFactory.class)).thenReturn(sessionFactoryB);
+        lenient().when(sessionFactoryA.getCache()).thenReturn(secondLevelA);
+        lenient().when(sessionFactoryB.getCache()).thenReturn(secondLevelB);
+        channel = new LocalInvalidationChannel();
+        ObjectMapper objectMapper = new ObjectMapper();
+        nodeA = new CacheInvalidationBus(List.of(channel), referenceDataA, carrierCapacityA, codeRegistryA, objectMapper, entityManagerFactoryA);
+        nodeB = new CacheInvalidationBus(List.of(channel), referenceDataB, carrierCapacityB, codeRegistryB, objectMapper, entityManagerFactoryB);
+        nodeA.subscribe();
+        nodeB.subscribe();
+    }
+
+    @Test
+    @DisplayName("Should evict a changed product on every node, once")
+    void shouldEvictProductEverywhere() {
+        // Arrange
+        UUID productId = UUID.randomUUID();
+
+        // Act
+        nodeA.productChanged(productId, "SKU-001", "SKU-002");
+
+        // Assert
+        for (ReferenceDataService referenceData : List.of(referenceDataA, referenceDataB)) {
+            verify(referenceData).evictProduct(productId);
+            verify(referenceData).evictProductSku("SKU-001");
+            verify(referenceData).evictProductSku("SKU-002");
+        }
+        verify(codeRegistryB).registerSku("SKU-002");
+    }
+
+    @Test
+    @DisplayName("Should hold back an invalidation until the surrounding transaction commits")
+    void shouldPublishAfterCommit() {
+        // Arrange
+        UUID productId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            nodeA.productChanged(productId, "SKU-003");
+
+            // Assert
+            verifyNoInteractions(referenceDataA, referenceDataB, codeRegistryA, codeRegistryB);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(referenceDataA).evictProduct(productId);
+        verify(codeRegistryA).registerSku("SKU-003");
+        verify(codeRegistryB).registerSku("SKU-003");
+    }
+
+    @Test
+    @DisplayName("Should evict a remote change from the second-level cache only")
+    void shouldEvictRemoteChangesFromSecondLevelCache() {
+        // Arrange
+        UUID productId = UUID.randomUUID();
+
+        // Act
+        nodeA.productChanged(productId, "SKU-001");
+
+        // Assert
+        verify(secondLevelB).evictEntityData(Product.class, productId);
+        verify(secondLevelB).evictNaturalIdData(Product.class);
+        verify(secondLevelB).evictDefaultQueryRegion();
+        verifyNoInteractions(secondLevelA);
+    }
+
+    @Test
+    @DisplayName("Should evict a changed supplier and the cached supplier lists")
+    void shouldEvictSupplierEverywhere() {
+        // Arrange
+        UUID supplierId = UUID.randomUUID();
+
+        // Act
+        nodeA.supplierChanged(supplierId);
+
+        // Assert
+        verify(secondLevelB).evictEntityData(Supplier.class, supplierId);
+        verify(secondLevelB).evictDefaultQueryRegion();
+        verify(secondLevelB, never()).evictNaturalIdData(any(Class.class));
+    }
+
+    @Test
+    @DisplayName("Should register a new warehouse code on the other nodes")
+    void shouldRegisterWarehouseCodeEverywhere() {
+        // Arrange
+        UUID warehouseId = UUID.randomUUID();
+
+        // Act
+        nodeA.warehouseChanged(warehouseId, "WH-000001", null);
+
+        // Assert
+        verify(codeRegistryA).registerWarehouseCode("WH-000001");
+        verify(codeRegistryB).registerWarehouseCode("WH-000001");
+        verify(referenceDataB).evictWarehouse(warehouseId);
+        verify(referenceDataB).evictWarehouseCode("WH-000001");
+        verifyNoMoreInteractions(codeRegistryB);
+    }
+
+    @Test
+    @DisplayName("Should drop reference data and capacity counters of a changed carrier")
+    void shouldEvictCarrierEverywhere() {
+        // Arrange
+        UUID carrierId = UUID.randomUUID();
+
+        // Act
+        nodeB.carrierChanged(carrierId);
+
+        // Assert
+        verify(referenceDataA).evictCarrier(carrierId);
+        verify(carrierCapacityA).evict(carrierId);
+        verify(referenceDataB).evictCarrier(carrierId);
+        verify(carrierCapacityB).evict(carrierId);
+        verifyNoInteractions(secondLevelA, secondLevelB);
+    }
+
+    @Test
+    @DisplayName("Should clear everything after missing messages")
+    void shouldClearCachesOnGap() {
+        // Act
+        nodeB.onGap();
+
+        // Assert
+        verify(referenceDataB).evictAll();
+        verify(carrierCapacityB).evictAll();
+        verify(secondLevelB).evictAllRegions();
+        verify(codeRegistryB).load();
+        verifyNoInteractions(referenceDataA, carrierCapacityA, codeRegistryA, secondLevelA);
+    }
+
+    @Test
+    @DisplayName("Should ignore malformed messages")
+    void shouldIgnoreMalformedMessages() {
+        // Act
+        channel.publish("not json");
+
+        // Assert
+        verifyNoInteractions(referenceDataA, referenceDataB, codeRegistryA, codeRegistryB);
+    }
+
+    @Test
+    @DisplayName("Should still evict locally when broadcasting fails")
+    void shouldEvictLocallyWhenPublishFails() {
+        // Arrange
+        InvalidationChannel broken = mock(InvalidationChannel.class);
+        when(broken.name()).thenReturn("local");
+        doThrow(new IllegalStateException("connection refused")).when(broken).publish(anyString());
+        CacheInvalidationBus bus = new CacheInvalidationBus(List.of(broken), referenceDataA, carrierCapacityA, codeRegistryA,
+                new ObjectMapper(), entityManagerFactoryA);
+        UUID carrierId = UUID.randomUUID();
+
+        // Act
+        bus.carrierChanged(carrierId);
+
+        // Assert
+        verify(referenceDataA).evictCarrier(carrierId);
+        verify(carrierCapacityA).evict(carrierId);
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown channel")
+    void shouldRejectUnknownChannel() {
+        // Arrange
+        ReflectionTestUtils.setField(nodeA, "channelName", "redis");
+
+        // Act & Assert
+        assertThatThrownBy(() -> nodeA.productChanged(UUID.randomUUID(), "SKU-001"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,159 @@
+package com.logitrack.logitrack.services;
+
+import com.logitrack.logitrack.dtos.CarrierCapacityDTO;
+import com.logitrack.logitrack.models.Carrier;
+import com.logitrack.logitrack.repositories.CarrierRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CarrierCapacityService Unit Tests")
+class CarrierCapacityServiceTest {
+
+    private static final LocalDateTime MORNING = LocalDateTime.of(2026, 3, 2, 9, 0);
+    private static final LocalDateTime EVENING = LocalDateTime.of(2026, 3, 2, 16, 0);
+
+    @Mock
+    private CarrierRepository carrierRepository;
+
+    @InjectMocks
+    private CarrierCapacityService carrierCapacityService;
+
+    private Carrier carrier;
+    private UUID carrierId;
+
+    @BeforeEach
+    void setUp() {
+        carrierId = UUID.randomUUID();
+        carrier = Carrier.builder()
+                .id(carrierId)
+                .maxDailyCapacity(10)
+                .currentDailyShipments(4)
+                .capacityDate(LocalDate.of(2026, 3, 2))
+                .cutOffTime(LocalTime.of(15, 0))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should book shipments after the cut-off on the next day")
+    void shouldBookOnShippingDay() {
+        // Arrange
+        when(carrierRepository.reserveCapacity(eq(carrierId), any(LocalDate.class), eq(2))).thenReturn(1);
+
+        // Act
+        carrierCapacityService.reserve(carrier, 2, MORNING);
+        carrierCapacityService.reserve(carrier, 2, EVENING);
+
+        // Assert
+        verify(carrierRepository).reserveCapacity(carrierId, LocalDate.of(2026, 3, 2), 2);
+        verify(carrierRepository).reserveCapacity(carrierId, LocalDate.of(2026, 3, 3), 2);
+    }
+
+    @Test
+    @DisplayName("Should refuse a booking the guarded update rejects")
+    void shouldRefuseWhenUpdateRejected() {
+        // Arrange
+        when(carrierRepository.reserveCapacity(carrierId, LocalDate.of(2026, 3, 2), 7)).thenReturn(0);
+
+        // Act
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> carrierCapacityService.reserve(carrier, 7, MORNING));
+
+        // Assert
+        assertThat(exception.getMessage()).isEqualTo("Carrier has reached its maximum daily capacity.");
+    }
+
+    @Test
+    @DisplayName("Should answer capacity queries from the cache after the first load")
+    void shouldCacheCapacity() {
+        // Arrange
+        when(carrierRepository.findById(carrierId)).thenReturn(Optional.of(carrier));
+        when(carrierRepository.reserveCapacity(carrierId, LocalDate.of(2026, 3, 2), 3)).thenReturn(1);
+
+        // Act
+        CarrierCapacityDTO before = carrierCapacityService.getCapacity(carrierId, MORNING);
+        carrierCapacityService.reserve(carrier, 3, MORNING);
+        CarrierCapacityDTO after = carrierCapacityService.getCapacity(carrierId, MORNING);
+
+        // Assert
+        assertThat(before.getBooked()).isEqualTo(4);
+        assertThat(after.getBooked()).isEqualTo(7);
+        assertThat(after.getRemaining()).isEqualTo(3);
+        verify(carrierRepository, times(1)).findById(carrierId);
+    }
+
+    @Test
+    @DisplayName("Should refuse from the cache without touching the database when already full")
+    void shouldRefuseFromCache() {
+        // Arrange
+        carrier.setCurrentDailyShipments(10);
+        when(carrierRepository.findById(carrierId)).thenReturn(Optional.of(carrier));
+        carrierCapacityService.getCapacity(carrierId, MORNING);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> carrierCapacityService.reserve(carrier, 1, MORNING));
+        verify(carrierRepository, never()).reserveCapacity(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should start a new day empty once the cut-off has passed")
+    void shouldRollOverAtCutOff() {
+        // Arrange
+        when(carrierRepository.findById(carrierId)).thenReturn(Optional.of(carrier));
+        carrierCapacityService.getCapacity(carrierId, MORNING);
+
+        // Act
+        CarrierCapacityDTO capacity = carrierCapacityService.getCapacity(carrierId, EVENING);
+
+        // Assert
+        assertThat(capacity.getShippingDay()).isEqualTo(LocalDate.of(2026, 3, 3));
+        assertThat(capacity.getBooked()).isZero();
+        assertThat(capacity.getRemaining()).isEqualTo(10);
+        verify(carrierRepository, times(1)).findById(carrierId);
+    }
+
+    @Test
+    @DisplayName("Should reset elapsed days and drop their cached counters")
+    void shouldResetElapsedDays() {
+        // Arrange
+        when(carrierRepository.findById(carrierId)).thenReturn(Optional.of(carrier));
+        carrierCapacityService.getCapacity(carrierId, MORNING);
+        LocalDateTime nextMorning = MORNING.plusDays(1);
+        when(carrierRepository.resetElapsedDays(nextMorning.toLocalDate(), nextMorning.toLocalDate().plusDays(1),
+                nextMorning.toLocalTime())).thenReturn(1);
+
+        // Act
+        carrierCapacityService.resetElapsedDays(nextMorning);
+        carrierCapacityService.getCapacity(carrierId, nextMorning);
+
+        // Assert
+        verify(carrierRepository).resetElapsedDays(LocalDate.of(2026, 3, 3), LocalDate.of(2026, 3, 4), LocalTime.of(9, 0));
+        verify(carrierRepository, times(2)).findById(carrierId);
+    }
+
+    @Test
+    @DisplayName("Should throw exception for capacity of an unknown carrier")
+    void shouldThrowForUnknownCarrier() {
+        // Arrange
+        when(carrierRepository.findById(carrierId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> carrierCapacityService.getCapacity(carrierId));
+    }
+}
@@ -32,6 +32,12 @@ class CarrierServiceTest {
     @Mock
     private CarrierMapper carrierMapper;
 
+    @Mock
+    private CarrierCapacityService carrierCapacityService;
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
     @InjectMocks
     private CarrierService carrierService;
 
@@ -152,6 +158,7 @@ class CarrierServiceTest {
         assertNotNull(result);
         verify(carrierRepository, times(1)).findById(carrierId);
         verify(carrierRepository, times(1)).save(any(Carrier.class));
+        verify(cacheInvalidationBus).carrierChanged(carrierId);
     }
 
     @Test
@@ -180,6 +187,7 @@ class CarrierServiceTest {
         // Assert
         verify(carrierRepository, times(1)).findById(carrierId);
         verify(carrierRepository, times(1)).delete(any(Carrier.class));
+        verify(cacheInvalidationBus).carrierChanged(carrierId);
     }
 
     @Test
@@ -0,0 +1,85 @@
+package com.logitrack.logitrack.services;
+
+import com.logitrack.logitrack.repositories.CodeSequenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CodeAllocator Unit Tests")
+class CodeAllocatorTest {
+
+    @Mock
+    private CodeSequenceRepository codeSequenceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CodeAllocator codeAllocator;
+
+    @BeforeEach
+    void setUp() {
+        codeAllocator = new CodeAllocator(codeSequenceRepository, transactionManager, 3);
+    }
+
+    @Test
+    @DisplayName("Should reserve one block per block size of codes")
+    void shouldReserveBlocks() {
+        // Arrange
+        when(codeSequenceRepository.advance(CodeAllocator.SKU_SEQUENCE, 3)).thenReturn(1);
+        when(codeSequenceRepository.findNextValue(CodeAllocator.SKU_SEQUENCE)).thenReturn(41L, 44L);
+
+        // Act
+        List<String> skus = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            skus.add(codeAllocator.nextSku());
+        }
+
+        // Assert
+        assertThat(skus).containsExactly(
+                "SKU-00000038", "SKU-00000039", "SKU-00000040",
+                "SKU-00000041", "SKU-00000042", "SKU-00000043");
+        verify(codeSequenceRepository, times(2)).advance(CodeAllocator.SKU_SEQUENCE, 3);
+    }
+
+    @Test
+    @DisplayName("Should create the sequence on first use")
+    void shouldCreateMissingSequence() {
+        // Arrange
+        when(codeSequenceRepository.advance(CodeAllocator.WAREHOUSE_SEQUENCE, 3)).thenReturn(0);
+
+        // Act
+        String code = codeAllocator.nextWarehouseCode();
+
+        // Assert
+        assertThat(code).isEqualTo("WH-000001");
+        verify(codeSequenceRepository).create(CodeAllocator.WAREHOUSE_SEQUENCE, 4);
+    }
+
+    @Test
+    @DisplayName("Should advance the sequence when another instance created it first")
+    void shouldRetryWhenSequenceCreatedConcurrently() {
+        // Arrange
+        when(codeSequenceRepository.advance(CodeAllocator.SKU_SEQUENCE, 3)).thenReturn(0, 1);
+        when(codeSequenceRepository.create(CodeAllocator.SKU_SEQUENCE, 4))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(codeSequenceRepository.findNextValue(CodeAllocator.SKU_SEQUENCE)).thenReturn(7L);
+
+        // Act
+        String sku = codeAllocator.nextSku();
+
+        // Assert
+        assertThat(sku).isEqualTo("SKU-00000004");
+    }
+}
@@ -0,0 +1,79 @@
+package com.logitrack.logitrack.services;
+
+import com.logitrack.logitrack.repositories.ProductRepository;
+import com.logitrack.logitrack.repositories.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CodeRegistry Unit Tests")
+class CodeRegistryTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    private CodeRegistry codeRegistry;
+
+    @BeforeEach
+    void setUp() {
+        codeRegistry = new CodeRegistry(productRepository, warehouseRepository, 1000, 0.01);
+        when(productRepository.streamAllSkus()).thenReturn(Stream.of("SKU-00000001"));
+        when(warehouseRepository.streamAllCodes()).thenReturn(Stream.of("WH-000001"));
+        codeRegistry.load();
+    }
+
+    @Test
+    @DisplayName("Should answer a loaded SKU from the filter")
+    void shouldAnswerLoadedSkuFromFilter() {
+        // Act & Assert
+        assertThat(codeRegistry.skuMayExist("SKU-00000001")).isTrue();
+        verify(productRepository, never()).existsBySku(anyString());
+    }
+
+    @Test
+    @DisplayName("Should rule out a SKU missing from the filter without querying the database")
+    void shouldRuleOutSkuMissingFromFilter() {
+        // Act & Assert
+        assertThat(codeRegistry.skuMayExist("SKU-00000002")).isFalse();
+        verify(productRepository, never()).existsBySku(anyString());
+    }
+
+    @Test
+    @DisplayName("Should find a SKU once it has been registered")
+    void shouldFindRegisteredSku() {
+        // Act
+        codeRegistry.registerSku("SKU-00000003");
+
+        // Assert
+        assertThat(codeRegistry.skuMayExist("SKU-00000003")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should rule out a warehouse code until it has been registered")
+    void shouldFindRegisteredWarehouseCode() {
+        // Act
+        boolean before = codeRegistry.warehouseCodeMayExist("WH-000002");
+        codeRegistry.registerWarehouseCode("WH-000002");
+
+        // Assert
+        assertThat(before).isFalse();
+        assertThat(codeRegistry.warehouseCodeMayExist("WH-000002")).isTrue();
+        assertThat(codeRegistry.warehouseCodeMayExist("WH-000001")).isTrue();
+        verify(warehouseRepository, never()).existsByCode(anyString());
+    }
+}
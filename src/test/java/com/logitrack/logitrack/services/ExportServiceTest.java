@@ -0,0 +1,110 @@
+package com.logitrack.logitrack.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.logitrack.logitrack.dtos.Export.ExportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExportService Tests")
+class ExportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new ExportService(jdbcTemplate, objectMapper);
+    }
+
+    private void streamRows(ResultSet rs, int rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < rows; i++) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("Should write one NDJSON line per inventory movement")
+    void shouldExportInventoryMovementsAsNdjson() throws Exception {
+        // Arrange
+        UUID movementId = UUID.randomUUID();
+        ResultSet rs = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(rs.getObject("id", UUID.class)).thenReturn(movementId);
+        when(rs.getString("type")).thenReturn("INBOUND");
+        when(rs.getObject("quantity", Integer.class)).thenReturn(5);
+        when(rs.getObject("occurred_at", LocalDateTime.class)).thenReturn(LocalDateTime.of(2024, 3, 1, 8, 30));
+        streamRows(rs, 2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = exportService.exportInventoryMovements(null, null, ExportFormat.NDJSON, false, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0])
+                .startsWith("{\"movementId\":\"" + movementId + "\"")
+                .contains("\"type\":\"INBOUND\"", "\"quantity\":5", "\"occurredAt\":\"2024-03-01T08:30:00\"");
+    }
+
+    @Test
+    @DisplayName("Should write gzip-compressed CSV with a header and escaped values")
+    void shouldExportSalesOrdersAsGzippedCsv() throws Exception {
+        // Arrange
+        ResultSet rs = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(rs.getString("warehouse_code")).thenReturn("WH-1");
+        when(rs.getString("status")).thenReturn("CREATED");
+        when(rs.getString("sku")).thenReturn("SKU,\"A\"");
+        when(rs.getObject("unit_price", BigDecimal.class)).thenReturn(new BigDecimal("12.50"));
+        streamRows(rs, 1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = exportService.exportSalesOrders(null, null, ExportFormat.CSV, true, out);
+
+        // Assert
+        String csv;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String[] lines = csv.split("\n");
+        assertThat(count).isEqualTo(1);
+        assertThat(lines[0]).startsWith("orderId,clientId,warehouseId,warehouseCode,status,");
+        assertThat(lines[1]).isEqualTo(",,,WH-1,CREATED,,,,,,,\"SKU,\"\"A\"\"\",,12.50,");
+    }
+}
@@ -0,0 +1,255 @@
+package com.logitrack.logitrack.services;
+
+import com.logitrack.logitrack.dtos.Inventory.InventoryDiscrepancyDTO;
+import com.logitrack.logitrack.dtos.Inventory.ReconciliationReportDTO;
+import com.logitrack.logitrack.models.InventoryMovement;
+import com.logitrack.logitrack.models.ENUM.MovementType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InventoryReconciliationService Tests")
+class InventoryReconciliationServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private MovementLedger movementLedger;
+
+    @Mock
+    private MovementPartitionService movementPartitionService;
+
+    private InventoryReconciliationService reconciliationService;
+    private final UUID firstChunk = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private final UUID secondChunk = UUID.fromString("80000000-0000-0000-0000-000000000001");
+    private LocalDateTime checkpointAt;
+
+    @BeforeEach
+    void setUp() {
+        reconciliationService = new InventoryReconciliationService(jdbcTemplate, movementLedger, movementPartitionService);
+        ReflectionTestUtils.setField(reconciliationService, "chunkSize", 2);
+        ReflectionTestUtils.setField(reconciliationService, "parallelism", 2);
+        ReflectionTestUtils.setField(reconciliationService, "reportLimit", 10);
+    }
+
+    private InventoryDiscrepancyDTO discrepancy(int qtyOnHand, long ledgerQuantity) {
+        return new InventoryDiscrepancyDTO(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                qtyOnHand, ledgerQuantity, qtyOnHand - ledgerQuantity);
+    }
+
+    private void inventories(long count, List<UUID> bounds) {
+        latestCheckpoint();
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*)"), eq(Long.class))).thenReturn(count);
+        when(jdbcTemplate.queryForList(contains("ROW_NUMBER()"), eq(UUID.class), any(Object[].class))).thenReturn(bounds);
+    }
+
+    private void latestCheckpoint() {
+        when(jdbcTemplate.queryForObject(contains("inventory_checkpoints"), eq(LocalDateTime.class))).thenReturn(checkpointAt);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void chunks(List<InventoryDiscrepancyDTO> first, List<InventoryDiscrepancyDTO> last) {
+        when(jdbcTemplate.query(contains("i.id >= ? AND i.id < ?"), any(RowMapper.class), any(Object[].class))).thenReturn((List) first);
+        when(jdbcTemplate.query(contains("WHERE i.id >= ?\n"), any(RowMapper.class), any(Object[].class))).thenReturn((List) last);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void recheck(List<InventoryDiscrepancyDTO> confirmed) {
+        when(jdbcTemplate.query(contains("i.id IN ("), any(RowMapper.class), any(Object[].class))).thenReturn((List) confirmed);
+    }
+
+    @Test
+    @DisplayName("Should report the discrepancies of every chunk without repairing them")
+    void shouldReportDiscrepanciesOfEveryChunk() {
+        // Arrange
+        InventoryDiscrepancyDTO missing = discrepancy(10, 7);
+        InventoryDiscrepancyDTO extra = discrepancy(2, 5);
+        inventories(4, List.of(firstChunk, secondChunk));
+        chunks(List.of(missing), List.of(extra));
+        recheck(List.of(missing, extra));
+
+        // Act
+        ReconciliationReportDTO report = reconciliationService.reconcile(false);
+
+        // Assert
+        assertThat(report.inventoriesChecked()).isEqualTo(4);
+        assertThat(report.discrepancies()).isEqualTo(2);
+        assertThat(report.repaired()).isFalse();
+        assertThat(report.items()).containsExactly(missing, extra);
+        verify(movementLedger, times(2)).flush();
+        verify(movementLedger, never()).appendAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should repair discrepancies with ADJUSTMENT movements of the difference")
+    @SuppressWarnings("unchecked")
+    void shouldRepairWithAdjustments() {
+        // Arrange
+        InventoryDiscrepancyDTO missing = discrepancy(10, 7);
+        InventoryDiscrepancyDTO extra = discrepancy(2, 5);
+        inventories(4, List.of(firstChunk, secondChunk));
+        chunks(List.of(missing), List.of(extra));
+        recheck(List.of(missing, extra));
+
+        // Act
+        ReconciliationReportDTO report = reconciliationService.reconcile(true);
+
+        // Assert
+        ArgumentCaptor<List<InventoryMovement>> movements = ArgumentCaptor.forClass(List.class);
+        verify(movementLedger).appendAll(movements.capture());
+        assertThat(report.repaired()).isTrue();
+        assertThat(movements.getValue()).allMatch(m -> m.getType() == MovementType.ADJUSTMENT
+                && "RECONCILIATION".equals(m.getReferenceDocument()));
+        assertThat(movements.getValue()).extracting(m -> m.getInventory().getId())
+                .containsExactly(missing.inventoryId(), extra.inventoryId());
+        assertThat(movements.getValue()).extracting(InventoryMovement::getQuantity).containsExactly(3, -3);
+        verify(movementLedger, times(3)).flush();
+    }
+
+    @Test
+    @DisplayName("Should drop candidates that balance once buffered movements are flushed")
+    void shouldDropCandidatesResolvedOnRecheck() {
+        // Arrange
+        InventoryDiscrepancyDTO settled = discrepancy(10, 7);
+        InventoryDiscrepancyDTO missing = discrepancy(4, 0);
+        inventories(4, List.of(firstChunk, secondChunk));
+        chunks(List.of(settled), List.of(missing));
+        recheck(List.of(missing));
+
+        // Act
+        ReconciliationReportDTO report = reconciliationService.reconcile(true);
+
+        // Assert
+        assertThat(report.items()).containsExactly(missing);
+        verify(movementLedger).appendAll(argThat((List<InventoryMovement> movements) ->
+                movements.size() == 1 && movements.get(0).getInventory().getId().equals(missing.inventoryId())));
+    }
+
+    @Test
+    @DisplayName("Should count every discrepancy but report only up to the report limit")
+    void shouldCapReportedItems() {
+        // Arrange
+        ReflectionTestUtils.setField(reconciliationService, "reportLimit", 1);
+        List<InventoryDiscrepancyDTO> all = List.of(discrepancy(1, 0), discrepancy(2, 0));
+        inventories(2, List.of(firstChunk, secondChunk));
+        chunks(List.of(all.get(0)), List.of(all.get(1)));
+        recheck(all);
+
+        // Act
+        ReconciliationReportDTO report = reconciliationService.reconcile(false);
+
+        // Assert
+        assertThat(report.discrepancies()).isEqualTo(2);
+        assertThat(report.items()).containsExactly(all.get(0));
+    }
+
+    @Test
+    @DisplayName("Should not scan anything when there are no inventories")
+    @SuppressWarnings("unchecked")
+    void shouldNotScanWithoutInventories() {
+        // Arrange
+        inventories(0, List.of());
+
+        // Act
+        ReconciliationReportDTO report = reconciliationService.reconcile(true);
+
+        // Assert
+        assertThat(report.discrepancies()).isZero();
+        assertThat(report.items()).isEmpty();
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any(Object[].class));
+        verify(movementLedger, never()).appendAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should reject a reconciliation while another one is running")
+    void shouldRejectConcurrentReconciliation() {
+        // Arrange
+        ((AtomicBoolean) ReflectionTestUtils.getField(reconciliationService, "running")).set(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> reconciliationService.reconcile(false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("A reconciliation is already running.");
+        verify(movementLedger, never()).flush();
+    }
+
+    @Test
+    @DisplayName("Should add the movements since the latest checkpoint to its quantities")
+    @SuppressWarnings("unchecked")
+    void shouldReconcileFromLatestCheckpoint() {
+        // Arrange
+        checkpointAt = LocalDateTime.of(2026, 10, 1, 0, 0);
+        inventories(2, List.of(firstChunk));
+        when(jdbcTemplate.query(contains("WHERE i.id >= ?\n"), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        // Act
+        ReconciliationReportDTO report = reconciliationService.reconcile(false);
+
+        // Assert
+        assertThat(report.checkpointAt()).isEqualTo(checkpointAt);
+        Timestamp base = Timestamp.valueOf(checkpointAt);
+        verify(jdbcTemplate).query(contains("c.taken_at = ?"), any(RowMapper.class), eq(base), eq(base), eq(firstChunk));
+    }
+
+    @Test
+    @DisplayName("Should refuse to reconcile when movements after the latest checkpoint were detached")
+    void shouldRefuseWhenDetachedHistoryIsNotCheckpointed() {
+        // Arrange
+        checkpointAt = LocalDateTime.of(2026, 1, 1, 0, 0);
+        latestCheckpoint();
+        when(movementPartitionService.historyStart()).thenReturn(LocalDateTime.of(2026, 4, 1, 0, 0));
+
+        // Act & Assert
+        assertThatThrownBy(() -> reconciliationService.reconcile(true))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("detached");
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(UUID.class), any(Object[].class));
+        verify(movementLedger, never()).appendAll(anyList());
+        assertThat(ReflectionTestUtils.getField(reconciliationService, "running")).hasToString("false");
+    }
+
+    @Test
+    @DisplayName("Should reconcile when the latest checkpoint was taken after the detached months")
+    void shouldReconcileWhenCheckpointCoversDetachedHistory() {
+        // Arrange
+        checkpointAt = LocalDateTime.of(2026, 5, 1, 0, 0);
+        when(movementPartitionService.historyStart()).thenReturn(LocalDateTime.of(2026, 4, 1, 0, 0));
+        inventories(0, List.of());
+
+        // Act
+        ReconciliationReportDTO report = reconciliationService.reconcile(true);
+
+        // Assert
+        assertThat(report.checkpointAt()).isEqualTo(checkpointAt);
+        assertThat(report.discrepancies()).isZero();
+    }
+}
@@ -1,8 +1,17 @@
 package com.logitrack.logitrack.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +24,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.logitrack.logitrack.models.Inventory;
 import com.logitrack.logitrack.models.Product;
+import com.logitrack.logitrack.models.ENUM.MovementType;
 import com.logitrack.logitrack.models.Warehouse;
 import com.logitrack.logitrack.repositories.InventoryRepository;
 
@@ -25,6 +35,9 @@ class InventoryServiceTest {
     @Mock
     private InventoryRepository inventoryRepository;
 
+    @Mock
+    private MovementLedger movementLedger;
+
     @InjectMocks
     private InventoryService inventoryService;
 
@@ -52,7 +65,7 @@ class InventoryServiceTest {
     void testOutBoundInventoryNoItemsFound() {
         // Arrange
         Integer requestedQuantity = 100;
-        warehouse.setInventories(new ArrayList<>());
+        when(inventoryRepository.findByWarehouseIdAndProductId(warehouseId, productId)).thenReturn(Optional.empty());
 
         // Act
         Integer result = inventoryService.OutBoundInventory(productId, warehouse, requestedQuantity);
@@ -69,7 +82,7 @@ class InventoryServiceTest {
         Inventory inventory = new Inventory();
         inventory.setProduct(product);
         inventory.setQtyOnHand(100);
-        warehouse.getInventories().add(inventory);
+        when(inventoryRepository.findByWarehouseIdAndProductId(warehouseId, productId)).thenReturn(Optional.of(inventory));
 
         // Act
         Integer result = inventoryService.OutBoundInventory(productId, warehouse, requestedQuantity);
@@ -87,7 +100,7 @@ class InventoryServiceTest {
         Inventory inventory = new Inventory();
         inventory.setProduct(product);
         inventory.setQtyOnHand(100);
-        warehouse.getInventories().add(inventory);
+        when(inventoryRepository.findByWarehouseIdAndProductId(warehouseId, productId)).thenReturn(Optional.of(inventory));
 
         // Act
         Integer result = inventoryService.OutBoundInventory(productId, warehouse, requestedQuantity);
@@ -98,111 +111,56 @@ class InventoryServiceTest {
     }
 
     @Test
-    @DisplayName("Should distribute quantity across multiple inventory items")
-    void testOutBoundInventoryMultipleItemsDistribution() {
+    @DisplayName("Should record an OUTBOUND movement of the quantity actually withdrawn")
+    void testOutBoundInventoryRecordsMovement() {
         // Arrange
-        Integer requestedQuantity = 150;
-
-        Inventory inv1 = new Inventory();
-        inv1.setProduct(product);
-        inv1.setQtyOnHand(100);
-
-        Inventory inv2 = new Inventory();
-        inv2.setProduct(product);
-        inv2.setQtyOnHand(100);
-
-        warehouse.getInventories().add(inv1);
-        warehouse.getInventories().add(inv2);
-
-        // Act
-        Integer result = inventoryService.OutBoundInventory(productId, warehouse, requestedQuantity);
-
-        // Assert
-        assertEquals(0, result); // 150 fully distributed: 100 + 50 = 150
-        assertEquals(0, inv1.getQtyOnHand()); // First item depleted
-        assertEquals(50, inv2.getQtyOnHand()); // Second item reduced: 100 - 50 = 50
-    }
-
-    @Test
-    @DisplayName("Should fully distribute quantity across multiple items with exact depletion")
-    void testOutBoundInventoryMultipleItemsExactDepletion() {
-        // Arrange
-        Integer requestedQuantity = 200;
-
-        Inventory inv1 = new Inventory();
-        inv1.setProduct(product);
-        inv1.setQtyOnHand(100);
-
-        Inventory inv2 = new Inventory();
-        inv2.setProduct(product);
-        inv2.setQtyOnHand(100);
-
-        warehouse.getInventories().add(inv1);
-        warehouse.getInventories().add(inv2);
+        Inventory inventory = new Inventory();
+        inventory.setProduct(product);
+        inventory.setQtyOnHand(100);
+        when(inventoryRepository.findByWarehouseIdAndProductId(warehouseId, productId)).thenReturn(Optional.of(inventory));
 
         // Act
-        Integer result = inventoryService.OutBoundInventory(productId, warehouse, requestedQuantity);
+        inventoryService.OutBoundInventory(productId, warehouse, 150);
 
         // Assert
-        assertEquals(0, result); // All 200 distributed
-        assertEquals(0, inv1.getQtyOnHand()); // Both items depleted
-        assertEquals(0, inv2.getQtyOnHand());
+        verify(movementLedger).append(argThat(movement -> movement.getInventory() == inventory
+                && movement.getType() == MovementType.OUTBOUND && movement.getQuantity() == 100));
     }
 
     @Test
-    @DisplayName("Should return remaining quantity when all items are depleted")
-    void testOutBoundInventoryAllItemsDepleted() {
+    @DisplayName("Should fully deplete inventory when requested quantity matches on-hand")
+    void testOutBoundInventoryExactDepletion() {
         // Arrange
-        Integer requestedQuantity = 300;
-
-        Inventory inv1 = new Inventory();
-        inv1.setProduct(product);
-        inv1.setQtyOnHand(100);
-
-        Inventory inv2 = new Inventory();
-        inv2.setProduct(product);
-        inv2.setQtyOnHand(100);
-
-        warehouse.getInventories().add(inv1);
-        warehouse.getInventories().add(inv2);
+        Integer requestedQuantity = 100;
+        Inventory inventory = new Inventory();
+        inventory.setProduct(product);
+        inventory.setQtyOnHand(100);
+        when(inventoryRepository.findByWarehouseIdAndProductId(warehouseId, productId)).thenReturn(Optional.of(inventory));
 
         // Act
         Integer result = inventoryService.OutBoundInventory(productId, warehouse, requestedQuantity);
 
         // Assert
-        assertEquals(100, result); // 300 - 200 = 100 remaining
-        assertEquals(0, inv1.getQtyOnHand());
-        assertEquals(0, inv2.getQtyOnHand());
+        assertEquals(0, result);
+        assertEquals(0, inventory.getQtyOnHand());
     }
 
     @Test
-    @DisplayName("Should filter only matching product ID items")
-    void testOutBoundInventoryFiltersCorrectProduct() {
+    @DisplayName("Should look up only the requested product in the warehouse")
+    void testOutBoundInventoryLooksUpRequestedProduct() {
         // Arrange
-        Integer requestedQuantity = 50;
-        UUID differentProductId = UUID.randomUUID();
-
-        Product otherProduct = new Product();
-        otherProduct.setId(differentProductId);
-
-        Inventory correctInventory = new Inventory();
-        correctInventory.setProduct(product);
-        correctInventory.setQtyOnHand(100);
-
-        Inventory wrongInventory = new Inventory();
-        wrongInventory.setProduct(otherProduct);
-        wrongInventory.setQtyOnHand(100);
-
-        warehouse.getInventories().add(correctInventory);
-        warehouse.getInventories().add(wrongInventory);
+        Inventory inventory = new Inventory();
+        inventory.setProduct(product);
+        inventory.setQtyOnHand(100);
+        when(inventoryRepository.findByWarehouseIdAndProductId(warehouseId, productId)).thenReturn(Optional.of(inventory));
 
         // Act
-        Integer result = inventoryService.OutBoundInventory(productId, warehouse, requestedQuantity);
+        Integer result = inventoryService.OutBoundInventory(productId, warehouse, 50);
 
         // Assert
         assertEquals(0, result);
-        assertEquals(50, correctInventory.getQtyOnHand()); // Only correct product affected
-        assertEquals(100, wrongInventory.getQtyOnHand()); // Wrong product unchanged
+        verify(inventoryRepository).findByWarehouseIdAndProductId(warehouseId, productId);
+        verifyNoMoreInteractions(inventoryRepository);
     }
 
     @Test
@@ -213,7 +171,7 @@ class InventoryServiceTest {
         Inventory inventory = new Inventory();
         inventory.setProduct(product);
         inventory.setQtyOnHand(100);
-        warehouse.getInventories().add(inventory);
+        when(inventoryRepository.findByWarehouseIdAndProductId(warehouseId, productId)).thenReturn(Optional.of(inventory));
 
         // Act
         Integer result = inventoryService.OutBoundInventory(productId, warehouse, requestedQuantity);
@@ -224,41 +182,75 @@ class InventoryServiceTest {
     }
 
     @Test
-    @DisplayName("Should handle large quantity distribution")
+    @DisplayName("Should handle large quantity request")
     void testOutBoundInventoryLargeQuantity() {
         // Arrange
         Integer requestedQuantity = 1000;
+        Inventory inventory = new Inventory();
+        inventory.setProduct(product);
+        inventory.setQtyOnHand(700);
+        when(inventoryRepository.findByWarehouseIdAndProductId(warehouseId, productId)).thenReturn(Optional.of(inventory));
 
-        Inventory inv1 = new Inventory();
-        inv1.setProduct(product);
-        inv1.setQtyOnHand(300);
+        // Act
+        Integer result = inventoryService.OutBoundInventory(productId, warehouse, requestedQuantity);
 
-        Inventory inv2 = new Inventory();
-        inv2.setProduct(product);
-        inv2.setQtyOnHand(400);
+        // Assert
+        assertEquals(300, result); // 1000 - 700 = 300 remaining
+        assertEquals(0, inventory.getQtyOnHand());
+    }
 
-        warehouse.getInventories().add(inv1);
-        warehouse.getInventories().add(inv2);
+    @Test
+    @DisplayName("Should index warehouse inventories by product id")
+    void testIndexByProduct() {
+        // Arrange
+        Inventory inventory = new Inventory();
+        inventory.setProduct(product);
+        when(inventoryRepository.findByWarehouseIdAndProductIdIn(warehouseId, List.of(productId)))
+                .thenReturn(List.of(inventory));
 
         // Act
-        Integer result = inventoryService.OutBoundInventory(productId, warehouse, requestedQuantity);
+        Map<UUID, Inventory> result = inventoryService.indexByProduct(warehouseId, List.of(productId));
 
         // Assert
-        assertEquals(300, result); // 1000 - 700 = 300 remaining
-        assertEquals(0, inv1.getQtyOnHand());
-        assertEquals(0, inv2.getQtyOnHand());
+        assertEquals(1, result.size());
+        assertEquals(inventory, result.get(productId));
+    }
+
+    @Test
+    @DisplayName("Should not query when no products are requested")
+    void testIndexByProductEmpty() {
+        // Act
+        Map<UUID, Inventory> result = inventoryService.indexByProduct(warehouseId, List.of());
+
+        // Assert
+        assertEquals(0, result.size());
+        verifyNoInteractions(inventoryRepository);
     }
 
     @Test
-    @DisplayName("Should handle warehouse with empty inventory list")
-    void testOutBoundInventoryEmptyWarehouse() {
+    @DisplayName("Should reserve inventory with a single guarded update")
+    void testReserveInventorySuccess() {
         // Arrange
-        Integer requestedQuantity = 100;
+        when(inventoryRepository.reserveIfAvailable(warehouseId, productId, 10)).thenReturn(1);
 
         // Act
-        Integer result = inventoryService.OutBoundInventory(productId, warehouse, requestedQuantity);
+        inventoryService.reserveInventory(warehouseId, productId, 10);
 
         // Assert
-        assertEquals(requestedQuantity, result);
+        verify(inventoryRepository).reserveIfAvailable(warehouseId, productId, 10);
+    }
+
+    @Test
+    @DisplayName("Should throw when guarded update reserves nothing")
+    void testReserveInventoryInsufficient() {
+        // Arrange
+        when(inventoryRepository.reserveIfAvailable(warehouseId, productId, 10)).thenReturn(0);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> inventoryService.reserveInventory(warehouseId, productId, 10)
+        );
+        assertEquals("Insufficient inventory for product " + productId, exception.getMessage());
     }
 }
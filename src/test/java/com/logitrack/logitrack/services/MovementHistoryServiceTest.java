@@ -0,0 +1,126 @@
+package com.logitrack.logitrack.services;
+
+import com.logitrack.logitrack.Util.KeysetCursor;
+import com.logitrack.logitrack.dtos.CursorPageDTO;
+import com.logitrack.logitrack.dtos.Inventory.InventoryMovementRespDTO;
+import com.logitrack.logitrack.repositories.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MovementHistoryService Tests")
+class MovementHistoryServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    private MovementHistoryService movementHistoryService;
+    private final UUID inventoryId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        movementHistoryService = new MovementHistoryService(jdbcTemplate, inventoryRepository);
+    }
+
+    private InventoryMovementRespDTO movement(LocalDateTime occurredAt) {
+        return new InventoryMovementRespDTO(UUID.randomUUID(), "INBOUND", 1, occurredAt, null, null, occurredAt);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void returnRows(List<InventoryMovementRespDTO> rows) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(rows);
+    }
+
+    @Test
+    @DisplayName("Should bound the query by the time range and fetch one row more than the page")
+    void shouldQueryTimeRangeWithOneExtraRow() {
+        // Arrange
+        LocalDateTime from = LocalDateTime.of(2024, 3, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 4, 1, 0, 0);
+        when(inventoryRepository.existsById(inventoryId)).thenReturn(true);
+        returnRows(List.of(movement(from.plusDays(2)), movement(from.plusDays(1)), movement(from)));
+
+        // Act
+        CursorPageDTO<InventoryMovementRespDTO> page = movementHistoryService.getMovements(inventoryId, from, to, null, 2);
+
+        // Assert
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), params.capture());
+        assertThat(sql.getValue()).contains("occurred_at >= ?", "occurred_at < ?", "ORDER BY occurred_at DESC, id DESC LIMIT ?");
+        assertThat(params.getValue()).containsExactly(inventoryId, Timestamp.valueOf(from), Timestamp.valueOf(to), 3);
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.isHasNext()).isTrue();
+        KeysetCursor cursor = KeysetCursor.decode(page.getNextCursor());
+        assertThat(cursor.timestamp()).isEqualTo(from.plusDays(1));
+        assertThat(cursor.id()).isEqualTo(page.getItems().get(1).id());
+    }
+
+    @Test
+    @DisplayName("Should continue strictly after the cursor position")
+    void shouldContinueAfterCursor() {
+        // Arrange
+        LocalDateTime at = LocalDateTime.of(2024, 3, 5, 12, 0);
+        UUID lastId = UUID.randomUUID();
+        when(inventoryRepository.existsById(inventoryId)).thenReturn(true);
+        returnRows(List.of(movement(at.minusHours(1))));
+
+        // Act
+        CursorPageDTO<InventoryMovementRespDTO> page = movementHistoryService.getMovements(inventoryId, null, null,
+                new KeysetCursor(at, lastId).encode(), null);
+
+        // Assert
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), params.capture());
+        assertThat(sql.getValue()).contains("occurred_at <= ? AND (occurred_at < ? OR id < ?)").doesNotContain("occurred_at >= ?");
+        assertThat(params.getValue()).containsExactly(inventoryId, Timestamp.valueOf(at), Timestamp.valueOf(at), lastId,
+                MovementHistoryService.DEFAULT_PAGE_SIZE + 1);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown inventory without querying movements")
+    void shouldRejectUnknownInventory() {
+        when(inventoryRepository.existsById(inventoryId)).thenReturn(false);
+
+        assertThatThrownBy(() -> movementHistoryService.getMovements(inventoryId, null, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not found");
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should reject a time range that ends before it starts")
+    void shouldRejectInvertedRange() {
+        when(inventoryRepository.existsById(inventoryId)).thenReturn(true);
+        LocalDateTime from = LocalDateTime.of(2024, 4, 1, 0, 0);
+
+        assertThatThrownBy(() -> movementHistoryService.getMovements(inventoryId, from, from.minusDays(1), null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
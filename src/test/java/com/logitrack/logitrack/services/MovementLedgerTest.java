@@ -0,0 +1,459 @@
+package com.logitrack.logitrack.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logitrack.logitrack.models.Inventory;
+import com.logitrack.logitrack.models.InventoryMovement;
+import com.logitrack.logitrack.models.ENUM.MovementType;
+import com.logitrack.logitrack.services.ledger.DeadLetterStore;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MovementLedger Tests")
+class MovementLedgerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path walDirectory;
+
+    @TempDir
+    private Path deadLetterDirectory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final Inventory inventory = Inventory.builder().id(UUID.randomUUID()).qtyOnHand(10).qtyReserved(0).build();
+    private MovementLedger movementLedger;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        movementLedger = ledger(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private MovementLedger ledger(boolean wal) throws IOException {
+        MovementLedger ledger = new MovementLedger(jdbcTemplate, transactionManager, objectMapper);
+        ReflectionTestUtils.setField(ledger, "batchSize", 2);
+        ReflectionTestUtils.setField(ledger, "walEnabled", wal);
+        ReflectionTestUtils.setField(ledger, "walDirectory", walDirectory.toString());
+        ReflectionTestUtils.setField(ledger, "deadLetterDirectory", deadLetterDirectory.toString());
+        ledger.open();
+        return ledger;
+    }
+
+    private InventoryMovement movement(int quantity) {
+        return InventoryMovement.builder().inventory(inventory).type(MovementType.OUTBOUND).quantity(quantity).build();
+    }
+
+    private void beforeCommit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+    }
+
+    private void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(sync -> sync.afterCompletion(status));
+    }
+
+    private String walContent() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (Path segment : segments()) {
+            content.append(Files.readString(segment));
+        }
+        return content.toString();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(walDirectory)) {
+            return files.toList();
+        }
+    }
+
+    @Test
+    @DisplayName("Should insert buffered movements in JDBC batches of the batch size")
+    void shouldInsertBufferedMovementsInBatches() {
+        // Arrange
+        movementLedger.appendAll(List.of(movement(1), movement(2), movement(3)));
+
+        // Act
+        int inserted = movementLedger.flush();
+
+        // Assert
+        assertThat(inserted).isEqualTo(3);
+        assertThat(movementLedger.buffered()).isZero();
+        verify(jdbcTemplate).batchUpdate(eq(MovementLedger.INSERT_SQL), argThat((List<Object[]> rows) -> rows.size() == 2
+                && rows.get(0)[1].equals(inventory.getId()) && rows.get(0)[2].equals("OUTBOUND") && rows.get(0)[3].equals(1)));
+        verify(jdbcTemplate).batchUpdate(eq(MovementLedger.INSERT_SQL), argThat((List<Object[]> rows) -> rows.size() == 1));
+    }
+
+    @Test
+    @DisplayName("Should buffer movements recorded in a transaction only when it commits")
+    void shouldBufferTransactionalMovementsOnCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        movementLedger.append(movement(5));
+        assertThat(movementLedger.buffered()).isZero();
+
+        // Act
+        beforeCommit();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        assertThat(movementLedger.buffered()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should log the movements of a transaction to the write-ahead log before it commits")
+    void shouldLogMovementsBeforeCommit() throws IOException {
+        // Arrange
+        MovementLedger ledger = ledger(true);
+        TransactionSynchronizationManager.initSynchronization();
+        InventoryMovement movement = movement(5);
+        ledger.append(movement);
+        assertThat(walContent()).isEmpty();
+
+        // Act
+        beforeCommit();
+
+        // Assert
+        assertThat(walContent()).contains(movement.getId().toString());
+        assertThat(ledger.buffered()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should flush the persistence context and then stamp the movements of a committing transaction")
+    void shouldStampMovementsWhenCommitting() throws Exception {
+        // Arrange
+        EntityManager entityManager = mock(EntityManager.class);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        JpaTransactionManager jpaTransactionManager = mock(JpaTransactionManager.class);
+        when(jpaTransactionManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+        MovementLedger ledger = new MovementLedger(jdbcTemplate, jpaTransactionManager, objectMapper);
+        ledger.open();
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        LocalDateTime explicit = LocalDateTime.of(2024, 3, 1, 8, 30);
+        ledger.appendAll(List.of(movement(1),
+                InventoryMovement.builder().inventory(inventory).type(MovementType.INBOUND).quantity(2).occurredAt(explicit).build()));
+        Thread.sleep(2);
+        LocalDateTime recorded = LocalDateTime.now();
+
+        // Act
+        try {
+            beforeCommit();
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+        }
+        ledger.flush();
+
+        // Assert
+        verify(entityManager).flush();
+        verify(jdbcTemplate).batchUpdate(eq(MovementLedger.INSERT_SQL), argThat((List<Object[]> rows) ->
+                !((LocalDateTime) rows.get(0)[4]).isBefore(recorded) && rows.get(1)[4].equals(explicit)
+                        && !((LocalDateTime) rows.get(1)[7]).isBefore(recorded)));
+    }
+
+    @Test
+    @DisplayName("Should log an abort record for logged movements of a transaction that fails to commit")
+    void shouldAbortLoggedMovementsOfFailedCommit() throws IOException {
+        // Arrange
+        MovementLedger ledger = ledger(true);
+        TransactionSynchronizationManager.initSynchronization();
+        InventoryMovement movement = movement(5);
+        ledger.append(movement);
+        beforeCommit();
+
+        // Act
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        assertThat(walContent()).contains(MovementLedger.ABORT_PREFIX + movement.getId());
+        assertThat(ledger.buffered()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not replay movements whose transaction was aborted")
+    void shouldNotReplayAbortedMovements() throws IOException {
+        // Arrange
+        MovementLedger crashed = ledger(true);
+        TransactionSynchronizationManager.initSynchronization();
+        crashed.append(movement(5));
+        beforeCommit();
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        MovementLedger restarted = ledger(true);
+
+        // Act
+        restarted.replay();
+
+        // Assert
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should keep the write-ahead log segment of a transaction that is committing while a flush runs")
+    void shouldKeepSegmentOfCommittingTransaction() throws IOException {
+        // Arrange
+        MovementLedger ledger = ledger(true);
+        ledger.append(movement(1));
+        TransactionSynchronizationManager.initSynchronization();
+        InventoryMovement committing = movement(2);
+        ledger.append(committing);
+        beforeCommit();
+
+        // Act
+        ledger.flush();
+
+        // Assert
+        assertThat(walContent()).contains(committing.getId().toString());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        ledger.flush();
+        assertThat(walContent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should fail the commit when the buffer is full and cannot be flushed")
+    void shouldFailCommitWhenBufferStaysFull() throws IOException {
+        // Arrange
+        ReflectionTestUtils.setField(movementLedger, "bufferCapacity", 2);
+        movementLedger.open();
+        movementLedger.appendAll(List.of(movement(1), movement(2)));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new TransientDataAccessResourceException("down"));
+        TransactionSynchronizationManager.initSynchronization();
+        movementLedger.append(movement(3));
+
+        // Act & Assert
+        org.assertj.core.api.Assertions.assertThatThrownBy(this::beforeCommit)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The inventory movement buffer is full.");
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(movementLedger.buffered()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should flush a full buffer on the committing thread to make room")
+    void shouldFlushFullBufferBeforeCommit() throws IOException {
+        // Arrange
+        ReflectionTestUtils.setField(movementLedger, "bufferCapacity", 2);
+        movementLedger.open();
+        movementLedger.appendAll(List.of(movement(1), movement(2)));
+        TransactionSynchronizationManager.initSynchronization();
+        movementLedger.append(movement(3));
+
+        // Act
+        beforeCommit();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        assertThat(movementLedger.buffered()).isEqualTo(1);
+        verify(jdbcTemplate).batchUpdate(eq(MovementLedger.INSERT_SQL), argThat((List<Object[]> rows) -> rows.size() == 2));
+    }
+
+    @Test
+    @DisplayName("Should drop movements recorded in a transaction that rolls back")
+    void shouldDropMovementsOfRolledBackTransaction() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        movementLedger.append(movement(5));
+
+        // Act
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        assertThat(movementLedger.buffered()).isZero();
+        assertThat(TransactionSynchronizationManager.getResource(movementLedger)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep movements buffered when the insert fails")
+    void shouldKeepMovementsWhenInsertFails() {
+        // Arrange
+        movementLedger.appendAll(List.of(movement(1), movement(2)));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new TransientDataAccessResourceException("down"));
+
+        // Act
+        int inserted = movementLedger.flush();
+
+        // Assert
+        assertThat(inserted).isZero();
+        assertThat(movementLedger.buffered()).isEqualTo(2);
+        reset(jdbcTemplate);
+        assertThat(movementLedger.flush()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should move only the movements that violate a constraint to the dead-letter file")
+    void shouldDeadLetterOnlyInvalidMovements() throws IOException {
+        // Arrange
+        InventoryMovement rejected = movement(1);
+        InventoryMovement accepted = movement(2);
+        movementLedger.appendAll(List.of(rejected, accepted));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataIntegrityViolationException("fk"))
+                .thenThrow(new DataIntegrityViolationException("fk"))
+                .thenReturn(new int[]{1});
+
+        // Act
+        movementLedger.flush();
+
+        // Assert
+        assertThat(movementLedger.buffered()).isZero();
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyList());
+        assertThat(Files.readString(deadLetterDirectory.resolve(DeadLetterStore.ROWS)))
+                .contains(rejected.getId().toString())
+                .doesNotContain(accepted.getId().toString());
+    }
+
+    @Test
+    @DisplayName("Should reject movements of an inventory without an id")
+    void shouldRejectMovementOfUnsavedInventory() {
+        InventoryMovement movement = InventoryMovement.builder().inventory(new Inventory())
+                .type(MovementType.INBOUND).quantity(1).build();
+
+        org.assertj.core.api.Assertions.assertThatThrownBy(() -> movementLedger.append(movement))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should delete write-ahead log segments once their movements are inserted")
+    void shouldDeleteWalSegmentsAfterFlush() throws IOException {
+        // Arrange
+        MovementLedger ledger = ledger(true);
+        ledger.appendAll(List.of(movement(1), movement(2)));
+        assertThat(Files.size(segments().get(0))).isPositive();
+
+        // Act
+        ledger.flush();
+
+        // Assert
+        assertThat(segments()).hasSize(1);
+        assertThat(Files.size(segments().get(0))).isZero();
+    }
+
+    @Test
+    @DisplayName("Should replay logged movements that were not inserted before a restart")
+    void shouldReplayLoggedMovementsOnStart() throws IOException {
+        // Arrange
+        MovementLedger crashed = ledger(true);
+        InventoryMovement stored = movement(1);
+        InventoryMovement lost = movement(2);
+        crashed.appendAll(List.of(stored, lost));
+        when(jdbcTemplate.queryForList(anyString(), eq(UUID.class), any(Object[].class))).thenReturn(List.of(stored.getId()));
+        MovementLedger restarted = ledger(true);
+
+        // Act
+        restarted.replay();
+
+        // Assert
+        verify(jdbcTemplate).batchUpdate(eq(MovementLedger.INSERT_SQL),
+                argThat((List<Object[]> rows) -> rows.size() == 1 && rows.get(0)[0].equals(lost.getId())));
+        assertThat(segments()).hasSize(1);
+        assertThat(restarted.buffered()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should move an unreadable segment to the dead-letter directory and replay the later ones")
+    void shouldDeadLetterUnreadableSegment() throws IOException {
+        // Arrange
+        Files.writeString(walDirectory.resolve("movements-0.wal"), "not a movement\nnot a movement\n");
+        MovementLedger crashed = ledger(true);
+        InventoryMovement lost = movement(1);
+        crashed.append(lost);
+        MovementLedger restarted = ledger(true);
+
+        // Act
+        restarted.replay();
+
+        // Assert
+        verify(jdbcTemplate).batchUpdate(eq(MovementLedger.INSERT_SQL),
+                argThat((List<Object[]> rows) -> rows.size() == 1 && rows.get(0)[0].equals(lost.getId())));
+        assertThat(segments()).extracting(segment -> segment.getFileName().toString()).containsExactly("movements-2.wal");
+        try (Stream<Path> files = Files.list(deadLetterDirectory)) {
+            assertThat(files).singleElement().asString().endsWith("-movements-0.wal");
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep a segment that fails to replay for the next start and replay the later ones")
+    void shouldKeepSegmentThatFailsToReplay() throws IOException {
+        // Arrange
+        MovementLedger first = ledger(true);
+        first.append(movement(1));
+        MovementLedger second = ledger(true);
+        InventoryMovement later = movement(2);
+        second.append(later);
+        MovementLedger restarted = ledger(true);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new TransientDataAccessResourceException("connection reset"))
+                .thenReturn(new int[]{1});
+
+        // Act
+        restarted.replay();
+        restarted.append(movement(3));
+        restarted.flush();
+
+        // Assert
+        verify(jdbcTemplate).batchUpdate(eq(MovementLedger.INSERT_SQL),
+                argThat((List<Object[]> rows) -> rows.size() == 1 && rows.get(0)[0].equals(later.getId())));
+        assertThat(segments()).extracting(segment -> segment.getFileName().toString())
+                .contains("movements-1.wal")
+                .doesNotContain("movements-2.wal");
+    }
+
+    @Test
+    @DisplayName("Should not touch the database when nothing is buffered")
+    void shouldNotInsertWhenBufferIsEmpty() {
+        assertThat(movementLedger.flush()).isZero();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+}
@@ -0,0 +1,137 @@
+package com.logitrack.logitrack.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MovementPartitionService Tests")
+class MovementPartitionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private MovementPartitionService movementPartitionService;
+
+    @BeforeEach
+    void setUp() {
+        movementPartitionService = new MovementPartitionService(jdbcTemplate);
+        ReflectionTestUtils.setField(movementPartitionService, "monthsAhead", 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void database(String product) {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(product);
+    }
+
+    private void partitioned() {
+        database("PostgreSQL");
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class), eq(MovementPartitionService.TABLE))).thenReturn("p");
+    }
+
+    @Test
+    @DisplayName("Should leave the table alone on databases other than PostgreSQL")
+    void shouldSkipOtherDatabases() {
+        // Arrange
+        database("H2");
+
+        // Act
+        movementPartitionService.partitionTable();
+        movementPartitionService.maintain();
+
+        // Assert
+        assertThat(movementPartitionService.partitions()).isEmpty();
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("Should create the partitions of the current month and the months ahead")
+    void shouldCreateUpcomingPartitions() {
+        // Arrange
+        partitioned();
+        YearMonth now = YearMonth.now();
+
+        // Act
+        movementPartitionService.maintain();
+
+        // Assert
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS " + MovementPartitionService.partitionName(now)
+                + " PARTITION OF inventory_movements FOR VALUES FROM ('" + now.atDay(1) + "') TO ('" + now.plusMonths(1).atDay(1) + "')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS " + MovementPartitionService.partitionName(now.plusMonths(1))
+                + " PARTITION OF inventory_movements FOR VALUES FROM ('" + now.plusMonths(1).atDay(1) + "') TO ('" + now.plusMonths(2).atDay(1) + "')");
+    }
+
+    @Test
+    @DisplayName("Should detach only the monthly partitions older than the given month")
+    void shouldDetachOlderPartitions() {
+        // Arrange
+        partitioned();
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq(MovementPartitionService.TABLE))).thenReturn(List.of(
+                "inventory_movements_y2024m02", MovementPartitionService.DEFAULT_PARTITION,
+                "inventory_movements_y2024m01", "inventory_movements_y2024m03"));
+
+        // Act
+        List<String> detached = movementPartitionService.detachBefore(YearMonth.of(2024, 3));
+
+        // Assert
+        assertThat(detached).containsExactly("inventory_movements_y2024m01", "inventory_movements_y2024m02");
+        verify(jdbcTemplate).execute("ALTER TABLE inventory_movements DETACH PARTITION inventory_movements_y2024m01");
+        verify(jdbcTemplate).execute("ALTER TABLE inventory_movements DETACH PARTITION inventory_movements_y2024m02");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE inventory_movements DETACH PARTITION inventory_movements_y2024m03");
+    }
+
+    @Test
+    @DisplayName("Should refuse to detach partitions of an unpartitioned table")
+    void shouldRejectDetachWhenNotPartitioned() {
+        database("H2");
+
+        assertThatThrownBy(() -> movementPartitionService.detachBefore(YearMonth.of(2024, 3)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should report the start of the oldest attached partition once partitions were detached")
+    void shouldReportHistoryStartAfterDetach() {
+        // Arrange
+        partitioned();
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), anyString())).thenReturn(2L);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq(MovementPartitionService.TABLE))).thenReturn(List.of(
+                "inventory_movements_y2024m04", "inventory_movements_y2024m03", MovementPartitionService.DEFAULT_PARTITION));
+
+        // Act
+        LocalDateTime historyStart = movementPartitionService.historyStart();
+
+        // Assert
+        assertThat(historyStart).isEqualTo(LocalDateTime.of(2024, 3, 1, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Should report the whole history as present when nothing was or will be detached")
+    void shouldReportFullHistoryWithoutRetention() {
+        // Arrange
+        partitioned();
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), anyString())).thenReturn(0L);
+
+        // Act & Assert
+        assertThat(movementPartitionService.historyStart()).isNull();
+    }
+}
@@ -15,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -35,6 +36,18 @@ class ProductServicesTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private CodeAllocator codeAllocator;
+
+    @Mock
+    private CodeRegistry codeRegistry;
+
+    @Mock
+    private ReferenceDataService referenceDataService;
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
     @InjectMocks
     private ProductServices productServices;
 
@@ -46,6 +59,7 @@ class ProductServicesTest {
     @BeforeEach
     void setUp() {
         productId = UUID.randomUUID();
+        lenient().when(codeRegistry.skuMayExist(anyString())).thenReturn(true);
 
         // Initialize test data
         productDTO = ProductDTO.builder()
@@ -100,6 +114,44 @@ class ProductServicesTest {
         verify(productMapper).toResponseDTO(product);
     }
 
+    @Test
+    @DisplayName("Should allocate the SKU of a new product")
+    void testSaveProductAllocatesSku() {
+        // Arrange
+        product.setSku(null);
+        when(productMapper.toEntity(productDTO)).thenReturn(product);
+        when(codeAllocator.nextSku()).thenReturn("SKU-00000101");
+        when(productMapper.toResponseDTO(product)).thenReturn(productRespDTO);
+
+        // Act
+        productServices.saveProduct(productDTO);
+
+        // Assert
+        assertThat(product.getSku()).isEqualTo("SKU-00000101");
+        verify(productRepository).save(product);
+        verify(cacheInvalidationBus).productChanged(product.getId(), "SKU-00000101");
+    }
+
+    @Test
+    @DisplayName("Should take the next SKU when the allocated one is already taken")
+    void testSaveProductRetriesTakenSku() {
+        // Arrange
+        Product retried = Product.builder().name("Test Product").build();
+        when(productMapper.toEntity(productDTO)).thenReturn(product, retried);
+        when(codeAllocator.nextSku()).thenReturn("SKU-00000101", "SKU-00000102");
+        when(productRepository.save(product)).thenThrow(new DataIntegrityViolationException("duplicate sku"));
+        when(productMapper.toResponseDTO(retried)).thenReturn(productRespDTO);
+
+        // Act
+        productServices.saveProduct(productDTO);
+
+        // Assert
+        assertThat(retried.getSku()).isEqualTo("SKU-00000102");
+        verify(productRepository).save(retried);
+        verify(cacheInvalidationBus).productChanged(retried.getId(), "SKU-00000102");
+        verify(cacheInvalidationBus, never()).productChanged(product.getId(), "SKU-00000101");
+    }
+
     @Test
     @DisplayName("Should retrieve all products")
     void testGetAllProducts() {
@@ -135,7 +187,7 @@ class ProductServicesTest {
     @DisplayName("Should get product by SKU successfully")
     void testGetProductBySku() {
         // Arrange
-        when(productRepository.findBySku("SKU-001")).thenReturn(Optional.of(product));
+        when(referenceDataService.findProductBySku("SKU-001")).thenReturn(Optional.of(product));
         when(productMapper.toResponseDTO(product)).thenReturn(productRespDTO);
 
         // Act
@@ -144,14 +196,14 @@ class ProductServicesTest {
         // Assert
         assertThat(result).isNotNull();
         assertThat(result.getSku()).isEqualTo("SKU-001");
-        verify(productRepository).findBySku("SKU-001");
+        verify(referenceDataService).findProductBySku("SKU-001");
     }
 
     @Test
     @DisplayName("Should throw exception when product not found by SKU")
     void testGetProductBySku_NotFound() {
         // Arrange
-        when(productRepository.findBySku("INVALID")).thenReturn(Optional.empty());
+        when(referenceDataService.findProductBySku("INVALID")).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> productServices.getProductBySku("INVALID"))
@@ -159,6 +211,19 @@ class ProductServicesTest {
                 .hasMessageContaining("Product not found with SKU: INVALID");
     }
 
+    @Test
+    @DisplayName("Should not look up a SKU the registry rules out")
+    void testGetProductBySkuRegistryMiss() {
+        // Arrange
+        when(codeRegistry.skuMayExist("SKU-99999999")).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> productServices.getProductBySku("SKU-99999999"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Product not found with SKU: SKU-99999999");
+        verifyNoInteractions(productRepository, referenceDataService);
+    }
+
     @Test
     @DisplayName("Should update product successfully")
     void testUpdateProduct() {
@@ -175,6 +240,24 @@ class ProductServicesTest {
         verify(productRepository).findBySku("SKU-001");
         verify(productMapper).updateProductFromDto(productDTO, product);
         verify(productRepository).save(product);
+        verify(cacheInvalidationBus).productChanged(product.getId(), "SKU-001", "SKU-001");
+    }
+
+    @Test
+    @DisplayName("Should invalidate both the old and the new SKU when the SKU changes")
+    void testUpdateProduct_SkuChanged() {
+        // Arrange
+        when(productRepository.findBySku("SKU-001")).thenReturn(Optional.of(product));
+        doAnswer(invocation -> {
+            product.setSku("SKU-002");
+            return null;
+        }).when(productMapper).updateProductFromDto(productDTO, product);
+
+        // Act
+        productServices.updateProduct("SKU-001", productDTO);
+
+        // Assert
+        verify(cacheInvalidationBus).productChanged(product.getId(), "SKU-001", "SKU-002");
     }
 
     @Test
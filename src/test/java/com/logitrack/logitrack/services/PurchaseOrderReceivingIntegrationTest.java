@@ -0,0 +1,190 @@
+package com.logitrack.logitrack.services;
+
+import com.logitrack.logitrack.dtos.Inventory.ReconciliationReportDTO;
+import com.logitrack.logitrack.models.ENUM.PurchaseOrderStatus;
+import com.logitrack.logitrack.models.Inventory;
+import com.logitrack.logitrack.models.Product;
+import com.logitrack.logitrack.models.PurchaseOrder;
+import com.logitrack.logitrack.models.PurchaseOrderLine;
+import com.logitrack.logitrack.models.Supplier;
+import com.logitrack.logitrack.models.Warehouse;
+import com.logitrack.logitrack.repositories.InventoryRepository;
+import com.logitrack.logitrack.repositories.ProductRepository;
+import com.logitrack.logitrack.repositories.PurchaseOrderRepository;
+import com.logitrack.logitrack.repositories.SupplierRepository;
+import com.logitrack.logitrack.repositories.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Receiving purchase orders against a real database: the set-based upserts and movement inserts
+ * of {@link PurchaseOrderReceivingService} leave quantities, versions and the movement ledger in
+ * agreement, and an order is never received twice.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@DisplayName("Purchase order receiving")
+class PurchaseOrderReceivingIntegrationTest {
+
+    @Autowired private PurchaseOrderService purchaseOrderService;
+    @Autowired private InventoryReconciliationService reconciliationService;
+    @Autowired private WarehouseRepository warehouseRepository;
+    @Autowired private SupplierRepository supplierRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private PurchaseOrderRepository purchaseOrderRepository;
+    @Autowired private InventoryRepository inventoryRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Warehouse warehouse;
+    private Supplier supplier;
+    private Product bolt;
+    private Product nut;
+    private Product washer;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        warehouse = warehouseRepository.save(Warehouse.builder().name("warehouse " + run).code("WH-" + run)
+                .location("test").active(true).build());
+        supplier = supplierRepository.save(Supplier.builder().name("supplier " + run).build());
+        bolt = product("BOLT-" + run);
+        nut = product("NUT-" + run);
+        washer = product("WASHER-" + run);
+    }
+
+    private Product product(String sku) {
+        return productRepository.save(Product.builder().name(sku).sku(sku).active(true).build());
+    }
+
+    private PurchaseOrder purchaseOrder(Object... productsAndQuantities) {
+        PurchaseOrder purchaseOrder = PurchaseOrder.builder().warehouse(warehouse).supplier(supplier)
+                .status(PurchaseOrderStatus.APPROVED).build();
+        for (int i = 0; i < productsAndQuantities.length; i += 2) {
+            int quantity = (Integer) productsAndQuantities[i + 1];
+            purchaseOrder.getLines().add(PurchaseOrderLine.builder().purchaseOrder(purchaseOrder)
+                    .product((Product) productsAndQuantities[i]).quantity(quantity).unitPrice(BigDecimal.valueOf(quantity)).build());
+        }
+        return purchaseOrderRepository.save(purchaseOrder);
+    }
+
+    private Inventory inventory(Product product) {
+        return inventoryRepository.findByWarehouseIdAndProductId(warehouse.getId(), product.getId()).orElseThrow();
+    }
+
+    private List<Integer> inboundQuantities(Product product) {
+        return jdbcTemplate.queryForList("SELECT m.quantity FROM inventory_movements m JOIN inventories i ON i.id = m.inventory_id "
+                        + "WHERE i.warehouse_id = ? AND i.product_id = ? AND m.type = 'INBOUND' ORDER BY m.quantity",
+                Integer.class, warehouse.getId(), product.getId());
+    }
+
+    @Test
+    @DisplayName("Should add overlapping orders to existing and new inventories with one INBOUND movement per line")
+    void shouldReceiveOverlappingOrders() {
+        // Arrange
+        PurchaseOrder earlier = purchaseOrder(bolt, 5);
+        purchaseOrderService.receivePurchaseOrders(List.of(earlier.getId()));
+        PurchaseOrder first = purchaseOrder(bolt, 4, nut, 3);
+        PurchaseOrder second = purchaseOrder(bolt, 7, washer, 2, nut, 6);
+
+        // Act
+        purchaseOrderService.receivePurchaseOrders(List.of(first.getId(), second.getId()));
+
+        // Assert
+        assertThat(inventory(bolt).getQtyOnHand()).isEqualTo(16);
+        assertThat(inventory(nut).getQtyOnHand()).isEqualTo(9);
+        assertThat(inventory(washer).getQtyOnHand()).isEqualTo(2);
+        // one upsert per inventory and receipt, however many lines
+        assertThat(inventory(bolt).getVersion()).isEqualTo(1);
+        assertThat(inventory(nut).getVersion()).isZero();
+        assertThat(inventory(washer).getVersion()).isZero();
+        assertThat(inboundQuantities(bolt)).containsExactly(4, 5, 7);
+        assertThat(inboundQuantities(nut)).containsExactly(3, 6);
+        assertThat(inboundQuantities(washer)).containsExactly(2);
+        assertThat(purchaseOrderRepository.findAllById(List.of(earlier.getId(), first.getId(), second.getId())))
+                .allMatch(purchaseOrder -> purchaseOrder.getStatus() == PurchaseOrderStatus.RECEIVED
+                        && purchaseOrder.getActualDelivery() != null);
+        assertThat(productRepository.findById(nut.getId()).orElseThrow().getBoughtPrice()).isEqualByComparingTo("6");
+
+        ReconciliationReportDTO report = reconciliationService.reconcile(false);
+        assertThat(report.items()).noneMatch(item -> item.warehouseId().equals(warehouse.getId()));
+    }
+
+    @Test
+    @DisplayName("Should reject receiving an order again and leave the stock unchanged")
+    void shouldRejectRepeatedReceipt() {
+        // Arrange
+        PurchaseOrder received = purchaseOrder(bolt, 5);
+        PurchaseOrder open = purchaseOrder(nut, 3);
+        purchaseOrderService.receivePurchaseOrders(List.of(received.getId()));
+
+        // Act & Assert
+        assertThatThrownBy(() -> purchaseOrderService.receivePurchaseOrders(List.of(open.getId(), received.getId())))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Purchase Order with id " + received.getId() + " has already been received.");
+        assertThat(inventory(bolt).getQtyOnHand()).isEqualTo(5);
+        assertThat(inboundQuantities(bolt)).containsExactly(5);
+        assertThat(inventoryRepository.findByWarehouseIdAndProductId(warehouse.getId(), nut.getId())).isEmpty();
+        assertThat(purchaseOrderRepository.findById(open.getId()).orElseThrow().getStatus()).isEqualTo(PurchaseOrderStatus.APPROVED);
+    }
+
+    @Test
+    @DisplayName("Should receive an order only once when two requests receive it at the same time")
+    void shouldReceiveConcurrentlyRequestedOrderOnce() throws Exception {
+        // Arrange
+        purchaseOrderService.receivePurchaseOrders(List.of(purchaseOrder(bolt, 1).getId()));
+        PurchaseOrder purchaseOrder = purchaseOrder(bolt, 5, nut, 3);
+        CyclicBarrier start = new CyclicBarrier(2);
+        Callable<Object> receive = () -> {
+            start.await(10, TimeUnit.SECONDS);
+            return purchaseOrderService.receivePurchaseOrders(List.of(purchaseOrder.getId()));
+        };
+
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<Object>> receipts = new ArrayList<>();
+        try {
+            receipts.add(executor.submit(receive));
+            receipts.add(executor.submit(receive));
+        } finally {
+            executor.shutdown();
+        }
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<Object> receipt : receipts) {
+            try {
+                receipt.get(30, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                failures.add(e.getCause());
+            }
+        }
+
+        // Assert: the later request either saw the order received or found it locked and then received
+        assertThat(failures).singleElement()
+                .extracting(Throwable::getMessage).asString().endsWith("has already been received.");
+        assertThat(inventory(bolt).getQtyOnHand()).isEqualTo(6);
+        assertThat(inventory(nut).getQtyOnHand()).isEqualTo(3);
+        assertThat(inboundQuantities(bolt)).containsExactly(1, 5);
+        assertThat(inboundQuantities(nut)).containsExactly(3);
+    }
+}
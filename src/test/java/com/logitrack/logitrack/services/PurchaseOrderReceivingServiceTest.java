@@ -0,0 +1,180 @@
+package com.logitrack.logitrack.services;
+
+import com.logitrack.logitrack.models.Product;
+import com.logitrack.logitrack.models.PurchaseOrder;
+import com.logitrack.logitrack.models.PurchaseOrderLine;
+import com.logitrack.logitrack.models.Warehouse;
+import com.logitrack.logitrack.models.ENUM.PurchaseOrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PurchaseOrderReceivingService Tests")
+class PurchaseOrderReceivingServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private PurchaseOrderReceivingService receivingService;
+    private Warehouse warehouse;
+    private Product bolt;
+    private Product nut;
+
+    @BeforeEach
+    void setUp() {
+        receivingService = new PurchaseOrderReceivingService(jdbcTemplate, cacheInvalidationBus);
+        warehouse = Warehouse.builder().id(UUID.randomUUID()).build();
+        bolt = Product.builder().id(UUID.randomUUID()).sku("BOLT").build();
+        nut = Product.builder().id(UUID.randomUUID()).sku("NUT").build();
+    }
+
+    private PurchaseOrder purchaseOrder(Object... productsAndQuantities) {
+        PurchaseOrder purchaseOrder = PurchaseOrder.builder().id(UUID.randomUUID()).warehouse(warehouse)
+                .status(PurchaseOrderStatus.APPROVED).build();
+        for (int i = 0; i < productsAndQuantities.length; i += 2) {
+            int quantity = (Integer) productsAndQuantities[i + 1];
+            purchaseOrder.getLines().add(PurchaseOrderLine.builder().purchaseOrder(purchaseOrder)
+                    .product((Product) productsAndQuantities[i]).quantity(quantity).unitPrice(BigDecimal.valueOf(quantity)).build());
+        }
+        return purchaseOrder;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void unreceived(String database, PurchaseOrder... purchaseOrders) {
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE"), eq(UUID.class), any(Object[].class)))
+                .thenReturn(Arrays.stream(purchaseOrders).map(PurchaseOrder::getId).toList());
+        if (database != null) {
+            when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(database);
+        }
+    }
+
+    @Test
+    @DisplayName("Should add all lines with one upsert per warehouse and product and one movement per line")
+    @SuppressWarnings("unchecked")
+    void shouldUpsertSummedQuantitiesAndInsertMovementPerLine() {
+        // Arrange
+        PurchaseOrder first = purchaseOrder(bolt, 5, nut, 3);
+        PurchaseOrder second = purchaseOrder(bolt, 7);
+        unreceived("PostgreSQL", first, second);
+
+        // Act
+        receivingService.receive(List.of(first, second));
+
+        // Assert
+        ArgumentCaptor<List<Object[]>> upserts = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Object[]>> movements = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(PurchaseOrderReceivingService.UPSERT_SQL_POSTGRES), upserts.capture());
+        verify(jdbcTemplate).batchUpdate(eq(PurchaseOrderReceivingService.MOVEMENT_SQL), movements.capture());
+        assertThat(upserts.getValue()).hasSize(2)
+                .anySatisfy(row -> assertThat(row).contains(warehouse.getId(), bolt.getId(), 12))
+                .anySatisfy(row -> assertThat(row).contains(warehouse.getId(), nut.getId(), 3));
+        assertThat(movements.getValue()).hasSize(3)
+                .extracting(row -> row[3]).containsExactly(5, 3, 7);
+        assertThat(movements.getValue().get(2)[5]).isEqualTo(second.getId().toString());
+    }
+
+    @Test
+    @DisplayName("Should mark the orders received and record the unit prices as bought prices")
+    void shouldMarkOrdersReceived() {
+        // Arrange
+        PurchaseOrder purchaseOrder = purchaseOrder(bolt, 5);
+        unreceived("PostgreSQL", purchaseOrder);
+
+        // Act
+        receivingService.receive(List.of(purchaseOrder));
+
+        // Assert
+        assertThat(purchaseOrder.getStatus()).isEqualTo(PurchaseOrderStatus.RECEIVED);
+        assertThat(purchaseOrder.getActualDelivery()).isNotNull();
+        assertThat(bolt.getBoughtPrice()).isEqualByComparingTo("5");
+    }
+
+    @Test
+    @DisplayName("Should invalidate each repriced product once")
+    void shouldInvalidateRepricedProducts() {
+        // Arrange
+        nut.setBoughtPrice(BigDecimal.valueOf(3));
+        PurchaseOrder first = purchaseOrder(bolt, 5, nut, 3);
+        PurchaseOrder second = purchaseOrder(bolt, 7);
+        unreceived("PostgreSQL", first, second);
+
+        // Act
+        receivingService.receive(List.of(first, second));
+
+        // Assert
+        verify(cacheInvalidationBus).productChanged(bolt.getId(), "BOLT");
+        verify(cacheInvalidationBus, never()).productChanged(eq(nut.getId()), anyString());
+    }
+
+    @Test
+    @DisplayName("Should use a standard MERGE on databases other than PostgreSQL")
+    void shouldMergeOnOtherDatabases() {
+        // Arrange
+        PurchaseOrder purchaseOrder = purchaseOrder(bolt, 5);
+        unreceived("H2", purchaseOrder);
+
+        // Act
+        receivingService.receive(List.of(purchaseOrder));
+
+        // Assert
+        verify(jdbcTemplate).batchUpdate(eq(PurchaseOrderReceivingService.UPSERT_SQL_MERGE), anyList());
+    }
+
+    @Test
+    @DisplayName("Should reject an order received meanwhile by another request")
+    void shouldRejectOrderReceivedConcurrently() {
+        // Arrange
+        PurchaseOrder open = purchaseOrder(bolt, 5);
+        PurchaseOrder received = purchaseOrder(nut, 3);
+        unreceived(null, open);
+
+        // Act & Assert
+        assertThatThrownBy(() -> receivingService.receive(List.of(open, received)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Purchase Order with id " + received.getId() + " has already been received.");
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verifyNoInteractions(cacheInvalidationBus);
+        assertThat(open.getStatus()).isEqualTo(PurchaseOrderStatus.APPROVED);
+    }
+
+    @Test
+    @DisplayName("Should reject an order without a warehouse before locking anything")
+    void shouldRejectOrderWithoutWarehouse() {
+        // Arrange
+        PurchaseOrder purchaseOrder = purchaseOrder(bolt, 5);
+        purchaseOrder.setWarehouse(null);
+
+        // Act & Assert
+        assertThatThrownBy(() -> receivingService.receive(List.of(purchaseOrder)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Purchase Order with id " + purchaseOrder.getId() + " has no warehouse.");
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(UUID.class), any(Object[].class));
+    }
+}
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.UUID;
@@ -33,10 +34,8 @@ import com.logitrack.logitrack.models.Supplier;
 import com.logitrack.logitrack.models.WAREHOUSE_MANAGER;
 import com.logitrack.logitrack.models.Warehouse;
 import com.logitrack.logitrack.models.ENUM.PurchaseOrderStatus;
-import com.logitrack.logitrack.repositories.ProductRepository;
 import com.logitrack.logitrack.repositories.PurchaseOrderRepository;
 import com.logitrack.logitrack.repositories.SupplierRepository;
-import com.logitrack.logitrack.repositories.WarehouseRepository;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("PurchaseOrderServices Tests")
@@ -47,10 +46,10 @@ public class PurchaseOrderServicesTest {
     private SupplierRepository supplierRepository;
 
     @Mock
-    private ProductRepository productRepository;
+    private ReferenceDataService referenceDataService;
 
     @Mock
-    private WarehouseRepository warehouseRepository;
+    private PurchaseOrderReceivingService purchaseOrderReceivingService;
 
     @Spy
     private PurchaseOrderMapperImpl purchaseOrderMapper;
@@ -91,8 +90,7 @@ public class PurchaseOrderServicesTest {
         purchaseOrderLineId = UUID.randomUUID();
         // Initialize mapper dependencies
         purchaseOrderMapper.setSupplierRepository(supplierRepository);
-        purchaseOrderMapper.setProductRepository(productRepository);
-        purchaseOrderMapper.setWarehouseRepository(warehouseRepository);
+        purchaseOrderMapper.setReferenceDataService(referenceDataService);
 
 
 
@@ -382,6 +380,82 @@ public class PurchaseOrderServicesTest {
                 verify(purchaseOrderRepository).findById(purchaseOrderId);
                 verify(purchaseOrderRepository).save(purchaseOrder);
                 verify(purchaseOrderMapper).toResponseDTO(purchaseOrder);
+                verify(purchaseOrderReceivingService).receive(java.util.List.of(purchaseOrder));
+        }
+
+        @Test
+        @DisplayName("Should set a status other than RECEIVED without touching stock")
+        void shouldUpdateStatusWithoutReceiving() {
+            // Arrange
+            when(purchaseOrderRepository.findById(purchaseOrderId))
+                    .thenReturn(java.util.Optional.ofNullable(purchaseOrder));
+            doReturn(purchaseOrderRespDTO)
+                    .when(purchaseOrderMapper)
+                    .toResponseDTO(purchaseOrder);
+                // Act
+                purchaseOrderService.parchaseOrderStatusUpdate(purchaseOrderId, PurchaseOrderStatus.APPROVED);
+                // Assert
+                assertThat(purchaseOrder.getStatus()).isEqualTo(PurchaseOrderStatus.APPROVED);
+                verifyNoInteractions(purchaseOrderReceivingService);
+        }
+
+        @Test
+        @DisplayName("Should receive several purchase orders in one receipt")
+        void shouldReceiveSeveralPurchaseOrders() {
+            // Arrange
+            PurchaseOrder other = PurchaseOrder.builder().id(UUID.randomUUID()).warehouse(warehouse)
+                    .status(PurchaseOrderStatus.APPROVED).build();
+            when(purchaseOrderRepository.findWithLinesByIdIn(java.util.List.of(purchaseOrderId, other.getId())))
+                    .thenReturn(java.util.List.of(other, purchaseOrder));
+            doReturn(purchaseOrderRespDTO)
+                    .when(purchaseOrderMapper)
+                    .toResponseDTO(org.mockito.ArgumentMatchers.any(PurchaseOrder.class));
+                // Act
+                java.util.List<PurchaseOrderRespDTO> received = purchaseOrderService.receivePurchaseOrders(
+                        java.util.List.of(purchaseOrderId, other.getId(), purchaseOrderId));
+                // Assert
+                assertThat(received).hasSize(2);
+                verify(purchaseOrderReceivingService).receive(java.util.List.of(purchaseOrder, other));
+                verify(purchaseOrderRepository).saveAll(java.util.List.of(purchaseOrder, other));
+        }
+
+        @Test
+        @DisplayName("Should reject the whole receipt when one purchase order was already received")
+        void shouldRejectReceiptWithReceivedPurchaseOrder() {
+            // Arrange
+            PurchaseOrder received = PurchaseOrder.builder().id(UUID.randomUUID()).warehouse(warehouse)
+                    .status(PurchaseOrderStatus.RECEIVED).build();
+            when(purchaseOrderRepository.findWithLinesByIdIn(java.util.List.of(purchaseOrderId, received.getId())))
+                    .thenReturn(java.util.List.of(purchaseOrder, received));
+                // Act & Assert
+                IllegalArgumentException exception = assertThrows(
+                    IllegalArgumentException.class,
+                    () -> purchaseOrderService.receivePurchaseOrders(java.util.List.of(purchaseOrderId, received.getId())));
+                assertThat(exception.getMessage()).isEqualTo("Purchase Order with id " + received.getId() + " has already been received.");
+                verifyNoInteractions(purchaseOrderReceivingService);
+        }
+
+        @Test
+        @DisplayName("Should reject a receipt naming an unknown purchase order")
+        void shouldRejectReceiptWithUnknownPurchaseOrder() {
+            // Arrange
+            UUID unknownId = UUID.randomUUID();
+            when(purchaseOrderRepository.findWithLinesByIdIn(java.util.List.of(unknownId)))
+                    .thenReturn(java.util.List.of());
+                // Act & Assert
+                IllegalArgumentException exception = assertThrows(
+                    IllegalArgumentException.class,
+                    () -> purchaseOrderService.receivePurchaseOrders(java.util.List.of(unknownId)));
+                assertThat(exception.getMessage()).isEqualTo("Purchase Order with id " + unknownId + " not found.");
+                verifyNoInteractions(purchaseOrderReceivingService);
+        }
+
+        @Test
+        @DisplayName("Should reject an empty receipt")
+        void shouldRejectEmptyReceipt() {
+                assertThrows(IllegalArgumentException.class,
+                        () -> purchaseOrderService.receivePurchaseOrders(java.util.List.of()));
+                verifyNoInteractions(purchaseOrderRepository, purchaseOrderReceivingService);
         }
 
         @Test
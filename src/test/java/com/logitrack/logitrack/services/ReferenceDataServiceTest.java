@@ -0,0 +1,173 @@
+package com.logitrack.logitrack.services;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.logitrack.logitrack.config.CacheConfig;
+import com.logitrack.logitrack.models.Carrier;
+import com.logitrack.logitrack.models.Inventory;
+import com.logitrack.logitrack.models.Product;
+import com.logitrack.logitrack.models.WAREHOUSE_MANAGER;
+import com.logitrack.logitrack.models.Warehouse;
+import com.logitrack.logitrack.repositories.CarrierRepository;
+import com.logitrack.logitrack.repositories.ProductRepository;
+import com.logitrack.logitrack.repositories.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig
+@DisplayName("ReferenceDataService Cache Tests")
+class ReferenceDataServiceTest {
+
+    @Configuration
+    @Import({CacheConfig.class, ReferenceDataService.class})
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+            cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(100).recordStats());
+            return cacheManager;
+        }
+    }
+
+    @MockBean
+    private ProductRepository productRepository;
+
+    @MockBean
+    private WarehouseRepository warehouseRepository;
+
+    @MockBean
+    private CarrierRepository carrierRepository;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        product = Product.builder().id(UUID.randomUUID()).sku("SKU-00000001").name("Pallet").active(true).build();
+    }
+
+    @Test
+    @DisplayName("Should query a product once and serve repeated lookups from the cache")
+    void shouldServeRepeatedLookupsFromCache() {
+        // Arrange
+        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CacheConfig.PRODUCTS);
+        CacheStats before = cache.getNativeCache().stats();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertThat(referenceDataService.findProduct(product.getId())).contains(product);
+        }
+
+        // Assert
+        verify(productRepository, times(1)).findById(product.getId());
+        CacheStats stats = cache.getNativeCache().stats().minus(before);
+        assertThat(stats.hitCount()).isEqualTo(4);
+        assertThat(stats.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should evict a product by id and SKU")
+    void shouldEvictProduct() {
+        // Arrange
+        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        when(productRepository.findBySku(product.getSku())).thenReturn(Optional.of(product));
+        referenceDataService.findProduct(product.getId());
+        referenceDataService.findProductBySku(product.getSku());
+
+        // Act
+        referenceDataService.evictProduct(product.getId());
+        referenceDataService.evictProductSku(product.getSku());
+        referenceDataService.findProduct(product.getId());
+        referenceDataService.findProductBySku(product.getSku());
+
+        // Assert
+        verify(productRepository, times(2)).findById(product.getId());
+        verify(productRepository, times(2)).findBySku(product.getSku());
+    }
+
+    @Test
+    @DisplayName("Should clear every cache")
+    void shouldEvictAll() {
+        // Arrange
+        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        referenceDataService.findProduct(product.getId());
+
+        // Act
+        referenceDataService.evictAll();
+        referenceDataService.findProduct(product.getId());
+
+        // Assert
+        verify(productRepository, times(2)).findById(product.getId());
+    }
+
+    @Test
+    @DisplayName("Should not cache lookups that found nothing")
+    void shouldNotCacheMisses() {
+        // Arrange
+        UUID carrierId = UUID.randomUUID();
+        when(carrierRepository.findById(carrierId))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(Carrier.builder().id(carrierId).build()));
+
+        // Act
+        Optional<Carrier> first = referenceDataService.findCarrier(carrierId);
+        Optional<Carrier> second = referenceDataService.findCarrier(carrierId);
+
+        // Assert
+        assertThat(first).isEmpty();
+        assertThat(second).isPresent();
+        verify(carrierRepository, times(2)).findById(carrierId);
+    }
+
+    @Test
+    @DisplayName("Should cache a copy of the warehouse columns without its inventories")
+    void shouldCacheWarehouseWithoutInventories() {
+        // Arrange
+        WAREHOUSE_MANAGER manager = WAREHOUSE_MANAGER.builder().id(UUID.randomUUID()).name("Manager")
+                .email("manager@logitrack.com").passwordHash("hash").build();
+        List<Inventory> inventories = new ArrayList<>(List.of(Inventory.builder().id(UUID.randomUUID()).build()));
+        Warehouse warehouse = Warehouse.builder().id(UUID.randomUUID()).code("WH-000001").name("Main")
+                .location("Casablanca").active(true).warehouse_manager(manager).inventories(inventories).build();
+        when(warehouseRepository.findByCode(warehouse.getCode())).thenReturn(Optional.of(warehouse));
+
+        // Act
+        Warehouse first = referenceDataService.findWarehouseByCode(warehouse.getCode()).orElseThrow();
+        Warehouse second = referenceDataService.findWarehouseByCode(warehouse.getCode()).orElseThrow();
+
+        // Assert
+        assertThat(first).isSameAs(second).isNotSameAs(warehouse);
+        assertThat(first.getId()).isEqualTo(warehouse.getId());
+        assertThat(first.getCode()).isEqualTo("WH-000001");
+        assertThat(first.getName()).isEqualTo("Main");
+        assertThat(first.getInventories()).isNull();
+        assertThat(first.getPurchaseOrders()).isNull();
+        assertThat(first.getWarehouse_manager().getEmail()).isEqualTo("manager@logitrack.com");
+        assertThat(first.getWarehouse_manager().getPasswordHash()).isNull();
+        verify(warehouseRepository, times(1)).findByCode(warehouse.getCode());
+    }
+}
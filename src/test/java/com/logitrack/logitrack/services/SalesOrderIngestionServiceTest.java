@@ -0,0 +1,172 @@
+package com.logitrack.logitrack.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logitrack.logitrack.dtos.Inventory.ProductAvailability;
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderBulkItemResultDTO;
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderBulkResultDTO;
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderDTO;
+import com.logitrack.logitrack.mapper.SalesOrderMapper;
+import com.logitrack.logitrack.models.Client;
+import com.logitrack.logitrack.models.ENUM.OrderStatus;
+import com.logitrack.logitrack.models.Product;
+import com.logitrack.logitrack.models.SalesOrder;
+import com.logitrack.logitrack.models.Warehouse;
+import com.logitrack.logitrack.repositories.ClientRepository;
+import com.logitrack.logitrack.repositories.ProductRepository;
+import com.logitrack.logitrack.repositories.SalesOrderRepository;
+import com.logitrack.logitrack.repositories.WarehouseRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SalesOrderIngestionService Tests")
+class SalesOrderIngestionServiceTest {
+
+    @Mock
+    private SalesOrderRepository salesOrderRepository;
+    @Mock
+    private ClientRepository clientRepository;
+    @Mock
+    private WarehouseRepository warehouseRepository;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private InventoryService inventoryService;
+    @Mock
+    private SalesOrderMapper salesOrderMapper;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private EntityManager entityManager;
+
+    private SalesOrderIngestionService ingestionService;
+
+    private Client client;
+    private Warehouse warehouse;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        ingestionService = new SalesOrderIngestionService(salesOrderRepository, clientRepository, warehouseRepository,
+                productRepository, inventoryService, salesOrderMapper, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), transactionTemplate, entityManager);
+
+        client = Client.builder().id(UUID.randomUUID()).name("Client").build();
+        warehouse = Warehouse.builder().id(UUID.randomUUID()).code("WH-1").build();
+        product = Product.builder().id(UUID.randomUUID()).sku("SKU-1").build();
+
+        when(clientRepository.findAllById(any())).thenReturn(List.of(client));
+        when(warehouseRepository.findAllById(any())).thenReturn(List.of(warehouse));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
+        when(inventoryService.availabilityByProduct(eq(warehouse.getId()), anyList())).thenReturn(Map.of());
+    }
+
+    private void runTransactions() {
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private String order(UUID clientId) {
+        return "{\"clientId\":\"" + clientId + "\",\"warehouseId\":\"" + warehouse.getId()
+                + "\",\"lines\":[{\"productId\":\"" + product.getId() + "\",\"quantity\":2}]}";
+    }
+
+    private SalesOrderBulkResultDTO ingest(String body) throws Exception {
+        return ingestionService.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Should report per-order results for an NDJSON stream with one lookup per table")
+    void shouldIngestNdjsonAndReportFailures() throws Exception {
+        // Arrange
+        runTransactions();
+        when(salesOrderMapper.toEntity(any(SalesOrderDTO.class), eq(client), eq(warehouse), anyMap(), anyMap()))
+                .thenAnswer(invocation -> SalesOrder.builder().client(client).warehouse(warehouse).build());
+        String body = order(client.getId()) + "\n"
+                + order(UUID.randomUUID()) + "\n"
+                + "{\"clientId\":\"not-a-uuid\"}\n"
+                + "{\"warehouseId\":\"" + warehouse.getId() + "\",\"lines\":[]}\n";
+
+        // Act
+        SalesOrderBulkResultDTO result = ingest(body);
+
+        // Assert
+        assertThat(result.getReceived()).isEqualTo(4);
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getResults()).extracting(SalesOrderBulkItemResultDTO::getIndex).containsExactly(0, 1, 2, 3);
+        assertThat(result.getResults().get(0).isSuccess()).isTrue();
+        assertThat(result.getResults().get(1).getError()).startsWith("Client with id");
+        assertThat(result.getResults().get(2).getError()).startsWith("Invalid sales order");
+        assertThat(result.getResults().get(3).getError()).isEqualTo("Client ID is required");
+
+        verify(clientRepository).findAllById(any());
+        verify(warehouseRepository).findAllById(any());
+        verify(productRepository).findAllById(any());
+        verify(salesOrderRepository).saveAll(argThat(orders ->
+                ((Collection<SalesOrder>) orders).size() == 1
+                        && ((Collection<SalesOrder>) orders).iterator().next().getStatus() == OrderStatus.CREATED));
+        verify(entityManager).flush();
+        verify(entityManager).clear();
+    }
+
+    @Test
+    @DisplayName("Should retry a failed batch order by order from a JSON array")
+    void shouldIsolateOrdersWhenBatchInsertFails() throws Exception {
+        // Arrange
+        when(salesOrderMapper.toEntity(any(SalesOrderDTO.class), eq(client), eq(warehouse), anyMap(), anyMap()))
+                .thenAnswer(invocation -> SalesOrder.builder().client(client).warehouse(warehouse).build());
+        int[] calls = {0};
+        doAnswer(invocation -> {
+            calls[0]++;
+            // the batched chunk and the second single-order retry hit a constraint violation
+            if (calls[0] == 1 || calls[0] == 3) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        // Act
+        SalesOrderBulkResultDTO result = ingest("[" + order(client.getId()) + "," + order(client.getId()) + "]");
+
+        // Assert
+        assertThat(result.getReceived()).isEqualTo(2);
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getResults().get(0).isSuccess()).isTrue();
+        assertThat(result.getResults().get(1).getError()).isEqualTo("duplicate key");
+        verify(transactionTemplate, times(3)).executeWithoutResult(any());
+        verify(salesOrderMapper, times(4)).toEntity(any(SalesOrderDTO.class), eq(client), eq(warehouse), anyMap(), anyMap());
+    }
+}
@@ -3,8 +3,12 @@ package com.logitrack.logitrack.services;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
@@ -12,6 +16,7 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -22,7 +27,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import com.logitrack.logitrack.Util.KeysetCursor;
+import com.logitrack.logitrack.dtos.CursorPageDTO;
+import com.logitrack.logitrack.dtos.PurchaseOrder.PurchaseOrderRespDTO;
 import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderDTO;
 import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderRespDTO;
 import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderLine.SalesOrderLineDTO;
@@ -31,15 +41,17 @@ import com.logitrack.logitrack.mapper.SalesOrderMapper;
 import com.logitrack.logitrack.models.Carrier;
 import com.logitrack.logitrack.models.Client;
 import com.logitrack.logitrack.models.Inventory;
+import com.logitrack.logitrack.models.InventoryMovement;
 import com.logitrack.logitrack.models.Product;
 import com.logitrack.logitrack.models.SalesOrder;
 import com.logitrack.logitrack.models.SalesOrderLine;
 import com.logitrack.logitrack.models.Shipment;
 import com.logitrack.logitrack.models.Warehouse;
 import com.logitrack.logitrack.models.ENUM.CarrierStatus;
+import com.logitrack.logitrack.models.ENUM.MovementType;
 import com.logitrack.logitrack.models.ENUM.OrderStatus;
 import com.logitrack.logitrack.models.ENUM.ShipmentStatus;
-import com.logitrack.logitrack.repositories.CarrierRepository;
+import com.logitrack.logitrack.repositories.SalesOrderLineRepository;
 import com.logitrack.logitrack.repositories.SalesOrderRepository;
 import com.logitrack.logitrack.repositories.WarehouseRepository;
 
@@ -50,6 +62,9 @@ public class SalesOrderServiceTest {
     @Mock
     private SalesOrderRepository salesOrderRepository;
 
+    @Mock
+    private SalesOrderLineRepository salesOrderLineRepository;
+
     @Mock
     private SalesOrderMapper salesOrderMapper;
 
@@ -60,7 +75,19 @@ public class SalesOrderServiceTest {
     private PurchaseOrderMapper purchaseOrderMapper;
 
     @Mock
-    private CarrierRepository carrierRepository;
+    private ReferenceDataService referenceDataService;
+
+    @Mock
+    private CarrierCapacityService carrierCapacityService;
+
+    @Mock
+    private MovementLedger movementLedger;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private StockSourcingService stockSourcingService;
 
     @InjectMocks
     private SalesOrderService salesOrderService;
@@ -160,6 +187,7 @@ public class SalesOrderServiceTest {
                 .warehouse(warehouse)
                 .lines(new ArrayList<>(List.of(salesOrderLine)))
                 .status(OrderStatus.CREATED)
+                .version(0L)
                 .createdAt(LocalDateTime.now())
                 .build();
         salesOrderLine.setSalesOrder(salesOrder);
@@ -190,8 +218,9 @@ public class SalesOrderServiceTest {
 
     @Test
     @DisplayName("Should get all sales orders successfully")
+    @SuppressWarnings("unchecked")
     void shouldGetAllSalesOrdersSuccessfully() {
-        when(salesOrderRepository.findAll()).thenReturn(List.of(salesOrder));
+        when(salesOrderRepository.findBy(any(Specification.class), any())).thenReturn(List.of(salesOrder));
         when(salesOrderMapper.toRespDTO(salesOrder)).thenReturn(salesOrderRespDTO);
 
         List<SalesOrderRespDTO> salesOrders = salesOrderService.getAllSalesOrders();
@@ -200,14 +229,63 @@ public class SalesOrderServiceTest {
         assertThat(salesOrders).hasSize(1);
         assertThat(salesOrders.get(0).getId()).isEqualTo(salesOrderId.toString());
 
-        verify(salesOrderRepository).findAll();
+        verify(salesOrderRepository).findWithLinesByIdIn(List.of(salesOrderId));
         verify(salesOrderMapper).toRespDTO(salesOrder);
     }
 
+    @Test
+    @DisplayName("Should return a page with a cursor when more sales orders exist")
+    @SuppressWarnings("unchecked")
+    void shouldReturnSalesOrdersPageWithNextCursor() {
+        SalesOrder older = SalesOrder.builder()
+                .id(UUID.randomUUID())
+                .createdAt(LocalDateTime.of(2024, 1, 1, 10, 0))
+                .build();
+        salesOrder.setCreatedAt(LocalDateTime.of(2024, 1, 2, 10, 0));
+        when(salesOrderRepository.findBy(any(Specification.class), any())).thenReturn(List.of(salesOrder, older));
+        when(salesOrderMapper.toRespDTO(salesOrder)).thenReturn(salesOrderRespDTO);
+
+        CursorPageDTO<SalesOrderRespDTO> page = salesOrderService.getSalesOrdersPage(
+                OrderStatus.CREATED, warehouseId, null, null, null, null, 1);
+
+        assertThat(page.getItems()).containsExactly(salesOrderRespDTO);
+        assertThat(page.isHasNext()).isTrue();
+        KeysetCursor cursor = KeysetCursor.decode(page.getNextCursor());
+        assertThat(cursor.timestamp()).isEqualTo(salesOrder.getCreatedAt());
+        assertThat(cursor.id()).isEqualTo(salesOrderId);
+        verify(salesOrderRepository).findWithLinesByIdIn(List.of(salesOrderId));
+        verify(salesOrderMapper, never()).toRespDTO(older);
+    }
+
+    @Test
+    @DisplayName("Should return the last page without a cursor")
+    @SuppressWarnings("unchecked")
+    void shouldReturnLastSalesOrdersPageWithoutCursor() {
+        String cursor = new KeysetCursor(LocalDateTime.of(2024, 1, 3, 0, 0), UUID.randomUUID()).encode();
+        when(salesOrderRepository.findBy(any(Specification.class), any())).thenReturn(List.of(salesOrder));
+        when(salesOrderMapper.toRespDTO(salesOrder)).thenReturn(salesOrderRespDTO);
+
+        CursorPageDTO<SalesOrderRespDTO> page = salesOrderService.getSalesOrdersPage(
+                null, null, clientId, null, null, cursor, null);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor")
+    void shouldRejectMalformedCursor() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> salesOrderService.getSalesOrdersPage(null, null, null, null, null, "not-a-cursor", 10)
+        );
+    }
+
     @Test
     @DisplayName("Should get sales order by ID successfully")
     void shouldGetSalesOrderByIdSuccessfully() {
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(salesOrder));
+        when(salesOrderRepository.findDetailById(salesOrderId)).thenReturn(Optional.of(salesOrder));
         when(salesOrderMapper.toRespDTO(salesOrder)).thenReturn(salesOrderRespDTO);
 
         SalesOrderRespDTO fetchedSalesOrder = salesOrderService.getSalesOrderById(salesOrderId);
@@ -215,14 +293,14 @@ public class SalesOrderServiceTest {
         assertThat(fetchedSalesOrder).isNotNull();
         assertThat(fetchedSalesOrder.getId()).isEqualTo(salesOrderId.toString());
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findDetailById(salesOrderId);
         verify(salesOrderMapper).toRespDTO(salesOrder);
     }
 
     @Test
     @DisplayName("Should throw exception when sales order not found by ID")
     void shouldThrowExceptionWhenSalesOrderNotFoundById() {
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.empty());
+        when(salesOrderRepository.findDetailById(salesOrderId)).thenReturn(Optional.empty());
 
         IllegalArgumentException exception = assertThrows(
                 IllegalArgumentException.class,
@@ -232,13 +310,13 @@ public class SalesOrderServiceTest {
         assertThat(exception.getMessage())
                 .isEqualTo("Sales Order with id " + salesOrderId + " not found.");
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findDetailById(salesOrderId);
     }
 
     @Test
     @DisplayName("Should update sales order successfully")
     void shouldUpdateSalesOrderSuccessfully() {
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(salesOrder));
+        when(salesOrderRepository.findDetailById(salesOrderId)).thenReturn(Optional.of(salesOrder));
         when(salesOrderRepository.save(salesOrder)).thenReturn(salesOrder);
         when(salesOrderMapper.toRespDTO(salesOrder)).thenReturn(salesOrderRespDTO);
 
@@ -247,21 +325,21 @@ public class SalesOrderServiceTest {
         assertThat(updatedSalesOrder).isNotNull();
         assertThat(updatedSalesOrder.getId()).isEqualTo(salesOrderId.toString());
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findDetailById(salesOrderId);
         verify(salesOrderRepository).save(salesOrder);
     }
 
     @Test
     @DisplayName("Should throw exception when updating non-existent sales order")
     void shouldThrowExceptionWhenUpdatingNonExistentSalesOrder() {
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.empty());
+        when(salesOrderRepository.findDetailById(salesOrderId)).thenReturn(Optional.empty());
 
         assertThrows(
                 IllegalArgumentException.class,
                 () -> salesOrderService.updateSalesOrder(salesOrderId, salesOrderDTO)
         );
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findDetailById(salesOrderId);
     }
 
     @Test
@@ -271,7 +349,7 @@ public class SalesOrderServiceTest {
                 .id(salesOrderId)
                 .status(OrderStatus.RESERVED)
                 .build();
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(reservedOrder));
+        when(salesOrderRepository.findDetailById(salesOrderId)).thenReturn(Optional.of(reservedOrder));
 
         IllegalStateException exception = assertThrows(
                 IllegalStateException.class,
@@ -281,34 +359,34 @@ public class SalesOrderServiceTest {
         assertThat(exception.getMessage())
                 .isEqualTo("Reserved or shipped orders cannot be updated.");
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findDetailById(salesOrderId);
     }
 
     @Test
     @DisplayName("Should delete sales order successfully")
     void shouldDeleteSalesOrderSuccessfully() {
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(salesOrder));
+        when(salesOrderRepository.findDetailById(salesOrderId)).thenReturn(Optional.of(salesOrder));
         when(salesOrderMapper.toRespDTO(salesOrder)).thenReturn(salesOrderRespDTO);
 
         SalesOrderRespDTO deletedSalesOrder = salesOrderService.deleteSalesOrderById(salesOrderId);
 
         assertThat(deletedSalesOrder).isNotNull();
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findDetailById(salesOrderId);
         verify(salesOrderRepository).delete(salesOrder);
     }
 
     @Test
     @DisplayName("Should throw exception when deleting non-existent sales order")
     void shouldThrowExceptionWhenDeletingNonExistentSalesOrder() {
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.empty());
+        when(salesOrderRepository.findDetailById(salesOrderId)).thenReturn(Optional.empty());
 
         assertThrows(
                 IllegalArgumentException.class,
                 () -> salesOrderService.deleteSalesOrderById(salesOrderId)
         );
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findDetailById(salesOrderId);
     }
 
     @Test
@@ -323,28 +401,65 @@ public class SalesOrderServiceTest {
                 .build();
         warehouse.setInventories(List.of(inventory));
         
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(salesOrder));
-        when(salesOrderRepository.save(salesOrder)).thenReturn(salesOrder);
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(salesOrder));
+        when(salesOrderRepository.markReserved(eq(salesOrderId), eq(0L), any(LocalDateTime.class))).thenReturn(1);
         when(salesOrderMapper.toRespDTO(salesOrder)).thenReturn(salesOrderRespDTO);
 
         Object result = salesOrderService.reserveSalesOrder(salesOrderId);
 
         assertThat(result).isNotNull();
+        assertThat(salesOrder.getStatus()).isEqualTo(OrderStatus.RESERVED);
+        assertThat(salesOrder.getVersion()).isEqualTo(1L);
+        assertThat(salesOrder.getReservedAt()).isNotNull();
+
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
+        verify(inventoryService).reserveInventory(warehouseId, productId, 10);
+        verify(warehouseRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should not reserve sales order when a line cannot be reserved")
+    void shouldNotReserveSalesOrderWhenInventoryInsufficient() {
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(salesOrder));
+        doThrow(new IllegalArgumentException("Insufficient inventory for product " + productId))
+                .when(inventoryService).reserveInventory(warehouseId, productId, 10);
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> salesOrderService.reserveSalesOrder(salesOrderId)
+        );
+
+        assertThat(exception.getMessage()).isEqualTo("Insufficient inventory for product " + productId);
+        assertThat(salesOrder.getStatus()).isEqualTo(OrderStatus.CREATED);
+        verify(salesOrderRepository, never()).markReserved(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should fail with an optimistic lock conflict when the order changed since it was read")
+    void shouldFailReserveWhenOrderChangedConcurrently() {
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(salesOrder));
+        when(salesOrderRepository.markReserved(eq(salesOrderId), eq(0L), any(LocalDateTime.class))).thenReturn(0);
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        assertThrows(
+                ObjectOptimisticLockingFailureException.class,
+                () -> salesOrderService.reserveSalesOrder(salesOrderId)
+        );
+
+        assertThat(salesOrder.getStatus()).isEqualTo(OrderStatus.CREATED);
+        verify(salesOrderMapper, never()).toRespDTO(any());
     }
 
     @Test
     @DisplayName("Should throw exception when reserving non-existent sales order")
     void shouldThrowExceptionWhenReservingNonExistentSalesOrder() {
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.empty());
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.empty());
 
         assertThrows(
                 IllegalArgumentException.class,
                 () -> salesOrderService.reserveSalesOrder(salesOrderId)
         );
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
     }
 
     @Test
@@ -354,7 +469,7 @@ public class SalesOrderServiceTest {
                 .id(salesOrderId)
                 .status(OrderStatus.RESERVED)
                 .build();
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(reservedOrder));
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(reservedOrder));
 
         IllegalStateException exception = assertThrows(
                 IllegalStateException.class,
@@ -364,7 +479,7 @@ public class SalesOrderServiceTest {
         assertThat(exception.getMessage())
                 .isEqualTo("Only orders in CREATED status can be reserved.");
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
     }
 
     @Test
@@ -380,8 +495,8 @@ public class SalesOrderServiceTest {
 
         salesOrderRespDTO.setStatus(OrderStatus.SHIPPED);
 
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(reservedOrder));
-        when(carrierRepository.findById(carrierId)).thenReturn(Optional.of(carrier));
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(reservedOrder));
+        when(referenceDataService.findCarrier(carrierId)).thenReturn(Optional.of(carrier));
         when(salesOrderRepository.save(reservedOrder)).thenReturn(reservedOrder);
         when(salesOrderMapper.toRespDTO(reservedOrder)).thenReturn(salesOrderRespDTO);
 
@@ -389,21 +504,105 @@ public class SalesOrderServiceTest {
 
         assertThat(shippedSalesOrder).isNotNull();
 
-        verify(salesOrderRepository).findById(salesOrderId);
-        verify(carrierRepository).findById(carrierId);
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
+        verify(referenceDataService).findCarrier(carrierId);
+    }
+
+    @Test
+    @DisplayName("Should ship several reserved orders with one carrier in a batch")
+    void shouldShipSalesOrdersInBatch() {
+        Inventory inventory = Inventory.builder()
+                .product(product)
+                .warehouse(warehouse)
+                .qtyOnHand(50)
+                .qtyReserved(20)
+                .inventoryMovements(new ArrayList<>())
+                .build();
+        SalesOrderLine otherLine = SalesOrderLine.builder()
+                .product(product)
+                .quantity(10)
+                .build();
+        SalesOrder first = SalesOrder.builder()
+                .id(salesOrderId)
+                .warehouse(warehouse)
+                .lines(new ArrayList<>(List.of(salesOrderLine)))
+                .status(OrderStatus.RESERVED)
+                .build();
+        UUID secondId = UUID.randomUUID();
+        SalesOrder second = SalesOrder.builder()
+                .id(secondId)
+                .warehouse(warehouse)
+                .lines(new ArrayList<>(List.of(otherLine)))
+                .status(OrderStatus.RESERVED)
+                .build();
+
+        when(salesOrderRepository.findForTransitionByIdIn(List.of(salesOrderId, secondId))).thenReturn(List.of(second, first));
+        when(inventoryService.indexByProduct(warehouseId, List.of(productId))).thenReturn(Map.of(productId, inventory));
+        when(referenceDataService.findCarrier(carrierId)).thenReturn(Optional.of(carrier));
+        when(salesOrderMapper.toRespDTO(any(SalesOrder.class))).thenReturn(salesOrderRespDTO);
+
+        List<SalesOrderRespDTO> shipped = salesOrderService.shipSalesOrders(List.of(salesOrderId, secondId, salesOrderId), carrierId);
+
+        assertThat(shipped).hasSize(2);
+        assertThat(first.getStatus()).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(second.getStatus()).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(first.getShipment().getCarrier()).isEqualTo(carrier);
+        assertThat(second.getShipment().getSalesOrder()).isEqualTo(second);
+        assertThat(inventory.getQtyOnHand()).isEqualTo(30);
+        assertThat(inventory.getQtyReserved()).isZero();
+        verify(movementLedger).appendAll(argThat(movements -> movements.size() == 2));
+        verify(carrierCapacityService).reserve(eq(carrier), eq(2), any(LocalDateTime.class));
+        verify(salesOrderRepository).saveAll(List.of(first, second));
+    }
+
+    @Test
+    @DisplayName("Should not ship any order of a batch when one is not reserved")
+    void shouldNotShipBatchWithUnreservedOrder() {
+        SalesOrder reserved = SalesOrder.builder()
+                .id(UUID.randomUUID())
+                .warehouse(warehouse)
+                .status(OrderStatus.RESERVED)
+                .build();
+
+        when(salesOrderRepository.findForTransitionByIdIn(List.of(reserved.getId(), salesOrderId))).thenReturn(List.of(reserved, salesOrder));
+
+        assertThrows(IllegalStateException.class,
+                () -> salesOrderService.shipSalesOrders(List.of(reserved.getId(), salesOrderId), carrierId));
+
+        assertThat(reserved.getStatus()).isEqualTo(OrderStatus.RESERVED);
+        verifyNoInteractions(carrierCapacityService);
+        verify(salesOrderRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should not ship a batch larger than the carrier's remaining capacity")
+    void shouldNotShipBatchBeyondCarrierCapacity() {
+        salesOrder.setStatus(OrderStatus.RESERVED);
+
+        when(salesOrderRepository.findForTransitionByIdIn(List.of(salesOrderId))).thenReturn(List.of(salesOrder));
+        when(inventoryService.indexByProduct(warehouseId, List.of(productId))).thenReturn(Map.of());
+        when(referenceDataService.findCarrier(carrierId)).thenReturn(Optional.of(carrier));
+        doThrow(new IllegalStateException("Carrier has reached its maximum daily capacity."))
+                .when(carrierCapacityService).reserve(eq(carrier), eq(1), any(LocalDateTime.class));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> salesOrderService.shipSalesOrders(List.of(salesOrderId), carrierId));
+
+        assertThat(exception.getMessage()).isEqualTo("Carrier has reached its maximum daily capacity.");
+        assertThat(salesOrder.getStatus()).isEqualTo(OrderStatus.RESERVED);
     }
 
     @Test
     @DisplayName("Should throw exception when shipping non-existent sales order")
     void shouldThrowExceptionWhenShippingNonExistentSalesOrder() {
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.empty());
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.empty());
 
         assertThrows(
                 IllegalArgumentException.class,
                 () -> salesOrderService.shipSalesOrder(salesOrderId, carrierId)
         );
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
     }
 
     @Test
@@ -413,7 +612,7 @@ public class SalesOrderServiceTest {
                 .id(salesOrderId)
                 .status(OrderStatus.CREATED)
                 .build();
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(createdOrder));
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(createdOrder));
 
         IllegalStateException exception = assertThrows(
                 IllegalStateException.class,
@@ -423,7 +622,7 @@ public class SalesOrderServiceTest {
         assertThat(exception.getMessage())
                 .isEqualTo("Only orders in RESERVED status can be shipped.");
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
     }
 
     @Test
@@ -435,16 +634,16 @@ public class SalesOrderServiceTest {
                 .warehouse(warehouse)
                 .lines(new ArrayList<>())
                 .build();
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(reservedOrder));
-        when(carrierRepository.findById(carrierId)).thenReturn(Optional.empty());
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(reservedOrder));
+        when(referenceDataService.findCarrier(carrierId)).thenReturn(Optional.empty());
 
         assertThrows(
                 IllegalArgumentException.class,
                 () -> salesOrderService.shipSalesOrder(salesOrderId, carrierId)
         );
 
-        verify(salesOrderRepository).findById(salesOrderId);
-        verify(carrierRepository).findById(carrierId);
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
+        verify(referenceDataService).findCarrier(carrierId);
     }
 
     @Test
@@ -463,8 +662,10 @@ public class SalesOrderServiceTest {
                 .lines(new ArrayList<>())
                 .build();
 
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(reservedOrder));
-        when(carrierRepository.findById(carrierId)).thenReturn(Optional.of(fullCarrier));
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(reservedOrder));
+        when(referenceDataService.findCarrier(carrierId)).thenReturn(Optional.of(fullCarrier));
+        doThrow(new IllegalStateException("Carrier has reached its maximum daily capacity."))
+                .when(carrierCapacityService).reserve(eq(fullCarrier), eq(1), any(LocalDateTime.class));
 
         IllegalStateException exception = assertThrows(
                 IllegalStateException.class,
@@ -474,8 +675,8 @@ public class SalesOrderServiceTest {
         assertThat(exception.getMessage())
                 .isEqualTo("Carrier has reached its maximum daily capacity.");
 
-        verify(salesOrderRepository).findById(salesOrderId);
-        verify(carrierRepository).findById(carrierId);
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
+        verify(referenceDataService).findCarrier(carrierId);
     }
 
     @Test
@@ -490,7 +691,7 @@ public class SalesOrderServiceTest {
 
         salesOrderRespDTO.setStatus(OrderStatus.DELIVERED);
 
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(shippedOrder));
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(shippedOrder));
         when(salesOrderRepository.save(shippedOrder)).thenReturn(shippedOrder);
         when(salesOrderMapper.toRespDTO(shippedOrder)).thenReturn(salesOrderRespDTO);
 
@@ -498,21 +699,21 @@ public class SalesOrderServiceTest {
 
         assertThat(deliveredSalesOrder).isNotNull();
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
         verify(salesOrderRepository).save(shippedOrder);
     }
 
     @Test
     @DisplayName("Should throw exception when delivering non-existent sales order")
     void shouldThrowExceptionWhenDeliveringNonExistentSalesOrder() {
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.empty());
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.empty());
 
         assertThrows(
                 IllegalArgumentException.class,
                 () -> salesOrderService.deliverSalesOrder(salesOrderId)
         );
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
     }
 
     @Test
@@ -522,7 +723,7 @@ public class SalesOrderServiceTest {
                 .id(salesOrderId)
                 .status(OrderStatus.CREATED)
                 .build();
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(createdOrder));
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(createdOrder));
 
         IllegalStateException exception = assertThrows(
                 IllegalStateException.class,
@@ -532,13 +733,13 @@ public class SalesOrderServiceTest {
         assertThat(exception.getMessage())
                 .isEqualTo("Only orders in SHIPPED status can be delivered.");
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
     }
 
     @Test
     @DisplayName("Should cancel sales order successfully")
     void shouldCancelSalesOrderSuccessfully() {
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(salesOrder));
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(salesOrder));
         when(salesOrderRepository.save(salesOrder)).thenReturn(salesOrder);
         when(salesOrderMapper.toRespDTO(salesOrder)).thenReturn(salesOrderRespDTO);
 
@@ -546,21 +747,21 @@ public class SalesOrderServiceTest {
 
         assertThat(cancelledSalesOrder).isNotNull();
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
         verify(salesOrderRepository).save(salesOrder);
     }
 
     @Test
     @DisplayName("Should throw exception when cancelling non-existent sales order")
     void shouldThrowExceptionWhenCancellingNonExistentSalesOrder() {
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.empty());
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.empty());
 
         assertThrows(
                 IllegalArgumentException.class,
                 () -> salesOrderService.cancelSalesOrder(salesOrderId)
         );
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
     }
 
     @Test
@@ -570,7 +771,7 @@ public class SalesOrderServiceTest {
                 .id(salesOrderId)
                 .status(OrderStatus.SHIPPED)
                 .build();
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(shippedOrder));
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(shippedOrder));
 
         IllegalStateException exception = assertThrows(
                 IllegalStateException.class,
@@ -580,7 +781,7 @@ public class SalesOrderServiceTest {
         assertThat(exception.getMessage())
                 .isEqualTo("Shipped or delivered orders cannot be canceled.");
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
     }
 
     @Test
@@ -590,7 +791,7 @@ public class SalesOrderServiceTest {
                 .id(salesOrderId)
                 .status(OrderStatus.DELIVERED)
                 .build();
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(deliveredOrder));
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(deliveredOrder));
 
         IllegalStateException exception = assertThrows(
                 IllegalStateException.class,
@@ -600,7 +801,7 @@ public class SalesOrderServiceTest {
         assertThat(exception.getMessage())
                 .isEqualTo("Shipped or delivered orders cannot be canceled.");
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
     }
 
     @Test
@@ -613,7 +814,7 @@ public class SalesOrderServiceTest {
                 .status(OrderStatus.RESERVED)
                 .build();
 
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(reservedOrder));
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(reservedOrder));
         when(salesOrderRepository.save(reservedOrder)).thenReturn(reservedOrder);
         when(salesOrderMapper.toRespDTO(reservedOrder)).thenReturn(salesOrderRespDTO);
 
@@ -621,13 +822,14 @@ public class SalesOrderServiceTest {
 
         assertThat(cancelledSalesOrder).isNotNull();
 
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
         verify(salesOrderRepository).save(reservedOrder);
     }
 
     @Test
-    @DisplayName("Should get all sales orders successfully")
-    void shouldGetAllSalesOrdersSuccessfullyMultiple() {
+    @DisplayName("Should cap all sales orders at the largest page")
+    @SuppressWarnings("unchecked")
+    void shouldCapAllSalesOrders() {
         // Arrange
         SalesOrder salesOrder2 = SalesOrder.builder()
                 .id(UUID.randomUUID())
@@ -639,16 +841,19 @@ public class SalesOrderServiceTest {
                 .status(OrderStatus.RESERVED)
                 .build();
         
-        List<SalesOrder> allOrders = List.of(salesOrder, salesOrder2, salesOrder3);
-        when(salesOrderRepository.findAll()).thenReturn(allOrders);
+        List<SalesOrder> allOrders = new ArrayList<>(List.of(salesOrder, salesOrder2, salesOrder3));
+        while (allOrders.size() <= SalesOrderService.MAX_PAGE_SIZE) {
+            allOrders.add(SalesOrder.builder().id(UUID.randomUUID()).createdAt(LocalDateTime.now()).build());
+        }
+        when(salesOrderRepository.findBy(any(Specification.class), any())).thenReturn(allOrders);
         when(salesOrderMapper.toRespDTO(any())).thenReturn(salesOrderRespDTO);
 
         // Act
         List<SalesOrderRespDTO> result = salesOrderService.getAllSalesOrders();
 
         // Assert
-        assertThat(result).hasSize(3);
-        verify(salesOrderRepository).findAll();
+        assertThat(result).hasSize(SalesOrderService.MAX_PAGE_SIZE);
+        verify(salesOrderMapper, never()).toRespDTO(allOrders.get(SalesOrderService.MAX_PAGE_SIZE));
     }
 
     @Test
@@ -668,7 +873,7 @@ public class SalesOrderServiceTest {
                 .lines(new ArrayList<>(List.of(salesOrderLine, line2)))
                 .build();
         
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(createdOrder));
+        when(salesOrderRepository.findDetailById(salesOrderId)).thenReturn(Optional.of(createdOrder));
         when(salesOrderRepository.save(createdOrder)).thenReturn(createdOrder);
         when(salesOrderMapper.toRespDTO(createdOrder)).thenReturn(salesOrderRespDTO);
 
@@ -677,7 +882,7 @@ public class SalesOrderServiceTest {
 
         // Assert
         assertThat(result).isNotNull();
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findDetailById(salesOrderId);
     }
 
     @Test
@@ -689,14 +894,14 @@ public class SalesOrderServiceTest {
                 .status(OrderStatus.SHIPPED)
                 .build();
         
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(shippedOrder));
+        when(salesOrderRepository.findDetailById(salesOrderId)).thenReturn(Optional.of(shippedOrder));
 
         // Act & Assert
         assertThrows(
                 IllegalStateException.class,
                 () -> salesOrderService.updateSalesOrder(salesOrderId, salesOrderDTO)
         );
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findDetailById(salesOrderId);
     }
 
     @Test
@@ -729,6 +934,7 @@ public class SalesOrderServiceTest {
         SalesOrder createdOrder = SalesOrder.builder()
                 .id(salesOrderId)
                 .status(OrderStatus.CREATED)
+                .version(0L)
                 .warehouse(warehouse)
                 .lines(new ArrayList<>(List.of(backorderLine, normalLine)))
                 .client(client)
@@ -736,17 +942,56 @@ public class SalesOrderServiceTest {
         
         warehouse.setInventories(List.of(inventory));
         
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(createdOrder));
-        when(warehouseRepository.findAll()).thenReturn(List.of(warehouse));
-        when(warehouseRepository.save(any())).thenReturn(warehouse);
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(createdOrder));
+        when(stockSourcingService.transferToWarehouse(warehouse, productId, 30)).thenReturn(0);
 
         // Act - This tests the complex branching in reserveSalesOrder
-        try {
-            Object result = salesOrderService.reserveSalesOrder(salesOrderId);
-            // Result could be SalesOrderRespDTO or Map depending on backorder handling
-        } catch (Exception e) {
-            // Complex method may throw exceptions depending on inventory availability
-        }
+        when(salesOrderRepository.markReserved(eq(salesOrderId), eq(0L), any(LocalDateTime.class))).thenReturn(1);
+        when(salesOrderMapper.toRespDTO(createdOrder)).thenReturn(salesOrderRespDTO);
+
+        // Act
+        Object result = salesOrderService.reserveSalesOrder(salesOrderId);
+
+        // Assert - the backordered line is fully sourced from other warehouses
+        assertThat(result).isEqualTo(salesOrderRespDTO);
+        assertThat(backorderLine.getBackorder()).isFalse();
+        assertThat(createdOrder.getStatus()).isEqualTo(OrderStatus.RESERVED);
+        verify(stockSourcingService).transferToWarehouse(warehouse, productId, 30);
+        verify(inventoryService).reserveInventory(warehouseId, productId, 20);
+        verify(salesOrderLineRepository).clearBackorder(List.of(backorderLine.getId()));
+    }
+
+    @Test
+    @DisplayName("Should create purchase order for quantity that cannot be sourced")
+    void shouldCreatePurchaseOrderForUnsourcedBackorder() {
+        // Arrange
+        SalesOrderLine backorderLine = SalesOrderLine.builder()
+                .id(UUID.randomUUID())
+                .product(product)
+                .quantity(30)
+                .unitPrice(new BigDecimal("45.00"))
+                .backorder(true)
+                .build();
+
+        SalesOrder createdOrder = SalesOrder.builder()
+                .id(salesOrderId)
+                .status(OrderStatus.CREATED)
+                .warehouse(warehouse)
+                .lines(new ArrayList<>(List.of(backorderLine)))
+                .client(client)
+                .build();
+
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(createdOrder));
+        when(stockSourcingService.transferToWarehouse(warehouse, productId, 30)).thenReturn(12);
+        when(purchaseOrderMapper.toResponseDTO(any())).thenReturn(PurchaseOrderRespDTO.builder().build());
+
+        // Act
+        Object result = salesOrderService.reserveSalesOrder(salesOrderId);
+
+        // Assert
+        assertThat(result).isInstanceOf(Map.class);
+        assertThat(createdOrder.getStatus()).isEqualTo(OrderStatus.CREATED);
+        verify(purchaseOrderMapper).toResponseDTO(argThat(po -> po.getLines().get(0).getQuantity() == 12));
     }
 
     @Test
@@ -786,9 +1031,9 @@ public class SalesOrderServiceTest {
         
         warehouse.setInventories(List.of(inventory));
         
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(reservedOrder));
-        when(carrierRepository.findById(carrierId)).thenReturn(Optional.of(carrier));
-        when(warehouseRepository.save(warehouse)).thenReturn(warehouse);
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(reservedOrder));
+        when(referenceDataService.findCarrier(carrierId)).thenReturn(Optional.of(carrier));
+        when(inventoryService.indexByProduct(warehouseId, List.of(productId))).thenReturn(Map.of(productId, inventory));
         when(salesOrderRepository.save(reservedOrder)).thenReturn(reservedOrder);
         when(salesOrderMapper.toRespDTO(reservedOrder)).thenReturn(salesOrderRespDTO);
 
@@ -797,8 +1042,14 @@ public class SalesOrderServiceTest {
 
         // Assert
         assertThat(result).isNotNull();
-        assertThat(carrier.getCurrentDailyShipments()).isEqualTo(11);
-        verify(carrierRepository).save(carrier);
+        verify(carrierCapacityService).reserve(eq(carrier), eq(1), any(LocalDateTime.class));
+        assertThat(inventory.getQtyOnHand()).isEqualTo(50);
+        assertThat(inventory.getQtyReserved()).isEqualTo(0);
+        verify(movementLedger).appendAll(argThat(movements -> {
+            List<InventoryMovement> saved = List.copyOf(movements);
+            return saved.size() == 1 && saved.get(0).getType() == MovementType.OUTBOUND && saved.get(0).getInventory() == inventory;
+        }));
+        verify(warehouseRepository, never()).save(any());
     }
 
     @Test
@@ -817,7 +1068,7 @@ public class SalesOrderServiceTest {
                 .client(client)
                 .build();
         
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(shippedOrder));
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(shippedOrder));
         when(salesOrderRepository.save(shippedOrder)).thenReturn(shippedOrder);
         when(salesOrderMapper.toRespDTO(shippedOrder)).thenReturn(salesOrderRespDTO);
 
@@ -827,7 +1078,7 @@ public class SalesOrderServiceTest {
         // Assert
         assertThat(result).isNotNull();
         assertThat(shipment.getStatus()).isEqualTo(ShipmentStatus.DELIVERED);
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
     }
 
     @Test
@@ -842,7 +1093,7 @@ public class SalesOrderServiceTest {
                 .client(client)
                 .build();
         
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(createdOrder));
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(createdOrder));
         when(salesOrderRepository.save(createdOrder)).thenReturn(createdOrder);
         when(salesOrderMapper.toRespDTO(createdOrder)).thenReturn(salesOrderRespDTO);
 
@@ -852,7 +1103,7 @@ public class SalesOrderServiceTest {
         // Assert
         assertThat(result).isNotNull();
         assertThat(createdOrder.getStatus()).isEqualTo(OrderStatus.CANCELED);
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
         verify(warehouseRepository, never()).save(any());
     }
 
@@ -867,7 +1118,7 @@ public class SalesOrderServiceTest {
                 .client(client)
                 .build();
         
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(createdOrder));
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(createdOrder));
         when(salesOrderRepository.save(createdOrder)).thenReturn(createdOrder);
         when(salesOrderMapper.toRespDTO(createdOrder)).thenReturn(salesOrderRespDTO);
 
@@ -876,7 +1127,7 @@ public class SalesOrderServiceTest {
 
         // Assert
         assertThat(result).isNotNull();
-        verify(salesOrderRepository).findById(salesOrderId);
+        verify(salesOrderRepository).findForTransitionById(salesOrderId);
     }
 
     @Test
@@ -889,10 +1140,11 @@ public class SalesOrderServiceTest {
                 .warehouse(warehouse)
                 .lines(new ArrayList<>())
                 .client(client)
+                .version(0L)
                 .build();
         
-        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(createdOrder));
-        when(salesOrderRepository.save(createdOrder)).thenReturn(createdOrder);
+        when(salesOrderRepository.findForTransitionById(salesOrderId)).thenReturn(Optional.of(createdOrder));
+        when(salesOrderRepository.markReserved(eq(salesOrderId), eq(0L), any(LocalDateTime.class))).thenReturn(1);
         when(salesOrderMapper.toRespDTO(createdOrder)).thenReturn(salesOrderRespDTO);
 
         // Act
@@ -900,6 +1152,6 @@ public class SalesOrderServiceTest {
 
         // Assert - With no lines, should mark as reserved
         assertThat(result).isNotNull();
-        verify(salesOrderRepository).save(createdOrder);
+        assertThat(createdOrder.getStatus()).isEqualTo(OrderStatus.RESERVED);
     }
 }
\ No newline at end of file
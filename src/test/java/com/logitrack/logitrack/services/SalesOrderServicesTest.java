@@ -8,7 +8,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.logitrack.logitrack.mapper.PurchaseOrderMapper;
 import com.logitrack.logitrack.mapper.SalesOrderMapper;
-import com.logitrack.logitrack.repositories.CarrierRepository;
 import com.logitrack.logitrack.repositories.SalesOrderRepository;
 import com.logitrack.logitrack.repositories.WarehouseRepository;
 
@@ -24,7 +23,15 @@ public class SalesOrderServicesTest {
     @Mock
     private  PurchaseOrderMapper purchaseOrderMapper;
     @Mock
-    private  CarrierRepository carrierRepository;
+    private  ReferenceDataService referenceDataService;
+    @Mock
+    private  CarrierCapacityService carrierCapacityService;
+    @Mock
+    private  MovementLedger movementLedger;
+    @Mock
+    private  InventoryService inventoryService;
+    @Mock
+    private  StockSourcingService stockSourcingService;
 
     @InjectMocks
     private SalesOrderService salesOrderService;
@@ -0,0 +1,241 @@
+package com.logitrack.logitrack.services;
+
+import com.logitrack.logitrack.dtos.Inventory.StockAsOfRespDTO;
+import com.logitrack.logitrack.repositories.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import javax.sql.DataSource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockAsOfService Tests")
+class StockAsOfServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private MovementLedger movementLedger;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StockAsOfService stockAsOfService;
+    private final UUID warehouseId = UUID.randomUUID();
+    private final LocalDateTime at = LocalDateTime.of(2024, 3, 15, 18, 0);
+
+    @BeforeEach
+    void setUp() {
+        stockAsOfService = new StockAsOfService(jdbcTemplate, warehouseRepository, movementLedger, dataSource, transactionManager);
+    }
+
+    private void checkpoints(LocalDateTime previous, LocalDateTime next) {
+        when(warehouseRepository.existsById(warehouseId)).thenReturn(true);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT MAX(taken_at)"), eq(LocalDateTime.class), any(Object[].class))).thenReturn(previous);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT MIN(taken_at)"), eq(LocalDateTime.class), any(Object[].class))).thenReturn(next);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object[] stockQuery(ArgumentCaptor<String> sql) {
+        ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), params.capture());
+        return params.getValue();
+    }
+
+    @Test
+    @DisplayName("Should add the movements since the nearest earlier checkpoint")
+    void shouldReplayForwardFromEarlierCheckpoint() {
+        // Arrange
+        LocalDateTime previous = LocalDateTime.of(2024, 3, 15, 12, 0);
+        checkpoints(previous, LocalDateTime.of(2024, 3, 16, 0, 0));
+
+        // Act
+        StockAsOfRespDTO stock = stockAsOfService.getStockAsOf(warehouseId, null, at);
+
+        // Assert
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        Object[] params = stockQuery(sql);
+        assertThat(stock.checkpointAt()).isEqualTo(previous);
+        assertThat(sql.getValue()).contains("COALESCE(c.qty_on_hand, 0) + COALESCE(SUM(").doesNotContain("p.sku = ?");
+        assertThat(params).containsExactly(Timestamp.valueOf(previous), Timestamp.valueOf(previous), Timestamp.valueOf(at), warehouseId);
+    }
+
+    @Test
+    @DisplayName("Should take back the movements up to a nearer later checkpoint")
+    void shouldReplayBackwardFromLaterCheckpoint() {
+        // Arrange
+        LocalDateTime next = LocalDateTime.of(2024, 3, 16, 0, 0);
+        checkpoints(LocalDateTime.of(2024, 3, 14, 0, 0), next);
+
+        // Act
+        StockAsOfRespDTO stock = stockAsOfService.getStockAsOf(warehouseId, "SKU-1", at);
+
+        // Assert
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        Object[] params = stockQuery(sql);
+        assertThat(stock.checkpointAt()).isEqualTo(next);
+        assertThat(sql.getValue()).contains("COALESCE(c.qty_on_hand, 0) - COALESCE(SUM(", "p.sku = ?");
+        assertThat(params).containsExactly(Timestamp.valueOf(next), Timestamp.valueOf(at), Timestamp.valueOf(next), warehouseId, "SKU-1");
+    }
+
+    @Test
+    @DisplayName("Should start from the current stock when no checkpoint is nearer")
+    void shouldReplayBackwardFromCurrentStock() {
+        // Arrange
+        LocalDateTime recent = LocalDateTime.now().minusMinutes(5);
+        checkpoints(LocalDateTime.now().minusDays(1), null);
+
+        // Act
+        StockAsOfRespDTO stock = stockAsOfService.getStockAsOf(warehouseId, null, recent);
+
+        // Assert
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        Object[] params = stockQuery(sql);
+        assertThat(stock.checkpointAt()).isNull();
+        assertThat(sql.getValue()).contains("i.qty_on_hand - COALESCE(SUM(").doesNotContain("inventory_checkpoints");
+        assertThat(params).containsExactly(Timestamp.valueOf(recent), warehouseId);
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown warehouse")
+    void shouldRejectUnknownWarehouse() {
+        when(warehouseRepository.existsById(warehouseId)).thenReturn(false);
+
+        assertThatThrownBy(() -> stockAsOfService.getStockAsOf(warehouseId, null, at))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not found");
+    }
+
+    @Test
+    @DisplayName("Should snapshot every inventory in one statement")
+    @SuppressWarnings("unchecked")
+    void shouldTakeCheckpointInOneStatement() {
+        // Arrange
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(3);
+
+        // Act
+        int rows = stockAsOfService.takeCheckpoint();
+
+        // Assert
+        assertThat(rows).isEqualTo(3);
+        verify(movementLedger).flush();
+        verify(jdbcTemplate).update(startsWith("INSERT INTO inventory_checkpoints"), any(Timestamp.class));
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("Should skip the daily checkpoint when one was taken today")
+    @SuppressWarnings("unchecked")
+    void shouldSkipDailyCheckpointTakenToday() {
+        // Arrange
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class), any(Object[].class))).thenReturn(true);
+
+        // Act
+        stockAsOfService.takeDailyCheckpoint();
+
+        // Assert
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    // a connection of its own for the locks, answering every boolean query with locked
+    private Statement lockConnection(Connection connection, boolean locked) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, false, true, false);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(1);
+        when(resultSet.getBoolean(1)).thenReturn(locked);
+        return statement;
+    }
+
+    @Test
+    @DisplayName("Should hold the inventories lock on PostgreSQL only until the snapshot is taken")
+    @SuppressWarnings("unchecked")
+    void shouldReleaseInventoriesLockBeforeCopyingOnPostgres() throws SQLException {
+        // Arrange
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        Connection connection = mock(Connection.class);
+        Statement statement = lockConnection(connection, true);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(3);
+
+        // Act
+        int rows = stockAsOfService.takeCheckpoint();
+
+        // Assert
+        assertThat(rows).isEqualTo(3);
+        InOrder order = inOrder(movementLedger, statement, jdbcTemplate, connection);
+        order.verify(movementLedger).flush();
+        order.verify(statement).executeQuery(StockAsOfService.TRY_LOCK_SQL);
+        order.verify(statement).execute("LOCK TABLE inventories IN SHARE MODE");
+        order.verify(jdbcTemplate).queryForObject("SELECT 1", Integer.class);
+        order.verify(connection).commit();
+        order.verify(jdbcTemplate).update(startsWith("INSERT INTO inventory_checkpoints"), any(Timestamp.class));
+        order.verify(statement).executeQuery(StockAsOfService.UNLOCK_SQL);
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().getIsolationLevel()).isEqualTo(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Test
+    @DisplayName("Should leave the checkpoint to the instance already taking one on PostgreSQL")
+    @SuppressWarnings("unchecked")
+    void shouldSkipCheckpointTakenByAnotherInstance() throws SQLException {
+        // Arrange
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        Statement statement = lockConnection(mock(Connection.class), false);
+
+        // Act & Assert
+        stockAsOfService.takeDailyCheckpoint();
+        assertThatThrownBy(() -> stockAsOfService.takeCheckpoint())
+                .isInstanceOf(IllegalStateException.class);
+        verify(statement, never()).execute(anyString());
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+}
@@ -0,0 +1,163 @@
+package com.logitrack.logitrack.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.logitrack.logitrack.models.Inventory;
+import com.logitrack.logitrack.models.InventoryMovement;
+import com.logitrack.logitrack.models.Product;
+import com.logitrack.logitrack.models.Warehouse;
+import com.logitrack.logitrack.models.ENUM.MovementType;
+import com.logitrack.logitrack.repositories.InventoryRepository;
+import com.logitrack.logitrack.services.sourcing.FewestSourcesStrategy;
+import com.logitrack.logitrack.services.sourcing.MostStockFirstStrategy;
+import com.logitrack.logitrack.services.sourcing.NearestLocationStrategy;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockSourcingService Tests")
+class StockSourcingServiceTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private MovementLedger movementLedger;
+
+    private StockSourcingService stockSourcingService;
+
+    private Product product;
+    private Warehouse destination;
+    private Warehouse near;
+    private Warehouse far;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        stockSourcingService = new StockSourcingService(inventoryRepository, movementLedger,
+                List.of(new MostStockFirstStrategy(), new FewestSourcesStrategy(), new NearestLocationStrategy()));
+        ReflectionTestUtils.setField(stockSourcingService, "strategyName", "most-stock");
+        stockSourcingService.resolveStrategy();
+
+        productId = UUID.randomUUID();
+        product = Product.builder().id(productId).name("Test Product").build();
+        destination = Warehouse.builder().id(UUID.randomUUID()).location("Casablanca").build();
+        near = Warehouse.builder().id(UUID.randomUUID()).location("casablanca ").build();
+        far = Warehouse.builder().id(UUID.randomUUID()).location("Tangier").build();
+    }
+
+    private Inventory inventory(Warehouse warehouse, int onHand, int reserved) {
+        return Inventory.builder()
+                .id(UUID.randomUUID())
+                .product(product)
+                .warehouse(warehouse)
+                .qtyOnHand(onHand)
+                .qtyReserved(reserved)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should return full quantity when no warehouse has stock")
+    void shouldReturnFullQuantityWithoutCandidates() {
+        when(inventoryRepository.findSourcingCandidates(productId, destination.getId())).thenReturn(List.of());
+
+        Integer remaining = stockSourcingService.transferToWarehouse(destination, productId, 10);
+
+        assertThat(remaining).isEqualTo(10);
+        verify(inventoryRepository, never()).withdrawIfAvailable(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should withdraw from the largest stock first and reserve in the existing destination inventory")
+    void shouldTransferFromLargestStockFirst() {
+        Inventory small = inventory(near, 5, 0);
+        Inventory large = inventory(far, 40, 10);
+        Inventory destInv = inventory(destination, 0, 0);
+        when(inventoryRepository.findSourcingCandidates(productId, destination.getId())).thenReturn(List.of(small, large));
+        when(inventoryRepository.withdrawIfAvailable(large.getId(), 25)).thenReturn(1);
+        when(inventoryRepository.findByWarehouseIdAndProductId(destination.getId(), productId)).thenReturn(Optional.of(destInv));
+
+        Integer remaining = stockSourcingService.transferToWarehouse(destination, productId, 25);
+
+        assertThat(remaining).isZero();
+        verify(inventoryRepository, never()).withdrawIfAvailable(small.getId(), 5);
+        verify(inventoryRepository).receiveReserved(destInv.getId(), 25);
+        verify(movementLedger).append(argThat((InventoryMovement m) ->
+                m.getInventory() == destInv && m.getType() == MovementType.INBOUND && m.getQuantity() == 25));
+    }
+
+    @Test
+    @DisplayName("Should skip a source whose stock was taken concurrently and create the destination inventory with a matching inbound movement")
+    void shouldSkipRacedSourceAndCreateDestination() {
+        Inventory first = inventory(far, 20, 0);
+        Inventory second = inventory(near, 8, 0);
+        when(inventoryRepository.findSourcingCandidates(productId, destination.getId())).thenReturn(List.of(first, second));
+        when(inventoryRepository.withdrawIfAvailable(first.getId(), 15)).thenReturn(0);
+        when(inventoryRepository.withdrawIfAvailable(second.getId(), 8)).thenReturn(1);
+        when(inventoryRepository.findByWarehouseIdAndProductId(destination.getId(), productId)).thenReturn(Optional.empty());
+        when(inventoryRepository.save(any(Inventory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Integer remaining = stockSourcingService.transferToWarehouse(destination, productId, 15);
+
+        assertThat(remaining).isEqualTo(7);
+        verify(inventoryRepository).save(argThat((Inventory inv) ->
+                inv.getWarehouse() == destination && inv.getQtyOnHand() == 8 && inv.getQtyReserved() == 8));
+        verify(movementLedger, times(2)).append(any(InventoryMovement.class));
+        verify(movementLedger).append(argThat((InventoryMovement m) ->
+                m.getInventory() == second && m.getType() == MovementType.OUTBOUND && m.getQuantity() == 8));
+        verify(movementLedger).append(argThat((InventoryMovement m) ->
+                m.getInventory().getWarehouse() == destination && m.getType() == MovementType.INBOUND && m.getQuantity() == 8));
+    }
+
+    @Test
+    @DisplayName("Should fail at startup on an unknown sourcing strategy")
+    void shouldRejectUnknownStrategy() {
+        // Arrange
+        ReflectionTestUtils.setField(stockSourcingService, "strategyName", "cheapest");
+
+        // Act & Assert
+        assertThatThrownBy(() -> stockSourcingService.resolveStrategy())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("Unknown sourcing strategy cheapest");
+    }
+
+    @Test
+    @DisplayName("Fewest-sources strategy should prefer the smallest warehouse that covers the quantity")
+    void fewestSourcesShouldPreferSingleCoveringWarehouse() {
+        Inventory huge = inventory(far, 100, 0);
+        Inventory exact = inventory(near, 12, 0);
+        Inventory tiny = inventory(near, 3, 0);
+
+        List<Inventory> ranked = new FewestSourcesStrategy().rank(destination, List.of(tiny, huge, exact), 10);
+
+        assertThat(ranked).containsExactly(exact, huge, tiny);
+    }
+
+    @Test
+    @DisplayName("Nearest-location strategy should rank warehouses sharing the destination location first")
+    void nearestLocationShouldRankSameLocationFirst() {
+        Inventory farLarge = inventory(far, 100, 0);
+        Inventory nearSmall = inventory(near, 4, 0);
+
+        List<Inventory> ranked = new NearestLocationStrategy().rank(destination, List.of(farLarge, nearSmall), 10);
+
+        assertThat(ranked).containsExactly(nearSmall, farLarge);
+    }
+}
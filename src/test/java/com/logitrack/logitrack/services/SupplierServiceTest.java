@@ -31,6 +31,9 @@ class SupplierServiceTest {
     @Mock
     private SupplierMapper supplierMapper;
 
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
     @InjectMocks
     private SupplierService supplierService;
 
@@ -69,6 +72,7 @@ class SupplierServiceTest {
         assertNotNull(result);
         assertEquals("Test Supplier", result.getName());
         verify(supplierRepository, times(1)).save(any(Supplier.class));
+        verify(cacheInvalidationBus).supplierChanged(supplierId);
     }
 
     @Test
@@ -147,6 +151,7 @@ class SupplierServiceTest {
         assertNotNull(result);
         verify(supplierRepository, times(1)).findById(supplierId);
         verify(supplierRepository, times(1)).save(any(Supplier.class));
+        verify(cacheInvalidationBus).supplierChanged(supplierId);
     }
 
     @Test
@@ -175,6 +180,7 @@ class SupplierServiceTest {
         // Assert
         verify(supplierRepository, times(1)).findById(supplierId);
         verify(supplierRepository, times(1)).delete(any(Supplier.class));
+        verify(cacheInvalidationBus).supplierChanged(supplierId);
     }
 
     @Test
@@ -1,10 +1,13 @@
 package com.logitrack.logitrack.services;
 
+import com.logitrack.logitrack.dtos.Inventory.WareHouseInventoryRespDTO;
 import com.logitrack.logitrack.dtos.Warehouse.WarehouseDTO;
 import com.logitrack.logitrack.dtos.Warehouse.WarehouseRespDTO;
 import com.logitrack.logitrack.mapper.WarehouseMapper;
+import com.logitrack.logitrack.models.Inventory;
 import com.logitrack.logitrack.models.WAREHOUSE_MANAGER;
 import com.logitrack.logitrack.models.Warehouse;
+import com.logitrack.logitrack.repositories.InventoryRepository;
 import com.logitrack.logitrack.repositories.WarehouseManagerRepository;
 import com.logitrack.logitrack.repositories.WarehouseRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +17,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.Collections;
 import java.util.List;
@@ -37,6 +41,21 @@ class WarehouseServiceTest {
     @Mock
     private WarehouseMapper warehouseMapper;
 
+    @Mock
+    private CodeAllocator codeAllocator;
+
+    @Mock
+    private CodeRegistry codeRegistry;
+
+    @Mock
+    private ReferenceDataService referenceDataService;
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
     @InjectMocks
     private WarehouseService warehouseService;
 
@@ -51,6 +70,7 @@ class WarehouseServiceTest {
     void setUp() {
         managerId = UUID.randomUUID();
         warehouseCode = "WH-001";
+        lenient().when(codeRegistry.warehouseCodeMayExist(anyString())).thenReturn(true);
 
         warehouseDTO = WarehouseDTO.builder()
                 .name("Test Warehouse")
@@ -60,6 +80,7 @@ class WarehouseServiceTest {
                 .build();
 
         warehouse = new Warehouse();
+        warehouse.setId(UUID.randomUUID());
         warehouse.setCode(warehouseCode);
         warehouse.setName("Test Warehouse");
 
@@ -93,11 +114,48 @@ class WarehouseServiceTest {
         verify(warehouseRepository, times(1)).save(any(Warehouse.class));
     }
 
+    @Test
+    @DisplayName("Should allocate the code of a new warehouse")
+    void testAddWarehouseAllocatesCode() {
+        // Arrange
+        warehouse.setCode(null);
+        when(warehouseMapper.toEntity(any(WarehouseDTO.class))).thenReturn(warehouse);
+        when(warehouseManagerRepository.findById(managerId)).thenReturn(Optional.of(warehouseManager));
+        when(codeAllocator.nextWarehouseCode()).thenReturn("WH-000012");
+
+        // Act
+        warehouseService.addWarehouse(warehouseDTO);
+
+        // Assert
+        assertEquals("WH-000012", warehouse.getCode());
+        verify(warehouseRepository).save(warehouse);
+        verify(cacheInvalidationBus).warehouseChanged(warehouse.getId(), "WH-000012");
+    }
+
+    @Test
+    @DisplayName("Should take the next code when the allocated one is already taken")
+    void testAddWarehouseRetriesTakenCode() {
+        // Arrange
+        Warehouse retried = Warehouse.builder().name("Retried").build();
+        when(warehouseMapper.toEntity(any(WarehouseDTO.class))).thenReturn(warehouse, retried);
+        when(warehouseManagerRepository.findById(managerId)).thenReturn(Optional.of(warehouseManager));
+        when(codeAllocator.nextWarehouseCode()).thenReturn("WH-000012", "WH-000013");
+        when(warehouseRepository.save(warehouse)).thenThrow(new DataIntegrityViolationException("duplicate code"));
+
+        // Act
+        warehouseService.addWarehouse(warehouseDTO);
+
+        // Assert
+        assertEquals("WH-000013", retried.getCode());
+        assertEquals(warehouseManager, retried.getWarehouse_manager());
+        verify(warehouseRepository).save(retried);
+        verify(cacheInvalidationBus).warehouseChanged(retried.getId(), "WH-000013");
+    }
+
     @Test
     @DisplayName("Should throw exception when manager not found")
     void testAddWarehouseManagerNotFound() {
         // Arrange
-        when(warehouseMapper.toEntity(any(WarehouseDTO.class))).thenReturn(warehouse);
         when(warehouseManagerRepository.findById(managerId)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -112,7 +170,7 @@ class WarehouseServiceTest {
     void testGetAllWarehouses() {
         // Arrange
         List<Warehouse> warehouses = List.of(warehouse);
-        when(warehouseRepository.findAll()).thenReturn(warehouses);
+        when(warehouseRepository.findAllWithInventories()).thenReturn(warehouses);
         when(warehouseMapper.toResponseDTO(any(Warehouse.class))).thenReturn(warehouseRespDTO);
 
         // Act
@@ -121,14 +179,14 @@ class WarehouseServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(warehouseRepository, times(1)).findAll();
+        verify(warehouseRepository, times(1)).findAllWithInventories();
     }
 
     @Test
     @DisplayName("Should return empty list when no warehouses exist")
     void testGetAllWarehousesEmpty() {
         // Arrange
-        when(warehouseRepository.findAll()).thenReturn(Collections.emptyList());
+        when(warehouseRepository.findAllWithInventories()).thenReturn(Collections.emptyList());
 
         // Act
         List<WarehouseRespDTO> result = warehouseService.getAllWarehouses();
@@ -142,8 +200,12 @@ class WarehouseServiceTest {
     @DisplayName("Should get warehouse by code successfully")
     void testGetWarehouseByCode() {
         // Arrange
-        when(warehouseRepository.findByCode(warehouseCode)).thenReturn(Optional.of(warehouse));
+        List<Inventory> inventories = List.of(Inventory.builder().id(UUID.randomUUID()).warehouse(warehouse).build());
+        List<WareHouseInventoryRespDTO> inventoryRespDTOs = List.of(new WareHouseInventoryRespDTO());
+        when(referenceDataService.findWarehouseByCode(warehouseCode)).thenReturn(Optional.of(warehouse));
         when(warehouseMapper.toResponseDTO(any(Warehouse.class))).thenReturn(warehouseRespDTO);
+        when(inventoryRepository.findWithProductByWarehouseId(warehouse.getId())).thenReturn(inventories);
+        when(warehouseMapper.toInventoryResponseDTOs(inventories)).thenReturn(inventoryRespDTOs);
 
         // Act
         WarehouseRespDTO result = warehouseService.getWarehouseByCode(warehouseCode);
@@ -151,14 +213,30 @@ class WarehouseServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(warehouseCode, result.getCode());
-        verify(warehouseRepository, times(1)).findByCode(warehouseCode);
+        assertSame(inventoryRespDTOs, result.getInventories());
+        verify(referenceDataService, times(1)).findWarehouseByCode(warehouseCode);
+    }
+
+    @Test
+    @DisplayName("Should load the inventories from the database on every lookup of a cached warehouse")
+    void testGetWarehouseByCodeLoadsInventoriesEveryCall() {
+        // Arrange
+        when(referenceDataService.findWarehouseByCode(warehouseCode)).thenReturn(Optional.of(warehouse));
+        when(warehouseMapper.toResponseDTO(any(Warehouse.class))).thenReturn(warehouseRespDTO);
+
+        // Act
+        warehouseService.getWarehouseByCode(warehouseCode);
+        warehouseService.getWarehouseByCode(warehouseCode);
+
+        // Assert
+        verify(inventoryRepository, times(2)).findWithProductByWarehouseId(warehouse.getId());
     }
 
     @Test
     @DisplayName("Should throw exception when warehouse not found by code")
     void testGetWarehouseByCodeNotFound() {
         // Arrange
-        when(warehouseRepository.findByCode(warehouseCode)).thenReturn(Optional.empty());
+        when(referenceDataService.findWarehouseByCode(warehouseCode)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> {
@@ -166,6 +244,19 @@ class WarehouseServiceTest {
         });
     }
 
+    @Test
+    @DisplayName("Should not look up a code the registry rules out")
+    void testGetWarehouseByCodeRegistryMiss() {
+        // Arrange
+        when(codeRegistry.warehouseCodeMayExist("WH-999999")).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            warehouseService.getWarehouseByCode("WH-999999");
+        });
+        verifyNoInteractions(warehouseRepository, referenceDataService);
+    }
+
     @Test
     @DisplayName("Should update warehouse successfully")
     void testUpdateWarehouse() {
@@ -181,6 +272,7 @@ class WarehouseServiceTest {
         assertNotNull(result);
         verify(warehouseRepository, times(1)).findByCode(warehouseCode);
         verify(warehouseRepository, times(1)).save(any(Warehouse.class));
+        verify(cacheInvalidationBus).warehouseChanged(warehouse.getId(), warehouseCode, warehouse.getCode());
     }
 
     @Test
@@ -0,0 +1,210 @@
+package com.logitrack.logitrack.statements;
+
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderDTO;
+import com.logitrack.logitrack.dtos.SalesOrder.SalesOrderLine.SalesOrderLineDTO;
+import com.logitrack.logitrack.models.*;
+import com.logitrack.logitrack.models.ENUM.CarrierStatus;
+import com.logitrack.logitrack.models.ENUM.PurchaseOrderStatus;
+import com.logitrack.logitrack.models.ENUM.Role;
+import com.logitrack.logitrack.repositories.*;
+import com.logitrack.logitrack.services.PurchaseOrderService;
+import com.logitrack.logitrack.services.SalesOrderService;
+import com.logitrack.logitrack.services.WarehouseService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upper bounds on the SQL statements each operation issues, checked at several data sizes.
+ * Apart from the guarded UPDATE per reserved line, the bounds do not grow with the number of
+ * lines, orders or warehouses, so a query added inside a loop fails here. Reads are measured
+ * with cold and with warm caches, writes cold.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@DisplayName("SQL statement count")
+class SqlStatementCountTest {
+
+    @Autowired private SalesOrderService salesOrderService;
+    @Autowired private PurchaseOrderService purchaseOrderService;
+    @Autowired private WarehouseService warehouseService;
+    @Autowired private ClientRepository clientRepository;
+    @Autowired private WarehouseRepository warehouseRepository;
+    @Autowired private WarehouseManagerRepository warehouseManagerRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private InventoryRepository inventoryRepository;
+    @Autowired private CarrierRepository carrierRepository;
+    @Autowired private SupplierRepository supplierRepository;
+    @Autowired private PurchaseOrderRepository purchaseOrderRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private CacheManager cacheManager;
+
+    private StatementCounter statements;
+    private String run;
+
+    @BeforeEach
+    void setUp() {
+        statements = new StatementCounter(entityManagerFactory, cacheManager);
+        run = UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @ParameterizedTest(name = "{0} lines")
+    @ValueSource(ints = {1, 10, 50})
+    @DisplayName("createSalesOrder issues at most 6 statements")
+    void createSalesOrder(int lines) {
+        SalesOrderDTO order = orderOf(stockedWarehouse(lines));
+
+        statements.evictCaches();
+        long count = statements.count(() -> salesOrderService.createSalesOrder(order));
+
+        // client, warehouse, availability, products, then the order and its lines as batches
+        assertThat(count).isLessThanOrEqualTo(6);
+    }
+
+    @ParameterizedTest(name = "{0} lines")
+    @ValueSource(ints = {1, 10, 50})
+    @DisplayName("reserveSalesOrder issues at most 2 statements plus one per line")
+    void reserveSalesOrder(int lines) {
+        UUID id = UUID.fromString(salesOrderService.createSalesOrder(orderOf(stockedWarehouse(lines))).getId());
+
+        statements.evictCaches();
+        long count = statements.count(() -> salesOrderService.reserveSalesOrder(id));
+
+        // the order, one guarded UPDATE per line, and the status update
+        assertThat(count).isLessThanOrEqualTo(2 + lines);
+    }
+
+    @ParameterizedTest(name = "{0} lines")
+    @ValueSource(ints = {1, 10, 50})
+    @DisplayName("shipSalesOrder issues at most 9 statements")
+    void shipSalesOrder(int lines) {
+        UUID id = UUID.fromString(salesOrderService.createSalesOrder(orderOf(stockedWarehouse(lines))).getId());
+        salesOrderService.reserveSalesOrder(id);
+        UUID carrierId = carrier().getId();
+
+        statements.evictCaches();
+        long count = statements.count(() -> salesOrderService.shipSalesOrder(id, carrierId));
+
+        assertThat(count).isLessThanOrEqualTo(9);
+    }
+
+    @ParameterizedTest(name = "{0} orders")
+    @ValueSource(ints = {1, 10, 50})
+    @DisplayName("getAllSalesOrders issues at most 2 statements")
+    void getAllSalesOrders(int orders) {
+        Stock stock = stockedWarehouse(3);
+        for (int i = 0; i < orders; i++) {
+            salesOrderService.createSalesOrder(orderOf(stock));
+        }
+
+        long count = statements.countColdAndWarm(() -> salesOrderService.getAllSalesOrders());
+
+        // the keyset page, then the lines of its orders
+        assertThat(count).isLessThanOrEqualTo(2);
+    }
+
+    @ParameterizedTest(name = "{0} lines")
+    @ValueSource(ints = {1, 10, 50})
+    @DisplayName("parchaseOrderStatusUpdate to RECEIVED issues at most 8 statements")
+    void receivePurchaseOrder(int lines) {
+        Stock stock = stockedWarehouse(lines);
+        PurchaseOrder purchaseOrder = PurchaseOrder.builder()
+                .warehouse(stock.warehouse())
+                .supplier(supplierRepository.save(Supplier.builder().name("supplier " + run).build()))
+                .status(PurchaseOrderStatus.CREATED)
+                .expectedDelivery(LocalDateTime.now().plusDays(7))
+                .build();
+        // every other product has no inventory row yet, so receiving creates some and updates the rest
+        for (int i = 0; i < lines; i++) {
+            Product product = i % 2 == 0 ? stock.products().get(i) : product("PO-" + i);
+            purchaseOrder.getLines().add(PurchaseOrderLine.builder().purchaseOrder(purchaseOrder).product(product)
+                    .quantity(5).unitPrice(BigDecimal.TEN).build());
+        }
+        UUID id = purchaseOrderRepository.save(purchaseOrder).getId();
+
+        statements.evictCaches();
+        long count = statements.count(() -> purchaseOrderService.parchaseOrderStatusUpdate(id, PurchaseOrderStatus.RECEIVED));
+
+        assertThat(count).isLessThanOrEqualTo(8);
+    }
+
+    @ParameterizedTest(name = "{0} warehouses")
+    @ValueSource(ints = {1, 10, 50})
+    @DisplayName("getAllWarehouses issues one statement")
+    void getAllWarehouses(int warehouses) {
+        for (int i = 0; i < warehouses; i++) {
+            WAREHOUSE_MANAGER manager = warehouseManagerRepository.save(WAREHOUSE_MANAGER.builder()
+                    .name("manager " + i).email("manager-" + run + "-" + i + "@logitrack.test")
+                    .passwordHash("x").role(Role.WAREHOUSE_MANAGER).active(true).build());
+            warehouseRepository.save(Warehouse.builder().name("warehouse " + i).code("WH-" + run + "-" + i)
+                    .location("test").active(true).warehouse_manager(manager).build());
+        }
+
+        long count = statements.countColdAndWarm(() -> warehouseService.getAllWarehouses());
+
+        assertThat(count).isLessThanOrEqualTo(1);
+    }
+
+    private record Stock(Client client, Warehouse warehouse, List<Product> products) {
+    }
+
+    private Stock stockedWarehouse(int products) {
+        Client client = clientRepository.save(Client.builder().name("client " + run)
+                .email("client-" + run + "-" + UUID.randomUUID() + "@logitrack.test")
+                .passwordHash("x").role(Role.CLIENT).active(true).build());
+        Warehouse warehouse = warehouseRepository.save(Warehouse.builder().name("warehouse " + run)
+                .code("WH-" + run + "-" + UUID.randomUUID().toString().substring(0, 8)).location("test").active(true).build());
+        List<Product> stocked = new ArrayList<>();
+        for (int i = 0; i < products; i++) {
+            Product product = product("SO-" + i);
+            inventoryRepository.save(Inventory.builder().product(product).warehouse(warehouse)
+                    .qtyOnHand(1_000).qtyReserved(0).build());
+            stocked.add(product);
+        }
+        return new Stock(client, warehouse, stocked);
+    }
+
+    private Product product(String sku) {
+        return productRepository.save(Product.builder().name(sku).sku(sku + "-" + run + "-" + UUID.randomUUID().toString().substring(0, 8))
+                .active(true).build());
+    }
+
+    private Carrier carrier() {
+        return carrierRepository.save(Carrier.builder().code("CR-" + run).name("carrier " + run)
+                .status(CarrierStatus.ACTIVE).maxDailyCapacity(Integer.MAX_VALUE).currentDailyShipments(0)
+                .cutOffTime(LocalTime.MAX).baseShippingRate(BigDecimal.ZERO).build());
+    }
+
+    private SalesOrderDTO orderOf(Stock stock) {
+        SalesOrderDTO order = new SalesOrderDTO();
+        order.setClientId(stock.client().getId());
+        order.setWarehouseId(stock.warehouse().getId());
+        List<SalesOrderLineDTO> lines = new ArrayList<>();
+        for (Product product : stock.products()) {
+            SalesOrderLineDTO line = new SalesOrderLineDTO();
+            line.setProductId(product.getId());
+            line.setQuantity(1);
+            line.setUnitPrice(BigDecimal.ONE);
+            lines.add(line);
+        }
+        order.setLines(lines);
+        return order;
+    }
+}
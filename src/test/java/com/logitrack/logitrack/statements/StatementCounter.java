@@ -0,0 +1,53 @@
+package com.logitrack.logitrack.statements;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Counts the JDBC statements Hibernate prepares while an operation runs. A JDBC batch is
+ * prepared once, so batched inserts and updates count once however many rows they write,
+ * while a query issued in a loop counts once per iteration.
+ */
+public class StatementCounter {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheManager cacheManager;
+    private final Statistics statistics;
+
+    public StatementCounter(EntityManagerFactory entityManagerFactory, CacheManager cacheManager) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheManager = cacheManager;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            throw new IllegalStateException("Hibernate statistics are disabled; set hibernate.generate_statistics=true.");
+        }
+    }
+
+    /**
+     * Empties the second-level cache and the application caches, so the next operation
+     * pays for every lookup a cold instance would.
+     */
+    public void evictCaches() {
+        entityManagerFactory.getCache().evictAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    public long count(Runnable operation) {
+        long before = statistics.getPrepareStatementCount();
+        operation.run();
+        return statistics.getPrepareStatementCount() - before;
+    }
+
+    /**
+     * Counts the operation with cold caches, then again with the caches it just warmed,
+     * and returns the larger of the two.
+     */
+    public long countColdAndWarm(Runnable operation) {
+        evictCaches();
+        long cold = count(operation);
+        long warm = count(operation);
+        return Math.max(cold, warm);
+    }
+}